@@ -38,6 +38,7 @@ import static io.trino.plugin.base.session.PropertyMetadataUtil.dataSizeProperty
 import static io.trino.plugin.base.session.PropertyMetadataUtil.durationProperty;
 import static io.trino.spi.StandardErrorCode.INVALID_SESSION_PROPERTY;
 import static io.trino.spi.session.PropertyMetadata.booleanProperty;
+import static io.trino.spi.session.PropertyMetadata.doubleProperty;
 import static io.trino.spi.session.PropertyMetadata.enumProperty;
 import static io.trino.spi.session.PropertyMetadata.integerProperty;
 import static io.trino.spi.session.PropertyMetadata.stringProperty;
@@ -74,12 +75,15 @@ public final class SystemSessionProperties
     public static final String EXECUTION_POLICY = "execution_policy";
     public static final String DICTIONARY_AGGREGATION = "dictionary_aggregation";
     public static final String PLAN_WITH_TABLE_NODE_PARTITIONING = "plan_with_table_node_partitioning";
+    public static final String MERGE_JOIN_ENABLED = "merge_join_enabled";
+    public static final String RANGE_JOIN_ENABLED = "range_join_enabled";
     public static final String SPATIAL_JOIN = "spatial_join";
     public static final String SPATIAL_PARTITIONING_TABLE_NAME = "spatial_partitioning_table_name";
     public static final String COLOCATED_JOIN = "colocated_join";
     public static final String CONCURRENT_LIFESPANS_PER_NODE = "concurrent_lifespans_per_task";
     public static final String JOIN_REORDERING_STRATEGY = "join_reordering_strategy";
     public static final String MAX_REORDERED_JOINS = "max_reordered_joins";
+    public static final String MAX_GREEDY_REORDERED_JOINS = "max_greedy_reordered_joins";
     public static final String INITIAL_SPLITS_PER_NODE = "initial_splits_per_node";
     public static final String SPLIT_CONCURRENCY_ADJUSTMENT_INTERVAL = "split_concurrency_adjustment_interval";
     public static final String OPTIMIZE_METADATA_QUERIES = "optimize_metadata_queries";
@@ -95,10 +99,15 @@ public final class SystemSessionProperties
     public static final String ENABLE_INTERMEDIATE_AGGREGATIONS = "enable_intermediate_aggregations";
     public static final String PUSH_AGGREGATION_THROUGH_OUTER_JOIN = "push_aggregation_through_outer_join";
     public static final String PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN = "push_partial_aggregation_through_join";
+    public static final String PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN_MAX_OUTPUT_RATIO = "push_partial_aggregation_through_join_max_output_ratio";
     public static final String PARSE_DECIMAL_LITERALS_AS_DOUBLE = "parse_decimal_literals_as_double";
     public static final String FORCE_SINGLE_NODE_OUTPUT = "force_single_node_output";
     public static final String FILTER_AND_PROJECT_MIN_OUTPUT_PAGE_SIZE = "filter_and_project_min_output_page_size";
     public static final String FILTER_AND_PROJECT_MIN_OUTPUT_PAGE_ROW_COUNT = "filter_and_project_min_output_page_row_count";
+    public static final String FILTER_AND_PROJECT_ELIMINATE_COMMON_SUBEXPRESSIONS = "filter_and_project_eliminate_common_subexpressions";
+    public static final String FILTER_ADAPTIVE_CONJUNCT_ORDERING = "filter_adaptive_conjunct_ordering";
+    public static final String FILTER_COLUMNAR_EVALUATION = "filter_columnar_evaluation";
+    public static final String PROJECTION_COLUMNAR_EVALUATION = "projection_columnar_evaluation";
     public static final String DISTRIBUTED_SORT = "distributed_sort";
     public static final String MAX_RECURSION_DEPTH = "max_recursion_depth";
     public static final String USE_MARK_DISTINCT = "use_mark_distinct";
@@ -106,6 +115,7 @@ public final class SystemSessionProperties
     public static final String OPTIMIZE_TOP_N_RANKING = "optimize_top_n_ranking";
     public static final String MAX_GROUPING_SETS = "max_grouping_sets";
     public static final String STATISTICS_CPU_TIMER_ENABLED = "statistics_cpu_timer_enabled";
+    public static final String PER_OPERATOR_ALLOCATION_TRACKING_ENABLED = "per_operator_allocation_tracking_enabled";
     public static final String ENABLE_STATS_CALCULATOR = "enable_stats_calculator";
     public static final String COLLECT_PLAN_STATISTICS_FOR_ALL_QUERIES = "collect_plan_statistics_for_all_queries";
     public static final String IGNORE_STATS_CALCULATOR_FAILURES = "ignore_stats_calculator_failures";
@@ -305,6 +315,16 @@ public final class SystemSessionProperties
                         "Adapt plan to pre-partitioned tables",
                         featuresConfig.isPlanWithTableNodePartitioning(),
                         false),
+                booleanProperty(
+                        MERGE_JOIN_ENABLED,
+                        "Use a sort-merge join for equi joins executed in a single stream",
+                        featuresConfig.isMergeJoinEnabled(),
+                        false),
+                booleanProperty(
+                        RANGE_JOIN_ENABLED,
+                        "Use a range index for joins on a probe value between two build side columns",
+                        featuresConfig.isRangeJoinEnabled(),
+                        false),
                 enumProperty(
                         JOIN_REORDERING_STRATEGY,
                         "Join reordering strategy",
@@ -326,6 +346,12 @@ public final class SystemSessionProperties
                             return intValue;
                         },
                         value -> value),
+                integerProperty(
+                        MAX_GREEDY_REORDERED_JOINS,
+                        "The maximum number of joins to reorder greedily when there are more joins than max_reordered_joins",
+                        featuresConfig.getMaxGreedyReorderedJoins(),
+                        value -> validateIntegerValue(value, MAX_GREEDY_REORDERED_JOINS, 0, false),
+                        false),
                 booleanProperty(
                         COLOCATED_JOIN,
                         "Experimental: Use a colocated join when possible",
@@ -401,6 +427,12 @@ public final class SystemSessionProperties
                         "Push partial aggregations below joins",
                         featuresConfig.isPushPartialAggregationThoughJoin(),
                         false),
+                doubleProperty(
+                        PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN_MAX_OUTPUT_RATIO,
+                        "Push partial aggregation below a join only when it is estimated to reduce the number of rows to at most this fraction",
+                        featuresConfig.getPushPartialAggregationThroughJoinMaxOutputRatio(),
+                        value -> validateDoubleRange(value, PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN_MAX_OUTPUT_RATIO, 0.0, 1.0),
+                        false),
                 booleanProperty(
                         PARSE_DECIMAL_LITERALS_AS_DOUBLE,
                         "Parse decimal literals as DOUBLE instead of DECIMAL",
@@ -421,6 +453,26 @@ public final class SystemSessionProperties
                         "Experimental: Minimum output page row count for filter and project operators",
                         featuresConfig.getFilterAndProjectMinOutputPageRowCount(),
                         false),
+                booleanProperty(
+                        FILTER_AND_PROJECT_ELIMINATE_COMMON_SUBEXPRESSIONS,
+                        "Evaluate subexpressions shared by the filter and projections once per page",
+                        featuresConfig.isFilterAndProjectEliminateCommonSubexpressions(),
+                        false),
+                booleanProperty(
+                        FILTER_ADAPTIVE_CONJUNCT_ORDERING,
+                        "Reorder the conjuncts of filters at runtime by their observed selectivity and cost",
+                        featuresConfig.isFilterAdaptiveConjunctOrdering(),
+                        false),
+                booleanProperty(
+                        FILTER_COLUMNAR_EVALUATION,
+                        "Evaluate simple filters on integral columns column at a time",
+                        featuresConfig.isFilterColumnarEvaluation(),
+                        false),
+                booleanProperty(
+                        PROJECTION_COLUMNAR_EVALUATION,
+                        "Evaluate arithmetic projections on bigint and double columns a batch of positions at a time",
+                        featuresConfig.isProjectionColumnarEvaluation(),
+                        false),
                 booleanProperty(
                         DISTRIBUTED_SORT,
                         "Parallelize sort across multiple nodes",
@@ -460,6 +512,11 @@ public final class SystemSessionProperties
                         "Experimental: Enable cpu time tracking for automatic column statistics collection on write",
                         taskManagerConfig.isStatisticsCpuTimerEnabled(),
                         false),
+                booleanProperty(
+                        PER_OPERATOR_ALLOCATION_TRACKING_ENABLED,
+                        "Experimental: Enable tracking of bytes allocated by each operator",
+                        taskManagerConfig.isPerOperatorAllocationTrackingEnabled(),
+                        false),
                 booleanProperty(
                         ENABLE_STATS_CALCULATOR,
                         "Enable statistics calculator",
@@ -717,6 +774,16 @@ public final class SystemSessionProperties
         return session.getSystemProperty(PLAN_WITH_TABLE_NODE_PARTITIONING, Boolean.class);
     }
 
+    public static boolean isMergeJoinEnabled(Session session)
+    {
+        return session.getSystemProperty(MERGE_JOIN_ENABLED, Boolean.class);
+    }
+
+    public static boolean isRangeJoinEnabled(Session session)
+    {
+        return session.getSystemProperty(RANGE_JOIN_ENABLED, Boolean.class);
+    }
+
     public static JoinReorderingStrategy getJoinReorderingStrategy(Session session)
     {
         return session.getSystemProperty(JOIN_REORDERING_STRATEGY, JoinReorderingStrategy.class);
@@ -727,6 +794,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(MAX_REORDERED_JOINS, Integer.class);
     }
 
+    public static int getMaxGreedyReorderedJoins(Session session)
+    {
+        return session.getSystemProperty(MAX_GREEDY_REORDERED_JOINS, Integer.class);
+    }
+
     public static boolean isColocatedJoinEnabled(Session session)
     {
         return session.getSystemProperty(COLOCATED_JOIN, Boolean.class);
@@ -836,6 +908,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN, Boolean.class);
     }
 
+    public static double getPushPartialAggregationThroughJoinMaxOutputRatio(Session session)
+    {
+        return session.getSystemProperty(PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN_MAX_OUTPUT_RATIO, Double.class);
+    }
+
     public static boolean isParseDecimalLiteralsAsDouble(Session session)
     {
         return session.getSystemProperty(PARSE_DECIMAL_LITERALS_AS_DOUBLE, Boolean.class);
@@ -856,6 +933,26 @@ public final class SystemSessionProperties
         return session.getSystemProperty(FILTER_AND_PROJECT_MIN_OUTPUT_PAGE_ROW_COUNT, Integer.class);
     }
 
+    public static boolean isFilterAndProjectEliminateCommonSubexpressions(Session session)
+    {
+        return session.getSystemProperty(FILTER_AND_PROJECT_ELIMINATE_COMMON_SUBEXPRESSIONS, Boolean.class);
+    }
+
+    public static boolean isFilterAdaptiveConjunctOrdering(Session session)
+    {
+        return session.getSystemProperty(FILTER_ADAPTIVE_CONJUNCT_ORDERING, Boolean.class);
+    }
+
+    public static boolean isFilterColumnarEvaluation(Session session)
+    {
+        return session.getSystemProperty(FILTER_COLUMNAR_EVALUATION, Boolean.class);
+    }
+
+    public static boolean isProjectionColumnarEvaluation(Session session)
+    {
+        return session.getSystemProperty(PROJECTION_COLUMNAR_EVALUATION, Boolean.class);
+    }
+
     public static boolean useMarkDistinct(Session session)
     {
         return session.getSystemProperty(USE_MARK_DISTINCT, Boolean.class);
@@ -905,6 +1002,15 @@ public final class SystemSessionProperties
         }
     }
 
+    private static void validateDoubleRange(double value, String property, double lowerBoundIncluded, double upperBoundIncluded)
+    {
+        if (!(value >= lowerBoundIncluded && value <= upperBoundIncluded)) {
+            throw new TrinoException(
+                    INVALID_SESSION_PROPERTY,
+                    format("%s must be in the range [%s, %s]: %s", property, lowerBoundIncluded, upperBoundIncluded, value));
+        }
+    }
+
     private static Integer validateNullablePositiveIntegerValue(Object value, String property)
     {
         return validateIntegerValue(value, property, 1, true);
@@ -932,6 +1038,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(STATISTICS_CPU_TIMER_ENABLED, Boolean.class);
     }
 
+    public static boolean isPerOperatorAllocationTrackingEnabled(Session session)
+    {
+        return session.getSystemProperty(PER_OPERATOR_ALLOCATION_TRACKING_ENABLED, Boolean.class);
+    }
+
     public static boolean isEnableStatsCalculator(Session session)
     {
         return session.getSystemProperty(ENABLE_STATS_CALCULATOR, Boolean.class);
@@ -46,11 +46,13 @@ public final class ComparisonStatsCalculator
             case NOT_EQUAL:
                 return estimateExpressionNotEqualToLiteral(inputStatistics, expressionStatistics, expressionSymbol, literalValue);
             case LESS_THAN:
+                return estimateExpressionLessThanLiteral(inputStatistics, expressionStatistics, expressionSymbol, literalValue, false);
             case LESS_THAN_OR_EQUAL:
-                return estimateExpressionLessThanLiteral(inputStatistics, expressionStatistics, expressionSymbol, literalValue);
+                return estimateExpressionLessThanLiteral(inputStatistics, expressionStatistics, expressionSymbol, literalValue, true);
             case GREATER_THAN:
+                return estimateExpressionGreaterThanLiteral(inputStatistics, expressionStatistics, expressionSymbol, literalValue, false);
             case GREATER_THAN_OR_EQUAL:
-                return estimateExpressionGreaterThanLiteral(inputStatistics, expressionStatistics, expressionSymbol, literalValue);
+                return estimateExpressionGreaterThanLiteral(inputStatistics, expressionStatistics, expressionSymbol, literalValue, true);
             case IS_DISTINCT_FROM:
                 return PlanNodeStatsEstimate.unknown();
         }
@@ -70,7 +72,7 @@ public final class ComparisonStatsCalculator
         else {
             filterRange = new StatisticRange(NEGATIVE_INFINITY, POSITIVE_INFINITY, 1);
         }
-        return estimateFilterRange(inputStatistics, expressionStatistics, expressionSymbol, filterRange);
+        return estimateFilterRange(inputStatistics, expressionStatistics, expressionSymbol, filterRange, true, true);
     }
 
     private static PlanNodeStatsEstimate estimateExpressionNotEqualToLiteral(
@@ -89,7 +91,8 @@ public final class ComparisonStatsCalculator
             filterRange = new StatisticRange(NEGATIVE_INFINITY, POSITIVE_INFINITY, 1);
         }
         StatisticRange intersectRange = expressionRange.intersect(filterRange);
-        double filterFactor = 1 - expressionRange.overlapPercentWith(intersectRange);
+        double filterFactor = 1 - HistogramEstimator.estimateRangeFraction(expressionStatistics, filterRange.getLow(), filterRange.getHigh())
+                .orElseGet(() -> expressionRange.overlapPercentWith(intersectRange));
 
         PlanNodeStatsEstimate.Builder estimate = PlanNodeStatsEstimate.buildFrom(inputStatistics);
         estimate.setOutputRowCount(filterFactor * (1 - expressionStatistics.getNullsFraction()) * inputStatistics.getOutputRowCount());
@@ -107,32 +110,37 @@ public final class ComparisonStatsCalculator
             PlanNodeStatsEstimate inputStatistics,
             SymbolStatsEstimate expressionStatistics,
             Optional<Symbol> expressionSymbol,
-            OptionalDouble literalValue)
+            OptionalDouble literalValue,
+            boolean inclusive)
     {
         StatisticRange filterRange = new StatisticRange(NEGATIVE_INFINITY, literalValue.orElse(POSITIVE_INFINITY), NaN);
-        return estimateFilterRange(inputStatistics, expressionStatistics, expressionSymbol, filterRange);
+        return estimateFilterRange(inputStatistics, expressionStatistics, expressionSymbol, filterRange, false, inclusive);
     }
 
     private static PlanNodeStatsEstimate estimateExpressionGreaterThanLiteral(
             PlanNodeStatsEstimate inputStatistics,
             SymbolStatsEstimate expressionStatistics,
             Optional<Symbol> expressionSymbol,
-            OptionalDouble literalValue)
+            OptionalDouble literalValue,
+            boolean inclusive)
     {
         StatisticRange filterRange = new StatisticRange(literalValue.orElse(NEGATIVE_INFINITY), POSITIVE_INFINITY, NaN);
-        return estimateFilterRange(inputStatistics, expressionStatistics, expressionSymbol, filterRange);
+        return estimateFilterRange(inputStatistics, expressionStatistics, expressionSymbol, filterRange, inclusive, false);
     }
 
     private static PlanNodeStatsEstimate estimateFilterRange(
             PlanNodeStatsEstimate inputStatistics,
             SymbolStatsEstimate expressionStatistics,
             Optional<Symbol> expressionSymbol,
-            StatisticRange filterRange)
+            StatisticRange filterRange,
+            boolean lowInclusive,
+            boolean highInclusive)
     {
         StatisticRange expressionRange = StatisticRange.from(expressionStatistics);
         StatisticRange intersectRange = expressionRange.intersect(filterRange);
 
-        double filterFactor = expressionRange.overlapPercentWith(intersectRange);
+        double filterFactor = HistogramEstimator.estimateRangeFraction(expressionStatistics, filterRange.getLow(), lowInclusive, filterRange.getHigh(), highInclusive)
+                .orElseGet(() -> expressionRange.overlapPercentWith(intersectRange));
 
         PlanNodeStatsEstimate estimate = inputStatistics.mapOutputRowCount(rowCount -> filterFactor * (1 - expressionStatistics.getNullsFraction()) * rowCount);
         if (expressionSymbol.isPresent()) {
@@ -141,6 +149,7 @@ public final class ComparisonStatsCalculator
                             .setAverageRowSize(expressionStatistics.getAverageRowSize())
                             .setStatisticsRange(intersectRange)
                             .setNullsFraction(0.0)
+                            .setHistogram(expressionStatistics.getHistogram())
                             .build();
             estimate = estimate.mapSymbolColumnStatistics(expressionSymbol.get(), oldStats -> symbolNewEstimate);
         }
@@ -189,7 +198,8 @@ public final class ComparisonStatsCalculator
         double nullsFilterFactor = (1 - leftExpressionStatistics.getNullsFraction()) * (1 - rightExpressionStatistics.getNullsFraction());
         double leftNdv = leftExpressionRange.getDistinctValuesCount();
         double rightNdv = rightExpressionRange.getDistinctValuesCount();
-        double filterFactor = 1.0 / max(leftNdv, rightNdv, 1);
+        double filterFactor = HistogramEstimator.estimateEqualityFraction(leftExpressionStatistics, rightExpressionStatistics)
+                .orElseGet(() -> 1.0 / max(leftNdv, rightNdv, 1));
         double retainedNdv = min(leftNdv, rightNdv);
 
         PlanNodeStatsEstimate.Builder estimate = PlanNodeStatsEstimate.buildFrom(inputStatistics)
@@ -217,8 +227,8 @@ public final class ComparisonStatsCalculator
     {
         double nullsFilterFactor = (1 - leftExpressionStatistics.getNullsFraction()) * (1 - rightExpressionStatistics.getNullsFraction());
         PlanNodeStatsEstimate inputNullsFiltered = inputStatistics.mapOutputRowCount(size -> size * nullsFilterFactor);
-        SymbolStatsEstimate leftNullsFiltered = leftExpressionStatistics.mapNullsFraction(nullsFraction -> 0.0);
-        SymbolStatsEstimate rightNullsFiltered = rightExpressionStatistics.mapNullsFraction(nullsFraction -> 0.0);
+        SymbolStatsEstimate leftNullsFiltered = leftExpressionStatistics.withoutNulls();
+        SymbolStatsEstimate rightNullsFiltered = rightExpressionStatistics.withoutNulls();
         PlanNodeStatsEstimate equalityStats = estimateExpressionEqualToExpression(
                 inputNullsFiltered,
                 leftNullsFiltered,
@@ -254,7 +254,7 @@ public class FilterStatsCalculator
                 SymbolStatsEstimate symbolStats = input.getSymbolStatistics(symbol);
                 PlanNodeStatsEstimate.Builder result = PlanNodeStatsEstimate.buildFrom(input);
                 result.setOutputRowCount(input.getOutputRowCount() * (1 - symbolStats.getNullsFraction()));
-                result.addSymbolStatistics(symbol, symbolStats.mapNullsFraction(x -> 0.0));
+                result.addSymbolStatistics(symbol, symbolStats.withoutNulls());
                 return result.build();
             }
             return PlanNodeStatsEstimate.unknown();
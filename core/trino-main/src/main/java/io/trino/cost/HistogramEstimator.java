@@ -0,0 +1,225 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.cost;
+
+import io.trino.spi.statistics.Histogram;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+import static java.lang.Double.NaN;
+import static java.lang.Double.isFinite;
+import static java.lang.Double.isNaN;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Estimates selectivities from column histograms. A histogram describes the values of a column
+ * before any filters were applied, so the estimates are conditioned on the current range of the column.
+ * All methods return an empty result when the histogram cannot be used, in which case callers fall back
+ * to the uniform distribution estimates.
+ */
+public final class HistogramEstimator
+{
+    private HistogramEstimator() {}
+
+    /**
+     * Fraction of the non-null values of the column which fall into the given closed range.
+     */
+    public static OptionalDouble estimateRangeFraction(SymbolStatsEstimate statistics, double low, double high)
+    {
+        return estimateRangeFraction(statistics, low, true, high, true);
+    }
+
+    /**
+     * Fraction of the non-null values of the column which fall into the given range. A most common
+     * value sitting on an open bound of the range is excluded.
+     */
+    public static OptionalDouble estimateRangeFraction(SymbolStatsEstimate statistics, double low, boolean lowInclusive, double high, boolean highInclusive)
+    {
+        if (statistics.getHistogram().isEmpty() || isNaN(low) || isNaN(high) || (!isFinite(low) && !isFinite(high))) {
+            return OptionalDouble.empty();
+        }
+        Histogram histogram = statistics.getHistogram().get();
+        double currentLow = statistics.getLowValue();
+        double currentHigh = statistics.getHighValue();
+        double ndv = statistics.getDistinctValuesCount();
+
+        double currentFraction = valuesFraction(histogram, ndv, currentLow, true, currentHigh, true);
+        if (!(currentFraction > 0)) {
+            return OptionalDouble.empty();
+        }
+        // the current range is closed, so a bound replaced by it becomes inclusive
+        double filteredLow = max(low, currentLow);
+        boolean filteredLowInclusive = low < currentLow || lowInclusive;
+        double filteredHigh = min(high, currentHigh);
+        boolean filteredHighInclusive = high > currentHigh || highInclusive;
+        if (filteredLow > filteredHigh || (filteredLow == filteredHigh && !(filteredLowInclusive && filteredHighInclusive))) {
+            return OptionalDouble.of(0);
+        }
+        double filteredFraction = valuesFraction(histogram, ndv, filteredLow, filteredLowInclusive, filteredHigh, filteredHighInclusive);
+        if (isNaN(filteredFraction)) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(min(filteredFraction / currentFraction, 1));
+    }
+
+    /**
+     * Fraction of pairs of non-null values of the two columns which are equal, based on the most
+     * common values of both columns. The remaining values of each column are assumed to be
+     * uniformly distributed over its remaining distinct values.
+     */
+    public static OptionalDouble estimateEqualityFraction(SymbolStatsEstimate left, SymbolStatsEstimate right)
+    {
+        if (left.getHistogram().isEmpty() || right.getHistogram().isEmpty()) {
+            return OptionalDouble.empty();
+        }
+        Histogram leftHistogram = left.getHistogram().get();
+        Histogram rightHistogram = right.getHistogram().get();
+        if (leftHistogram.getMostCommonValues().isEmpty() && rightHistogram.getMostCommonValues().isEmpty()) {
+            return OptionalDouble.empty();
+        }
+
+        double leftFraction = valuesFraction(leftHistogram, left.getDistinctValuesCount(), left.getLowValue(), true, left.getHighValue(), true);
+        double rightFraction = valuesFraction(rightHistogram, right.getDistinctValuesCount(), right.getLowValue(), true, right.getHighValue(), true);
+        if (!(leftFraction > 0) || !(rightFraction > 0)) {
+            return OptionalDouble.empty();
+        }
+
+        // most common values within the current ranges, as fractions of the values within the current ranges
+        double leftCommonFraction = commonValuesFraction(leftHistogram, left.getLowValue(), true, left.getHighValue(), true) / leftFraction;
+        double rightCommonFraction = commonValuesFraction(rightHistogram, right.getLowValue(), true, right.getHighValue(), true) / rightFraction;
+        double leftOtherFraction = max(1 - leftCommonFraction, 0);
+        double rightOtherFraction = max(1 - rightCommonFraction, 0);
+        double leftOtherNdv = otherDistinctValues(leftHistogram, left);
+        double rightOtherNdv = otherDistinctValues(rightHistogram, right);
+        if (isNaN(leftOtherNdv) || isNaN(rightOtherNdv)) {
+            return OptionalDouble.empty();
+        }
+
+        double result = 0;
+        for (Map.Entry<Double, Double> entry : leftHistogram.getMostCommonValues().entrySet()) {
+            double value = entry.getKey();
+            if (!contains(left, value) || !contains(right, value)) {
+                continue;
+            }
+            double leftValueFraction = entry.getValue() / leftFraction;
+            Double rightValueFraction = rightHistogram.getMostCommonValues().get(value);
+            if (rightValueFraction != null) {
+                result += leftValueFraction * rightValueFraction / rightFraction;
+            }
+            else {
+                result += leftValueFraction * rightOtherFraction / rightOtherNdv;
+            }
+        }
+        for (Map.Entry<Double, Double> entry : rightHistogram.getMostCommonValues().entrySet()) {
+            double value = entry.getKey();
+            if (contains(left, value) && contains(right, value) && !leftHistogram.getMostCommonValues().containsKey(value)) {
+                result += entry.getValue() / rightFraction * leftOtherFraction / leftOtherNdv;
+            }
+        }
+        result += leftOtherFraction * rightOtherFraction / max(leftOtherNdv, rightOtherNdv);
+        return OptionalDouble.of(min(result, 1));
+    }
+
+    private static double valuesFraction(Histogram histogram, double ndv, double low, boolean lowInclusive, double high, boolean highInclusive)
+    {
+        if (isNaN(low) || isNaN(high)) {
+            return 0;
+        }
+        if (low == high && !(lowInclusive && highInclusive)) {
+            return 0;
+        }
+        double commonValuesFraction = commonValuesFraction(histogram, low, lowInclusive, high, highInclusive);
+        Double pointFraction = histogram.getMostCommonValues().get(low);
+        if (low == high && pointFraction != null) {
+            return pointFraction;
+        }
+
+        double otherValuesFraction = max(1 - totalCommonValuesFraction(histogram), 0);
+        List<Double> boundaries = histogram.getBucketBoundaries();
+        if (boundaries.isEmpty()) {
+            return commonValuesFraction;
+        }
+        if (low == high) {
+            // a single value which is not among the most common values
+            if (low < boundaries.get(0) || low > boundaries.get(boundaries.size() - 1)) {
+                return 0;
+            }
+            double otherNdv = ndv - histogram.getMostCommonValues().size();
+            if (isNaN(otherNdv)) {
+                return NaN;
+            }
+            return otherValuesFraction / max(otherNdv, 1);
+        }
+
+        int buckets = boundaries.size() - 1;
+        double bucketsFraction = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            double bucketLow = boundaries.get(bucket);
+            double bucketHigh = boundaries.get(bucket + 1);
+            double width = bucketHigh - bucketLow;
+            if (width == 0) {
+                if (inRange(bucketLow, low, lowInclusive, high, highInclusive)) {
+                    bucketsFraction += 1;
+                }
+                continue;
+            }
+            double overlap = min(high, bucketHigh) - max(low, bucketLow);
+            if (overlap > 0) {
+                bucketsFraction += overlap / width;
+            }
+        }
+        return commonValuesFraction + otherValuesFraction * bucketsFraction / buckets;
+    }
+
+    private static double commonValuesFraction(Histogram histogram, double low, boolean lowInclusive, double high, boolean highInclusive)
+    {
+        double fraction = 0;
+        for (Map.Entry<Double, Double> entry : histogram.getMostCommonValues().entrySet()) {
+            if (inRange(entry.getKey(), low, lowInclusive, high, highInclusive)) {
+                fraction += entry.getValue();
+            }
+        }
+        return fraction;
+    }
+
+    private static boolean inRange(double value, double low, boolean lowInclusive, double high, boolean highInclusive)
+    {
+        return (lowInclusive ? low <= value : low < value) && (highInclusive ? value <= high : value < high);
+    }
+
+    private static double totalCommonValuesFraction(Histogram histogram)
+    {
+        double fraction = 0;
+        for (double valueFraction : histogram.getMostCommonValues().values()) {
+            fraction += valueFraction;
+        }
+        return fraction;
+    }
+
+    private static double otherDistinctValues(Histogram histogram, SymbolStatsEstimate statistics)
+    {
+        long commonValues = histogram.getMostCommonValues().keySet().stream()
+                .filter(value -> contains(statistics, value))
+                .count();
+        return max(statistics.getDistinctValuesCount() - commonValues, 1);
+    }
+
+    private static boolean contains(SymbolStatsEstimate statistics, double value)
+    {
+        return statistics.getLowValue() <= value && value <= statistics.getHighValue();
+    }
+}
@@ -81,20 +81,41 @@ public class JoinStatsRule
         PlanNodeStatsEstimate leftStats = sourceStats.getStats(node.getLeft());
         PlanNodeStatsEstimate rightStats = sourceStats.getStats(node.getRight());
         PlanNodeStatsEstimate crossJoinStats = crossJoinStats(node, leftStats, rightStats, types);
+        // the histograms of the sources are used to estimate the join, but do not describe its output,
+        // as the frequencies of the values depend on how many rows each row is matched with
+        return Optional.of(withoutHistograms(computeJoinStats(node, leftStats, rightStats, crossJoinStats, session, types)));
+    }
 
+    private PlanNodeStatsEstimate computeJoinStats(
+            JoinNode node,
+            PlanNodeStatsEstimate leftStats,
+            PlanNodeStatsEstimate rightStats,
+            PlanNodeStatsEstimate crossJoinStats,
+            Session session,
+            TypeProvider types)
+    {
         switch (node.getType()) {
             case INNER:
-                return Optional.of(computeInnerJoinStats(node, crossJoinStats, session, types));
+                return computeInnerJoinStats(node, crossJoinStats, session, types);
             case LEFT:
-                return Optional.of(computeLeftJoinStats(node, leftStats, rightStats, crossJoinStats, session, types));
+                return computeLeftJoinStats(node, leftStats, rightStats, crossJoinStats, session, types);
             case RIGHT:
-                return Optional.of(computeRightJoinStats(node, leftStats, rightStats, crossJoinStats, session, types));
+                return computeRightJoinStats(node, leftStats, rightStats, crossJoinStats, session, types);
             case FULL:
-                return Optional.of(computeFullJoinStats(node, leftStats, rightStats, crossJoinStats, session, types));
+                return computeFullJoinStats(node, leftStats, rightStats, crossJoinStats, session, types);
         }
         throw new IllegalStateException("Unknown join type: " + node.getType());
     }
 
+    private static PlanNodeStatsEstimate withoutHistograms(PlanNodeStatsEstimate stats)
+    {
+        PlanNodeStatsEstimate.Builder result = PlanNodeStatsEstimate.buildFrom(stats);
+        for (Symbol symbol : stats.getSymbolsWithKnownStatistics()) {
+            result.addSymbolStatistics(symbol, buildFrom(stats.getSymbolStatistics(symbol)).build());
+        }
+        return result.build();
+    }
+
     private PlanNodeStatsEstimate computeFullJoinStats(
             JoinNode node,
             PlanNodeStatsEstimate leftStats,
@@ -123,9 +123,11 @@ public class StatsNormalizer
             return SymbolStatsEstimate.zero();
         }
 
+        // normalization does not change the distribution of the values
         return SymbolStatsEstimate.buildFrom(symbolStats)
                 .setDistinctValuesCount(distinctValuesCount)
                 .setNullsFraction(nullsFraction)
+                .setHistogram(symbolStats.getHistogram())
                 .build();
     }
 
@@ -15,8 +15,10 @@ package io.trino.cost;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.trino.spi.statistics.Histogram;
 
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -27,6 +29,7 @@ import static java.lang.Double.POSITIVE_INFINITY;
 import static java.lang.Double.isInfinite;
 import static java.lang.Double.isNaN;
 import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
 
 public class SymbolStatsEstimate
 {
@@ -39,6 +42,9 @@ public class SymbolStatsEstimate
     private final double nullsFraction;
     private final double averageRowSize;
     private final double distinctValuesCount;
+    // distribution of the values before any filters were applied, so estimates must condition it on the current range;
+    // it is not serialized and hence not part of equals and hashCode
+    private final Optional<Histogram> histogram;
 
     public static SymbolStatsEstimate unknown()
     {
@@ -57,6 +63,17 @@ public class SymbolStatsEstimate
             @JsonProperty("nullsFraction") double nullsFraction,
             @JsonProperty("averageRowSize") double averageRowSize,
             @JsonProperty("distinctValuesCount") double distinctValuesCount)
+    {
+        this(lowValue, highValue, nullsFraction, averageRowSize, distinctValuesCount, Optional.empty());
+    }
+
+    public SymbolStatsEstimate(
+            double lowValue,
+            double highValue,
+            double nullsFraction,
+            double averageRowSize,
+            double distinctValuesCount,
+            Optional<Histogram> histogram)
     {
         checkArgument(
                 lowValue <= highValue || (isNaN(lowValue) && isNaN(highValue)),
@@ -79,6 +96,7 @@ public class SymbolStatsEstimate
         checkArgument(distinctValuesCount >= 0 || isNaN(distinctValuesCount), "Distinct values count should be non-negative, got: %s", distinctValuesCount);
         // TODO normalize distinctValuesCount for an empty range (or validate it is already normalized)
         this.distinctValuesCount = distinctValuesCount;
+        this.histogram = requireNonNull(histogram, "histogram is null");
     }
 
     @JsonProperty
@@ -121,6 +139,22 @@ public class SymbolStatsEstimate
         return distinctValuesCount;
     }
 
+    public Optional<Histogram> getHistogram()
+    {
+        return histogram;
+    }
+
+    /**
+     * Removes the nulls, keeping the histogram, since it describes the distribution of the non-null values.
+     */
+    public SymbolStatsEstimate withoutNulls()
+    {
+        return buildFrom(this)
+                .setNullsFraction(0.0)
+                .setHistogram(histogram)
+                .build();
+    }
+
     public SymbolStatsEstimate mapNullsFraction(Function<Double, Double> mappingFunction)
     {
         return buildFrom(this).setNullsFraction(mappingFunction.apply(nullsFraction)).build();
@@ -174,6 +208,8 @@ public class SymbolStatsEstimate
                 .add("nulls", nullsFraction)
                 .add("ndv", distinctValuesCount)
                 .add("rowSize", averageRowSize)
+                .add("histogram", histogram.orElse(null))
+                .omitNullValues()
                 .toString();
     }
 
@@ -182,6 +218,11 @@ public class SymbolStatsEstimate
         return new Builder();
     }
 
+    /**
+     * Copies the statistics except for the histogram, as the frequencies of the values usually change when
+     * the statistics are derived for another plan node, for example after an aggregation or a join. The
+     * histogram has to be set explicitly where the distribution of the values is known to be kept.
+     */
     public static Builder buildFrom(SymbolStatsEstimate other)
     {
         return builder()
@@ -199,6 +240,7 @@ public class SymbolStatsEstimate
         private double nullsFraction = NaN;
         private double averageRowSize = NaN;
         private double distinctValuesCount = NaN;
+        private Optional<Histogram> histogram = Optional.empty();
 
         public Builder setStatisticsRange(StatisticRange range)
         {
@@ -237,9 +279,15 @@ public class SymbolStatsEstimate
             return this;
         }
 
+        public Builder setHistogram(Optional<Histogram> histogram)
+        {
+            this.histogram = requireNonNull(histogram, "histogram is null");
+            return this;
+        }
+
         public SymbolStatsEstimate build()
         {
-            return new SymbolStatsEstimate(lowValue, highValue, nullsFraction, averageRowSize, distinctValuesCount);
+            return new SymbolStatsEstimate(lowValue, highValue, nullsFraction, averageRowSize, distinctValuesCount, histogram);
         }
     }
 }
@@ -27,13 +27,16 @@ import io.trino.operator.PipelineContext;
 import io.trino.operator.TaskContext;
 import io.trino.spi.memory.MemoryPoolId;
 import io.trino.sql.analyzer.FeaturesConfig;
+import io.trino.sql.analyzer.FeaturesConfig.MemoryRevokingOrder;
 
 import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
@@ -44,6 +47,8 @@ import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.SystemSessionProperties.getQueryPriority;
+import static io.trino.sql.analyzer.FeaturesConfig.MemoryRevokingOrder.TASK_CREATION_TIME;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -57,6 +62,7 @@ public class MemoryRevokingScheduler
     private final ScheduledExecutorService taskManagementExecutor;
     private final double memoryRevokingThreshold;
     private final double memoryRevokingTarget;
+    private final MemoryRevokingOrder memoryRevokingOrder;
 
     private final MemoryPoolListener memoryPoolListener = MemoryPoolListener.onMemoryReserved(this::onMemoryReserved);
 
@@ -77,7 +83,8 @@ public class MemoryRevokingScheduler
                 requireNonNull(sqlTaskManager, "sqlTaskManager cannot be null")::getAllTasks,
                 requireNonNull(taskManagementExecutor, "taskManagementExecutor cannot be null").getExecutor(),
                 config.getMemoryRevokingThreshold(),
-                config.getMemoryRevokingTarget());
+                config.getMemoryRevokingTarget(),
+                config.getMemoryRevokingOrder());
     }
 
     @VisibleForTesting
@@ -87,6 +94,18 @@ public class MemoryRevokingScheduler
             ScheduledExecutorService taskManagementExecutor,
             double memoryRevokingThreshold,
             double memoryRevokingTarget)
+    {
+        this(memoryPools, currentTasksSupplier, taskManagementExecutor, memoryRevokingThreshold, memoryRevokingTarget, TASK_CREATION_TIME);
+    }
+
+    @VisibleForTesting
+    MemoryRevokingScheduler(
+            List<MemoryPool> memoryPools,
+            Supplier<? extends Collection<SqlTask>> currentTasksSupplier,
+            ScheduledExecutorService taskManagementExecutor,
+            double memoryRevokingThreshold,
+            double memoryRevokingTarget,
+            MemoryRevokingOrder memoryRevokingOrder)
     {
         this.memoryPools = ImmutableList.copyOf(requireNonNull(memoryPools, "memoryPools is null"));
         this.currentTasksSupplier = requireNonNull(currentTasksSupplier, "currentTasksSupplier is null");
@@ -97,6 +116,7 @@ public class MemoryRevokingScheduler
                 memoryRevokingTarget <= memoryRevokingThreshold,
                 "memoryRevokingTarget should be less than or equal memoryRevokingThreshold, but got %s and %s respectively",
                 memoryRevokingTarget, memoryRevokingThreshold);
+        this.memoryRevokingOrder = requireNonNull(memoryRevokingOrder, "memoryRevokingOrder is null");
     }
 
     private static double checkFraction(double value, String valueName)
@@ -212,7 +232,15 @@ public class MemoryRevokingScheduler
         List<SqlTask> runningTasksInPool = findRunningTasksInMemoryPool(allTasks, memoryPool);
         remainingBytesToRevoke -= getMemoryAlreadyBeingRevoked(runningTasksInPool, remainingBytesToRevoke);
         if (remainingBytesToRevoke > 0) {
-            requestRevoking(memoryPool.getId(), runningTasksInPool, remainingBytesToRevoke);
+            switch (memoryRevokingOrder) {
+                case TASK_CREATION_TIME:
+                    requestRevoking(memoryPool.getId(), runningTasksInPool, remainingBytesToRevoke);
+                    return;
+                case QUERY_PRIORITY_AND_SIZE:
+                    requestRevokingByPriorityAndSize(memoryPool.getId(), runningTasksInPool, remainingBytesToRevoke);
+                    return;
+            }
+            throw new IllegalArgumentException("Unexpected memory revoking order: " + memoryRevokingOrder);
         }
     }
 
@@ -298,6 +326,43 @@ public class MemoryRevokingScheduler
         }
     }
 
+    private void requestRevokingByPriorityAndSize(MemoryPoolId memoryPoolId, List<SqlTask> sqlTasks, long remainingBytesToRevoke)
+    {
+        List<RevocableOperator> operators = new ArrayList<>();
+        for (SqlTask task : sqlTasks) {
+            Optional<TaskContext> taskContext = task.getTaskContext();
+            if (taskContext.isPresent()) {
+                int queryPriority = getQueryPriority(taskContext.get().getSession());
+                taskContext.get().accept(new VoidTraversingQueryContextVisitor<Void>()
+                {
+                    @Override
+                    public Void visitOperatorContext(OperatorContext operatorContext, Void context)
+                    {
+                        long revocableBytes = operatorContext.getReservedRevocableBytes();
+                        if (revocableBytes > 0 && !operatorContext.isMemoryRevokingRequested()) {
+                            operators.add(new RevocableOperator(operatorContext, queryPriority, revocableBytes));
+                        }
+                        return null;
+                    }
+                }, null);
+            }
+        }
+
+        // revoking from fewer, larger operators frees the same memory with less spilling overhead
+        operators.sort(Comparator.comparingInt(RevocableOperator::getQueryPriority)
+                .thenComparing(Comparator.comparingLong(RevocableOperator::getRevocableBytes).reversed()));
+        for (RevocableOperator operator : operators) {
+            if (remainingBytesToRevoke <= 0) {
+                return;
+            }
+            long revokedBytes = operator.getOperatorContext().requestMemoryRevoking();
+            if (revokedBytes > 0) {
+                remainingBytesToRevoke -= revokedBytes;
+                log.debug("memoryPool=%s: requested revoking %s with query priority %s; remaining %s", memoryPoolId, revokedBytes, operator.getQueryPriority(), remainingBytesToRevoke);
+            }
+        }
+    }
+
     private static List<SqlTask> findRunningTasksInMemoryPool(Collection<SqlTask> allCurrentTasks, MemoryPool memoryPool)
     {
         return allCurrentTasks.stream()
@@ -305,4 +370,33 @@ public class MemoryRevokingScheduler
                 .sorted(ORDER_BY_CREATE_TIME)
                 .collect(toImmutableList());
     }
+
+    private static class RevocableOperator
+    {
+        private final OperatorContext operatorContext;
+        private final int queryPriority;
+        private final long revocableBytes;
+
+        public RevocableOperator(OperatorContext operatorContext, int queryPriority, long revocableBytes)
+        {
+            this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+            this.queryPriority = queryPriority;
+            this.revocableBytes = revocableBytes;
+        }
+
+        public OperatorContext getOperatorContext()
+        {
+            return operatorContext;
+        }
+
+        public int getQueryPriority()
+        {
+            return queryPriority;
+        }
+
+        public long getRevocableBytes()
+        {
+            return revocableBytes;
+        }
+    }
 }
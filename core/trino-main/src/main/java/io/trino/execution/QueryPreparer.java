@@ -13,23 +13,32 @@
  */
 package io.trino.execution;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
+import io.airlift.jmx.CacheStatsMBean;
 import io.trino.Session;
 import io.trino.spi.TrinoException;
 import io.trino.spi.resourcegroups.QueryType;
 import io.trino.sql.parser.ParsingException;
+import io.trino.sql.parser.ParsingOptions;
+import io.trino.sql.parser.ParsingOptions.DecimalLiteralTreatment;
 import io.trino.sql.parser.SqlParser;
 import io.trino.sql.tree.Execute;
 import io.trino.sql.tree.Explain;
 import io.trino.sql.tree.Expression;
 import io.trino.sql.tree.Statement;
 import io.trino.util.StatementUtils;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
 
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
+import static com.google.common.base.MoreObjects.toStringHelper;
 import static io.trino.execution.ParameterExtractor.getParameterCount;
 import static io.trino.spi.StandardErrorCode.INVALID_PARAMETER_USAGE;
 import static io.trino.spi.StandardErrorCode.NOT_SUPPORTED;
@@ -42,11 +51,22 @@ import static java.util.Objects.requireNonNull;
 public class QueryPreparer
 {
     private final SqlParser sqlParser;
+    // the syntax tree is immutable and parameters are bound during analysis, so executions of a prepared statement can share its parsed form
+    private final Cache<PreparedStatementKey, Statement> preparedStatements;
 
-    @Inject
     public QueryPreparer(SqlParser sqlParser)
+    {
+        this(sqlParser, new QueryPreparerConfig().setPreparedStatementCacheSize(0));
+    }
+
+    @Inject
+    public QueryPreparer(SqlParser sqlParser, QueryPreparerConfig config)
     {
         this.sqlParser = requireNonNull(sqlParser, "sqlParser is null");
+        this.preparedStatements = CacheBuilder.newBuilder()
+                .maximumSize(config.getPreparedStatementCacheSize())
+                .recordStats()
+                .build();
     }
 
     public PreparedQuery prepareQuery(Session session, String query)
@@ -63,7 +83,7 @@ public class QueryPreparer
         Optional<String> prepareSql = Optional.empty();
         if (statement instanceof Execute) {
             prepareSql = Optional.of(session.getPreparedStatementFromExecute((Execute) statement));
-            statement = sqlParser.createStatement(prepareSql.get(), createParsingOptions(session));
+            statement = parsePreparedStatement(prepareSql.get(), createParsingOptions(session));
         }
 
         if (statement instanceof Explain && ((Explain) statement).isAnalyze()) {
@@ -81,6 +101,25 @@ public class QueryPreparer
         return new PreparedQuery(statement, parameters, prepareSql);
     }
 
+    private Statement parsePreparedStatement(String sql, ParsingOptions parsingOptions)
+    {
+        PreparedStatementKey key = new PreparedStatementKey(sql, parsingOptions.getDecimalLiteralTreatment());
+        Statement statement = preparedStatements.getIfPresent(key);
+        if (statement == null) {
+            // parse outside of the cache, so that parsing failures are not wrapped
+            statement = sqlParser.createStatement(sql, parsingOptions);
+            preparedStatements.put(key, statement);
+        }
+        return statement;
+    }
+
+    @Managed
+    @Nested
+    public CacheStatsMBean getPreparedStatementCacheStats()
+    {
+        return new CacheStatsMBean(preparedStatements);
+    }
+
     private static void validateParameters(Statement node, List<Expression> parameterValues)
     {
         int parameterCount = getParameterCount(node);
@@ -120,4 +159,45 @@ public class QueryPreparer
             return prepareSql;
         }
     }
+
+    private static final class PreparedStatementKey
+    {
+        private final String sql;
+        private final DecimalLiteralTreatment decimalLiteralTreatment;
+
+        public PreparedStatementKey(String sql, DecimalLiteralTreatment decimalLiteralTreatment)
+        {
+            this.sql = requireNonNull(sql, "sql is null");
+            this.decimalLiteralTreatment = requireNonNull(decimalLiteralTreatment, "decimalLiteralTreatment is null");
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PreparedStatementKey that = (PreparedStatementKey) o;
+            return sql.equals(that.sql) &&
+                    decimalLiteralTreatment == that.decimalLiteralTreatment;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(sql, decimalLiteralTreatment);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("sql", sql)
+                    .add("decimalLiteralTreatment", decimalLiteralTreatment)
+                    .toString();
+        }
+    }
 }
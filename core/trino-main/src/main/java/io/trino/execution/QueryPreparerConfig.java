@@ -0,0 +1,38 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+
+import javax.validation.constraints.Min;
+
+public class QueryPreparerConfig
+{
+    private int preparedStatementCacheSize = 1000;
+
+    @Min(0)
+    public int getPreparedStatementCacheSize()
+    {
+        return preparedStatementCacheSize;
+    }
+
+    @Config("query.prepared-statement-cache-size")
+    @ConfigDescription("Maximum number of parsed prepared statements cached on the coordinator")
+    public QueryPreparerConfig setPreparedStatementCacheSize(int preparedStatementCacheSize)
+    {
+        this.preparedStatementCacheSize = preparedStatementCacheSize;
+        return this;
+    }
+}
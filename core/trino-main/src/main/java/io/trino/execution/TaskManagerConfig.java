@@ -24,6 +24,7 @@ import io.airlift.units.MaxDuration;
 import io.airlift.units.MinDuration;
 import io.trino.util.PowerOfTwo;
 
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
@@ -44,16 +45,20 @@ public class TaskManagerConfig
     private boolean perOperatorCpuTimerEnabled = true;
     private boolean taskCpuTimerEnabled = true;
     private boolean statisticsCpuTimerEnabled = true;
+    private boolean perOperatorAllocationTrackingEnabled;
     private DataSize maxPartialAggregationMemoryUsage = DataSize.of(16, Unit.MEGABYTE);
     private DataSize maxLocalExchangeBufferSize = DataSize.of(32, Unit.MEGABYTE);
     private DataSize maxIndexMemoryUsage = DataSize.of(64, Unit.MEGABYTE);
     private boolean shareIndexLoading;
+    private DataSize maxIndexCacheMemoryUsage = DataSize.of(0, Unit.BYTE);
+    private Duration indexCacheTtl = new Duration(1, TimeUnit.MINUTES);
     private int maxWorkerThreads = Runtime.getRuntime().availableProcessors() * 2;
     private Integer minDrivers;
     private Integer initialSplitsPerNode;
     private int minDriversPerTask = 3;
     private int maxDriversPerTask = Integer.MAX_VALUE;
     private Duration splitConcurrencyAdjustmentInterval = new Duration(100, TimeUnit.MILLISECONDS);
+    private double stragglingSplitWallTimeMultiplier = 5.0;
 
     private DataSize sinkMaxBufferSize = DataSize.of(32, Unit.MEGABYTE);
     private DataSize sinkMaxBroadcastBufferSize = DataSize.of(200, Unit.MEGABYTE);
@@ -143,6 +148,18 @@ public class TaskManagerConfig
         return this;
     }
 
+    public boolean isPerOperatorAllocationTrackingEnabled()
+    {
+        return perOperatorAllocationTrackingEnabled;
+    }
+
+    @Config("task.per-operator-allocation-tracking-enabled")
+    public TaskManagerConfig setPerOperatorAllocationTrackingEnabled(boolean perOperatorAllocationTrackingEnabled)
+    {
+        this.perOperatorAllocationTrackingEnabled = perOperatorAllocationTrackingEnabled;
+        return this;
+    }
+
     @NotNull
     public DataSize getMaxPartialAggregationMemoryUsage()
     {
@@ -195,6 +212,34 @@ public class TaskManagerConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getMaxIndexCacheMemoryUsage()
+    {
+        return maxIndexCacheMemoryUsage;
+    }
+
+    @Config("task.index-cache.max-memory")
+    @ConfigDescription("Maximum memory used by the worker-wide cache of index lookup results, 0 disables the cache")
+    public TaskManagerConfig setMaxIndexCacheMemoryUsage(DataSize maxIndexCacheMemoryUsage)
+    {
+        this.maxIndexCacheMemoryUsage = maxIndexCacheMemoryUsage;
+        return this;
+    }
+
+    @NotNull
+    public Duration getIndexCacheTtl()
+    {
+        return indexCacheTtl;
+    }
+
+    @Config("task.index-cache.ttl")
+    @ConfigDescription("Time after which cached index lookup results are reloaded from the connector")
+    public TaskManagerConfig setIndexCacheTtl(Duration indexCacheTtl)
+    {
+        this.indexCacheTtl = indexCacheTtl;
+        return this;
+    }
+
     @Min(0)
     public BigDecimal getLevelTimeMultiplier()
     {
@@ -252,6 +297,20 @@ public class TaskManagerConfig
         return this;
     }
 
+    @DecimalMin("1.0")
+    public double getStragglingSplitWallTimeMultiplier()
+    {
+        return stragglingSplitWallTimeMultiplier;
+    }
+
+    @Config("task.straggling-split-wall-time-multiplier")
+    @ConfigDescription("Leaf splits running longer than this multiple of the average wall time of completed splits of the same task are reported as straggling")
+    public TaskManagerConfig setStragglingSplitWallTimeMultiplier(double stragglingSplitWallTimeMultiplier)
+    {
+        this.stragglingSplitWallTimeMultiplier = stragglingSplitWallTimeMultiplier;
+        return this;
+    }
+
     @Min(1)
     public int getMinDrivers()
     {
@@ -149,6 +149,18 @@ public class PrioritizedSplitRunner
         return waitNanos.get();
     }
 
+    /**
+     * Returns the wall time since this split was first processed, or zero if it has not started yet.
+     */
+    public long getWallNanos()
+    {
+        long startNanos = start.get();
+        if (startNanos == 0) {
+            return 0;
+        }
+        return ticker.read() - startNanos;
+    }
+
     public ListenableFuture<?> process()
     {
         try {
@@ -16,6 +16,7 @@ package io.trino.execution.executor;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Ticker;
 import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.concurrent.SetThreadName;
 import io.airlift.concurrent.ThreadPoolExecutorMBean;
@@ -83,6 +84,10 @@ public class TaskExecutor
     // print out split call stack if it has been running for a certain amount of time
     private static final Duration LONG_SPLIT_WARNING_THRESHOLD = new Duration(600, TimeUnit.SECONDS);
 
+    // number of completed leaf splits of a task required before its running splits can be considered straggling
+    private static final int STRAGGLING_SPLIT_MIN_COMPLETED_SPLITS = 3;
+    private static final double DEFAULT_STRAGGLING_SPLIT_WALL_TIME_MULTIPLIER = 5.0;
+
     private static final AtomicLong NEXT_RUNNER_ID = new AtomicLong();
 
     private final ExecutorService executor;
@@ -92,6 +97,7 @@ public class TaskExecutor
     private final int minimumNumberOfDrivers;
     private final int guaranteedNumberOfDriversPerTask;
     private final int maximumNumberOfDriversPerTask;
+    private final double stragglingSplitWallTimeMultiplier;
     private final EmbedVersion embedVersion;
 
     private final Ticker ticker;
@@ -163,6 +169,7 @@ public class TaskExecutor
                 config.getMinDrivers(),
                 config.getMinDriversPerTask(),
                 config.getMaxDriversPerTask(),
+                config.getStragglingSplitWallTimeMultiplier(),
                 embedVersion,
                 splitQueue,
                 Ticker.systemTicker());
@@ -189,11 +196,26 @@ public class TaskExecutor
             EmbedVersion embedVersion,
             MultilevelSplitQueue splitQueue,
             Ticker ticker)
+    {
+        this(runnerThreads, minDrivers, guaranteedNumberOfDriversPerTask, maximumNumberOfDriversPerTask, DEFAULT_STRAGGLING_SPLIT_WALL_TIME_MULTIPLIER, embedVersion, splitQueue, ticker);
+    }
+
+    @VisibleForTesting
+    public TaskExecutor(
+            int runnerThreads,
+            int minDrivers,
+            int guaranteedNumberOfDriversPerTask,
+            int maximumNumberOfDriversPerTask,
+            double stragglingSplitWallTimeMultiplier,
+            EmbedVersion embedVersion,
+            MultilevelSplitQueue splitQueue,
+            Ticker ticker)
     {
         checkArgument(runnerThreads > 0, "runnerThreads must be at least 1");
         checkArgument(guaranteedNumberOfDriversPerTask > 0, "guaranteedNumberOfDriversPerTask must be at least 1");
         checkArgument(maximumNumberOfDriversPerTask > 0, "maximumNumberOfDriversPerTask must be at least 1");
         checkArgument(guaranteedNumberOfDriversPerTask <= maximumNumberOfDriversPerTask, "guaranteedNumberOfDriversPerTask cannot be greater than maximumNumberOfDriversPerTask");
+        checkArgument(stragglingSplitWallTimeMultiplier >= 1.0, "stragglingSplitWallTimeMultiplier must be at least 1");
 
         // we manage thread pool size directly, so create an unlimited pool
         this.executor = newCachedThreadPool(threadsNamed("task-processor-%s"));
@@ -206,6 +228,7 @@ public class TaskExecutor
         this.minimumNumberOfDrivers = minDrivers;
         this.guaranteedNumberOfDriversPerTask = guaranteedNumberOfDriversPerTask;
         this.maximumNumberOfDriversPerTask = maximumNumberOfDriversPerTask;
+        this.stragglingSplitWallTimeMultiplier = stragglingSplitWallTimeMultiplier;
         this.waitingSplits = requireNonNull(splitQueue, "splitQueue is null");
         this.tasks = new LinkedList<>();
     }
@@ -830,6 +853,26 @@ public class TaskExecutor
         return count;
     }
 
+    @Managed(description = "Number of running leaf splits that take much longer than the completed splits of the same task")
+    public long getStragglingSplitCount()
+    {
+        return getStragglingSplits().size();
+    }
+
+    private List<PrioritizedSplitRunner> getStragglingSplits()
+    {
+        List<TaskHandle> taskHandles;
+        synchronized (this) {
+            taskHandles = ImmutableList.copyOf(tasks);
+        }
+
+        ImmutableList.Builder<PrioritizedSplitRunner> stragglingSplits = ImmutableList.builder();
+        for (TaskHandle taskHandle : taskHandles) {
+            stragglingSplits.addAll(taskHandle.getStragglingLeafSplits(stragglingSplitWallTimeMultiplier, STRAGGLING_SPLIT_MIN_COMPLETED_SPLITS));
+        }
+        return stragglingSplits.build();
+    }
+
     private static class RunningSplitInfo
             implements Comparable<RunningSplitInfo>
     {
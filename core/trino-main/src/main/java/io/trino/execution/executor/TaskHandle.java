@@ -32,6 +32,7 @@ import java.util.function.DoubleSupplier;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
 @ThreadSafe
@@ -49,6 +50,10 @@ public class TaskHandle
     @GuardedBy("this")
     protected long scheduledNanos;
     @GuardedBy("this")
+    private long completedLeafSplits;
+    @GuardedBy("this")
+    private long completedLeafSplitsWallNanos;
+    @GuardedBy("this")
     private boolean destroyed;
     @GuardedBy("this")
     protected final SplitConcurrencyController concurrencyController;
@@ -177,7 +182,32 @@ public class TaskHandle
     {
         concurrencyController.splitFinished(split.getScheduledNanos(), utilizationSupplier.getAsDouble(), runningLeafSplits.size());
         runningIntermediateSplits.remove(split);
-        runningLeafSplits.remove(split);
+        if (runningLeafSplits.remove(split)) {
+            completedLeafSplits++;
+            completedLeafSplitsWallNanos += split.getWallNanos();
+        }
+    }
+
+    synchronized long getCompletedLeafSplits()
+    {
+        return completedLeafSplits;
+    }
+
+    /**
+     * Returns the running leaf splits whose wall time exceeds {@code wallTimeMultiplier} times the
+     * average wall time of the leaf splits of this task that already completed. Nothing is reported
+     * until at least {@code minCompletedLeafSplits} splits have completed.
+     */
+    public synchronized List<PrioritizedSplitRunner> getStragglingLeafSplits(double wallTimeMultiplier, int minCompletedLeafSplits)
+    {
+        if (destroyed || completedLeafSplits == 0 || completedLeafSplits < minCompletedLeafSplits) {
+            return ImmutableList.of();
+        }
+
+        double thresholdNanos = wallTimeMultiplier * completedLeafSplitsWallNanos / completedLeafSplits;
+        return runningLeafSplits.stream()
+                .filter(split -> split.getWallNanos() > thresholdNanos)
+                .collect(toImmutableList());
     }
 
     public int getNextSplitId()
@@ -0,0 +1,406 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.index;
+
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.trino.connector.CatalogName;
+import io.trino.spi.Page;
+import io.trino.spi.connector.ColumnHandle;
+import io.trino.spi.connector.ConnectorIndex;
+import io.trino.spi.connector.ConnectorIndexHandle;
+import io.trino.spi.connector.ConnectorPageSource;
+import io.trino.spi.connector.InMemoryRecordSet;
+import io.trino.spi.connector.RecordCursor;
+import io.trino.spi.connector.RecordSet;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.VarcharType;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.airlift.slice.SizeOf.sizeOfObjectArray;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.BooleanType.BOOLEAN;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.SmallintType.SMALLINT;
+import static io.trino.spi.type.TinyintType.TINYINT;
+import static io.trino.spi.type.TypeUtils.readNativeValue;
+import static io.trino.spi.type.VarbinaryType.VARBINARY;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Serves index lookups from a cache shared by all tasks on the worker. Only the keys missing from
+ * the cache are looked up in the connector, and the rows returned for them are cached per key,
+ * including empty results. The rows of a lookup are only cached once the connector returned all
+ * of them, and if they fit in {@code maxLookupBytes}.
+ * <p>
+ * Rows are attributed to keys by the values of the lookup columns in the output, so lookups are
+ * only cached for key types whose values are equal exactly when they are equal in SQL.
+ * <p>
+ * Cached rows are only shared by lookups of the same user, and only for indexes whose connector
+ * declares them cacheable, as the rows are shared across transactions.
+ */
+class CachingConnectorIndex
+        implements ConnectorIndex
+{
+    private final ConnectorIndex delegate;
+    private final IndexKey indexKey;
+    private final int[] lookupChannels;
+    private final Cache<LookupKey, List<Page>> cache;
+    private final long maxLookupBytes;
+
+    public CachingConnectorIndex(ConnectorIndex delegate, IndexKey indexKey, int[] lookupChannels, Cache<LookupKey, List<Page>> cache, long maxLookupBytes)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.indexKey = requireNonNull(indexKey, "indexKey is null");
+        this.lookupChannels = requireNonNull(lookupChannels, "lookupChannels is null").clone();
+        this.cache = requireNonNull(cache, "cache is null");
+        this.maxLookupBytes = maxLookupBytes;
+    }
+
+    @Override
+    public ConnectorPageSource lookup(RecordSet recordSet)
+    {
+        List<Type> keyTypes = recordSet.getColumnTypes();
+        if (!keyTypes.stream().allMatch(CachingConnectorIndex::isCacheableType)) {
+            return delegate.lookup(recordSet);
+        }
+
+        ImmutableList.Builder<Page> cachedPages = ImmutableList.builder();
+        Set<List<Object>> visitedKeys = new HashSet<>();
+        Set<List<Object>> missingKeys = new LinkedHashSet<>();
+        try (RecordCursor cursor = recordSet.cursor()) {
+            while (cursor.advanceNextPosition()) {
+                List<Object> key = readKey(cursor, keyTypes);
+                if (!visitedKeys.add(key)) {
+                    continue;
+                }
+                List<Page> pages = cache.getIfPresent(new LookupKey(indexKey, key));
+                if (pages == null) {
+                    missingKeys.add(key);
+                }
+                else {
+                    cachedPages.addAll(pages);
+                }
+            }
+        }
+
+        ConnectorPageSource missingKeysPageSource = null;
+        if (!missingKeys.isEmpty()) {
+            missingKeysPageSource = delegate.lookup(new InMemoryRecordSet(keyTypes, missingKeys));
+        }
+        return new CachingPageSource(cachedPages.build(), missingKeysPageSource, keyTypes, missingKeys);
+    }
+
+    private static boolean isCacheableType(Type type)
+    {
+        return type.equals(BIGINT) ||
+                type.equals(INTEGER) ||
+                type.equals(SMALLINT) ||
+                type.equals(TINYINT) ||
+                type.equals(DATE) ||
+                type.equals(BOOLEAN) ||
+                type.equals(VARBINARY) ||
+                type instanceof VarcharType;
+    }
+
+    private static List<Object> readKey(RecordCursor cursor, List<Type> keyTypes)
+    {
+        // the values may be null, so the key is not an immutable list
+        Object[] key = new Object[keyTypes.size()];
+        for (int field = 0; field < key.length; field++) {
+            if (cursor.isNull(field)) {
+                continue;
+            }
+            Class<?> javaType = keyTypes.get(field).getJavaType();
+            if (javaType == long.class) {
+                key[field] = cursor.getLong(field);
+            }
+            else if (javaType == boolean.class) {
+                key[field] = cursor.getBoolean(field);
+            }
+            else {
+                // the key may be cached, so it must not retain the buffer the value was read from
+                key[field] = Slices.copyOf(cursor.getSlice(field));
+            }
+        }
+        return Arrays.asList(key);
+    }
+
+    private class CachingPageSource
+            implements ConnectorPageSource
+    {
+        private final Iterator<Page> cachedPages;
+        private final ConnectorPageSource delegate;
+        private final List<Type> keyTypes;
+        private final Set<List<Object>> missingKeys;
+
+        // rows returned by the connector for the missing keys, or null if they are not cached
+        private Map<List<Object>, List<Page>> loadedPages = new HashMap<>();
+        private long loadedBytes;
+
+        public CachingPageSource(List<Page> cachedPages, ConnectorPageSource delegate, List<Type> keyTypes, Set<List<Object>> missingKeys)
+        {
+            this.cachedPages = requireNonNull(cachedPages, "cachedPages is null").iterator();
+            this.delegate = delegate;
+            this.keyTypes = requireNonNull(keyTypes, "keyTypes is null");
+            this.missingKeys = requireNonNull(missingKeys, "missingKeys is null");
+        }
+
+        @Override
+        public long getCompletedBytes()
+        {
+            return delegate == null ? 0 : delegate.getCompletedBytes();
+        }
+
+        @Override
+        public long getReadTimeNanos()
+        {
+            return delegate == null ? 0 : delegate.getReadTimeNanos();
+        }
+
+        @Override
+        public boolean isFinished()
+        {
+            if (cachedPages.hasNext()) {
+                return false;
+            }
+            if (delegate == null) {
+                return true;
+            }
+            if (delegate.isFinished()) {
+                cacheLoadedPages();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Page getNextPage()
+        {
+            if (cachedPages.hasNext()) {
+                return cachedPages.next();
+            }
+            if (delegate == null) {
+                return null;
+            }
+
+            Page page = delegate.getNextPage();
+            if (page != null && loadedPages != null) {
+                page = page.getLoadedPage();
+                addLoadedPage(page);
+            }
+            if (delegate.isFinished()) {
+                cacheLoadedPages();
+            }
+            return page;
+        }
+
+        private void addLoadedPage(Page page)
+        {
+            Map<List<Object>, IntArrayList> keyPositions = new HashMap<>();
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                Object[] key = new Object[lookupChannels.length];
+                for (int field = 0; field < key.length; field++) {
+                    key[field] = readNativeValue(keyTypes.get(field), page.getBlock(lookupChannels[field]), position);
+                }
+                keyPositions.computeIfAbsent(Arrays.asList(key), ignored -> new IntArrayList()).add(position);
+            }
+
+            for (Map.Entry<List<Object>, IntArrayList> entry : keyPositions.entrySet()) {
+                if (!missingKeys.contains(entry.getKey())) {
+                    // the row can not be attributed to a key, so the lookup is not cached
+                    loadedPages = null;
+                    return;
+                }
+                IntArrayList positions = entry.getValue();
+                Page keyPage = page.copyPositions(positions.elements(), 0, positions.size());
+                loadedPages.computeIfAbsent(entry.getKey(), ignored -> new ArrayList<>()).add(keyPage);
+                loadedBytes += keyPage.getRetainedSizeInBytes();
+            }
+
+            if (loadedBytes > maxLookupBytes) {
+                loadedPages = null;
+            }
+        }
+
+        private void cacheLoadedPages()
+        {
+            if (loadedPages == null) {
+                return;
+            }
+            for (List<Object> key : missingKeys) {
+                cache.put(new LookupKey(indexKey, key), ImmutableList.copyOf(loadedPages.getOrDefault(key, ImmutableList.of())));
+            }
+            loadedPages = null;
+        }
+
+        @Override
+        public long getSystemMemoryUsage()
+        {
+            return (delegate == null ? 0 : delegate.getSystemMemoryUsage()) + loadedBytes;
+        }
+
+        @Override
+        public CompletableFuture<?> isBlocked()
+        {
+            return delegate == null || cachedPages.hasNext() ? NOT_BLOCKED : delegate.isBlocked();
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            loadedPages = null;
+            if (delegate != null) {
+                delegate.close();
+            }
+        }
+    }
+
+    /**
+     * Identifies an index of a user independently of the transaction it is used in.
+     */
+    static final class IndexKey
+    {
+        private final CatalogName catalogName;
+        private final String user;
+        private final ConnectorIndexHandle connectorIndexHandle;
+        private final List<ColumnHandle> lookupSchema;
+        private final List<ColumnHandle> outputSchema;
+
+        public IndexKey(CatalogName catalogName, String user, ConnectorIndexHandle connectorIndexHandle, List<ColumnHandle> lookupSchema, List<ColumnHandle> outputSchema)
+        {
+            this.catalogName = requireNonNull(catalogName, "catalogName is null");
+            this.user = requireNonNull(user, "user is null");
+            this.connectorIndexHandle = requireNonNull(connectorIndexHandle, "connectorIndexHandle is null");
+            this.lookupSchema = ImmutableList.copyOf(requireNonNull(lookupSchema, "lookupSchema is null"));
+            this.outputSchema = ImmutableList.copyOf(requireNonNull(outputSchema, "outputSchema is null"));
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            IndexKey that = (IndexKey) o;
+            return catalogName.equals(that.catalogName) &&
+                    user.equals(that.user) &&
+                    connectorIndexHandle.equals(that.connectorIndexHandle) &&
+                    lookupSchema.equals(that.lookupSchema) &&
+                    outputSchema.equals(that.outputSchema);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(catalogName, user, connectorIndexHandle, lookupSchema, outputSchema);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("catalogName", catalogName)
+                    .add("user", user)
+                    .add("connectorIndexHandle", connectorIndexHandle)
+                    .add("lookupSchema", lookupSchema)
+                    .add("outputSchema", outputSchema)
+                    .toString();
+        }
+    }
+
+    static final class LookupKey
+    {
+        private static final int INSTANCE_SIZE = ClassLayout.parseClass(LookupKey.class).instanceSize();
+        // the list returned by Arrays.asList
+        private static final int KEY_LIST_INSTANCE_SIZE = ClassLayout.parseClass(Arrays.asList().getClass()).instanceSize();
+        private static final int LONG_INSTANCE_SIZE = ClassLayout.parseClass(Long.class).instanceSize();
+
+        private final IndexKey indexKey;
+        private final List<Object> key;
+
+        public LookupKey(IndexKey indexKey, List<Object> key)
+        {
+            this.indexKey = requireNonNull(indexKey, "indexKey is null");
+            this.key = requireNonNull(key, "key is null");
+        }
+
+        /**
+         * The index key is shared by all the lookup keys of an index, so it is not included.
+         */
+        public long getRetainedSizeInBytes()
+        {
+            long size = INSTANCE_SIZE + KEY_LIST_INSTANCE_SIZE + sizeOfObjectArray(key.size());
+            for (Object value : key) {
+                if (value instanceof Slice) {
+                    size += ((Slice) value).getRetainedSize();
+                }
+                else if (value instanceof Long) {
+                    size += LONG_INSTANCE_SIZE;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            LookupKey that = (LookupKey) o;
+            return indexKey.equals(that.indexKey) && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(indexKey, key);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("indexKey", indexKey)
+                    .add("key", key)
+                    .toString();
+        }
+    }
+}
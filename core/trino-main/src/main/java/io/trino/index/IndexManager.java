@@ -13,13 +13,26 @@
  */
 package io.trino.index;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.airlift.jmx.CacheStatsMBean;
 import io.trino.Session;
 import io.trino.connector.CatalogName;
+import io.trino.execution.TaskManagerConfig;
+import io.trino.index.CachingConnectorIndex.IndexKey;
+import io.trino.index.CachingConnectorIndex.LookupKey;
 import io.trino.metadata.IndexHandle;
+import io.trino.spi.Page;
 import io.trino.spi.connector.ColumnHandle;
 import io.trino.spi.connector.ConnectorIndex;
 import io.trino.spi.connector.ConnectorIndexProvider;
 import io.trino.spi.connector.ConnectorSession;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
 
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -27,12 +40,49 @@ import java.util.concurrent.ConcurrentMap;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class IndexManager
 {
+    // a single lookup may use this fraction of the cache at most
+    private static final int MAX_LOOKUP_FRACTION = 16;
+    // the cache entry and the list of pages, so that keys without rows are bounded as well
+    private static final int CACHE_ENTRY_OVERHEAD = 64;
+
     private final ConcurrentMap<CatalogName, ConnectorIndexProvider> providers = new ConcurrentHashMap<>();
 
+    // index lookup results shared by all tasks on the worker, disabled when null
+    @Nullable
+    private final Cache<LookupKey, List<Page>> lookupCache;
+    @Nullable
+    private final CacheStatsMBean lookupCacheStats;
+    private final long maxLookupBytes;
+
+    @Inject
+    public IndexManager(TaskManagerConfig config)
+    {
+        long maxCacheBytes = config.getMaxIndexCacheMemoryUsage().toBytes();
+        if (maxCacheBytes > 0) {
+            lookupCache = createLookupCache(maxCacheBytes, config.getIndexCacheTtl().toMillis());
+            lookupCacheStats = new CacheStatsMBean(lookupCache);
+        }
+        else {
+            lookupCache = null;
+            lookupCacheStats = null;
+        }
+        this.maxLookupBytes = maxCacheBytes / MAX_LOOKUP_FRACTION;
+    }
+
+    @Nullable
+    @Managed
+    @Nested
+    public CacheStatsMBean getLookupCache()
+    {
+        return lookupCacheStats;
+    }
+
     public void addIndexProvider(CatalogName catalogName, ConnectorIndexProvider indexProvider)
     {
         requireNonNull(catalogName, "catalogName is null");
@@ -49,7 +99,22 @@ public class IndexManager
     {
         ConnectorSession connectorSession = session.toConnectorSession(indexHandle.getCatalogName());
         ConnectorIndexProvider provider = getProvider(indexHandle);
-        return provider.getIndex(indexHandle.getTransactionHandle(), connectorSession, indexHandle.getConnectorHandle(), lookupSchema, outputSchema);
+        ConnectorIndex index = provider.getIndex(indexHandle.getTransactionHandle(), connectorSession, indexHandle.getConnectorHandle(), lookupSchema, outputSchema);
+        if (lookupCache == null || !provider.isLookupCacheable(connectorSession, indexHandle.getConnectorHandle())) {
+            return index;
+        }
+
+        // rows are attributed to lookup keys by the lookup columns in the output
+        int[] lookupChannels = lookupSchema.stream()
+                .mapToInt(outputSchema::indexOf)
+                .toArray();
+        for (int channel : lookupChannels) {
+            if (channel < 0) {
+                return index;
+            }
+        }
+        IndexKey indexKey = new IndexKey(indexHandle.getCatalogName(), session.getIdentity().getUser(), indexHandle.getConnectorHandle(), lookupSchema, outputSchema);
+        return new CachingConnectorIndex(index, indexKey, lookupChannels, lookupCache, maxLookupBytes);
     }
 
     private ConnectorIndexProvider getProvider(IndexHandle handle)
@@ -58,4 +123,21 @@ public class IndexManager
         checkArgument(result != null, "No index provider for connector '%s'", handle.getCatalogName());
         return result;
     }
+
+    @VisibleForTesting
+    static Cache<LookupKey, List<Page>> createLookupCache(long maxCacheBytes, long ttlMillis)
+    {
+        return CacheBuilder.newBuilder()
+                .maximumWeight(maxCacheBytes)
+                .weigher(IndexManager::weigh)
+                .expireAfterWrite(ttlMillis, MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    private static int weigh(LookupKey key, List<Page> pages)
+    {
+        long size = CACHE_ENTRY_OVERHEAD + key.getRetainedSizeInBytes() + pages.stream().mapToLong(Page::getRetainedSizeInBytes).sum();
+        return (int) min(Integer.MAX_VALUE, size);
+    }
 }
@@ -49,6 +49,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.trino.SystemSessionProperties.isPerOperatorAllocationTrackingEnabled;
 import static io.trino.operator.Operator.NOT_BLOCKED;
 import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static java.lang.Boolean.TRUE;
@@ -325,7 +326,8 @@ public class Driver
     {
         return new OperationTimer(
                 driverContext.isCpuTimerEnabled(),
-                driverContext.isCpuTimerEnabled() && driverContext.isPerOperatorCpuTimerEnabled());
+                driverContext.isCpuTimerEnabled() && driverContext.isPerOperatorCpuTimerEnabled(),
+                isPerOperatorAllocationTrackingEnabled(driverContext.getSession()));
     }
 
     private ListenableFuture<?> updateDriverBlockedFuture(ListenableFuture<?> sourceBlockedFuture)
@@ -0,0 +1,172 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.spi.Page;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.trino.operator.Operator.NOT_BLOCKED;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Streams the pages of the build side of a merge join to the probe side. The build side
+ * is blocked while the buffered pages exceed {@code maxBufferedBytes}, and the probe side
+ * is blocked while no page is buffered. When the probe side finishes before the build side,
+ * the remaining build pages are discarded. The buffered pages are accounted in the memory
+ * context of the probe side, as they are released only when the probe side polls them.
+ */
+@ThreadSafe
+public class MergeJoinBridge
+{
+    private final long maxBufferedBytes;
+
+    @GuardedBy("this")
+    private final Queue<Page> pages = new ArrayDeque<>();
+    @GuardedBy("this")
+    private long bufferedBytes;
+    @GuardedBy("this")
+    private boolean noMorePages;
+    @GuardedBy("this")
+    private boolean probeFinished;
+    @GuardedBy("this")
+    private SettableFuture<?> notFull = SettableFuture.create();
+    @GuardedBy("this")
+    private SettableFuture<?> notEmpty = SettableFuture.create();
+    @GuardedBy("this")
+    @Nullable
+    private LocalMemoryContext memoryContext;
+
+    public MergeJoinBridge(long maxBufferedBytes)
+    {
+        checkArgument(maxBufferedBytes > 0, "maxBufferedBytes must be positive");
+        this.maxBufferedBytes = maxBufferedBytes;
+        notFull.set(null);
+    }
+
+    public synchronized void setMemoryContext(LocalMemoryContext memoryContext)
+    {
+        requireNonNull(memoryContext, "memoryContext is null");
+        checkState(this.memoryContext == null, "memory context is already set");
+        if (probeFinished) {
+            return;
+        }
+        this.memoryContext = memoryContext;
+        updateMemoryUsage();
+    }
+
+    public synchronized void addPage(Page page)
+    {
+        requireNonNull(page, "page is null");
+        checkState(!noMorePages, "no more pages expected");
+        if (probeFinished) {
+            return;
+        }
+        pages.add(page);
+        bufferedBytes += page.getRetainedSizeInBytes();
+        updateMemoryUsage();
+        notEmpty.set(null);
+        if (bufferedBytes >= maxBufferedBytes && notFull.isDone()) {
+            notFull = SettableFuture.create();
+        }
+    }
+
+    public synchronized void noMorePages()
+    {
+        noMorePages = true;
+        notEmpty.set(null);
+    }
+
+    /**
+     * Returns a future that completes when the build side can add more pages.
+     */
+    public synchronized ListenableFuture<?> whenNotFull()
+    {
+        return notFull;
+    }
+
+    /**
+     * Returns the next build page, or null if none is buffered.
+     */
+    @Nullable
+    public synchronized Page pollPage()
+    {
+        Page page = pages.poll();
+        if (page == null) {
+            if (!noMorePages && notEmpty.isDone()) {
+                notEmpty = SettableFuture.create();
+            }
+            return null;
+        }
+        bufferedBytes -= page.getRetainedSizeInBytes();
+        updateMemoryUsage();
+        if (bufferedBytes < maxBufferedBytes) {
+            notFull.set(null);
+        }
+        return page;
+    }
+
+    /**
+     * Returns a future that completes when a page is buffered or the build side is finished.
+     */
+    public synchronized ListenableFuture<?> whenNotEmpty()
+    {
+        if (!pages.isEmpty() || noMorePages) {
+            return NOT_BLOCKED;
+        }
+        return notEmpty;
+    }
+
+    /**
+     * Returns true when the build side is finished and all its pages were polled.
+     */
+    public synchronized boolean isFinished()
+    {
+        return noMorePages && pages.isEmpty();
+    }
+
+    public synchronized void probeFinished()
+    {
+        probeFinished = true;
+        pages.clear();
+        bufferedBytes = 0;
+        updateMemoryUsage();
+        // the memory context is closed together with the probe side
+        memoryContext = null;
+        notFull.set(null);
+    }
+
+    public synchronized long getBufferedBytes()
+    {
+        return bufferedBytes;
+    }
+
+    @GuardedBy("this")
+    private void updateMemoryUsage()
+    {
+        if (memoryContext != null) {
+            memoryContext.setBytes(bufferedBytes);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.trino.spi.Page;
+import io.trino.sql.planner.plan.PlanNodeId;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Passes the sorted build side of a merge join to the {@link MergeJoinOperator} through a {@link MergeJoinBridge}.
+ */
+public class MergeJoinBuildOperator
+        implements Operator
+{
+    public static class MergeJoinBuildOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final MergeJoinBridge bridge;
+
+        private boolean closed;
+
+        public MergeJoinBuildOperatorFactory(int operatorId, PlanNodeId planNodeId, MergeJoinBridge bridge)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.bridge = requireNonNull(bridge, "bridge is null");
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, MergeJoinBuildOperator.class.getSimpleName());
+            return new MergeJoinBuildOperator(operatorContext, bridge);
+        }
+
+        @Override
+        public void noMoreOperators()
+        {
+            closed = true;
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            throw new UnsupportedOperationException("Merge join build can not be duplicated");
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final MergeJoinBridge bridge;
+
+    private boolean finished;
+
+    public MergeJoinBuildOperator(OperatorContext operatorContext, MergeJoinBridge bridge)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.bridge = requireNonNull(bridge, "bridge is null");
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        return bridge.whenNotFull();
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !finished && bridge.whenNotFull().isDone();
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        requireNonNull(page, "page is null");
+        checkState(!finished, "Operator is already finished");
+
+        if (page.getPositionCount() == 0) {
+            return;
+        }
+        bridge.addPage(page);
+        operatorContext.recordOutput(page.getSizeInBytes(), page.getPositionCount());
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        return null;
+    }
+
+    @Override
+    public void finish()
+    {
+        if (!finished) {
+            finished = true;
+            bridge.noMorePages();
+        }
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finished;
+    }
+}
@@ -0,0 +1,468 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import io.trino.sql.planner.plan.PlanNodeId;
+import io.trino.type.BlockTypeOperators;
+import io.trino.type.BlockTypeOperators.BlockPositionOrdering;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.spi.connector.SortOrder.ASC_NULLS_LAST;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.RealType.REAL;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Joins two inputs sorted in ascending order of the join keys, reading the build side from a
+ * {@link MergeJoinBridge}. Only the build rows with the key of the current probe row are kept in
+ * memory, so the memory does not depend on the size of the inputs. Rows with a null key never
+ * match, so they may be anywhere in the inputs.
+ */
+public class MergeJoinOperator
+        implements Operator
+{
+    public static class MergeJoinOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final MergeJoinBridge bridge;
+        private final List<Type> probeTypes;
+        private final List<Type> buildTypes;
+        private final List<Integer> probeKeyChannels;
+        private final List<Integer> buildKeyChannels;
+        private final List<Integer> probeOutputChannels;
+        private final List<Integer> buildOutputChannels;
+        private final boolean outer;
+        private final List<BlockPositionOrdering> keyOrderings;
+
+        private boolean created;
+        private boolean closed;
+
+        public MergeJoinOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                MergeJoinBridge bridge,
+                List<Type> probeTypes,
+                List<Type> buildTypes,
+                List<Integer> probeKeyChannels,
+                List<Integer> buildKeyChannels,
+                List<Integer> probeOutputChannels,
+                List<Integer> buildOutputChannels,
+                boolean outer,
+                BlockTypeOperators blockTypeOperators)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.bridge = requireNonNull(bridge, "bridge is null");
+            this.probeTypes = ImmutableList.copyOf(requireNonNull(probeTypes, "probeTypes is null"));
+            this.buildTypes = ImmutableList.copyOf(requireNonNull(buildTypes, "buildTypes is null"));
+            this.probeKeyChannels = ImmutableList.copyOf(requireNonNull(probeKeyChannels, "probeKeyChannels is null"));
+            this.buildKeyChannels = ImmutableList.copyOf(requireNonNull(buildKeyChannels, "buildKeyChannels is null"));
+            checkArgument(!probeKeyChannels.isEmpty(), "probeKeyChannels is empty");
+            checkArgument(probeKeyChannels.size() == buildKeyChannels.size(), "probeKeyChannels and buildKeyChannels do not match");
+            this.probeOutputChannels = ImmutableList.copyOf(requireNonNull(probeOutputChannels, "probeOutputChannels is null"));
+            this.buildOutputChannels = ImmutableList.copyOf(requireNonNull(buildOutputChannels, "buildOutputChannels is null"));
+            this.outer = outer;
+            requireNonNull(blockTypeOperators, "blockTypeOperators is null");
+            this.keyOrderings = probeKeyChannels.stream()
+                    .map(probeTypes::get)
+                    .peek(type -> checkArgument(isSupportedKeyType(type), "Unsupported merge join key type: %s", type))
+                    .map(type -> blockTypeOperators.generateBlockPositionOrdering(type, ASC_NULLS_LAST))
+                    .collect(toImmutableList());
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            checkState(!created, "Merge join is not parallel");
+            created = true;
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, MergeJoinOperator.class.getSimpleName());
+            return new MergeJoinOperator(
+                    operatorContext,
+                    bridge,
+                    probeTypes,
+                    buildTypes,
+                    Ints.toArray(probeKeyChannels),
+                    Ints.toArray(buildKeyChannels),
+                    Ints.toArray(probeOutputChannels),
+                    Ints.toArray(buildOutputChannels),
+                    outer,
+                    keyOrderings);
+        }
+
+        @Override
+        public void noMoreOperators()
+        {
+            closed = true;
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            throw new UnsupportedOperationException("Merge join can not be duplicated");
+        }
+    }
+
+    public static boolean isSupportedKeyType(Type type)
+    {
+        // the ordering of floating point types does not agree with their equality for NaN
+        return type.isOrderable() && !type.equals(DOUBLE) && !type.equals(REAL);
+    }
+
+    private final OperatorContext operatorContext;
+    private final LocalMemoryContext localUserMemoryContext;
+    private final MergeJoinBridge bridge;
+    private final List<Type> buildTypes;
+    private final int[] probeKeyChannels;
+    private final int[] buildKeyChannels;
+    private final int[] probeOutputChannels;
+    private final int[] buildOutputChannels;
+    private final boolean outer;
+    private final List<BlockPositionOrdering> keyOrderings;
+    private final PageBuilder pageBuilder;
+
+    private boolean finishing;
+    private boolean waitingForBuild;
+
+    private Page probePage;
+    private int probePosition;
+
+    // build page being scanned, null when a new page has to be polled from the bridge
+    private Page buildPage;
+    private int buildPosition;
+    private boolean buildExhausted;
+
+    // consecutive build rows with the same key, the first of them is the group key
+    private final List<Page> group = new ArrayList<>();
+    private long groupRetainedBytes;
+    private Page groupKeyPage;
+    private int groupKeyPosition;
+    private boolean groupComplete;
+    // start of the group rows in the build page, while the group is not complete
+    private int segmentStart;
+
+    // progress of appending the group to the current probe row
+    private boolean matching;
+    private int matchSegment;
+    private int matchPosition;
+
+    public MergeJoinOperator(
+            OperatorContext operatorContext,
+            MergeJoinBridge bridge,
+            List<Type> probeTypes,
+            List<Type> buildTypes,
+            int[] probeKeyChannels,
+            int[] buildKeyChannels,
+            int[] probeOutputChannels,
+            int[] buildOutputChannels,
+            boolean outer,
+            List<BlockPositionOrdering> keyOrderings)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.bridge = requireNonNull(bridge, "bridge is null");
+        bridge.setMemoryContext(operatorContext.aggregateUserMemoryContext().newLocalMemoryContext(MergeJoinBridge.class.getSimpleName()));
+        this.buildTypes = ImmutableList.copyOf(requireNonNull(buildTypes, "buildTypes is null"));
+        this.probeKeyChannels = requireNonNull(probeKeyChannels, "probeKeyChannels is null");
+        this.buildKeyChannels = requireNonNull(buildKeyChannels, "buildKeyChannels is null");
+        this.probeOutputChannels = requireNonNull(probeOutputChannels, "probeOutputChannels is null");
+        this.buildOutputChannels = requireNonNull(buildOutputChannels, "buildOutputChannels is null");
+        this.outer = outer;
+        this.keyOrderings = ImmutableList.copyOf(requireNonNull(keyOrderings, "keyOrderings is null"));
+
+        ImmutableList.Builder<Type> outputTypes = ImmutableList.builder();
+        for (int channel : probeOutputChannels) {
+            outputTypes.add(probeTypes.get(channel));
+        }
+        for (int channel : buildOutputChannels) {
+            outputTypes.add(buildTypes.get(channel));
+        }
+        this.pageBuilder = new PageBuilder(outputTypes.build());
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        return waitingForBuild ? bridge.whenNotEmpty() : NOT_BLOCKED;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !finishing && probePage == null;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        requireNonNull(page, "page is null");
+        checkState(needsInput(), "Operator does not need input");
+        probePage = page;
+        probePosition = 0;
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        waitingForBuild = false;
+        while (probePage != null && !pageBuilder.isFull()) {
+            if (probePosition == probePage.getPositionCount()) {
+                probePage = null;
+                break;
+            }
+
+            if (!matching) {
+                if (hasNullKey(probePage, probeKeyChannels, probePosition)) {
+                    appendUnmatched();
+                    probePosition++;
+                    continue;
+                }
+                if (!prepareGroup()) {
+                    waitingForBuild = true;
+                    break;
+                }
+                if (groupKeyPage == null || compare(probePage, probeKeyChannels, probePosition, groupKeyPage, buildKeyChannels, groupKeyPosition) != 0) {
+                    appendUnmatched();
+                    probePosition++;
+                    continue;
+                }
+                matching = true;
+                matchSegment = 0;
+                matchPosition = 0;
+            }
+
+            if (appendMatches()) {
+                matching = false;
+                probePosition++;
+            }
+        }
+        localUserMemoryContext.setBytes(groupRetainedBytes + pageBuilder.getRetainedSizeInBytes());
+
+        if (pageBuilder.isEmpty() || (!pageBuilder.isFull() && probePage != null && !waitingForBuild)) {
+            return null;
+        }
+        Page output = pageBuilder.build();
+        pageBuilder.reset();
+        return output;
+    }
+
+    /**
+     * Positions the group at the first build key which is not below the key of the current probe row,
+     * and collects all build rows with that key. Returns false if more build pages are needed.
+     */
+    private boolean prepareGroup()
+    {
+        if (groupKeyPage != null && compare(probePage, probeKeyChannels, probePosition, groupKeyPage, buildKeyChannels, groupKeyPosition) > 0) {
+            // the remaining rows of an incomplete group are skipped below, as their key is lower than the probe key
+            clearGroup();
+        }
+
+        if (groupKeyPage == null) {
+            while (true) {
+                if (!ensureBuildPage()) {
+                    return false;
+                }
+                if (buildPage == null) {
+                    // no more build rows, so the group stays empty
+                    return true;
+                }
+                if (!hasNullKey(buildPage, buildKeyChannels, buildPosition) &&
+                        compare(probePage, probeKeyChannels, probePosition, buildPage, buildKeyChannels, buildPosition) <= 0) {
+                    break;
+                }
+                buildPosition++;
+            }
+            groupKeyPage = buildPage;
+            groupKeyPosition = buildPosition;
+            groupComplete = false;
+            segmentStart = buildPosition;
+            buildPosition++;
+        }
+
+        while (!groupComplete) {
+            if (!ensureBuildPage()) {
+                return false;
+            }
+            if (buildPage == null) {
+                groupComplete = true;
+            }
+            else if (!hasNullKey(buildPage, buildKeyChannels, buildPosition) &&
+                    compare(groupKeyPage, buildKeyChannels, groupKeyPosition, buildPage, buildKeyChannels, buildPosition) == 0) {
+                buildPosition++;
+            }
+            else {
+                closeSegment();
+                groupComplete = true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Makes sure {@code buildPage} has a row at {@code buildPosition}, or is null when the build side is
+     * exhausted. Returns false if the next build page is not available yet.
+     */
+    private boolean ensureBuildPage()
+    {
+        while (buildPage == null || buildPosition == buildPage.getPositionCount()) {
+            if (buildPage != null) {
+                if (groupKeyPage != null && !groupComplete) {
+                    closeSegment();
+                    segmentStart = 0;
+                }
+                buildPage = null;
+            }
+            if (buildExhausted) {
+                return true;
+            }
+            Page page = bridge.pollPage();
+            if (page == null) {
+                if (bridge.isFinished()) {
+                    buildExhausted = true;
+                    return true;
+                }
+                return false;
+            }
+            buildPage = page;
+            buildPosition = 0;
+        }
+        return true;
+    }
+
+    private void closeSegment()
+    {
+        if (buildPosition > segmentStart) {
+            Page segment = buildPage.getRegion(segmentStart, buildPosition - segmentStart);
+            group.add(segment);
+            groupRetainedBytes += segment.getRetainedSizeInBytes();
+        }
+    }
+
+    private void clearGroup()
+    {
+        group.clear();
+        groupRetainedBytes = 0;
+        groupKeyPage = null;
+        groupComplete = false;
+    }
+
+    /**
+     * Appends the current probe row joined with the group rows. Returns false if the page builder
+     * became full before all group rows were appended.
+     */
+    private boolean appendMatches()
+    {
+        while (matchSegment < group.size()) {
+            Page segment = group.get(matchSegment);
+            while (matchPosition < segment.getPositionCount()) {
+                if (pageBuilder.isFull()) {
+                    return false;
+                }
+                pageBuilder.declarePosition();
+                appendProbeRow();
+                for (int i = 0; i < buildOutputChannels.length; i++) {
+                    Type type = buildTypes.get(buildOutputChannels[i]);
+                    type.appendTo(segment.getBlock(buildOutputChannels[i]), matchPosition, pageBuilder.getBlockBuilder(probeOutputChannels.length + i));
+                }
+                matchPosition++;
+            }
+            matchSegment++;
+            matchPosition = 0;
+        }
+        return true;
+    }
+
+    private void appendUnmatched()
+    {
+        if (!outer) {
+            return;
+        }
+        pageBuilder.declarePosition();
+        appendProbeRow();
+        for (int i = 0; i < buildOutputChannels.length; i++) {
+            pageBuilder.getBlockBuilder(probeOutputChannels.length + i).appendNull();
+        }
+    }
+
+    private void appendProbeRow()
+    {
+        for (int i = 0; i < probeOutputChannels.length; i++) {
+            Type type = pageBuilder.getType(i);
+            type.appendTo(probePage.getBlock(probeOutputChannels[i]), probePosition, pageBuilder.getBlockBuilder(i));
+        }
+    }
+
+    private int compare(Page left, int[] leftChannels, int leftPosition, Page right, int[] rightChannels, int rightPosition)
+    {
+        for (int i = 0; i < leftChannels.length; i++) {
+            int result = keyOrderings.get(i).order(left.getBlock(leftChannels[i]), leftPosition, right.getBlock(rightChannels[i]), rightPosition);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean hasNullKey(Page page, int[] keyChannels, int position)
+    {
+        for (int channel : keyChannels) {
+            Block block = page.getBlock(channel);
+            if (block.isNull(position)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void finish()
+    {
+        finishing = true;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finishing && probePage == null && pageBuilder.isEmpty();
+    }
+
+    @Override
+    public void close()
+    {
+        bridge.probeFinished();
+        clearGroup();
+        localUserMemoryContext.setBytes(0);
+    }
+}
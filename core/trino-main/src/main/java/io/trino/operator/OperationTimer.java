@@ -30,15 +30,19 @@ import static java.util.Objects.requireNonNull;
 class OperationTimer
 {
     private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean ALLOCATION_TRACKING_SUPPORTED = isAllocationTrackingSupported();
 
     private final boolean trackOverallCpuTime;
     private final boolean trackOperationCpuTime;
+    private final boolean trackOperationAllocation;
 
     private final long wallStart;
     private final long cpuStart;
+    private final long allocationStart;
 
     private long intervalWallStart;
     private long intervalCpuStart;
+    private long intervalAllocationStart;
 
     private boolean finished;
 
@@ -48,21 +52,30 @@ class OperationTimer
     }
 
     OperationTimer(boolean trackOverallCpuTime, boolean trackOperationCpuTime)
+    {
+        this(trackOverallCpuTime, trackOperationCpuTime, false);
+    }
+
+    OperationTimer(boolean trackOverallCpuTime, boolean trackOperationCpuTime, boolean trackOperationAllocation)
     {
         this.trackOverallCpuTime = trackOverallCpuTime;
         this.trackOperationCpuTime = trackOperationCpuTime;
         checkArgument(trackOverallCpuTime || !trackOperationCpuTime, "tracking operation cpu time without tracking overall cpu time is not supported");
+        this.trackOperationAllocation = trackOperationAllocation && ALLOCATION_TRACKING_SUPPORTED;
 
         wallStart = System.nanoTime();
         cpuStart = trackOverallCpuTime ? currentThreadCpuTime() : 0;
+        allocationStart = this.trackOperationAllocation ? currentThreadAllocatedBytes() : 0;
 
         intervalWallStart = wallStart;
         intervalCpuStart = cpuStart;
+        intervalAllocationStart = allocationStart;
     }
 
     void resetInterval()
     {
         intervalCpuStart = trackOperationCpuTime ? currentThreadCpuTime() : 0;
+        intervalAllocationStart = trackOperationAllocation ? currentThreadAllocatedBytes() : 0;
         intervalWallStart = System.nanoTime();
     }
 
@@ -72,14 +85,17 @@ class OperationTimer
         checkState(!finished, "timer is finished");
 
         long intervalCpuEnd = trackOperationCpuTime ? currentThreadCpuTime() : 0;
+        long intervalAllocationEnd = trackOperationAllocation ? currentThreadAllocatedBytes() : 0;
         long intervalWallEnd = System.nanoTime();
 
         long operationWallNanos = nanosBetween(intervalWallStart, intervalWallEnd);
         long operationCpuNanos = trackOperationCpuTime ? nanosBetween(intervalCpuStart, intervalCpuEnd) : 0;
-        operationTiming.record(operationWallNanos, operationCpuNanos);
+        long operationAllocationBytes = trackOperationAllocation ? bytesBetween(intervalAllocationStart, intervalAllocationEnd) : 0;
+        operationTiming.record(operationWallNanos, operationCpuNanos, operationAllocationBytes);
 
         intervalWallStart = intervalWallEnd;
         intervalCpuStart = intervalCpuEnd;
+        intervalAllocationStart = intervalAllocationEnd;
     }
 
     void end(OperationTiming overallTiming)
@@ -89,9 +105,10 @@ class OperationTimer
         finished = true;
 
         long cpuEnd = trackOverallCpuTime ? currentThreadCpuTime() : 0;
+        long allocationEnd = trackOperationAllocation ? currentThreadAllocatedBytes() : 0;
         long wallEnd = System.nanoTime();
 
-        overallTiming.record(nanosBetween(wallStart, wallEnd), nanosBetween(cpuStart, cpuEnd));
+        overallTiming.record(nanosBetween(wallStart, wallEnd), nanosBetween(cpuStart, cpuEnd), bytesBetween(allocationStart, allocationEnd));
     }
 
     private static long currentThreadCpuTime()
@@ -99,17 +116,41 @@ class OperationTimer
         return THREAD_MX_BEAN.getCurrentThreadCpuTime();
     }
 
+    private static long currentThreadAllocatedBytes()
+    {
+        return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static boolean isAllocationTrackingSupported()
+    {
+        if (!(THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean)) {
+            return false;
+        }
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+        return threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled();
+    }
+
     private static long nanosBetween(long start, long end)
     {
         return max(0, end - start);
     }
 
+    private static long bytesBetween(long start, long end)
+    {
+        // the counter is -1 when allocation tracking gets disabled at runtime
+        if (start < 0 || end < 0) {
+            return 0;
+        }
+        return max(0, end - start);
+    }
+
     @ThreadSafe
     static class OperationTiming
     {
         private final AtomicLong calls = new AtomicLong();
         private final AtomicLong wallNanos = new AtomicLong();
         private final AtomicLong cpuNanos = new AtomicLong();
+        private final AtomicLong allocationBytes = new AtomicLong();
 
         long getCalls()
         {
@@ -126,11 +167,17 @@ class OperationTimer
             return cpuNanos.get();
         }
 
-        void record(long wallNanos, long cpuNanos)
+        long getAllocationBytes()
+        {
+            return allocationBytes.get();
+        }
+
+        void record(long wallNanos, long cpuNanos, long allocationBytes)
         {
             this.calls.incrementAndGet();
             this.wallNanos.addAndGet(wallNanos);
             this.cpuNanos.addAndGet(cpuNanos);
+            this.allocationBytes.addAndGet(allocationBytes);
         }
 
         @Override
@@ -140,6 +187,7 @@ class OperationTimer
                     .add("calls", calls)
                     .add("wallNanos", wallNanos)
                     .add("cpuNanos", cpuNanos)
+                    .add("allocationBytes", allocationBytes)
                     .toString();
         }
     }
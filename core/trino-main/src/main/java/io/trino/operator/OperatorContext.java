@@ -528,6 +528,8 @@ public class OperatorContext
                 new Duration(finishTiming.getWallNanos(), NANOSECONDS).convertToMostSuccinctTimeUnit(),
                 new Duration(finishTiming.getCpuNanos(), NANOSECONDS).convertToMostSuccinctTimeUnit(),
 
+                succinctBytes(addInputTiming.getAllocationBytes() + getOutputTiming.getAllocationBytes() + finishTiming.getAllocationBytes()),
+
                 succinctBytes(operatorMemoryContext.getUserMemory()),
                 succinctBytes(getReservedRevocableBytes()),
                 succinctBytes(operatorMemoryContext.getSystemMemory()),
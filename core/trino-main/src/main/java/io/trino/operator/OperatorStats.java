@@ -72,6 +72,8 @@ public class OperatorStats
     private final Duration finishWall;
     private final Duration finishCpu;
 
+    private final DataSize allocatedDataSize;
+
     private final DataSize userMemoryReservation;
     private final DataSize revocableMemoryReservation;
     private final DataSize systemMemoryReservation;
@@ -124,6 +126,8 @@ public class OperatorStats
             @JsonProperty("finishWall") Duration finishWall,
             @JsonProperty("finishCpu") Duration finishCpu,
 
+            @JsonProperty("allocatedDataSize") DataSize allocatedDataSize,
+
             @JsonProperty("userMemoryReservation") DataSize userMemoryReservation,
             @JsonProperty("revocableMemoryReservation") DataSize revocableMemoryReservation,
             @JsonProperty("systemMemoryReservation") DataSize systemMemoryReservation,
@@ -178,6 +182,8 @@ public class OperatorStats
         this.finishWall = requireNonNull(finishWall, "finishWall is null");
         this.finishCpu = requireNonNull(finishCpu, "finishCpu is null");
 
+        this.allocatedDataSize = requireNonNull(allocatedDataSize, "allocatedDataSize is null");
+
         this.userMemoryReservation = requireNonNull(userMemoryReservation, "userMemoryReservation is null");
         this.revocableMemoryReservation = requireNonNull(revocableMemoryReservation, "revocableMemoryReservation is null");
         this.systemMemoryReservation = requireNonNull(systemMemoryReservation, "systemMemoryReservation is null");
@@ -362,6 +368,12 @@ public class OperatorStats
         return finishCpu;
     }
 
+    @JsonProperty
+    public DataSize getAllocatedDataSize()
+    {
+        return allocatedDataSize;
+    }
+
     @JsonProperty
     public DataSize getUserMemoryReservation()
     {
@@ -460,6 +472,8 @@ public class OperatorStats
         long finishWall = this.finishWall.roundTo(NANOSECONDS);
         long finishCpu = this.finishCpu.roundTo(NANOSECONDS);
 
+        long allocatedDataSize = this.allocatedDataSize.toBytes();
+
         long memoryReservation = this.userMemoryReservation.toBytes();
         long revocableMemoryReservation = this.revocableMemoryReservation.toBytes();
         long systemMemoryReservation = this.systemMemoryReservation.toBytes();
@@ -505,6 +519,8 @@ public class OperatorStats
             finishWall += operator.getFinishWall().roundTo(NANOSECONDS);
             finishCpu += operator.getFinishCpu().roundTo(NANOSECONDS);
 
+            allocatedDataSize += operator.getAllocatedDataSize().toBytes();
+
             blockedWall += operator.getBlockedWall().roundTo(NANOSECONDS);
 
             memoryReservation += operator.getUserMemoryReservation().toBytes();
@@ -566,6 +582,8 @@ public class OperatorStats
                 new Duration(finishWall, NANOSECONDS).convertToMostSuccinctTimeUnit(),
                 new Duration(finishCpu, NANOSECONDS).convertToMostSuccinctTimeUnit(),
 
+                succinctBytes(allocatedDataSize),
+
                 succinctBytes(memoryReservation),
                 succinctBytes(revocableMemoryReservation),
                 succinctBytes(systemMemoryReservation),
@@ -628,6 +646,7 @@ public class OperatorStats
                 finishCalls,
                 finishWall,
                 finishCpu,
+                allocatedDataSize,
                 userMemoryReservation,
                 revocableMemoryReservation,
                 systemMemoryReservation,
@@ -35,6 +35,7 @@ import io.trino.sql.gen.JoinCompiler.LookupSourceSupplierFactory;
 import io.trino.sql.gen.JoinFilterFunctionCompiler.JoinFilterFunctionFactory;
 import io.trino.sql.gen.OrderingCompiler;
 import io.trino.type.BlockTypeOperators;
+import io.trino.type.BlockTypeOperators.BlockPositionOrdering;
 import it.unimi.dsi.fastutil.Swapper;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
@@ -62,6 +63,7 @@ import static io.trino.operator.SyntheticAddress.decodePosition;
 import static io.trino.operator.SyntheticAddress.decodeSliceIndex;
 import static io.trino.operator.SyntheticAddress.encodeSyntheticAddress;
 import static io.trino.spi.StandardErrorCode.GENERIC_INSUFFICIENT_RESOURCES;
+import static io.trino.spi.connector.SortOrder.ASC_NULLS_LAST;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -486,6 +488,19 @@ public class PagesIndex
         return new PagesSpatialIndexSupplier(session, valueAddresses, types, outputChannels, channels, geometryChannel, radiusChannel, partitionChannel, spatialRelationshipTest, filterFunctionFactory, partitions);
     }
 
+    public PagesRangeIndexSupplier createPagesRangeIndex(
+            Session session,
+            int lowerBoundChannel,
+            int upperBoundChannel,
+            JoinFilterFunctionFactory filterFunctionFactory,
+            List<Integer> outputChannels)
+    {
+        sort(ImmutableList.of(lowerBoundChannel), ImmutableList.of(ASC_NULLS_LAST));
+        List<List<Block>> channels = ImmutableList.copyOf(this.channels);
+        BlockPositionOrdering ordering = blockTypeOperators.generateBlockPositionOrdering(types.get(lowerBoundChannel), ASC_NULLS_LAST);
+        return new PagesRangeIndexSupplier(session, valueAddresses, types, outputChannels, channels, lowerBoundChannel, upperBoundChannel, ordering, filterFunctionFactory);
+    }
+
     public LookupSourceSupplier createLookupSourceSupplier(
             Session session,
             List<Integer> joinChannels,
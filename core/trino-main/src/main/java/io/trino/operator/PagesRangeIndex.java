@@ -0,0 +1,147 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import io.trino.type.BlockTypeOperators.BlockPositionOrdering;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.util.List;
+
+import static io.trino.operator.SyntheticAddress.decodePosition;
+import static io.trino.operator.SyntheticAddress.decodeSliceIndex;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Finds the build rows of a range join whose range contains a probe value. The build rows are
+ * sorted by their lower bound, so the rows with a lower bound not above the probe value form a
+ * prefix, which is found by a binary search. The prefix is scanned backwards, and the scan stops
+ * as soon as the maximal upper bound of the remaining rows is below the probe value. For ranges
+ * of limited width this visits only the rows whose lower bound is close to the probe value.
+ * <p>
+ * The range is only checked with the ordering of the bound type, so the join filter has to be
+ * applied to the returned positions with {@link #isJoinPositionEligible(int, int, Page)}.
+ */
+public final class PagesRangeIndex
+{
+    private final LongArrayList addresses;
+    private final List<Type> types;
+    private final List<Integer> outputChannels;
+    private final List<List<Block>> channels;
+    private final int lowerBoundChannel;
+    private final int upperBoundChannel;
+    private final BlockPositionOrdering ordering;
+    private final int[] maxUpperBoundPositions;
+    private final JoinFilterFunction filterFunction;
+
+    public PagesRangeIndex(
+            LongArrayList addresses,
+            List<Type> types,
+            List<Integer> outputChannels,
+            List<List<Block>> channels,
+            int lowerBoundChannel,
+            int upperBoundChannel,
+            BlockPositionOrdering ordering,
+            int[] maxUpperBoundPositions,
+            JoinFilterFunction filterFunction)
+    {
+        this.addresses = requireNonNull(addresses, "addresses is null");
+        this.types = requireNonNull(types, "types is null");
+        this.outputChannels = requireNonNull(outputChannels, "outputChannels is null");
+        this.channels = requireNonNull(channels, "channels is null");
+        this.lowerBoundChannel = lowerBoundChannel;
+        this.upperBoundChannel = upperBoundChannel;
+        this.ordering = requireNonNull(ordering, "ordering is null");
+        this.maxUpperBoundPositions = requireNonNull(maxUpperBoundPositions, "maxUpperBoundPositions is null");
+        this.filterFunction = requireNonNull(filterFunction, "filterFunction is null");
+    }
+
+    /**
+     * Returns the first join position whose range may contain the probe value, or -1 if there is none.
+     */
+    public int findJoinPosition(int probePosition, Page probe, int probeChannel)
+    {
+        Block probeBlock = probe.getBlock(probeChannel);
+        if (probeBlock.isNull(probePosition)) {
+            return -1;
+        }
+
+        // count the rows with a lower bound not above the probe value
+        int low = 0;
+        int high = addresses.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(lowerBoundChannel, middle, probeBlock, probePosition) <= 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return findJoinPosition(low - 1, probeBlock, probePosition);
+    }
+
+    /**
+     * Returns the next join position whose range may contain the probe value, or -1 if there is none.
+     */
+    public int findNextJoinPosition(int joinPosition, int probePosition, Page probe, int probeChannel)
+    {
+        return findJoinPosition(joinPosition - 1, probe.getBlock(probeChannel), probePosition);
+    }
+
+    private int findJoinPosition(int position, Block probeBlock, int probePosition)
+    {
+        while (position >= 0) {
+            if (compare(upperBoundChannel, maxUpperBoundPositions[position], probeBlock, probePosition) < 0) {
+                // no row up to this position has an upper bound reaching the probe value
+                return -1;
+            }
+            if (compare(upperBoundChannel, position, probeBlock, probePosition) >= 0) {
+                return position;
+            }
+            position--;
+        }
+        return -1;
+    }
+
+    public boolean isJoinPositionEligible(int joinPosition, int probePosition, Page probe)
+    {
+        return filterFunction.filter(joinPosition, probePosition, probe);
+    }
+
+    public void appendTo(int joinPosition, PageBuilder pageBuilder, int outputChannelOffset)
+    {
+        long joinAddress = addresses.getLong(joinPosition);
+        int blockIndex = decodeSliceIndex(joinAddress);
+        int blockPosition = decodePosition(joinAddress);
+
+        for (int outputIndex : outputChannels) {
+            Type type = types.get(outputIndex);
+            List<Block> channel = channels.get(outputIndex);
+            Block block = channel.get(blockIndex);
+            type.appendTo(block, blockPosition, pageBuilder.getBlockBuilder(outputChannelOffset));
+            outputChannelOffset++;
+        }
+    }
+
+    private int compare(int channel, int position, Block probeBlock, int probePosition)
+    {
+        long address = addresses.getLong(position);
+        Block block = channels.get(channel).get(decodeSliceIndex(address));
+        return ordering.order(block, decodePosition(address), probeBlock, probePosition);
+    }
+}
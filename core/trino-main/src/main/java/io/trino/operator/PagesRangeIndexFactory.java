@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.trino.spi.type.Type;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Verify.verify;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * This factory is used to pass range index built by RangeIndexBuilderOperator
+ * to RangeJoinOperators, in the same way as {@link PagesSpatialIndexFactory}
+ * does for spatial joins.
+ * <p>
+ * {@link #lendPagesRangeIndex(Supplier)} returns a Future that completes once all
+ * the RangeJoinOperators completed. RangeIndexBuilderOperator uses that Future
+ * to decide on its own completion.
+ */
+@ThreadSafe
+public class PagesRangeIndexFactory
+{
+    private final List<Type> types;
+    private final List<Type> outputTypes;
+
+    @GuardedBy("this")
+    private final List<SettableFuture<PagesRangeIndex>> pagesRangeIndexFutures = new ArrayList<>();
+
+    @GuardedBy("this")
+    @Nullable
+    private Supplier<PagesRangeIndex> pagesRangeIndex;
+
+    private final SettableFuture<?> destroyed = SettableFuture.create();
+
+    public PagesRangeIndexFactory(List<Type> types, List<Type> outputTypes)
+    {
+        this.types = ImmutableList.copyOf(types);
+        this.outputTypes = ImmutableList.copyOf(outputTypes);
+    }
+
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    public List<Type> getOutputTypes()
+    {
+        return outputTypes;
+    }
+
+    public void destroy()
+    {
+        destroyed.set(null);
+        synchronized (this) {
+            pagesRangeIndex = null;
+            pagesRangeIndexFutures.clear();
+        }
+    }
+
+    /**
+     * Called by {@link RangeJoinOperator}.
+     */
+    public synchronized ListenableFuture<PagesRangeIndex> createPagesRangeIndex()
+    {
+        checkState(!destroyed.isDone(), "already destroyed");
+        if (pagesRangeIndex != null) {
+            return immediateFuture(pagesRangeIndex.get());
+        }
+
+        SettableFuture<PagesRangeIndex> future = SettableFuture.create();
+        pagesRangeIndexFutures.add(future);
+        return future;
+    }
+
+    /**
+     * Called by {@link RangeIndexBuilderOperator} to provide a
+     * {@link Supplier} of range indexes for {@link RangeJoinOperator}s to use.
+     * <p>
+     * Returns a Future that completes once all the {@link RangeJoinOperator}s have completed.
+     */
+    public ListenableFuture<?> lendPagesRangeIndex(Supplier<PagesRangeIndex> pagesRangeIndex)
+    {
+        requireNonNull(pagesRangeIndex, "pagesRangeIndex is null");
+
+        List<SettableFuture<PagesRangeIndex>> settableFutures;
+        synchronized (this) {
+            if (destroyed.isDone()) {
+                return destroyed;
+            }
+
+            verify(this.pagesRangeIndex == null);
+            this.pagesRangeIndex = pagesRangeIndex;
+            settableFutures = ImmutableList.copyOf(pagesRangeIndexFutures);
+            pagesRangeIndexFutures.clear();
+        }
+
+        for (SettableFuture<PagesRangeIndex> settableFuture : settableFutures) {
+            settableFuture.set(pagesRangeIndex.get());
+        }
+
+        return destroyed;
+    }
+}
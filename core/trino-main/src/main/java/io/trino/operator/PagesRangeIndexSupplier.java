@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import io.airlift.units.DataSize;
+import io.trino.Session;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import io.trino.sql.gen.JoinFilterFunctionCompiler.JoinFilterFunctionFactory;
+import io.trino.type.BlockTypeOperators.BlockPositionOrdering;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.trino.operator.JoinUtils.channelsToPages;
+import static io.trino.operator.SyntheticAddress.decodePosition;
+import static io.trino.operator.SyntheticAddress.decodeSliceIndex;
+import static java.util.Objects.requireNonNull;
+
+public class PagesRangeIndexSupplier
+        implements Supplier<PagesRangeIndex>
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(PagesRangeIndexSupplier.class).instanceSize();
+
+    private final Session session;
+    private final LongArrayList addresses;
+    private final List<Type> types;
+    private final List<Integer> outputChannels;
+    private final List<List<Block>> channels;
+    private final int lowerBoundChannel;
+    private final int upperBoundChannel;
+    private final BlockPositionOrdering ordering;
+    private final JoinFilterFunctionFactory filterFunctionFactory;
+    // position of the maximal upper bound among the rows up to each position
+    private final int[] maxUpperBoundPositions;
+    private final long memorySizeInBytes;
+
+    /**
+     * @param sortedAddresses addresses of the build rows, sorted by the lower bound
+     */
+    public PagesRangeIndexSupplier(
+            Session session,
+            LongArrayList sortedAddresses,
+            List<Type> types,
+            List<Integer> outputChannels,
+            List<List<Block>> channels,
+            int lowerBoundChannel,
+            int upperBoundChannel,
+            BlockPositionOrdering ordering,
+            JoinFilterFunctionFactory filterFunctionFactory)
+    {
+        this.session = requireNonNull(session, "session is null");
+        this.types = requireNonNull(types, "types is null");
+        this.outputChannels = requireNonNull(outputChannels, "outputChannels is null");
+        this.channels = requireNonNull(channels, "channels is null");
+        this.lowerBoundChannel = lowerBoundChannel;
+        this.upperBoundChannel = upperBoundChannel;
+        this.ordering = requireNonNull(ordering, "ordering is null");
+        this.filterFunctionFactory = requireNonNull(filterFunctionFactory, "filterFunctionFactory is null");
+
+        // rows with a null bound are not contained in any range
+        this.addresses = new LongArrayList(sortedAddresses.size());
+        for (int position = 0; position < sortedAddresses.size(); position++) {
+            long address = sortedAddresses.getLong(position);
+            if (!isNull(lowerBoundChannel, address) && !isNull(upperBoundChannel, address)) {
+                addresses.add(address);
+            }
+        }
+
+        this.maxUpperBoundPositions = new int[addresses.size()];
+        int maxPosition = 0;
+        for (int position = 0; position < addresses.size(); position++) {
+            if (compareUpperBounds(position, maxPosition) > 0) {
+                maxPosition = position;
+            }
+            maxUpperBoundPositions[position] = maxPosition;
+        }
+
+        this.memorySizeInBytes = INSTANCE_SIZE + sizeOf(addresses.elements()) + sizeOf(maxUpperBoundPositions);
+    }
+
+    private boolean isNull(int channel, long address)
+    {
+        return channels.get(channel).get(decodeSliceIndex(address)).isNull(decodePosition(address));
+    }
+
+    private int compareUpperBounds(int leftPosition, int rightPosition)
+    {
+        long leftAddress = addresses.getLong(leftPosition);
+        long rightAddress = addresses.getLong(rightPosition);
+        List<Block> upperBounds = channels.get(upperBoundChannel);
+        return ordering.order(
+                upperBounds.get(decodeSliceIndex(leftAddress)),
+                decodePosition(leftAddress),
+                upperBounds.get(decodeSliceIndex(rightAddress)),
+                decodePosition(rightAddress));
+    }
+
+    // doesn't include memory used by channels which are shared with PagesIndex
+    public DataSize getEstimatedSize()
+    {
+        return DataSize.ofBytes(memorySizeInBytes);
+    }
+
+    @Override
+    public PagesRangeIndex get()
+    {
+        return new PagesRangeIndex(
+                addresses,
+                types,
+                outputChannels,
+                channels,
+                lowerBoundChannel,
+                upperBoundChannel,
+                ordering,
+                maxUpperBoundPositions,
+                filterFunctionFactory.create(session.toConnectorSession(), addresses, channelsToPages(channels)));
+    }
+}
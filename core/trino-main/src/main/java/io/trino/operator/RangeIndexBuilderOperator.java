@@ -0,0 +1,226 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.spi.Page;
+import io.trino.spi.type.Type;
+import io.trino.sql.gen.JoinFilterFunctionCompiler.JoinFilterFunctionFactory;
+import io.trino.sql.planner.plan.PlanNodeId;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+public class RangeIndexBuilderOperator
+        implements Operator
+{
+    public static final class RangeIndexBuilderOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final PagesRangeIndexFactory pagesRangeIndexFactory;
+        private final List<Integer> outputChannels;
+        private final int lowerBoundChannel;
+        private final int upperBoundChannel;
+        private final JoinFilterFunctionFactory filterFunctionFactory;
+        private final PagesIndex.Factory pagesIndexFactory;
+
+        private final int expectedPositions;
+
+        private boolean closed;
+
+        public RangeIndexBuilderOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<Type> types,
+                List<Integer> outputChannels,
+                int lowerBoundChannel,
+                int upperBoundChannel,
+                JoinFilterFunctionFactory filterFunctionFactory,
+                int expectedPositions,
+                PagesIndex.Factory pagesIndexFactory)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.outputChannels = ImmutableList.copyOf(requireNonNull(outputChannels, "outputChannels is null"));
+            checkArgument(types.get(lowerBoundChannel).equals(types.get(upperBoundChannel)), "lower and upper bound types do not match");
+
+            List<Type> outputTypes = outputChannels.stream()
+                    .map(types::get)
+                    .collect(toImmutableList());
+            pagesRangeIndexFactory = new PagesRangeIndexFactory(types, outputTypes);
+
+            this.lowerBoundChannel = lowerBoundChannel;
+            this.upperBoundChannel = upperBoundChannel;
+            this.filterFunctionFactory = requireNonNull(filterFunctionFactory, "filterFunctionFactory is null");
+            this.pagesIndexFactory = requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
+            this.expectedPositions = expectedPositions;
+        }
+
+        public PagesRangeIndexFactory getPagesRangeIndexFactory()
+        {
+            return pagesRangeIndexFactory;
+        }
+
+        @Override
+        public RangeIndexBuilderOperator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, RangeIndexBuilderOperator.class.getSimpleName());
+            return new RangeIndexBuilderOperator(
+                    operatorContext,
+                    pagesRangeIndexFactory,
+                    outputChannels,
+                    lowerBoundChannel,
+                    upperBoundChannel,
+                    filterFunctionFactory,
+                    expectedPositions,
+                    pagesIndexFactory);
+        }
+
+        @Override
+        public void noMoreOperators()
+        {
+            closed = true;
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            throw new UnsupportedOperationException("Range index build cannot be duplicated");
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final LocalMemoryContext localUserMemoryContext;
+    private final PagesRangeIndexFactory pagesRangeIndexFactory;
+
+    private final List<Integer> outputChannels;
+    private final int lowerBoundChannel;
+    private final int upperBoundChannel;
+    private final JoinFilterFunctionFactory filterFunctionFactory;
+
+    private final PagesIndex index;
+    private ListenableFuture<?> indexNotNeeded;
+
+    private boolean finishing;
+    private boolean finished;
+
+    private RangeIndexBuilderOperator(
+            OperatorContext operatorContext,
+            PagesRangeIndexFactory pagesRangeIndexFactory,
+            List<Integer> outputChannels,
+            int lowerBoundChannel,
+            int upperBoundChannel,
+            JoinFilterFunctionFactory filterFunctionFactory,
+            int expectedPositions,
+            PagesIndex.Factory pagesIndexFactory)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.pagesRangeIndexFactory = requireNonNull(pagesRangeIndexFactory, "pagesRangeIndexFactory is null");
+        this.index = pagesIndexFactory.newPagesIndex(pagesRangeIndexFactory.getTypes(), expectedPositions);
+
+        this.outputChannels = requireNonNull(outputChannels, "outputChannels is null");
+        this.lowerBoundChannel = lowerBoundChannel;
+        this.upperBoundChannel = upperBoundChannel;
+        this.filterFunctionFactory = requireNonNull(filterFunctionFactory, "filterFunctionFactory is null");
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !finishing;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        requireNonNull(page, "page is null");
+        checkState(!isFinished(), "Operator is already finished");
+
+        index.addPage(page);
+
+        if (!localUserMemoryContext.trySetBytes((index.getEstimatedSize().toBytes()))) {
+            index.compact();
+            localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
+        }
+
+        operatorContext.recordOutput(page.getSizeInBytes(), page.getPositionCount());
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        return null;
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (indexNotNeeded != null && !indexNotNeeded.isDone()) {
+            return indexNotNeeded;
+        }
+        return NOT_BLOCKED;
+    }
+
+    @Override
+    public void finish()
+    {
+        if (finishing) {
+            return;
+        }
+
+        finishing = true;
+        PagesRangeIndexSupplier rangeIndex = index.createPagesRangeIndex(operatorContext.getSession(), lowerBoundChannel, upperBoundChannel, filterFunctionFactory, outputChannels);
+        localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes() + rangeIndex.getEstimatedSize().toBytes());
+        indexNotNeeded = pagesRangeIndexFactory.lendPagesRangeIndex(rangeIndex);
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        if (finished) {
+            return true;
+        }
+
+        if (finishing && indexNotNeeded.isDone()) {
+            index.clear();
+            localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
+            finished = true;
+        }
+
+        return finished;
+    }
+
+    @Override
+    public void close()
+    {
+        index.clear();
+        localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
+    }
+}
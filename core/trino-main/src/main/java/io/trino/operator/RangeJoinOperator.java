@@ -0,0 +1,326 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import io.trino.sql.planner.plan.JoinNode;
+import io.trino.sql.planner.plan.PlanNodeId;
+
+import javax.annotation.Nullable;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Verify.verify;
+import static com.google.common.base.Verify.verifyNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.getDone;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.RealType.REAL;
+import static io.trino.sql.planner.plan.JoinNode.Type.INNER;
+import static io.trino.sql.planner.plan.JoinNode.Type.LEFT;
+import static java.util.Objects.requireNonNull;
+
+public class RangeJoinOperator
+        implements Operator
+{
+    private static final int NOT_STARTED = -2;
+
+    public static final class RangeJoinOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final JoinNode.Type joinType;
+        private final List<Type> probeTypes;
+        private final List<Integer> probeOutputChannels;
+        private final int probeChannel;
+        private final PagesRangeIndexFactory pagesRangeIndexFactory;
+        private final ReferenceCount referenceCount;
+
+        private boolean closed;
+
+        public RangeJoinOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                JoinNode.Type joinType,
+                List<Type> probeTypes,
+                List<Integer> probeOutputChannels,
+                int probeChannel,
+                PagesRangeIndexFactory pagesRangeIndexFactory)
+        {
+            checkArgument(joinType == INNER || joinType == LEFT, "unsupported join type: %s", joinType);
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.joinType = joinType;
+            this.probeTypes = ImmutableList.copyOf(probeTypes);
+            this.probeOutputChannels = ImmutableList.copyOf(probeOutputChannels);
+            this.probeChannel = probeChannel;
+            this.pagesRangeIndexFactory = requireNonNull(pagesRangeIndexFactory, "pagesRangeIndexFactory is null");
+            this.referenceCount = new ReferenceCount(1);
+            this.referenceCount.getFreeFuture().addListener(pagesRangeIndexFactory::destroy, directExecutor());
+        }
+
+        private RangeJoinOperatorFactory(RangeJoinOperatorFactory other)
+        {
+            this.operatorId = other.operatorId;
+            this.planNodeId = other.planNodeId;
+            this.joinType = other.joinType;
+            this.probeTypes = other.probeTypes;
+            this.probeOutputChannels = other.probeOutputChannels;
+            this.probeChannel = other.probeChannel;
+            this.pagesRangeIndexFactory = other.pagesRangeIndexFactory;
+            this.referenceCount = other.referenceCount;
+            this.closed = false;
+            referenceCount.retain();
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            OperatorContext operatorContext = driverContext.addOperatorContext(
+                    operatorId,
+                    planNodeId,
+                    RangeJoinOperator.class.getSimpleName());
+            referenceCount.retain();
+            return new RangeJoinOperator(
+                    operatorContext,
+                    joinType,
+                    probeTypes,
+                    probeOutputChannels,
+                    probeChannel,
+                    pagesRangeIndexFactory,
+                    referenceCount::release);
+        }
+
+        @Override
+        public void noMoreOperators()
+        {
+            if (closed) {
+                return;
+            }
+
+            referenceCount.release();
+            closed = true;
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            checkState(!closed, "Factory is already closed");
+            return new RangeJoinOperatorFactory(this);
+        }
+    }
+
+    public static boolean isSupportedBoundType(Type type)
+    {
+        // the ordering of floating point types does not agree with their comparison operators for NaN
+        return type.isOrderable() && !type.equals(DOUBLE) && !type.equals(REAL);
+    }
+
+    private final OperatorContext operatorContext;
+    private final JoinNode.Type joinType;
+    private final List<Type> probeTypes;
+    private final List<Integer> probeOutputChannels;
+    private final int probeChannel;
+    private final PagesRangeIndexFactory pagesRangeIndexFactory;
+    private final Runnable onClose;
+
+    private ListenableFuture<PagesRangeIndex> pagesRangeIndexFuture;
+    private final PageBuilder pageBuilder;
+    @Nullable
+    private Page probe;
+
+    // The following fields represent the state of the operator in case when processProbe yielded or
+    // filled up pageBuilder before processing all records in a probe page.
+    private int probePosition;
+    private int joinPosition = NOT_STARTED;
+    private boolean matchFound;
+
+    private boolean finishing;
+    private boolean finished;
+    private boolean closed;
+
+    public RangeJoinOperator(
+            OperatorContext operatorContext,
+            JoinNode.Type joinType,
+            List<Type> probeTypes,
+            List<Integer> probeOutputChannels,
+            int probeChannel,
+            PagesRangeIndexFactory pagesRangeIndexFactory,
+            Runnable onClose)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.joinType = requireNonNull(joinType, "joinType is null");
+        this.probeTypes = ImmutableList.copyOf(probeTypes);
+        this.probeOutputChannels = ImmutableList.copyOf(probeOutputChannels);
+        this.probeChannel = probeChannel;
+        this.pagesRangeIndexFactory = requireNonNull(pagesRangeIndexFactory, "pagesRangeIndexFactory is null");
+        this.onClose = requireNonNull(onClose, "onClose is null");
+        this.pagesRangeIndexFuture = pagesRangeIndexFactory.createPagesRangeIndex();
+        this.pageBuilder = new PageBuilder(ImmutableList.<Type>builder()
+                .addAll(probeOutputChannels.stream()
+                        .map(probeTypes::get)
+                        .iterator())
+                .addAll(pagesRangeIndexFactory.getOutputTypes())
+                .build());
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !finished && pagesRangeIndexFuture.isDone() && !pageBuilder.isFull() && probe == null;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        verify(probe == null);
+        probe = page;
+        probePosition = 0;
+
+        joinPosition = NOT_STARTED;
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        verify(!finished);
+        if (!pageBuilder.isFull() && probe != null) {
+            processProbe();
+        }
+
+        if (pageBuilder.isFull()) {
+            Page page = pageBuilder.build();
+            pageBuilder.reset();
+            return page;
+        }
+
+        if (finishing && probe == null) {
+            Page page = null;
+            if (!pageBuilder.isEmpty()) {
+                page = pageBuilder.build();
+                pageBuilder.reset();
+            }
+            finished = true;
+            close();
+            return page;
+        }
+
+        return null;
+    }
+
+    private void processProbe()
+    {
+        verifyNotNull(probe);
+
+        PagesRangeIndex pagesRangeIndex = getDone(pagesRangeIndexFuture);
+        DriverYieldSignal yieldSignal = operatorContext.getDriverContext().getYieldSignal();
+        while (probePosition < probe.getPositionCount()) {
+            if (joinPosition == NOT_STARTED) {
+                joinPosition = pagesRangeIndex.findJoinPosition(probePosition, probe, probeChannel);
+                matchFound = false;
+                if (yieldSignal.isSet()) {
+                    return;
+                }
+            }
+
+            while (joinPosition >= 0) {
+                if (pageBuilder.isFull()) {
+                    return;
+                }
+
+                if (pagesRangeIndex.isJoinPositionEligible(joinPosition, probePosition, probe)) {
+                    pageBuilder.declarePosition();
+                    appendProbe();
+                    pagesRangeIndex.appendTo(joinPosition, pageBuilder, probeOutputChannels.size());
+                    matchFound = true;
+                }
+
+                joinPosition = pagesRangeIndex.findNextJoinPosition(joinPosition, probePosition, probe, probeChannel);
+
+                if (yieldSignal.isSet()) {
+                    return;
+                }
+            }
+
+            if (!matchFound && joinType == LEFT) {
+                if (pageBuilder.isFull()) {
+                    return;
+                }
+
+                pageBuilder.declarePosition();
+                appendProbe();
+                int buildColumnCount = pagesRangeIndexFactory.getOutputTypes().size();
+                for (int i = 0; i < buildColumnCount; i++) {
+                    pageBuilder.getBlockBuilder(probeOutputChannels.size() + i).appendNull();
+                }
+            }
+
+            joinPosition = NOT_STARTED;
+            probePosition++;
+        }
+
+        this.probe = null;
+        this.probePosition = 0;
+    }
+
+    private void appendProbe()
+    {
+        int outputChannelOffset = 0;
+        for (int outputIndex : probeOutputChannels) {
+            Type type = probeTypes.get(outputIndex);
+            Block block = probe.getBlock(outputIndex);
+            type.appendTo(block, probePosition, pageBuilder.getBlockBuilder(outputChannelOffset));
+            outputChannelOffset++;
+        }
+    }
+
+    @Override
+    public void finish()
+    {
+        finishing = true;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    @Override
+    public void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        pagesRangeIndexFuture = null;
+        onClose.run();
+    }
+}
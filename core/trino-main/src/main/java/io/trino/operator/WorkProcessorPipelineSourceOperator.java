@@ -43,6 +43,7 @@ import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.units.DataSize.succinctBytes;
+import static io.trino.SystemSessionProperties.isPerOperatorAllocationTrackingEnabled;
 import static io.trino.operator.BlockedReason.WAITING_FOR_MEMORY;
 import static io.trino.operator.PageUtils.recordMaterializedBytes;
 import static io.trino.operator.WorkProcessor.ProcessState.Type.BLOCKED;
@@ -113,7 +114,8 @@ public class WorkProcessorPipelineSourceOperator
         this.operatorContext = driverContext.addOperatorContext(operatorId, sourceId, WorkProcessorPipelineSourceOperator.class.getSimpleName());
         this.timer = new OperationTimer(
                 operatorContext.getDriverContext().isCpuTimerEnabled(),
-                operatorContext.getDriverContext().isCpuTimerEnabled() && operatorContext.getDriverContext().isPerOperatorCpuTimerEnabled());
+                operatorContext.getDriverContext().isCpuTimerEnabled() && operatorContext.getDriverContext().isPerOperatorCpuTimerEnabled(),
+                isPerOperatorAllocationTrackingEnabled(operatorContext.getSession()));
 
         MemoryTrackingContext sourceOperatorMemoryTrackingContext = createMemoryTrackingContext(operatorContext, 0);
         sourceOperatorMemoryTrackingContext.initializeLocalMemoryContexts(sourceOperatorFactory.getOperatorType());
@@ -317,6 +319,8 @@ public class WorkProcessorPipelineSourceOperator
                         ZERO_DURATION,
                         ZERO_DURATION,
 
+                        succinctBytes(context.operatorTiming.getAllocationBytes()),
+
                         succinctBytes(context.memoryTrackingContext.getUserMemory()),
                         succinctBytes(context.memoryTrackingContext.getRevocableMemory()),
                         succinctBytes(context.memoryTrackingContext.getSystemMemory()),
@@ -21,17 +21,18 @@ import io.trino.operator.WorkProcessor.TransformationState;
 
 import javax.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
-import java.util.PriorityQueue;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
-import static java.util.Comparator.comparing;
 import static java.util.Objects.requireNonNull;
 
 public final class WorkProcessorUtils
@@ -112,19 +113,30 @@ public final class WorkProcessorUtils
         requireNonNull(comparator, "comparator is null");
         Iterator<WorkProcessor<T>> processorIterator = requireNonNull(processorIterable, "processorIterable is null").iterator();
         checkArgument(processorIterator.hasNext(), "There must be at least one base processor");
-        PriorityQueue<ElementAndProcessor<T>> queue = new PriorityQueue<>(2, comparing(ElementAndProcessor::getElement, comparator));
 
         return create(new WorkProcessor.Process<>()
         {
+            final List<WorkProcessor<T>> processors = new ArrayList<>();
+            // current element of each processor, null if the processor is finished
+            final List<T> elements = new ArrayList<>();
+            // null until the first element of each processor is known
+            LoserTree tree;
             WorkProcessor<T> processor = requireNonNull(processorIterator.next());
+            int processorIndex;
 
             @Override
             public ProcessState<T> process()
             {
                 while (true) {
                     if (processor.process()) {
-                        if (!processor.isFinished()) {
-                            queue.add(new ElementAndProcessor<>(processor.getResult(), processor));
+                        T element = processor.isFinished() ? null : processor.getResult();
+                        if (tree == null) {
+                            processors.add(processor);
+                            elements.add(element);
+                        }
+                        else {
+                            elements.set(processorIndex, element);
+                            tree.replay(processorIndex);
                         }
                     }
                     else if (processor.isBlocked()) {
@@ -134,19 +146,34 @@ public final class WorkProcessorUtils
                         return ProcessState.yield();
                     }
 
-                    if (processorIterator.hasNext()) {
-                        processor = requireNonNull(processorIterator.next());
-                        continue;
+                    if (tree == null) {
+                        if (processorIterator.hasNext()) {
+                            processor = requireNonNull(processorIterator.next());
+                            continue;
+                        }
+                        tree = new LoserTree(processors.size(), this::isBefore);
                     }
 
-                    if (queue.isEmpty()) {
+                    processorIndex = tree.getWinner();
+                    processor = processors.get(processorIndex);
+                    T element = elements.get(processorIndex);
+                    if (element == null) {
                         return ProcessState.finished();
                     }
+                    return ProcessState.ofResult(element);
+                }
+            }
 
-                    ElementAndProcessor<T> elementAndProcessor = queue.poll();
-                    processor = elementAndProcessor.getProcessor();
-                    return ProcessState.ofResult(elementAndProcessor.getElement());
+            // finished processors are ordered last
+            private boolean isBefore(int first, int second)
+            {
+                T firstElement = elements.get(first);
+                T secondElement = elements.get(second);
+                if (firstElement == null || secondElement == null) {
+                    return secondElement == null && (firstElement != null || first < second);
                 }
+                int result = comparator.compare(firstElement, secondElement);
+                return result < 0 || (result == 0 && first < second);
             }
         });
     }
@@ -406,25 +433,74 @@ public final class WorkProcessorUtils
         }
     }
 
-    private static class ElementAndProcessor<T>
+    /**
+     * Tournament tree over the current elements of merged streams. Each internal node stores the loser
+     * of the match played in it, so advancing the winning stream replays only the matches on the path
+     * from its leaf to the root. This takes {@code log(n)} comparisons per element, while removing
+     * and re-inserting the element of a binary heap takes up to twice as many.
+     */
+    private static class LoserTree
     {
-        @Nullable final T element;
-        final WorkProcessor<T> processor;
+        interface Ordering
+        {
+            boolean isBefore(int first, int second);
+        }
 
-        ElementAndProcessor(T element, WorkProcessor<T> processor)
+        private final int size;
+        private final Ordering ordering;
+        // tree[0] is the winner, tree[1..size-1] are the losers of the matches; leaf i is at node size + i
+        private final int[] tree;
+
+        LoserTree(int size, Ordering ordering)
         {
-            this.element = element;
-            this.processor = requireNonNull(processor, "processor is null");
+            checkArgument(size > 0, "size must be positive");
+            this.size = size;
+            this.ordering = requireNonNull(ordering, "ordering is null");
+            this.tree = new int[size];
+            Arrays.fill(tree, -1);
+
+            // each node keeps the first stream reaching it until the other subtree delivers its winner
+            for (int leaf = 0; leaf < size; leaf++) {
+                int winner = leaf;
+                int node = (size + leaf) >>> 1;
+                while (node > 0) {
+                    if (tree[node] == -1) {
+                        tree[node] = winner;
+                        winner = -1;
+                        break;
+                    }
+                    if (ordering.isBefore(tree[node], winner)) {
+                        int loser = winner;
+                        winner = tree[node];
+                        tree[node] = loser;
+                    }
+                    node >>>= 1;
+                }
+                if (winner != -1) {
+                    tree[0] = winner;
+                }
+            }
         }
 
-        T getElement()
+        int getWinner()
         {
-            return element;
+            return tree[0];
         }
 
-        WorkProcessor<T> getProcessor()
+        /**
+         * Restores the tree after the element of the given stream has changed.
+         */
+        void replay(int leaf)
         {
-            return processor;
+            int winner = leaf;
+            for (int node = (size + leaf) >>> 1; node > 0; node >>>= 1) {
+                if (ordering.isBefore(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
         }
     }
 }
@@ -0,0 +1,275 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.project;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.DictionaryBlock;
+import io.trino.spi.block.RunLengthEncodedBlock;
+import io.trino.spi.connector.ConnectorSession;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Comparator.comparingDouble;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates the conjuncts of a filter one after another, each only on the positions selected by
+ * the previous ones. The selectivity and the cost of each conjunct are tracked, and periodically
+ * the conjuncts are reordered so that the ones which discard the most positions for the least time
+ * run first.
+ * <p>
+ * A conjunct may fail for positions the conjuncts preceding it in the original order would have
+ * discarded, for example {@code x <> 0 AND 10 / x > 1}. When evaluation fails in an order other than
+ * the original one, the page is evaluated again in the original order, which is then kept.
+ * <p>
+ * Conjuncts over a single column are evaluated on the dictionary when the column is dictionary or
+ * run length encoded, the same way {@link PageProcessor} evaluates filters over a single column.
+ */
+public class AdaptiveConjunctionPageFilter
+        implements PageFilter
+{
+    @VisibleForTesting
+    static final int REORDER_INTERVAL = 16;
+
+    private final List<PageFilter> conjuncts;
+    // null for conjuncts over more than one column
+    private final DictionaryAwarePageFilter[] dictionaryAwareConjuncts;
+    private final InputChannels inputChannels;
+    // channels of each conjunct within the input channels of this filter
+    private final int[][] conjunctChannels;
+    private final Ticker ticker;
+
+    private final long[] inputPositions;
+    private final long[] selectedPositions;
+    private final long[] nanos;
+
+    private int[] order;
+    private boolean reorderingEnabled = true;
+    private int pagesSinceReorder;
+
+    public AdaptiveConjunctionPageFilter(List<PageFilter> conjuncts)
+    {
+        this(conjuncts, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    AdaptiveConjunctionPageFilter(List<PageFilter> conjuncts, Ticker ticker)
+    {
+        this.conjuncts = ImmutableList.copyOf(requireNonNull(conjuncts, "conjuncts is null"));
+        this.ticker = requireNonNull(ticker, "ticker is null");
+        checkArgument(conjuncts.size() > 1, "expected at least two conjuncts");
+        checkArgument(conjuncts.stream().allMatch(PageFilter::isDeterministic), "conjuncts must be deterministic");
+
+        TreeSet<Integer> channels = new TreeSet<>();
+        conjuncts.forEach(conjunct -> channels.addAll(conjunct.getInputChannels().getInputChannels()));
+        List<Integer> channelList = ImmutableList.copyOf(channels);
+        this.inputChannels = new InputChannels(channelList);
+        this.conjunctChannels = conjuncts.stream()
+                .map(conjunct -> conjunct.getInputChannels().getInputChannels().stream()
+                        .mapToInt(channelList::indexOf)
+                        .toArray())
+                .toArray(int[][]::new);
+        this.dictionaryAwareConjuncts = conjuncts.stream()
+                .map(conjunct -> conjunct.getInputChannels().size() == 1 ? new DictionaryAwarePageFilter(conjunct) : null)
+                .toArray(DictionaryAwarePageFilter[]::new);
+
+        this.inputPositions = new long[conjuncts.size()];
+        this.selectedPositions = new long[conjuncts.size()];
+        this.nanos = new long[conjuncts.size()];
+        this.order = IntStream.range(0, conjuncts.size()).toArray();
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return true;
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return inputChannels;
+    }
+
+    @Override
+    public SelectedPositions filter(ConnectorSession session, Page page)
+    {
+        SelectedPositions result;
+        try {
+            result = filter(session, page, order);
+        }
+        catch (RuntimeException e) {
+            if (!reorderingEnabled || isOriginalOrder()) {
+                throw e;
+            }
+            reorderingEnabled = false;
+            order = IntStream.range(0, conjuncts.size()).toArray();
+            return filter(session, page, order);
+        }
+
+        pagesSinceReorder++;
+        if (reorderingEnabled && pagesSinceReorder >= REORDER_INTERVAL) {
+            reorder();
+        }
+        return result;
+    }
+
+    private SelectedPositions filter(ConnectorSession session, Page page, int[] order)
+    {
+        SelectedPositions selected = SelectedPositions.positionsRange(0, page.getPositionCount());
+        for (int conjunct : order) {
+            if (selected.isEmpty()) {
+                break;
+            }
+
+            Page conjunctPage = page.getColumns(conjunctChannels[conjunct]);
+            PageFilter conjunctFilter = conjuncts.get(conjunct);
+            if (dictionaryAwareConjuncts[conjunct] != null && isDictionaryOrRunLengthEncoded(conjunctPage.getBlock(0))) {
+                conjunctFilter = dictionaryAwareConjuncts[conjunct];
+            }
+            // positions of a flat block are not copied, as the selected positions become the ids of a dictionary view
+            if (selected.isList()) {
+                conjunctPage = conjunctPage.getPositions(selected.getPositions(), selected.getOffset(), selected.size());
+            }
+            else if (selected.size() != page.getPositionCount()) {
+                conjunctPage = conjunctPage.getRegion(selected.getOffset(), selected.size());
+            }
+
+            long start = ticker.read();
+            SelectedPositions conjunctSelected = conjunctFilter.filter(session, conjunctPage);
+            nanos[conjunct] += ticker.read() - start;
+            inputPositions[conjunct] += selected.size();
+            selectedPositions[conjunct] += conjunctSelected.size();
+
+            selected = compose(selected, conjunctSelected);
+        }
+        return selected;
+    }
+
+    private static boolean isDictionaryOrRunLengthEncoded(Block block)
+    {
+        // do not load a lazy block here, as only the selected positions of it may end up being loaded
+        if (!block.isLoaded()) {
+            return false;
+        }
+        Block loadedBlock = block.getLoadedBlock();
+        return loadedBlock instanceof DictionaryBlock || loadedBlock instanceof RunLengthEncodedBlock;
+    }
+
+    /**
+     * Maps the positions selected from a page made of the {@code selected} positions back to the original page.
+     * At most one positions array is allocated per page, which the following conjuncts narrow down in place.
+     */
+    private static SelectedPositions compose(SelectedPositions selected, SelectedPositions conjunctSelected)
+    {
+        if (!conjunctSelected.isList()) {
+            if (!selected.isList()) {
+                return SelectedPositions.positionsRange(selected.getOffset() + conjunctSelected.getOffset(), conjunctSelected.size());
+            }
+            return SelectedPositions.positionsList(selected.getPositions(), selected.getOffset() + conjunctSelected.getOffset(), conjunctSelected.size());
+        }
+
+        int[] conjunctPositions = conjunctSelected.getPositions();
+        int conjunctOffset = conjunctSelected.getOffset();
+        if (!selected.isList()) {
+            int[] positions = new int[conjunctSelected.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = selected.getOffset() + conjunctPositions[conjunctOffset + i];
+            }
+            return SelectedPositions.positionsList(positions, 0, positions.length);
+        }
+
+        // the positions selected by the conjunct are increasing, so each of them is at least its own index
+        // and is read before being overwritten
+        int[] positions = selected.getPositions();
+        int offset = selected.getOffset();
+        for (int i = 0; i < conjunctSelected.size(); i++) {
+            positions[i] = positions[offset + conjunctPositions[conjunctOffset + i]];
+        }
+        return SelectedPositions.positionsList(positions, 0, conjunctSelected.size());
+    }
+
+    private void reorder()
+    {
+        pagesSinceReorder = 0;
+        if (inputPositions[order[0]] == 0) {
+            // only empty pages were processed
+            return;
+        }
+
+        // a conjunct that costs c per position and discards a fraction d of the positions should run
+        // before one that costs c' and discards d' when c / d < c' / d'
+        double[] rank = new double[conjuncts.size()];
+        for (int i = 0; i < order.length; i++) {
+            int conjunct = order[i];
+            if (inputPositions[conjunct] == 0) {
+                // not evaluated since the preceding conjuncts discarded all positions, so it stays behind them
+                rank[conjunct] = rank[order[i - 1]];
+                continue;
+            }
+            double cost = (double) nanos[conjunct] / inputPositions[conjunct];
+            double discarded = 1.0 - (double) selectedPositions[conjunct] / inputPositions[conjunct];
+            rank[conjunct] = cost / Math.max(discarded, 1e-6);
+        }
+        order = Arrays.stream(order)
+                .boxed()
+                .sorted(comparingDouble(conjunct -> rank[conjunct]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        // decay the statistics so that the order follows changes in the data
+        for (int conjunct = 0; conjunct < conjuncts.size(); conjunct++) {
+            inputPositions[conjunct] /= 2;
+            selectedPositions[conjunct] /= 2;
+            nanos[conjunct] /= 2;
+        }
+    }
+
+    private boolean isOriginalOrder()
+    {
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @VisibleForTesting
+    List<PageFilter> getConjunctsInEvaluationOrder()
+    {
+        return Arrays.stream(order)
+                .mapToObj(conjuncts::get)
+                .collect(toImmutableList());
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("conjuncts", conjuncts)
+                .add("order", Arrays.toString(order))
+                .toString();
+    }
+}
@@ -0,0 +1,568 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.project;
+
+import io.trino.operator.DriverYieldSignal;
+import io.trino.operator.Work;
+import io.trino.spi.Page;
+import io.trino.spi.TrinoException;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.LongArrayBlock;
+import io.trino.spi.connector.ConnectorSession;
+import io.trino.spi.function.OperatorType;
+import io.trino.spi.type.Type;
+import io.trino.sql.relational.CallExpression;
+import io.trino.sql.relational.ConstantExpression;
+import io.trino.sql.relational.InputReferenceExpression;
+import io.trino.sql.relational.RowExpression;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkState;
+import static io.trino.metadata.Signature.isOperatorName;
+import static io.trino.metadata.Signature.unmangleOperator;
+import static io.trino.spi.StandardErrorCode.NUMERIC_VALUE_OUT_OF_RANGE;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static java.lang.Double.doubleToLongBits;
+import static java.lang.Double.longBitsToDouble;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Projection for arithmetic expressions over bigint or double columns and constants, which is
+ * evaluated a batch of positions at a time. Each operator is applied to whole arrays of values
+ * in a tight loop, and the result is written directly to a block, instead of calling the operator
+ * and writing to a block builder once per position as the generated projection does.
+ * <p>
+ * The positions are evaluated in chunks, so that the intermediate results of the operators are
+ * kept in buffers which are reused across chunks and pages, and the evaluation can yield between
+ * the chunks.
+ */
+public final class ArithmeticPageProjection
+        implements PageProjection
+{
+    private static final int CHUNK_SIZE = 1024;
+
+    private final Operand expression;
+    private final Type type;
+    private final InputChannels inputChannels;
+    private final Buffers buffers = new Buffers();
+
+    private ArithmeticPageProjection(Operand expression, Type type, InputChannels inputChannels)
+    {
+        this.expression = requireNonNull(expression, "expression is null");
+        this.type = requireNonNull(type, "type is null");
+        this.inputChannels = requireNonNull(inputChannels, "inputChannels is null");
+    }
+
+    /**
+     * Returns a factory of projections evaluating the given expression, if the expression is supported.
+     * The expression must reference the page fields as rewritten by {@link PageFieldsToInputParametersRewriter}.
+     */
+    public static Optional<Supplier<PageProjection>> tryCreate(RowExpression projection, InputChannels inputChannels)
+    {
+        Type type = projection.getType();
+        if (!(projection instanceof CallExpression) || (!type.equals(BIGINT) && !type.equals(DOUBLE))) {
+            return Optional.empty();
+        }
+        // the projection reuses its buffers, so each driver gets its own
+        return toOperand(projection, type).map(operand -> () -> new ArithmeticPageProjection(operand, type, inputChannels));
+    }
+
+    @Override
+    public Type getType()
+    {
+        return type;
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return true;
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return inputChannels;
+    }
+
+    @Override
+    public Work<Block> project(ConnectorSession session, DriverYieldSignal yieldSignal, Page page, SelectedPositions selectedPositions)
+    {
+        return new ArithmeticWork(yieldSignal, page, selectedPositions);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("expression", expression)
+                .add("inputChannels", inputChannels)
+                .toString();
+    }
+
+    private class ArithmeticWork
+            implements Work<Block>
+    {
+        private final DriverYieldSignal yieldSignal;
+        private final Page page;
+        private final SelectedPositions selectedPositions;
+        private final long[] values;
+        // allocated once a null is found
+        private boolean[] nulls;
+
+        private int nextIndex;
+        private Block result;
+
+        public ArithmeticWork(DriverYieldSignal yieldSignal, Page page, SelectedPositions selectedPositions)
+        {
+            this.yieldSignal = requireNonNull(yieldSignal, "yieldSignal is null");
+            this.page = requireNonNull(page, "page is null");
+            this.selectedPositions = requireNonNull(selectedPositions, "selectedPositions is null");
+            this.values = new long[selectedPositions.size()];
+        }
+
+        @Override
+        public boolean process()
+        {
+            checkState(result == null, "result has been generated");
+            int positionCount = selectedPositions.size();
+            while (nextIndex < positionCount) {
+                int chunkSize = min(CHUNK_SIZE, positionCount - nextIndex);
+                Values chunk = expression.evaluate(page, selectedPositions.subRange(nextIndex, nextIndex + chunkSize), buffers);
+                if (type.equals(DOUBLE)) {
+                    for (int index = 0; index < chunkSize; index++) {
+                        values[nextIndex + index] = doubleToLongBits(chunk.doubles[index]);
+                    }
+                }
+                else {
+                    System.arraycopy(chunk.longs, 0, values, nextIndex, chunkSize);
+                }
+                if (chunk.nulls != null) {
+                    if (nulls == null) {
+                        nulls = new boolean[positionCount];
+                    }
+                    System.arraycopy(chunk.nulls, 0, nulls, nextIndex, chunkSize);
+                }
+                nextIndex += chunkSize;
+
+                if (nextIndex < positionCount && yieldSignal.isSet()) {
+                    return false;
+                }
+            }
+            result = new LongArrayBlock(positionCount, Optional.ofNullable(nulls), values);
+            return true;
+        }
+
+        @Override
+        public Block getResult()
+        {
+            checkState(result != null, "result has not been generated");
+            return result;
+        }
+    }
+
+    private static Optional<Operand> toOperand(RowExpression expression, Type type)
+    {
+        if (!expression.getType().equals(type)) {
+            return Optional.empty();
+        }
+
+        if (expression instanceof InputReferenceExpression) {
+            return Optional.of(new InputOperand(((InputReferenceExpression) expression).getField(), type));
+        }
+
+        if (expression instanceof ConstantExpression) {
+            Object value = ((ConstantExpression) expression).getValue();
+            // null constants are folded by the optimizer, so they are left to the generated projection
+            if (value == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new ConstantOperand(value, type));
+        }
+
+        if (!(expression instanceof CallExpression)) {
+            return Optional.empty();
+        }
+        CallExpression call = (CallExpression) expression;
+        String name = call.getResolvedFunction().getSignature().getName();
+        if (!isOperatorName(name)) {
+            return Optional.empty();
+        }
+        OperatorType operator = unmangleOperator(name);
+        List<RowExpression> arguments = call.getArguments();
+
+        if (operator == OperatorType.NEGATION) {
+            return toOperand(arguments.get(0), type).map(operand -> new NegationOperand(operand, type));
+        }
+
+        boolean supported = operator == OperatorType.ADD ||
+                operator == OperatorType.SUBTRACT ||
+                operator == OperatorType.MULTIPLY ||
+                // bigint division raises errors for zero divisors, which is left to the generated projection
+                (operator == OperatorType.DIVIDE && type.equals(DOUBLE));
+        if (!supported) {
+            return Optional.empty();
+        }
+        Optional<Operand> left = toOperand(arguments.get(0), type);
+        Optional<Operand> right = toOperand(arguments.get(1), type);
+        if (left.isEmpty() || right.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new BinaryOperand(operator, left.get(), right.get(), type));
+    }
+
+    private static boolean[] combineNulls(boolean[] left, boolean[] right, int positionCount, boolean[] buffer)
+    {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        for (int position = 0; position < positionCount; position++) {
+            buffer[position] = left[position] | right[position];
+        }
+        return buffer;
+    }
+
+    /**
+     * Buffers of the intermediate results of each operand, large enough for a chunk of positions.
+     */
+    private static final class Buffers
+    {
+        private final Map<Operand, long[]> longs = new IdentityHashMap<>();
+        private final Map<Operand, double[]> doubles = new IdentityHashMap<>();
+        private final Map<Operand, boolean[]> nulls = new IdentityHashMap<>();
+
+        public long[] getLongs(Operand operand)
+        {
+            return longs.computeIfAbsent(operand, ignored -> new long[CHUNK_SIZE]);
+        }
+
+        public double[] getDoubles(Operand operand)
+        {
+            return doubles.computeIfAbsent(operand, ignored -> new double[CHUNK_SIZE]);
+        }
+
+        public boolean[] getNulls(Operand operand)
+        {
+            return nulls.computeIfAbsent(operand, ignored -> new boolean[CHUNK_SIZE]);
+        }
+    }
+
+    private static final class Values
+    {
+        // the arrays may be longer than the evaluated positions
+        private final long[] longs;
+        private final double[] doubles;
+        // null when no position is null
+        private final boolean[] nulls;
+
+        private Values(long[] longs, double[] doubles, boolean[] nulls)
+        {
+            this.longs = longs;
+            this.doubles = doubles;
+            this.nulls = nulls;
+        }
+
+        public static Values ofLongs(long[] values, boolean[] nulls)
+        {
+            return new Values(values, null, nulls);
+        }
+
+        public static Values ofDoubles(double[] values, boolean[] nulls)
+        {
+            return new Values(null, values, nulls);
+        }
+
+        public boolean isNull(int position)
+        {
+            return nulls != null && nulls[position];
+        }
+    }
+
+    private interface Operand
+    {
+        Values evaluate(Page page, SelectedPositions selectedPositions, Buffers buffers);
+    }
+
+    private static final class InputOperand
+            implements Operand
+    {
+        private final int field;
+        private final Type type;
+
+        public InputOperand(int field, Type type)
+        {
+            this.field = field;
+            this.type = requireNonNull(type, "type is null");
+        }
+
+        @Override
+        public Values evaluate(Page page, SelectedPositions selectedPositions, Buffers buffers)
+        {
+            Block block = page.getBlock(field).getLoadedBlock();
+            int positionCount = selectedPositions.size();
+            int offset = selectedPositions.getOffset();
+            int[] positions = selectedPositions.isList() ? selectedPositions.getPositions() : null;
+
+            boolean[] nulls = null;
+            if (block.mayHaveNull()) {
+                nulls = buffers.getNulls(this);
+                for (int index = 0; index < positionCount; index++) {
+                    nulls[index] = block.isNull(positions == null ? offset + index : positions[offset + index]);
+                }
+            }
+
+            // both types are stored as longs in a long array block
+            long[] values = buffers.getLongs(this);
+            if (block instanceof LongArrayBlock) {
+                if (positions == null) {
+                    for (int index = 0; index < positionCount; index++) {
+                        values[index] = block.getLong(offset + index, 0);
+                    }
+                }
+                else {
+                    for (int index = 0; index < positionCount; index++) {
+                        values[index] = block.getLong(positions[offset + index], 0);
+                    }
+                }
+            }
+            else {
+                for (int index = 0; index < positionCount; index++) {
+                    int position = positions == null ? offset + index : positions[offset + index];
+                    if (block.isNull(position)) {
+                        values[index] = 0;
+                    }
+                    else {
+                        values[index] = type.equals(DOUBLE) ? doubleToLongBits(type.getDouble(block, position)) : type.getLong(block, position);
+                    }
+                }
+            }
+
+            if (type.equals(BIGINT)) {
+                return Values.ofLongs(values, nulls);
+            }
+            double[] doubles = buffers.getDoubles(this);
+            for (int index = 0; index < positionCount; index++) {
+                doubles[index] = longBitsToDouble(values[index]);
+            }
+            return Values.ofDoubles(doubles, nulls);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "#" + field;
+        }
+    }
+
+    private static final class ConstantOperand
+            implements Operand
+    {
+        private final Object value;
+        private final Type type;
+
+        public ConstantOperand(Object value, Type type)
+        {
+            this.value = requireNonNull(value, "value is null");
+            this.type = requireNonNull(type, "type is null");
+        }
+
+        @Override
+        public Values evaluate(Page page, SelectedPositions selectedPositions, Buffers buffers)
+        {
+            if (type.equals(BIGINT)) {
+                long[] values = buffers.getLongs(this);
+                Arrays.fill(values, 0, selectedPositions.size(), (long) value);
+                return Values.ofLongs(values, null);
+            }
+            double[] values = buffers.getDoubles(this);
+            Arrays.fill(values, 0, selectedPositions.size(), (double) value);
+            return Values.ofDoubles(values, null);
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.valueOf(value);
+        }
+    }
+
+    private static final class NegationOperand
+            implements Operand
+    {
+        private final Operand operand;
+        private final Type type;
+
+        public NegationOperand(Operand operand, Type type)
+        {
+            this.operand = requireNonNull(operand, "operand is null");
+            this.type = requireNonNull(type, "type is null");
+        }
+
+        @Override
+        public Values evaluate(Page page, SelectedPositions selectedPositions, Buffers buffers)
+        {
+            Values input = operand.evaluate(page, selectedPositions, buffers);
+            int positionCount = selectedPositions.size();
+
+            if (type.equals(DOUBLE)) {
+                double[] result = buffers.getDoubles(this);
+                for (int position = 0; position < positionCount; position++) {
+                    result[position] = -input.doubles[position];
+                }
+                return Values.ofDoubles(result, input.nulls);
+            }
+
+            long[] result = buffers.getLongs(this);
+            for (int position = 0; position < positionCount; position++) {
+                if (input.isNull(position)) {
+                    result[position] = 0;
+                    continue;
+                }
+                if (input.longs[position] == Long.MIN_VALUE) {
+                    throw new TrinoException(NUMERIC_VALUE_OUT_OF_RANGE, "bigint negation overflow: " + input.longs[position]);
+                }
+                result[position] = -input.longs[position];
+            }
+            return Values.ofLongs(result, input.nulls);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "-(" + operand + ")";
+        }
+    }
+
+    private static final class BinaryOperand
+            implements Operand
+    {
+        private final OperatorType operator;
+        private final Operand left;
+        private final Operand right;
+        private final Type type;
+
+        public BinaryOperand(OperatorType operator, Operand left, Operand right, Type type)
+        {
+            this.operator = requireNonNull(operator, "operator is null");
+            this.left = requireNonNull(left, "left is null");
+            this.right = requireNonNull(right, "right is null");
+            this.type = requireNonNull(type, "type is null");
+        }
+
+        @Override
+        public Values evaluate(Page page, SelectedPositions selectedPositions, Buffers buffers)
+        {
+            Values leftValues = left.evaluate(page, selectedPositions, buffers);
+            Values rightValues = right.evaluate(page, selectedPositions, buffers);
+            int positionCount = selectedPositions.size();
+            boolean[] nulls = combineNulls(leftValues.nulls, rightValues.nulls, positionCount, buffers.getNulls(this));
+
+            if (type.equals(DOUBLE)) {
+                return Values.ofDoubles(evaluateDouble(leftValues.doubles, rightValues.doubles, positionCount, buffers.getDoubles(this)), nulls);
+            }
+            return Values.ofLongs(evaluateBigint(leftValues.longs, rightValues.longs, nulls, positionCount, buffers.getLongs(this)), nulls);
+        }
+
+        private double[] evaluateDouble(double[] left, double[] right, int positionCount, double[] result)
+        {
+            switch (operator) {
+                case ADD:
+                    for (int position = 0; position < positionCount; position++) {
+                        result[position] = left[position] + right[position];
+                    }
+                    return result;
+                case SUBTRACT:
+                    for (int position = 0; position < positionCount; position++) {
+                        result[position] = left[position] - right[position];
+                    }
+                    return result;
+                case MULTIPLY:
+                    for (int position = 0; position < positionCount; position++) {
+                        result[position] = left[position] * right[position];
+                    }
+                    return result;
+                case DIVIDE:
+                    for (int position = 0; position < positionCount; position++) {
+                        result[position] = left[position] / right[position];
+                    }
+                    return result;
+                default:
+                    throw new UnsupportedOperationException("Unsupported operator: " + operator);
+            }
+        }
+
+        private long[] evaluateBigint(long[] left, long[] right, boolean[] nulls, int positionCount, long[] result)
+        {
+            // values of null positions are not defined, so they must not raise overflow errors
+            int position = 0;
+            try {
+                switch (operator) {
+                    case ADD:
+                        for (; position < positionCount; position++) {
+                            result[position] = nulls != null && nulls[position] ? 0 : Math.addExact(left[position], right[position]);
+                        }
+                        return result;
+                    case SUBTRACT:
+                        for (; position < positionCount; position++) {
+                            result[position] = nulls != null && nulls[position] ? 0 : Math.subtractExact(left[position], right[position]);
+                        }
+                        return result;
+                    case MULTIPLY:
+                        for (; position < positionCount; position++) {
+                            result[position] = nulls != null && nulls[position] ? 0 : Math.multiplyExact(left[position], right[position]);
+                        }
+                        return result;
+                    default:
+                        throw new UnsupportedOperationException("Unsupported operator: " + operator);
+                }
+            }
+            catch (ArithmeticException e) {
+                throw new TrinoException(NUMERIC_VALUE_OUT_OF_RANGE, format("bigint %s overflow: %s %s %s", operationName(), left[position], operator.getOperator(), right[position]), e);
+            }
+        }
+
+        private String operationName()
+        {
+            switch (operator) {
+                case ADD:
+                    return "addition";
+                case SUBTRACT:
+                    return "subtraction";
+                case MULTIPLY:
+                    return "multiplication";
+                default:
+                    throw new UnsupportedOperationException("Unsupported operator: " + operator);
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return "(" + left + " " + operator.getOperator() + " " + right + ")";
+        }
+    }
+}
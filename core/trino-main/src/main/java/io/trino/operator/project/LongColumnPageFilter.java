@@ -0,0 +1,470 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.ByteArrayBlock;
+import io.trino.spi.block.IntArrayBlock;
+import io.trino.spi.block.LongArrayBlock;
+import io.trino.spi.block.ShortArrayBlock;
+import io.trino.spi.connector.ConnectorSession;
+import io.trino.spi.function.OperatorType;
+import io.trino.spi.type.DecimalType;
+import io.trino.spi.type.Type;
+import io.trino.sql.relational.CallExpression;
+import io.trino.sql.relational.ConstantExpression;
+import io.trino.sql.relational.InputReferenceExpression;
+import io.trino.sql.relational.RowExpression;
+import io.trino.sql.relational.SpecialForm;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.metadata.Signature.isOperatorName;
+import static io.trino.metadata.Signature.unmangleOperator;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.SmallintType.SMALLINT;
+import static io.trino.spi.type.TinyintType.TINYINT;
+import static io.trino.sql.relational.SpecialForm.Form.AND;
+import static io.trino.sql.relational.SpecialForm.Form.IN;
+import static io.trino.sql.relational.SpecialForm.Form.IS_NULL;
+import static java.util.Comparator.comparingInt;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Filter for conjunctions of simple predicates on columns of integral types, which are evaluated
+ * column at a time with branch-free loops over primitive arrays instead of row at a time by the
+ * generated filter. Supported predicates compare a column with constants ({@code =}, {@code <>},
+ * {@code <}, {@code <=}, {@code >}, {@code >=}, {@code BETWEEN} and {@code IN} with a short list),
+ * or check a column for null.
+ */
+public final class LongColumnPageFilter
+        implements PageFilter
+{
+    private static final int MAX_IN_LIST_SIZE = 8;
+
+    private final List<ColumnPredicate> predicates;
+    private final InputChannels inputChannels;
+
+    private long[] values = new long[0];
+    private boolean[] nulls = new boolean[0];
+    private boolean[] selectedPositions = new boolean[0];
+
+    private LongColumnPageFilter(List<ColumnPredicate> predicates, InputChannels inputChannels)
+    {
+        // predicates on the same column are evaluated one after another, so the column is read once
+        this.predicates = requireNonNull(predicates, "predicates is null").stream()
+                .sorted(comparingInt(ColumnPredicate::getField))
+                .collect(toImmutableList());
+        this.inputChannels = requireNonNull(inputChannels, "inputChannels is null");
+    }
+
+    /**
+     * Returns a factory of filters evaluating the given expression, if the expression is supported.
+     * The expression must reference the page fields as rewritten by {@link PageFieldsToInputParametersRewriter}.
+     */
+    public static Optional<Supplier<PageFilter>> tryCreate(RowExpression filter, InputChannels inputChannels)
+    {
+        ImmutableList.Builder<ColumnPredicate> predicates = ImmutableList.builder();
+        if (!extractPredicates(filter, predicates)) {
+            return Optional.empty();
+        }
+        List<ColumnPredicate> columnPredicates = predicates.build();
+        return Optional.of(() -> new LongColumnPageFilter(columnPredicates, inputChannels));
+    }
+
+    public static boolean isSupported(RowExpression filter)
+    {
+        return extractPredicates(filter, ImmutableList.builder());
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return true;
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return inputChannels;
+    }
+
+    @Override
+    public SelectedPositions filter(ConnectorSession session, Page page)
+    {
+        int positionCount = page.getPositionCount();
+        if (selectedPositions.length < positionCount) {
+            values = new long[positionCount];
+            nulls = new boolean[positionCount];
+            selectedPositions = new boolean[positionCount];
+        }
+        Arrays.fill(selectedPositions, 0, positionCount, true);
+
+        int loadedField = -1;
+        for (ColumnPredicate predicate : predicates) {
+            if (predicate.getField() != loadedField) {
+                loadedField = predicate.getField();
+                readColumn(page.getBlock(loadedField).getLoadedBlock(), predicate.getType(), positionCount, values, nulls);
+            }
+            predicate.evaluate(values, nulls, positionCount, selectedPositions);
+        }
+
+        return PageFilter.positionsArrayToSelectedPositions(selectedPositions, positionCount);
+    }
+
+    private static void readColumn(Block block, Type type, int positionCount, long[] values, boolean[] nulls)
+    {
+        if (block instanceof LongArrayBlock) {
+            for (int position = 0; position < positionCount; position++) {
+                values[position] = block.getLong(position, 0);
+            }
+        }
+        else if (block instanceof IntArrayBlock) {
+            for (int position = 0; position < positionCount; position++) {
+                values[position] = block.getInt(position, 0);
+            }
+        }
+        else if (block instanceof ShortArrayBlock) {
+            for (int position = 0; position < positionCount; position++) {
+                values[position] = block.getShort(position, 0);
+            }
+        }
+        else if (block instanceof ByteArrayBlock) {
+            for (int position = 0; position < positionCount; position++) {
+                values[position] = block.getByte(position, 0);
+            }
+        }
+        else {
+            for (int position = 0; position < positionCount; position++) {
+                values[position] = block.isNull(position) ? 0 : type.getLong(block, position);
+            }
+        }
+
+        if (block.mayHaveNull()) {
+            for (int position = 0; position < positionCount; position++) {
+                nulls[position] = block.isNull(position);
+            }
+        }
+        else {
+            Arrays.fill(nulls, 0, positionCount, false);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("predicates", predicates)
+                .add("inputChannels", inputChannels)
+                .toString();
+    }
+
+    private static boolean extractPredicates(RowExpression expression, ImmutableList.Builder<ColumnPredicate> predicates)
+    {
+        if (expression instanceof SpecialForm && ((SpecialForm) expression).getForm() == AND) {
+            for (RowExpression argument : ((SpecialForm) expression).getArguments()) {
+                if (!extractPredicates(argument, predicates)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Optional<ColumnPredicate> predicate = toColumnPredicate(expression);
+        predicate.ifPresent(predicates::add);
+        return predicate.isPresent();
+    }
+
+    private static Optional<ColumnPredicate> toColumnPredicate(RowExpression expression)
+    {
+        if (expression instanceof SpecialForm) {
+            SpecialForm specialForm = (SpecialForm) expression;
+            List<RowExpression> arguments = specialForm.getArguments();
+            switch (specialForm.getForm()) {
+                case IS_NULL:
+                    if (!isSupportedColumn(arguments.get(0))) {
+                        return Optional.empty();
+                    }
+                    return Optional.of(new IsNullPredicate((InputReferenceExpression) arguments.get(0), true));
+                case BETWEEN:
+                    if (!isSupportedColumn(arguments.get(0)) ||
+                            !isConstantOfType(arguments.get(1), arguments.get(0).getType()) ||
+                            !isConstantOfType(arguments.get(2), arguments.get(0).getType())) {
+                        return Optional.empty();
+                    }
+                    return Optional.of(new RangePredicate((InputReferenceExpression) arguments.get(0), constantValue(arguments.get(1)), constantValue(arguments.get(2))));
+                case IN:
+                    if (!isSupportedColumn(arguments.get(0))) {
+                        return Optional.empty();
+                    }
+                    return toInPredicate((InputReferenceExpression) arguments.get(0), arguments.subList(1, arguments.size()), false);
+                default:
+                    return Optional.empty();
+            }
+        }
+
+        if (!(expression instanceof CallExpression)) {
+            return Optional.empty();
+        }
+        CallExpression call = (CallExpression) expression;
+        String name = call.getResolvedFunction().getSignature().getName();
+        List<RowExpression> arguments = call.getArguments();
+
+        if (name.equals("not")) {
+            RowExpression argument = arguments.get(0);
+            if (argument instanceof SpecialForm) {
+                SpecialForm specialForm = (SpecialForm) argument;
+                if (specialForm.getForm() == IS_NULL && isSupportedColumn(specialForm.getArguments().get(0))) {
+                    return Optional.of(new IsNullPredicate((InputReferenceExpression) specialForm.getArguments().get(0), false));
+                }
+                if (specialForm.getForm() == IN && isSupportedColumn(specialForm.getArguments().get(0))) {
+                    List<RowExpression> inArguments = specialForm.getArguments();
+                    return toInPredicate((InputReferenceExpression) inArguments.get(0), inArguments.subList(1, inArguments.size()), true);
+                }
+            }
+            if (argument instanceof CallExpression && isComparison((CallExpression) argument, OperatorType.EQUAL)) {
+                return toComparisonPredicate((CallExpression) argument, true);
+            }
+            return Optional.empty();
+        }
+
+        if (isComparison(call, OperatorType.EQUAL) || isComparison(call, OperatorType.LESS_THAN) || isComparison(call, OperatorType.LESS_THAN_OR_EQUAL)) {
+            return toComparisonPredicate(call, false);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<ColumnPredicate> toComparisonPredicate(CallExpression comparison, boolean negated)
+    {
+        OperatorType operator = unmangleOperator(comparison.getResolvedFunction().getSignature().getName());
+        RowExpression left = comparison.getArguments().get(0);
+        RowExpression right = comparison.getArguments().get(1);
+
+        if (isSupportedColumn(left) && isConstantOfType(right, left.getType())) {
+            InputReferenceExpression column = (InputReferenceExpression) left;
+            long value = constantValue(right);
+            switch (operator) {
+                case EQUAL:
+                    return Optional.of(new InPredicate(column, new long[] {value}, negated));
+                case LESS_THAN:
+                    // column < MIN_VALUE can never match, which is left to the generated filter
+                    return value == Long.MIN_VALUE ? Optional.empty() : Optional.of(new RangePredicate(column, Long.MIN_VALUE, value - 1));
+                case LESS_THAN_OR_EQUAL:
+                    return Optional.of(new RangePredicate(column, Long.MIN_VALUE, value));
+                default:
+                    return Optional.empty();
+            }
+        }
+
+        if (isSupportedColumn(right) && isConstantOfType(left, right.getType())) {
+            InputReferenceExpression column = (InputReferenceExpression) right;
+            long value = constantValue(left);
+            switch (operator) {
+                case EQUAL:
+                    return Optional.of(new InPredicate(column, new long[] {value}, negated));
+                case LESS_THAN:
+                    return value == Long.MAX_VALUE ? Optional.empty() : Optional.of(new RangePredicate(column, value + 1, Long.MAX_VALUE));
+                case LESS_THAN_OR_EQUAL:
+                    return Optional.of(new RangePredicate(column, value, Long.MAX_VALUE));
+                default:
+                    return Optional.empty();
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private static Optional<ColumnPredicate> toInPredicate(InputReferenceExpression column, List<RowExpression> valueList, boolean negated)
+    {
+        if (valueList.size() > MAX_IN_LIST_SIZE) {
+            return Optional.empty();
+        }
+        long[] values = new long[valueList.size()];
+        for (int i = 0; i < values.length; i++) {
+            if (!isConstantOfType(valueList.get(i), column.getType())) {
+                return Optional.empty();
+            }
+            values[i] = constantValue(valueList.get(i));
+        }
+        return Optional.of(new InPredicate(column, values, negated));
+    }
+
+    private static boolean isComparison(CallExpression call, OperatorType operatorType)
+    {
+        String name = call.getResolvedFunction().getSignature().getName();
+        return isOperatorName(name) && unmangleOperator(name) == operatorType;
+    }
+
+    private static boolean isSupportedColumn(RowExpression expression)
+    {
+        return expression instanceof InputReferenceExpression && isSupportedType(expression.getType());
+    }
+
+    private static boolean isSupportedType(Type type)
+    {
+        // the natural order of the stack values of these types matches their SQL order
+        return type.equals(BIGINT) ||
+                type.equals(INTEGER) ||
+                type.equals(SMALLINT) ||
+                type.equals(TINYINT) ||
+                type.equals(DATE) ||
+                (type instanceof DecimalType && ((DecimalType) type).isShort());
+    }
+
+    private static boolean isConstantOfType(RowExpression expression, Type type)
+    {
+        // null constants make the predicate null, which is left to the generated filter
+        return expression instanceof ConstantExpression &&
+                ((ConstantExpression) expression).getValue() != null &&
+                expression.getType().equals(type);
+    }
+
+    private static long constantValue(RowExpression expression)
+    {
+        return (long) ((ConstantExpression) expression).getValue();
+    }
+
+    private abstract static class ColumnPredicate
+    {
+        private final InputReferenceExpression column;
+
+        protected ColumnPredicate(InputReferenceExpression column)
+        {
+            this.column = requireNonNull(column, "column is null");
+        }
+
+        public int getField()
+        {
+            return column.getField();
+        }
+
+        public Type getType()
+        {
+            return column.getType();
+        }
+
+        /**
+         * Clears the selected positions that do not match this predicate.
+         */
+        public abstract void evaluate(long[] values, boolean[] nulls, int positionCount, boolean[] selectedPositions);
+    }
+
+    private static final class RangePredicate
+            extends ColumnPredicate
+    {
+        private final long low;
+        private final long high;
+
+        public RangePredicate(InputReferenceExpression column, long low, long high)
+        {
+            super(column);
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        public void evaluate(long[] values, boolean[] nulls, int positionCount, boolean[] selectedPositions)
+        {
+            for (int position = 0; position < positionCount; position++) {
+                long value = values[position];
+                selectedPositions[position] &= !nulls[position] & value >= low & value <= high;
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("field", getField())
+                    .add("low", low)
+                    .add("high", high)
+                    .toString();
+        }
+    }
+
+    private static final class InPredicate
+            extends ColumnPredicate
+    {
+        private final long[] valueList;
+        private final boolean negated;
+
+        public InPredicate(InputReferenceExpression column, long[] valueList, boolean negated)
+        {
+            super(column);
+            this.valueList = requireNonNull(valueList, "valueList is null");
+            this.negated = negated;
+        }
+
+        @Override
+        public void evaluate(long[] values, boolean[] nulls, int positionCount, boolean[] selectedPositions)
+        {
+            for (int position = 0; position < positionCount; position++) {
+                long value = values[position];
+                boolean match = false;
+                for (long candidate : valueList) {
+                    match |= value == candidate;
+                }
+                selectedPositions[position] &= !nulls[position] & (match ^ negated);
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("field", getField())
+                    .add("values", Arrays.toString(valueList))
+                    .add("negated", negated)
+                    .toString();
+        }
+    }
+
+    private static final class IsNullPredicate
+            extends ColumnPredicate
+    {
+        private final boolean isNull;
+
+        public IsNullPredicate(InputReferenceExpression column, boolean isNull)
+        {
+            super(column);
+            this.isNull = isNull;
+        }
+
+        @Override
+        public void evaluate(long[] values, boolean[] nulls, int positionCount, boolean[] selectedPositions)
+        {
+            for (int position = 0; position < positionCount; position++) {
+                selectedPositions[position] &= nulls[position] == isNull;
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("field", getField())
+                    .add("isNull", isNull)
+                    .toString();
+        }
+    }
+}
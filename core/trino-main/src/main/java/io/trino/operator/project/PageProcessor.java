@@ -14,6 +14,7 @@
 package io.trino.operator.project;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import io.airlift.slice.SizeOf;
 import io.trino.array.ReferenceCountMap;
 import io.trino.memory.context.LocalMemoryContext;
@@ -60,6 +61,8 @@ public class PageProcessor
     private final ExpressionProfiler expressionProfiler;
     private final DictionarySourceIdFunction dictionarySourceIdFunction = new DictionarySourceIdFunction();
     private final Optional<PageFilter> filter;
+    private final List<PageProjection> commonSubexpressions;
+    private final int commonSubexpressionsChannel;
     private final List<PageProjection> projections;
 
     private int projectBatchSize;
@@ -72,6 +75,21 @@ public class PageProcessor
 
     @VisibleForTesting
     public PageProcessor(Optional<PageFilter> filter, List<? extends PageProjection> projections, OptionalInt initialBatchSize, ExpressionProfiler expressionProfiler)
+    {
+        this(filter, ImmutableList.of(), 0, projections, initialBatchSize, expressionProfiler);
+    }
+
+    /**
+     * @param commonSubexpressions projections evaluated for all positions of the page before the filter; their results are
+     * visible to the filter and the projections as channels starting at {@code commonSubexpressionsChannel}
+     */
+    public PageProcessor(
+            Optional<PageFilter> filter,
+            List<? extends PageProjection> commonSubexpressions,
+            int commonSubexpressionsChannel,
+            List<? extends PageProjection> projections,
+            OptionalInt initialBatchSize,
+            ExpressionProfiler expressionProfiler)
     {
         this.filter = requireNonNull(filter, "filter is null")
                 .map(pageFilter -> {
@@ -80,13 +98,13 @@ public class PageProcessor
                     }
                     return pageFilter;
                 });
+        this.commonSubexpressions = requireNonNull(commonSubexpressions, "commonSubexpressions is null").stream()
+                .map(this::dictionaryAware)
+                .collect(toImmutableList());
+        checkArgument(commonSubexpressionsChannel >= 0, "commonSubexpressionsChannel is negative");
+        this.commonSubexpressionsChannel = commonSubexpressionsChannel;
         this.projections = requireNonNull(projections, "projections is null").stream()
-                .map(projection -> {
-                    if (projection.getInputChannels().size() == 1 && projection.isDeterministic()) {
-                        return new DictionaryAwarePageProjection(projection, dictionarySourceIdFunction, projection instanceof InputPageProjection);
-                    }
-                    return projection;
-                })
+                .map(this::dictionaryAware)
                 .collect(toImmutableList());
         this.projectBatchSize = initialBatchSize.orElse(1);
         this.expressionProfiler = requireNonNull(expressionProfiler, "expressionProfiler is null");
@@ -97,6 +115,14 @@ public class PageProcessor
         this(filter, projections, OptionalInt.of(1));
     }
 
+    private PageProjection dictionaryAware(PageProjection projection)
+    {
+        if (projection.getInputChannels().size() == 1 && projection.isDeterministic()) {
+            return new DictionaryAwarePageProjection(projection, dictionarySourceIdFunction, projection instanceof InputPageProjection);
+        }
+        return projection;
+    }
+
     public Iterator<Optional<Page>> process(ConnectorSession session, DriverYieldSignal yieldSignal, LocalMemoryContext memoryContext, Page page)
     {
         return process(session, yieldSignal, memoryContext, page, false);
@@ -108,15 +134,24 @@ public class PageProcessor
         return processor.yieldingIterator();
     }
 
-    public WorkProcessor<Page> createWorkProcessor(ConnectorSession session, DriverYieldSignal yieldSignal, LocalMemoryContext memoryContext, Page page, boolean avoidPageMaterialization)
+    public WorkProcessor<Page> createWorkProcessor(ConnectorSession session, DriverYieldSignal yieldSignal, LocalMemoryContext memoryContext, Page inputPage, boolean avoidPageMaterialization)
     {
         // limit the scope of the dictionary ids to just one page
         dictionarySourceIdFunction.reset();
 
-        if (page.getPositionCount() == 0) {
+        if (inputPage.getPositionCount() == 0) {
             return WorkProcessor.of();
         }
 
+        if (commonSubexpressions.isEmpty()) {
+            return filterAndProject(session, yieldSignal, memoryContext, inputPage, avoidPageMaterialization);
+        }
+        return WorkProcessor.create(new AppendCommonSubexpressions(session, yieldSignal, memoryContext, inputPage))
+                .flatMap(page -> filterAndProject(session, yieldSignal, memoryContext, page, avoidPageMaterialization));
+    }
+
+    private WorkProcessor<Page> filterAndProject(ConnectorSession session, DriverYieldSignal yieldSignal, LocalMemoryContext memoryContext, Page page, boolean avoidPageMaterialization)
+    {
         if (filter.isPresent()) {
             SelectedPositions selectedPositions = filter.get().filter(session, filter.get().getInputChannels().getInputChannels(page));
             if (selectedPositions.isEmpty()) {
@@ -136,6 +171,77 @@ public class PageProcessor
         return WorkProcessor.create(new ProjectSelectedPositions(session, yieldSignal, memoryContext, page, positionsRange(0, page.getPositionCount()), avoidPageMaterialization));
     }
 
+    /**
+     * Evaluates the common subexpressions for all positions of the page and appends their results to it.
+     * The evaluation yields with the driver, and the results are accounted until the page is produced.
+     */
+    private class AppendCommonSubexpressions
+            implements WorkProcessor.Process<Page>
+    {
+        private final ConnectorSession session;
+        private final DriverYieldSignal yieldSignal;
+        private final LocalMemoryContext memoryContext;
+        private final SelectedPositions allPositions;
+
+        private Page page;
+        private final Block[] blocks;
+        private int nextCommonSubexpression;
+        private Work<Block> work;
+
+        private AppendCommonSubexpressions(ConnectorSession session, DriverYieldSignal yieldSignal, LocalMemoryContext memoryContext, Page page)
+        {
+            this.session = session;
+            this.yieldSignal = yieldSignal;
+            this.memoryContext = memoryContext;
+            this.page = page;
+            this.allPositions = positionsRange(0, page.getPositionCount());
+            this.blocks = new Block[commonSubexpressionsChannel + commonSubexpressions.size()];
+            for (int channel = 0; channel < commonSubexpressionsChannel; channel++) {
+                blocks[channel] = page.getBlock(channel);
+            }
+        }
+
+        @Override
+        public ProcessState<Page> process()
+        {
+            if (page == null) {
+                return finished();
+            }
+
+            while (nextCommonSubexpression < commonSubexpressions.size()) {
+                if (work == null) {
+                    if (yieldSignal.isSet()) {
+                        return yield();
+                    }
+                    PageProjection projection = commonSubexpressions.get(nextCommonSubexpression);
+                    work = projection.project(session, yieldSignal, projection.getInputChannels().getInputChannels(page), allPositions);
+                }
+                if (!work.process()) {
+                    return yield();
+                }
+                blocks[commonSubexpressionsChannel + nextCommonSubexpression] = work.getResult();
+                work = null;
+                nextCommonSubexpression++;
+                updateRetainedSize();
+            }
+
+            Page result = new Page(page.getPositionCount(), blocks);
+            page = null;
+            // the page is accounted by the projection of the selected positions from now on
+            memoryContext.setBytes(0);
+            return ofResult(result);
+        }
+
+        private void updateRetainedSize()
+        {
+            long retainedSizeInBytes = 0;
+            for (int channel = commonSubexpressionsChannel; channel < commonSubexpressionsChannel + nextCommonSubexpression; channel++) {
+                retainedSizeInBytes += blocks[channel].getRetainedSizeInBytes();
+            }
+            memoryContext.setBytes(retainedSizeInBytes);
+        }
+    }
+
     private class ProjectSelectedPositions
             implements WorkProcessor.Process<Page>
     {
@@ -353,6 +459,12 @@ public class PageProcessor
         return projections;
     }
 
+    @VisibleForTesting
+    public List<PageProjection> getCommonSubexpressions()
+    {
+        return commonSubexpressions;
+    }
+
     @NotThreadSafe
     private static class DictionarySourceIdFunction
             implements Function<DictionaryBlock, DictionaryId>
@@ -21,6 +21,8 @@ import io.trino.operator.OperatorFactory;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.ColumnarArray;
+import io.trino.spi.block.DictionaryBlock;
 import io.trino.spi.block.PageBuilderStatus;
 import io.trino.spi.type.ArrayType;
 import io.trino.spi.type.MapType;
@@ -28,11 +30,13 @@ import io.trino.spi.type.RowType;
 import io.trino.spi.type.Type;
 import io.trino.sql.planner.plan.PlanNodeId;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.spi.block.ColumnarArray.toColumnarArray;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static java.util.Objects.requireNonNull;
 
@@ -116,6 +120,12 @@ public class UnnestOperator
 
     private final int outputChannelCount;
 
+    // Unnesting a single array without ordinality produces the elements of consecutive input positions in order,
+    // so the unnested column is a region of the elements block and the replicated columns are dictionaries over
+    // the input blocks, with no per-element copying.
+    private final boolean unnestArrayElements;
+    private ColumnarArray currentArrays;
+
     public UnnestOperator(OperatorContext operatorContext, List<Integer> replicateChannels, List<Type> replicateTypes, List<Integer> unnestChannels, List<Type> unnestTypes, boolean withOrdinality, boolean outer)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
@@ -139,6 +149,7 @@ public class UnnestOperator
         this.outer = outer;
 
         this.outputChannelCount = unnestOutputChannelCount + replicateTypes.size() + (withOrdinality ? 1 : 0);
+        this.unnestArrayElements = unnesters.size() == 1 && unnesters.get(0) instanceof ArrayUnnester && !withOrdinality && !outer;
     }
 
     @Override
@@ -174,7 +185,12 @@ public class UnnestOperator
 
         currentPage = page;
         currentPosition = 0;
-        resetBlockBuilders();
+        if (unnestArrayElements) {
+            currentArrays = toColumnarArray(page.getBlock(unnestChannels.get(0)));
+        }
+        else {
+            resetBlockBuilders();
+        }
     }
 
     private void resetBlockBuilders()
@@ -198,6 +214,10 @@ public class UnnestOperator
             return null;
         }
 
+        if (unnestArrayElements) {
+            return getArrayElementsOutput();
+        }
+
         PageBuilderStatus pageBuilderStatus = new PageBuilderStatus(MAX_BYTES_PER_PAGE);
         prepareForNewOutput(pageBuilderStatus);
 
@@ -222,6 +242,38 @@ public class UnnestOperator
         return new Page(outputBlocks);
     }
 
+    private Page getArrayElementsOutput()
+    {
+        int startPosition = currentPosition;
+        int outputRowCount = 0;
+        while (currentPosition < currentPage.getPositionCount() && outputRowCount < MAX_ROWS_PER_BLOCK) {
+            outputRowCount += currentArrays.getLength(currentPosition);
+            currentPosition++;
+        }
+
+        int[] ids = new int[outputRowCount];
+        int outputPosition = 0;
+        for (int position = startPosition; position < currentPosition; position++) {
+            int length = currentArrays.getLength(position);
+            Arrays.fill(ids, outputPosition, outputPosition + length, position);
+            outputPosition += length;
+        }
+
+        Block[] outputBlocks = new Block[outputChannelCount];
+        for (int replicateIndex = 0; replicateIndex < replicateChannels.size(); replicateIndex++) {
+            outputBlocks[replicateIndex] = new DictionaryBlock(outputRowCount, currentPage.getBlock(replicateChannels.get(replicateIndex)), ids);
+        }
+        outputBlocks[replicateChannels.size()] = currentArrays.getElementsBlock().getRegion(currentArrays.getOffset(startPosition), outputRowCount);
+
+        if (currentPosition == currentPage.getPositionCount()) {
+            currentPage = null;
+            currentArrays = null;
+            currentPosition = 0;
+        }
+
+        return new Page(outputRowCount, outputBlocks);
+    }
+
     private int processCurrentPosition()
     {
         // Determine number of output rows for this input position
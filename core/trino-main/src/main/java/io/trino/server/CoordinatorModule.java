@@ -51,6 +51,7 @@ import io.trino.execution.QueryInfo;
 import io.trino.execution.QueryManager;
 import io.trino.execution.QueryPerformanceFetcher;
 import io.trino.execution.QueryPreparer;
+import io.trino.execution.QueryPreparerConfig;
 import io.trino.execution.RemoteTaskFactory;
 import io.trino.execution.SqlQueryManager;
 import io.trino.execution.TaskInfo;
@@ -160,7 +161,9 @@ public class CoordinatorModule
         jaxrsBinder(binder).bind(ResourceGroupStateInfoResource.class);
         binder.bind(QueryIdGenerator.class).in(Scopes.SINGLETON);
         binder.bind(QueryManager.class).to(SqlQueryManager.class).in(Scopes.SINGLETON);
+        configBinder(binder).bindConfig(QueryPreparerConfig.class);
         binder.bind(QueryPreparer.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(QueryPreparer.class).withGeneratedName();
         binder.bind(SessionSupplier.class).to(QuerySessionSupplier.class).in(Scopes.SINGLETON);
         binder.bind(InternalResourceGroupManager.class).in(Scopes.SINGLETON);
         newExporter(binder).export(InternalResourceGroupManager.class).withGeneratedName();
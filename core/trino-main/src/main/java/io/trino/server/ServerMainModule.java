@@ -372,6 +372,7 @@ public class ServerMainModule
 
         // index manager
         binder.bind(IndexManager.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(IndexManager.class).withGeneratedName();
 
         // handle resolver
         binder.install(new HandleJsonModule());
@@ -78,6 +78,7 @@ public class FeaturesConfig
     private boolean spatialJoinsEnabled = true;
     private JoinReorderingStrategy joinReorderingStrategy = JoinReorderingStrategy.AUTOMATIC;
     private int maxReorderedJoins = 9;
+    private int maxGreedyReorderedJoins;
     private boolean redistributeWrites = true;
     private boolean usePreferredWritePartitioning;
     private boolean scaleWriters;
@@ -115,7 +116,9 @@ public class FeaturesConfig
     private boolean enableForcedExchangeBelowGroupId = true;
     private boolean pushAggregationThroughOuterJoin = true;
     private boolean pushPartialAggregationThoughJoin;
+    private double pushPartialAggregationThroughJoinMaxOutputRatio = 0.5;
     private double memoryRevokingTarget = 0.5;
+    private MemoryRevokingOrder memoryRevokingOrder = MemoryRevokingOrder.TASK_CREATION_TIME;
     private double memoryRevokingThreshold = 0.9;
     private boolean parseDecimalLiteralsAsDouble;
     private boolean useMarkDistinct = true;
@@ -130,10 +133,16 @@ public class FeaturesConfig
     private boolean optimizeDuplicateInsensitiveJoins = true;
     private boolean useLegacyWindowFilterPushdown;
     private boolean planWithTableNodePartitioning = true;
+    private boolean mergeJoinEnabled;
+    private boolean rangeJoinEnabled = true;
 
     private Duration iterativeOptimizerTimeout = new Duration(3, MINUTES); // by default let optimizer wait a long time in case it retrieves some data from ConnectorMetadata
     private DataSize filterAndProjectMinOutputPageSize = DataSize.of(500, KILOBYTE);
     private int filterAndProjectMinOutputPageRowCount = 256;
+    private boolean filterAndProjectEliminateCommonSubexpressions = true;
+    private boolean filterAdaptiveConjunctOrdering = true;
+    private boolean filterColumnarEvaluation = true;
+    private boolean projectionColumnarEvaluation = true;
     private int maxGroupingSets = 2048;
 
     public enum JoinReorderingStrategy
@@ -160,6 +169,12 @@ public class FeaturesConfig
         }
     }
 
+    public enum MemoryRevokingOrder
+    {
+        TASK_CREATION_TIME,
+        QUERY_PRIORITY_AND_SIZE,
+    }
+
     public enum DataIntegrityVerification
     {
         NONE,
@@ -349,6 +364,20 @@ public class FeaturesConfig
         return this;
     }
 
+    @Min(0)
+    public int getMaxGreedyReorderedJoins()
+    {
+        return maxGreedyReorderedJoins;
+    }
+
+    @Config("optimizer.max-greedy-reordered-joins")
+    @ConfigDescription("The maximum number of joins to reorder greedily when there are too many joins to enumerate all join orders")
+    public FeaturesConfig setMaxGreedyReorderedJoins(int maxGreedyReorderedJoins)
+    {
+        this.maxGreedyReorderedJoins = maxGreedyReorderedJoins;
+        return this;
+    }
+
     public boolean isRedistributeWrites()
     {
         return redistributeWrites;
@@ -710,6 +739,19 @@ public class FeaturesConfig
         return this;
     }
 
+    public MemoryRevokingOrder getMemoryRevokingOrder()
+    {
+        return memoryRevokingOrder;
+    }
+
+    @Config("memory-revoking-order")
+    @ConfigDescription("Order in which operators are asked to revoke memory")
+    public FeaturesConfig setMemoryRevokingOrder(MemoryRevokingOrder memoryRevokingOrder)
+    {
+        this.memoryRevokingOrder = memoryRevokingOrder;
+        return this;
+    }
+
     public double getSpillMaxUsedSpaceThreshold()
     {
         return spillMaxUsedSpaceThreshold;
@@ -808,6 +850,21 @@ public class FeaturesConfig
         return this;
     }
 
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    public double getPushPartialAggregationThroughJoinMaxOutputRatio()
+    {
+        return pushPartialAggregationThroughJoinMaxOutputRatio;
+    }
+
+    @Config("optimizer.push-partial-aggregation-through-join-max-output-ratio")
+    @ConfigDescription("Push partial aggregation below a join only when it is estimated to reduce the number of rows to at most this fraction")
+    public FeaturesConfig setPushPartialAggregationThroughJoinMaxOutputRatio(double pushPartialAggregationThroughJoinMaxOutputRatio)
+    {
+        this.pushPartialAggregationThroughJoinMaxOutputRatio = pushPartialAggregationThroughJoinMaxOutputRatio;
+        return this;
+    }
+
     public boolean isParseDecimalLiteralsAsDouble()
     {
         return parseDecimalLiteralsAsDouble;
@@ -872,6 +929,58 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isFilterAndProjectEliminateCommonSubexpressions()
+    {
+        return filterAndProjectEliminateCommonSubexpressions;
+    }
+
+    @Config("filter-and-project-eliminate-common-subexpressions")
+    @ConfigDescription("Evaluate subexpressions shared by the filter and projections once per page")
+    public FeaturesConfig setFilterAndProjectEliminateCommonSubexpressions(boolean filterAndProjectEliminateCommonSubexpressions)
+    {
+        this.filterAndProjectEliminateCommonSubexpressions = filterAndProjectEliminateCommonSubexpressions;
+        return this;
+    }
+
+    public boolean isFilterAdaptiveConjunctOrdering()
+    {
+        return filterAdaptiveConjunctOrdering;
+    }
+
+    @Config("filter-adaptive-conjunct-ordering")
+    @ConfigDescription("Reorder the conjuncts of filters at runtime by their observed selectivity and cost")
+    public FeaturesConfig setFilterAdaptiveConjunctOrdering(boolean filterAdaptiveConjunctOrdering)
+    {
+        this.filterAdaptiveConjunctOrdering = filterAdaptiveConjunctOrdering;
+        return this;
+    }
+
+    public boolean isFilterColumnarEvaluation()
+    {
+        return filterColumnarEvaluation;
+    }
+
+    @Config("filter-columnar-evaluation")
+    @ConfigDescription("Evaluate simple filters on integral columns column at a time")
+    public FeaturesConfig setFilterColumnarEvaluation(boolean filterColumnarEvaluation)
+    {
+        this.filterColumnarEvaluation = filterColumnarEvaluation;
+        return this;
+    }
+
+    public boolean isProjectionColumnarEvaluation()
+    {
+        return projectionColumnarEvaluation;
+    }
+
+    @Config("projection-columnar-evaluation")
+    @ConfigDescription("Evaluate arithmetic projections on bigint and double columns a batch of positions at a time")
+    public FeaturesConfig setProjectionColumnarEvaluation(boolean projectionColumnarEvaluation)
+    {
+        this.projectionColumnarEvaluation = projectionColumnarEvaluation;
+        return this;
+    }
+
     public boolean isDistributedSortEnabled()
     {
         return distributedSort;
@@ -1017,4 +1126,30 @@ public class FeaturesConfig
         this.planWithTableNodePartitioning = planWithTableNodePartitioning;
         return this;
     }
+
+    public boolean isMergeJoinEnabled()
+    {
+        return mergeJoinEnabled;
+    }
+
+    @Config("merge-join-enabled")
+    @ConfigDescription("Use a sort-merge join for equi joins executed in a single stream")
+    public FeaturesConfig setMergeJoinEnabled(boolean mergeJoinEnabled)
+    {
+        this.mergeJoinEnabled = mergeJoinEnabled;
+        return this;
+    }
+
+    public boolean isRangeJoinEnabled()
+    {
+        return rangeJoinEnabled;
+    }
+
+    @Config("range-join-enabled")
+    @ConfigDescription("Use a range index for joins on a probe value between two build side columns")
+    public FeaturesConfig setRangeJoinEnabled(boolean rangeJoinEnabled)
+    {
+        this.rangeJoinEnabled = rangeJoinEnabled;
+        return this;
+    }
 }
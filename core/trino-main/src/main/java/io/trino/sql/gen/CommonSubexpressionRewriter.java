@@ -0,0 +1,256 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.gen;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.trino.sql.relational.CallExpression;
+import io.trino.sql.relational.ConstantExpression;
+import io.trino.sql.relational.DeterminismEvaluator;
+import io.trino.sql.relational.InputReferenceExpression;
+import io.trino.sql.relational.LambdaDefinitionExpression;
+import io.trino.sql.relational.RowExpression;
+import io.trino.sql.relational.RowExpressionVisitor;
+import io.trino.sql.relational.SpecialForm;
+import io.trino.sql.relational.VariableReferenceExpression;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.sql.relational.Expressions.field;
+import static io.trino.sql.relational.Expressions.subExpressions;
+import static io.trino.sql.relational.SpecialForm.Form.ROW_CONSTRUCTOR;
+import static java.util.Comparator.comparingInt;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Extracts deterministic subexpressions that are used more than once by the filter and the projections
+ * of a page processor, so they can be evaluated once per page. The extracted subexpressions are evaluated
+ * for every position of the page before the filter, so only subexpressions which are already evaluated for
+ * every position are extracted: those evaluated unconditionally by the filter, or by the projections when
+ * there is no filter. This guarantees that the rewrite neither adds work nor raises errors that the original
+ * expressions would not raise.
+ */
+final class CommonSubexpressionRewriter
+{
+    private CommonSubexpressionRewriter() {}
+
+    public static Result rewrite(Optional<RowExpression> filter, List<RowExpression> projections, DeterminismEvaluator determinismEvaluator)
+    {
+        List<RowExpression> expressions = ImmutableList.<RowExpression>builder()
+                .addAll(filter.map(ImmutableList::of).orElse(ImmutableList.of()))
+                .addAll(projections)
+                .build();
+
+        Map<RowExpression, Integer> occurrences = new HashMap<>();
+        expressions.forEach(expression -> countOccurrences(expression, occurrences));
+
+        Set<RowExpression> unconditionallyEvaluated = new LinkedHashSet<>();
+        if (filter.isPresent()) {
+            collectUnconditionallyEvaluated(filter.get(), unconditionallyEvaluated);
+        }
+        else {
+            projections.forEach(projection -> collectUnconditionallyEvaluated(projection, unconditionallyEvaluated));
+        }
+
+        List<RowExpression> candidates = unconditionallyEvaluated.stream()
+                .filter(expression -> expression instanceof CallExpression || expression instanceof SpecialForm)
+                .filter(expression -> occurrences.get(expression) > 1)
+                .filter(expression -> subExpressions(ImmutableList.of(expression)).stream().anyMatch(InputReferenceExpression.class::isInstance))
+                .filter(determinismEvaluator::isDeterministic)
+                .sorted(comparingInt((RowExpression expression) -> subExpressions(ImmutableList.of(expression)).size()).reversed())
+                .collect(toImmutableList());
+
+        // nested subexpressions are evaluated as part of the enclosing one
+        List<RowExpression> commonSubexpressions = new ArrayList<>();
+        for (RowExpression candidate : candidates) {
+            if (commonSubexpressions.stream().noneMatch(selected -> subExpressions(ImmutableList.of(selected)).contains(candidate))) {
+                commonSubexpressions.add(candidate);
+            }
+        }
+        if (commonSubexpressions.isEmpty()) {
+            return new Result(ImmutableList.of(), 0, filter, projections);
+        }
+
+        // the results are appended to the page after the last channel used by the expressions
+        int firstChannel = subExpressions(expressions).stream()
+                .filter(InputReferenceExpression.class::isInstance)
+                .mapToInt(expression -> ((InputReferenceExpression) expression).getField() + 1)
+                .max()
+                .orElse(0);
+        ImmutableMap.Builder<RowExpression, RowExpression> replacements = ImmutableMap.builder();
+        for (int i = 0; i < commonSubexpressions.size(); i++) {
+            RowExpression expression = commonSubexpressions.get(i);
+            replacements.put(expression, field(firstChannel + i, expression.getType()));
+        }
+
+        Visitor visitor = new Visitor(replacements.build());
+        return new Result(
+                commonSubexpressions,
+                firstChannel,
+                filter.map(expression -> expression.accept(visitor, null)),
+                projections.stream()
+                        .map(expression -> expression.accept(visitor, null))
+                        .collect(toImmutableList()));
+    }
+
+    private static void countOccurrences(RowExpression expression, Map<RowExpression, Integer> occurrences)
+    {
+        occurrences.merge(expression, 1, Integer::sum);
+        if (expression instanceof CallExpression) {
+            ((CallExpression) expression).getArguments().forEach(argument -> countOccurrences(argument, occurrences));
+        }
+        else if (expression instanceof SpecialForm) {
+            ((SpecialForm) expression).getArguments().forEach(argument -> countOccurrences(argument, occurrences));
+        }
+        // lambda bodies are not rewritten, so their subexpressions are not counted
+    }
+
+    private static void collectUnconditionallyEvaluated(RowExpression expression, Set<RowExpression> result)
+    {
+        result.add(expression);
+
+        List<RowExpression> arguments;
+        if (expression instanceof CallExpression) {
+            arguments = ((CallExpression) expression).getArguments();
+        }
+        else if (expression instanceof SpecialForm) {
+            arguments = ((SpecialForm) expression).getArguments();
+            if (((SpecialForm) expression).getForm() == ROW_CONSTRUCTOR) {
+                arguments.forEach(argument -> collectUnconditionallyEvaluated(argument, result));
+                return;
+            }
+        }
+        else {
+            return;
+        }
+
+        // function calls skip the remaining arguments after a null argument, and the other
+        // special forms short-circuit, so only the first argument is always evaluated
+        if (!arguments.isEmpty()) {
+            collectUnconditionallyEvaluated(arguments.get(0), result);
+        }
+    }
+
+    private static class Visitor
+            implements RowExpressionVisitor<RowExpression, Void>
+    {
+        private final Map<RowExpression, RowExpression> replacements;
+
+        public Visitor(Map<RowExpression, RowExpression> replacements)
+        {
+            this.replacements = requireNonNull(replacements, "replacements is null");
+        }
+
+        @Override
+        public RowExpression visitCall(CallExpression call, Void context)
+        {
+            RowExpression replacement = replacements.get(call);
+            if (replacement != null) {
+                return replacement;
+            }
+            return new CallExpression(
+                    call.getResolvedFunction(),
+                    call.getArguments().stream()
+                            .map(expression -> expression.accept(this, context))
+                            .collect(toImmutableList()));
+        }
+
+        @Override
+        public RowExpression visitSpecialForm(SpecialForm specialForm, Void context)
+        {
+            RowExpression replacement = replacements.get(specialForm);
+            if (replacement != null) {
+                return replacement;
+            }
+            return new SpecialForm(
+                    specialForm.getForm(),
+                    specialForm.getType(),
+                    specialForm.getArguments().stream()
+                            .map(expression -> expression.accept(this, context))
+                            .collect(toImmutableList()),
+                    specialForm.getFunctionDependencies());
+        }
+
+        @Override
+        public RowExpression visitInputReference(InputReferenceExpression reference, Void context)
+        {
+            return reference;
+        }
+
+        @Override
+        public RowExpression visitConstant(ConstantExpression literal, Void context)
+        {
+            return literal;
+        }
+
+        @Override
+        public RowExpression visitLambda(LambdaDefinitionExpression lambda, Void context)
+        {
+            return lambda;
+        }
+
+        @Override
+        public RowExpression visitVariableReference(VariableReferenceExpression reference, Void context)
+        {
+            return reference;
+        }
+    }
+
+    public static class Result
+    {
+        private final List<RowExpression> commonSubexpressions;
+        private final int commonSubexpressionsChannel;
+        private final Optional<RowExpression> filter;
+        private final List<RowExpression> projections;
+
+        public Result(List<RowExpression> commonSubexpressions, int commonSubexpressionsChannel, Optional<RowExpression> filter, List<RowExpression> projections)
+        {
+            this.commonSubexpressions = ImmutableList.copyOf(requireNonNull(commonSubexpressions, "commonSubexpressions is null"));
+            this.commonSubexpressionsChannel = commonSubexpressionsChannel;
+            this.filter = requireNonNull(filter, "filter is null");
+            this.projections = ImmutableList.copyOf(requireNonNull(projections, "projections is null"));
+        }
+
+        public List<RowExpression> getCommonSubexpressions()
+        {
+            return commonSubexpressions;
+        }
+
+        /**
+         * The rewritten expressions reference the result of the common subexpression at index {@code i}
+         * as the channel {@code commonSubexpressionsChannel + i}.
+         */
+        public int getCommonSubexpressionsChannel()
+        {
+            return commonSubexpressionsChannel;
+        }
+
+        public Optional<RowExpression> getFilter()
+        {
+            return filter;
+        }
+
+        public List<RowExpression> getProjections()
+        {
+            return projections;
+        }
+    }
+}
@@ -22,12 +22,16 @@ import io.airlift.bytecode.ClassDefinition;
 import io.airlift.bytecode.CompilationException;
 import io.airlift.jmx.CacheStatsMBean;
 import io.trino.metadata.Metadata;
+import io.trino.operator.project.AdaptiveConjunctionPageFilter;
 import io.trino.operator.project.CursorProcessor;
+import io.trino.operator.project.LongColumnPageFilter;
 import io.trino.operator.project.PageFilter;
 import io.trino.operator.project.PageProcessor;
 import io.trino.operator.project.PageProjection;
 import io.trino.spi.TrinoException;
+import io.trino.sql.relational.DeterminismEvaluator;
 import io.trino.sql.relational.RowExpression;
+import io.trino.sql.relational.SpecialForm;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
@@ -45,10 +49,12 @@ import static io.airlift.bytecode.Access.FINAL;
 import static io.airlift.bytecode.Access.PUBLIC;
 import static io.airlift.bytecode.Access.a;
 import static io.airlift.bytecode.ParameterizedType.type;
+import static io.trino.operator.project.PageFieldsToInputParametersRewriter.rewritePageFieldsToInputParameters;
 import static io.trino.spi.StandardErrorCode.COMPILER_ERROR;
 import static io.trino.spi.type.BooleanType.BOOLEAN;
 import static io.trino.sql.gen.BytecodeUtils.invoke;
 import static io.trino.sql.relational.Expressions.constant;
+import static io.trino.sql.relational.SpecialForm.Form.AND;
 import static io.trino.util.CompilerUtils.defineClass;
 import static io.trino.util.CompilerUtils.makeClassName;
 import static java.util.Objects.requireNonNull;
@@ -56,6 +62,7 @@ import static java.util.Objects.requireNonNull;
 public class ExpressionCompiler
 {
     private final PageFunctionCompiler pageFunctionCompiler;
+    private final DeterminismEvaluator determinismEvaluator;
     private final LoadingCache<CacheKey, Class<? extends CursorProcessor>> cursorProcessors;
     private final CacheStatsMBean cacheStatsMBean;
 
@@ -64,6 +71,7 @@ public class ExpressionCompiler
     {
         requireNonNull(metadata, "metadata is null");
         this.pageFunctionCompiler = requireNonNull(pageFunctionCompiler, "pageFunctionCompiler is null");
+        this.determinismEvaluator = new DeterminismEvaluator(metadata);
         this.cursorProcessors = CacheBuilder.newBuilder()
                 .recordStats()
                 .maximumSize(1000)
@@ -93,29 +101,104 @@ public class ExpressionCompiler
 
     public Supplier<PageProcessor> compilePageProcessor(Optional<RowExpression> filter, List<? extends RowExpression> projections, Optional<String> classNameSuffix)
     {
-        return compilePageProcessor(filter, projections, classNameSuffix, OptionalInt.empty());
+        return compilePageProcessor(filter, projections, classNameSuffix, false, false, true, true);
+    }
+
+    /**
+     * @param eliminateCommonSubexpressions evaluate subexpressions shared by the filter and the projections once per page
+     * @param adaptiveConjunctOrdering evaluate the conjuncts of the filter separately, in an order adapted to their observed selectivity and cost
+     * @param columnarFilterEvaluation evaluate simple filters on integral columns column at a time
+     * @param columnarProjectionEvaluation evaluate arithmetic projections a batch of positions at a time
+     */
+    public Supplier<PageProcessor> compilePageProcessor(
+            Optional<RowExpression> filter,
+            List<? extends RowExpression> projections,
+            Optional<String> classNameSuffix,
+            boolean eliminateCommonSubexpressions,
+            boolean adaptiveConjunctOrdering,
+            boolean columnarFilterEvaluation,
+            boolean columnarProjectionEvaluation)
+    {
+        return compilePageProcessor(filter, projections, classNameSuffix, OptionalInt.empty(), eliminateCommonSubexpressions, adaptiveConjunctOrdering, columnarFilterEvaluation, columnarProjectionEvaluation);
     }
 
     private Supplier<PageProcessor> compilePageProcessor(
             Optional<RowExpression> filter,
             List<? extends RowExpression> projections,
             Optional<String> classNameSuffix,
-            OptionalInt initialBatchSize)
+            OptionalInt initialBatchSize,
+            boolean eliminateCommonSubexpressions,
+            boolean adaptiveConjunctOrdering,
+            boolean columnarFilterEvaluation,
+            boolean columnarProjectionEvaluation)
     {
-        Optional<Supplier<PageFilter>> filterFunctionSupplier = filter.map(expression -> pageFunctionCompiler.compileFilter(expression, classNameSuffix));
-        List<Supplier<PageProjection>> pageProjectionSuppliers = projections.stream()
-                .map(projection -> pageFunctionCompiler.compileProjection(projection, classNameSuffix))
+        // the conjuncts of a split filter are reordered, so the subexpressions of the filter which are extracted
+        // below would no longer be evaluated for every position without the rewrite
+        boolean splitFilter = adaptiveConjunctOrdering && filter.isPresent() && canSplitConjuncts(filter.get(), columnarFilterEvaluation);
+        CommonSubexpressionRewriter.Result rewritten;
+        if (eliminateCommonSubexpressions && !splitFilter) {
+            rewritten = CommonSubexpressionRewriter.rewrite(filter, ImmutableList.copyOf(projections), determinismEvaluator);
+        }
+        else {
+            rewritten = new CommonSubexpressionRewriter.Result(ImmutableList.of(), 0, filter, ImmutableList.copyOf(projections));
+        }
+
+        List<Supplier<PageProjection>> commonSubexpressionSuppliers = rewritten.getCommonSubexpressions().stream()
+                .map(expression -> pageFunctionCompiler.compileProjection(expression, classNameSuffix, columnarProjectionEvaluation))
+                .collect(toImmutableList());
+        Optional<Supplier<PageFilter>> filterFunctionSupplier = rewritten.getFilter().map(expression -> compileFilter(expression, classNameSuffix, splitFilter, columnarFilterEvaluation));
+        List<Supplier<PageProjection>> pageProjectionSuppliers = rewritten.getProjections().stream()
+                .map(projection -> pageFunctionCompiler.compileProjection(projection, classNameSuffix, columnarProjectionEvaluation))
                 .collect(toImmutableList());
+        int commonSubexpressionsChannel = rewritten.getCommonSubexpressionsChannel();
 
         return () -> {
+            List<PageProjection> commonSubexpressions = commonSubexpressionSuppliers.stream()
+                    .map(Supplier::get)
+                    .collect(toImmutableList());
             Optional<PageFilter> filterFunction = filterFunctionSupplier.map(Supplier::get);
             List<PageProjection> pageProjections = pageProjectionSuppliers.stream()
                     .map(Supplier::get)
                     .collect(toImmutableList());
-            return new PageProcessor(filterFunction, pageProjections, initialBatchSize);
+            return new PageProcessor(filterFunction, commonSubexpressions, commonSubexpressionsChannel, pageProjections, initialBatchSize, new ExpressionProfiler());
         };
     }
 
+    @VisibleForTesting
+    Supplier<PageFilter> compileFilter(RowExpression filter, Optional<String> classNameSuffix, boolean adaptiveConjunctOrdering, boolean columnarEvaluation)
+    {
+        if (!adaptiveConjunctOrdering || !canSplitConjuncts(filter, columnarEvaluation)) {
+            return pageFunctionCompiler.compileFilter(filter, classNameSuffix, columnarEvaluation);
+        }
+
+        List<Supplier<PageFilter>> conjunctSuppliers = extractConjuncts(filter).stream()
+                .map(conjunct -> pageFunctionCompiler.compileFilter(conjunct, classNameSuffix, columnarEvaluation))
+                .collect(toImmutableList());
+        return () -> new AdaptiveConjunctionPageFilter(conjunctSuppliers.stream()
+                .map(Supplier::get)
+                .collect(toImmutableList()));
+    }
+
+    private boolean canSplitConjuncts(RowExpression filter, boolean columnarEvaluation)
+    {
+        // filters evaluated column at a time are cheap enough that splitting them does not pay off, and filters
+        // over a single column are evaluated on the dictionary as a whole by the page processor
+        return extractConjuncts(filter).size() >= 2
+                && determinismEvaluator.isDeterministic(filter)
+                && !(columnarEvaluation && LongColumnPageFilter.isSupported(filter))
+                && rewritePageFieldsToInputParameters(filter).getInputChannels().size() > 1;
+    }
+
+    private static List<RowExpression> extractConjuncts(RowExpression expression)
+    {
+        if (expression instanceof SpecialForm && ((SpecialForm) expression).getForm() == AND) {
+            return ((SpecialForm) expression).getArguments().stream()
+                    .flatMap(argument -> extractConjuncts(argument).stream())
+                    .collect(toImmutableList());
+        }
+        return ImmutableList.of(expression);
+    }
+
     public Supplier<PageProcessor> compilePageProcessor(Optional<RowExpression> filter, List<? extends RowExpression> projections)
     {
         return compilePageProcessor(filter, projections, Optional.empty());
@@ -124,7 +207,13 @@ public class ExpressionCompiler
     @VisibleForTesting
     public Supplier<PageProcessor> compilePageProcessor(Optional<RowExpression> filter, List<? extends RowExpression> projections, int initialBatchSize)
     {
-        return compilePageProcessor(filter, projections, Optional.empty(), OptionalInt.of(initialBatchSize));
+        return compilePageProcessor(filter, projections, Optional.empty(), OptionalInt.of(initialBatchSize), false, false, true, true);
+    }
+
+    @VisibleForTesting
+    public Supplier<PageProcessor> compilePageProcessor(Optional<RowExpression> filter, List<? extends RowExpression> projections, int initialBatchSize, boolean eliminateCommonSubexpressions)
+    {
+        return compilePageProcessor(filter, projections, Optional.empty(), OptionalInt.of(initialBatchSize), eliminateCommonSubexpressions, false, true, true);
     }
 
     private <T> Class<? extends T> compile(Optional<RowExpression> filter, List<RowExpression> projections, BodyCompiler bodyCompiler, Class<? extends T> superType)
@@ -34,10 +34,12 @@ import io.airlift.bytecode.control.IfStatement;
 import io.airlift.jmx.CacheStatsMBean;
 import io.trino.metadata.Metadata;
 import io.trino.operator.Work;
+import io.trino.operator.project.ArithmeticPageProjection;
 import io.trino.operator.project.ConstantPageProjection;
 import io.trino.operator.project.GeneratedPageProjection;
 import io.trino.operator.project.InputChannels;
 import io.trino.operator.project.InputPageProjection;
+import io.trino.operator.project.LongColumnPageFilter;
 import io.trino.operator.project.PageFieldsToInputParametersRewriter;
 import io.trino.operator.project.PageFilter;
 import io.trino.operator.project.PageProjection;
@@ -63,12 +65,14 @@ import org.weakref.jmx.Nested;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 
+import java.lang.invoke.MethodHandle;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -103,8 +107,10 @@ public class PageFunctionCompiler
     private final Metadata metadata;
     private final DeterminismEvaluator determinismEvaluator;
 
-    private final LoadingCache<RowExpression, Supplier<PageProjection>> projectionCache;
-    private final LoadingCache<RowExpression, Supplier<PageFilter>> filterCache;
+    // compiled functions do not depend on the channels the expression reads, so they are cached by the
+    // expression with its fields renumbered, and shared by expressions which only differ in the channels
+    private final LoadingCache<RowExpression, Function<InputChannels, Supplier<PageProjection>>> projectionCache;
+    private final LoadingCache<RowExpression, Function<InputChannels, Supplier<PageFilter>>> filterCache;
 
     private final CacheStatsMBean projectionCacheStats;
     private final CacheStatsMBean filterCacheStats;
@@ -163,13 +169,13 @@ public class PageFunctionCompiler
 
     public Supplier<PageProjection> compileProjection(RowExpression projection, Optional<String> classNameSuffix)
     {
-        if (projectionCache == null) {
-            return compileProjectionInternal(projection, classNameSuffix);
-        }
-        return projectionCache.getUnchecked(projection);
+        return compileProjection(projection, classNameSuffix, true);
     }
 
-    private Supplier<PageProjection> compileProjectionInternal(RowExpression projection, Optional<String> classNameSuffix)
+    /**
+     * @param columnarEvaluation evaluate arithmetic projections a batch of positions at a time, see {@link ArithmeticPageProjection}
+     */
+    public Supplier<PageProjection> compileProjection(RowExpression projection, Optional<String> classNameSuffix, boolean columnarEvaluation)
     {
         requireNonNull(projection, "projection is null");
 
@@ -186,11 +192,29 @@ public class PageFunctionCompiler
         }
 
         PageFieldsToInputParametersRewriter.Result result = rewritePageFieldsToInputParameters(projection);
+        if (columnarEvaluation) {
+            Optional<Supplier<PageProjection>> columnarProjection = ArithmeticPageProjection.tryCreate(result.getRewrittenExpression(), result.getInputChannels());
+            if (columnarProjection.isPresent()) {
+                return columnarProjection.get();
+            }
+        }
+
+        Function<InputChannels, Supplier<PageProjection>> projectionFactory;
+        if (projectionCache == null) {
+            projectionFactory = compileProjectionInternal(result.getRewrittenExpression(), classNameSuffix);
+        }
+        else {
+            projectionFactory = projectionCache.getUnchecked(result.getRewrittenExpression());
+        }
+        return projectionFactory.apply(result.getInputChannels());
+    }
 
+    private Function<InputChannels, Supplier<PageProjection>> compileProjectionInternal(RowExpression projection, Optional<String> classNameSuffix)
+    {
         CallSiteBinder callSiteBinder = new CallSiteBinder();
 
         // generate Work
-        ClassDefinition pageProjectionWorkDefinition = definePageProjectWorkClass(result.getRewrittenExpression(), callSiteBinder, classNameSuffix);
+        ClassDefinition pageProjectionWorkDefinition = definePageProjectWorkClass(projection, callSiteBinder, classNameSuffix);
 
         Class<?> pageProjectionWorkClass;
         try {
@@ -204,11 +228,9 @@ public class PageFunctionCompiler
             throw new TrinoException(COMPILER_ERROR, e);
         }
 
-        return () -> new GeneratedPageProjection(
-                result.getRewrittenExpression(),
-                determinismEvaluator.isDeterministic(result.getRewrittenExpression()),
-                result.getInputChannels(),
-                constructorMethodHandle(pageProjectionWorkClass, BlockBuilder.class, ConnectorSession.class, Page.class, SelectedPositions.class));
+        boolean deterministic = determinismEvaluator.isDeterministic(projection);
+        MethodHandle pageProjectionWorkFactory = constructorMethodHandle(pageProjectionWorkClass, BlockBuilder.class, ConnectorSession.class, Page.class, SelectedPositions.class);
+        return inputChannels -> () -> new GeneratedPageProjection(projection, deterministic, inputChannels, pageProjectionWorkFactory);
     }
 
     private static ParameterizedType generateProjectionWorkClassName(Optional<String> classNameSuffix)
@@ -366,20 +388,38 @@ public class PageFunctionCompiler
 
     public Supplier<PageFilter> compileFilter(RowExpression filter, Optional<String> classNameSuffix)
     {
-        if (filterCache == null) {
-            return compileFilterInternal(filter, classNameSuffix);
-        }
-        return filterCache.getUnchecked(filter);
+        return compileFilter(filter, classNameSuffix, true);
     }
 
-    private Supplier<PageFilter> compileFilterInternal(RowExpression filter, Optional<String> classNameSuffix)
+    /**
+     * @param columnarEvaluation evaluate simple filters on integral columns column at a time, see {@link LongColumnPageFilter}
+     */
+    public Supplier<PageFilter> compileFilter(RowExpression filter, Optional<String> classNameSuffix, boolean columnarEvaluation)
     {
         requireNonNull(filter, "filter is null");
 
         PageFieldsToInputParametersRewriter.Result result = rewritePageFieldsToInputParameters(filter);
+        if (columnarEvaluation) {
+            Optional<Supplier<PageFilter>> columnarFilter = LongColumnPageFilter.tryCreate(result.getRewrittenExpression(), result.getInputChannels());
+            if (columnarFilter.isPresent()) {
+                return columnarFilter.get();
+            }
+        }
+
+        Function<InputChannels, Supplier<PageFilter>> filterFactory;
+        if (filterCache == null) {
+            filterFactory = compileFilterInternal(result.getRewrittenExpression(), classNameSuffix);
+        }
+        else {
+            filterFactory = filterCache.getUnchecked(result.getRewrittenExpression());
+        }
+        return filterFactory.apply(result.getInputChannels());
+    }
 
+    private Function<InputChannels, Supplier<PageFilter>> compileFilterInternal(RowExpression filter, Optional<String> classNameSuffix)
+    {
         CallSiteBinder callSiteBinder = new CallSiteBinder();
-        ClassDefinition classDefinition = defineFilterClass(result.getRewrittenExpression(), result.getInputChannels(), callSiteBinder, classNameSuffix);
+        ClassDefinition classDefinition = defineFilterClass(filter, callSiteBinder, classNameSuffix);
 
         Class<? extends PageFilter> functionClass;
         try {
@@ -393,9 +433,9 @@ public class PageFunctionCompiler
             throw new TrinoException(COMPILER_ERROR, filter.toString(), e.getCause());
         }
 
-        return () -> {
+        return inputChannels -> () -> {
             try {
-                return functionClass.getConstructor().newInstance();
+                return functionClass.getConstructor(InputChannels.class).newInstance(inputChannels);
             }
             catch (ReflectiveOperationException e) {
                 throw new TrinoException(COMPILER_ERROR, e);
@@ -408,7 +448,7 @@ public class PageFunctionCompiler
         return makeClassName(PageFilter.class.getSimpleName(), classNameSuffix);
     }
 
-    private ClassDefinition defineFilterClass(RowExpression filter, InputChannels inputChannels, CallSiteBinder callSiteBinder, Optional<String> classNameSuffix)
+    private ClassDefinition defineFilterClass(RowExpression filter, CallSiteBinder callSiteBinder, Optional<String> classNameSuffix)
     {
         ClassDefinition classDefinition = new ClassDefinition(
                 a(PUBLIC, FINAL),
@@ -424,6 +464,8 @@ public class PageFunctionCompiler
         FieldDefinition selectedPositions = classDefinition.declareField(a(PRIVATE), "selectedPositions", boolean[].class);
         generatePageFilterMethod(classDefinition, selectedPositions);
 
+        FieldDefinition inputChannelsField = classDefinition.declareField(a(PRIVATE, FINAL), "inputChannels", InputChannels.class);
+
         // isDeterministic
         classDefinition.declareMethod(a(PUBLIC), "isDeterministic", type(boolean.class))
                 .getBody()
@@ -431,9 +473,9 @@ public class PageFunctionCompiler
                 .retBoolean();
 
         // getInputChannels
-        classDefinition.declareMethod(a(PUBLIC), "getInputChannels", type(InputChannels.class))
-                .getBody()
-                .append(invoke(callSiteBinder.bind(inputChannels, InputChannels.class), "getInputChannels"))
+        MethodDefinition getInputChannels = classDefinition.declareMethod(a(PUBLIC), "getInputChannels", type(InputChannels.class));
+        getInputChannels.getBody()
+                .append(getInputChannels.getThis().getField(inputChannelsField))
                 .retObject();
 
         // toString
@@ -448,9 +490,12 @@ public class PageFunctionCompiler
                 .retObject();
 
         // constructor
-        generateConstructor(classDefinition, cachedInstanceBinder, method -> {
+        Parameter inputChannels = arg("inputChannels", InputChannels.class);
+        generateConstructor(classDefinition, cachedInstanceBinder, ImmutableList.of(inputChannels), method -> {
             Variable thisVariable = method.getScope().getThis();
-            method.getBody().append(thisVariable.setField(selectedPositions, newArray(type(boolean[].class), 0)));
+            method.getBody()
+                    .append(thisVariable.setField(selectedPositions, newArray(type(boolean[].class), 0)))
+                    .append(thisVariable.setField(inputChannelsField, inputChannels));
         });
 
         return classDefinition;
@@ -572,9 +617,10 @@ public class PageFunctionCompiler
     private static void generateConstructor(
             ClassDefinition classDefinition,
             CachedInstanceBinder cachedInstanceBinder,
+            List<Parameter> parameters,
             Consumer<MethodDefinition> additionalStatements)
     {
-        MethodDefinition constructorDefinition = classDefinition.declareConstructor(a(PUBLIC));
+        MethodDefinition constructorDefinition = classDefinition.declareConstructor(a(PUBLIC), parameters);
 
         BytecodeBlock body = constructorDefinition.getBody();
         Variable thisVariable = constructorDefinition.getThis();
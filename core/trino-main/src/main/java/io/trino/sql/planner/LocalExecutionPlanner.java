@@ -67,6 +67,9 @@ import io.trino.operator.LookupJoinOperators;
 import io.trino.operator.LookupOuterOperator.LookupOuterOperatorFactory;
 import io.trino.operator.LookupSourceFactory;
 import io.trino.operator.MarkDistinctOperator.MarkDistinctOperatorFactory;
+import io.trino.operator.MergeJoinBridge;
+import io.trino.operator.MergeJoinBuildOperator.MergeJoinBuildOperatorFactory;
+import io.trino.operator.MergeJoinOperator.MergeJoinOperatorFactory;
 import io.trino.operator.MergeOperator.MergeOperatorFactory;
 import io.trino.operator.NestedLoopJoinBridge;
 import io.trino.operator.NestedLoopJoinPagesSupplier;
@@ -74,11 +77,14 @@ import io.trino.operator.OperatorFactory;
 import io.trino.operator.OrderByOperator.OrderByOperatorFactory;
 import io.trino.operator.OutputFactory;
 import io.trino.operator.PagesIndex;
+import io.trino.operator.PagesRangeIndexFactory;
 import io.trino.operator.PagesSpatialIndexFactory;
 import io.trino.operator.PartitionFunction;
 import io.trino.operator.PartitionedLookupSourceFactory;
 import io.trino.operator.PartitionedOutputOperator.PartitionedOutputFactory;
 import io.trino.operator.PipelineExecutionStrategy;
+import io.trino.operator.RangeIndexBuilderOperator.RangeIndexBuilderOperatorFactory;
+import io.trino.operator.RangeJoinOperator.RangeJoinOperatorFactory;
 import io.trino.operator.RowNumberOperator;
 import io.trino.operator.ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory;
 import io.trino.operator.SetBuilderOperator.SetBuilderOperatorFactory;
@@ -147,6 +153,7 @@ import io.trino.sql.gen.JoinFilterFunctionCompiler;
 import io.trino.sql.gen.JoinFilterFunctionCompiler.JoinFilterFunctionFactory;
 import io.trino.sql.gen.OrderingCompiler;
 import io.trino.sql.gen.PageFunctionCompiler;
+import io.trino.sql.planner.RangeExpressionExtractor.RangeExpression;
 import io.trino.sql.planner.optimizations.IndexJoinOptimizer;
 import io.trino.sql.planner.plan.AggregationNode;
 import io.trino.sql.planner.plan.AggregationNode.Aggregation;
@@ -245,7 +252,12 @@ import static io.trino.SystemSessionProperties.getTaskConcurrency;
 import static io.trino.SystemSessionProperties.getTaskWriterCount;
 import static io.trino.SystemSessionProperties.isEnableLargeDynamicFilters;
 import static io.trino.SystemSessionProperties.isExchangeCompressionEnabled;
+import static io.trino.SystemSessionProperties.isFilterAdaptiveConjunctOrdering;
+import static io.trino.SystemSessionProperties.isFilterAndProjectEliminateCommonSubexpressions;
+import static io.trino.SystemSessionProperties.isFilterColumnarEvaluation;
 import static io.trino.SystemSessionProperties.isLateMaterializationEnabled;
+import static io.trino.SystemSessionProperties.isProjectionColumnarEvaluation;
+import static io.trino.SystemSessionProperties.isRangeJoinEnabled;
 import static io.trino.SystemSessionProperties.isSpillEnabled;
 import static io.trino.SystemSessionProperties.isSpillOrderBy;
 import static io.trino.SystemSessionProperties.isSpillWindowOperator;
@@ -273,12 +285,15 @@ import static io.trino.sql.ExpressionUtils.combineConjuncts;
 import static io.trino.sql.gen.LambdaBytecodeGenerator.compileLambdaProvider;
 import static io.trino.sql.planner.ExpressionExtractor.extractExpressions;
 import static io.trino.sql.planner.ExpressionNodeInliner.replaceExpression;
+import static io.trino.sql.planner.RangeExpressionExtractor.extractRangeJoinExpression;
 import static io.trino.sql.planner.SortExpressionExtractor.extractSortExpression;
 import static io.trino.sql.planner.SystemPartitioningHandle.COORDINATOR_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_BROADCAST_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.SCALED_WRITER_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
+import static io.trino.sql.planner.optimizations.MergeJoinUtil.hasSortedSources;
+import static io.trino.sql.planner.optimizations.MergeJoinUtil.isMergeJoin;
 import static io.trino.sql.planner.plan.AggregationNode.Step.FINAL;
 import static io.trino.sql.planner.plan.AggregationNode.Step.PARTIAL;
 import static io.trino.sql.planner.plan.ExchangeNode.Scope.LOCAL;
@@ -1350,7 +1365,14 @@ public class LocalExecutionPlanner
             try {
                 if (columns != null) {
                     Supplier<CursorProcessor> cursorProcessor = expressionCompiler.compileCursorProcessor(translatedFilter, translatedProjections, sourceNode.getId());
-                    Supplier<PageProcessor> pageProcessor = expressionCompiler.compilePageProcessor(translatedFilter, translatedProjections, Optional.of(context.getStageId() + "_" + planNodeId));
+                    Supplier<PageProcessor> pageProcessor = expressionCompiler.compilePageProcessor(
+                            translatedFilter,
+                            translatedProjections,
+                            Optional.of(context.getStageId() + "_" + planNodeId),
+                            isFilterAndProjectEliminateCommonSubexpressions(session),
+                            isFilterAdaptiveConjunctOrdering(session),
+                            isFilterColumnarEvaluation(session),
+                            isProjectionColumnarEvaluation(session));
 
                     SourceOperatorFactory operatorFactory = new ScanFilterAndProjectOperatorFactory(
                             context.getNextOperatorId(),
@@ -1369,7 +1391,14 @@ public class LocalExecutionPlanner
                     return new PhysicalOperation(operatorFactory, outputMappings, context, stageExecutionDescriptor.isScanGroupedExecution(sourceNode.getId()) ? GROUPED_EXECUTION : UNGROUPED_EXECUTION);
                 }
                 else {
-                    Supplier<PageProcessor> pageProcessor = expressionCompiler.compilePageProcessor(translatedFilter, translatedProjections, Optional.of(context.getStageId() + "_" + planNodeId));
+                    Supplier<PageProcessor> pageProcessor = expressionCompiler.compilePageProcessor(
+                            translatedFilter,
+                            translatedProjections,
+                            Optional.of(context.getStageId() + "_" + planNodeId),
+                            isFilterAndProjectEliminateCommonSubexpressions(session),
+                            isFilterAdaptiveConjunctOrdering(session),
+                            isFilterColumnarEvaluation(session),
+                            isProjectionColumnarEvaluation(session));
 
                     OperatorFactory operatorFactory = FilterAndProjectOperator.createOperatorFactory(
                             context.getNextOperatorId(),
@@ -1765,6 +1794,12 @@ public class LocalExecutionPlanner
         @Override
         public PhysicalOperation visitJoin(JoinNode node, LocalExecutionPlanContext context)
         {
+            if (isMergeJoin(session, node, context.getTypes()) &&
+                    !stageExecutionDescriptor.isStageGroupedExecution() &&
+                    hasSortedSources(session, node, metadata, typeOperators, context.getTypes(), typeAnalyzer)) {
+                return createMergeJoin(node, context);
+            }
+
             // Register dynamic filters, allowing the scan operators to wait for the collection completion.
             // Skip dynamic filters that are not used locally (e.g. in case of distributed joins).
             Set<DynamicFilterId> localDynamicFilters = node.getDynamicFilters().keySet().stream()
@@ -1776,6 +1811,11 @@ public class LocalExecutionPlanner
                 return createNestedLoopJoin(node, localDynamicFilters, context);
             }
 
+            Optional<RangeExpression> rangeExpression = getRangeJoinExpression(node, context);
+            if (rangeExpression.isPresent()) {
+                return createRangeJoin(node, rangeExpression.get(), localDynamicFilters, context);
+            }
+
             List<JoinNode.EquiJoinClause> clauses = node.getCriteria();
 
             List<Symbol> leftSymbols = Lists.transform(clauses, JoinNode.EquiJoinClause::getLeft);
@@ -1970,6 +2010,144 @@ public class LocalExecutionPlanner
             return new PhysicalOperation(operatorFactory, outputMappings.build(), context, probeSource);
         }
 
+        private Optional<RangeExpression> getRangeJoinExpression(JoinNode node, LocalExecutionPlanContext context)
+        {
+            // joins without equi join clauses would otherwise compare each probe row with all the build rows
+            if (!isRangeJoinEnabled(session) || stageExecutionDescriptor.isStageGroupedExecution()) {
+                return Optional.empty();
+            }
+            if ((node.getType() != INNER && node.getType() != LEFT) || !node.getCriteria().isEmpty() || node.getFilter().isEmpty()) {
+                return Optional.empty();
+            }
+            return extractRangeJoinExpression(metadata, context.getTypes(), ImmutableSet.copyOf(node.getRight().getOutputSymbols()), node.getFilter().get());
+        }
+
+        private PhysicalOperation createRangeJoin(JoinNode node, RangeExpression rangeExpression, Set<DynamicFilterId> localDynamicFilters, LocalExecutionPlanContext context)
+        {
+            // Plan probe
+            PhysicalOperation probeSource = node.getLeft().accept(this, context);
+
+            // Plan build
+            LocalExecutionPlanContext buildContext = context.createSubContext();
+            PhysicalOperation buildSource = node.getRight().accept(this, buildContext);
+
+            checkState(
+                    buildSource.getPipelineExecutionStrategy() == UNGROUPED_EXECUTION,
+                    "Build source of a range join is expected to be UNGROUPED_EXECUTION.");
+            int partitionCount = buildContext.getDriverInstanceCount().orElse(1);
+            checkArgument(partitionCount == 1, "Expected local execution to not be parallel");
+
+            Map<Symbol, Integer> buildLayout = buildSource.getLayout();
+            Function<Symbol, Integer> buildChannelGetter = channelGetter(buildSource);
+            // the whole filter is compiled, as the index only narrows down the candidate build rows
+            JoinFilterFunctionFactory filterFunctionFactory = compileJoinFilterFunction(
+                    node.getFilter().get(),
+                    probeSource.getLayout(),
+                    buildLayout,
+                    context.getTypes(),
+                    session);
+
+            RangeIndexBuilderOperatorFactory builderOperatorFactory = new RangeIndexBuilderOperatorFactory(
+                    buildContext.getNextOperatorId(),
+                    node.getId(),
+                    buildSource.getTypes(),
+                    getChannelsForSymbols(node.getRightOutputSymbols(), buildLayout),
+                    buildChannelGetter.apply(rangeExpression.getLowerBoundSymbol()),
+                    buildChannelGetter.apply(rangeExpression.getUpperBoundSymbol()),
+                    filterFunctionFactory,
+                    10_000,
+                    pagesIndexFactory);
+
+            ImmutableList.Builder<OperatorFactory> factoriesBuilder = ImmutableList.builder();
+            factoriesBuilder.addAll(buildSource.getOperatorFactories());
+            int operatorId = buildContext.getNextOperatorId();
+            createDynamicFilter(buildSource, node, context, partitionCount, localDynamicFilters)
+                    .ifPresent(filter -> factoriesBuilder.add(createDynamicFilterSourceOperatorFactory(operatorId, filter, node, buildSource)));
+            factoriesBuilder.add(builderOperatorFactory);
+
+            context.addDriverFactory(
+                    buildContext.isInputDriver(),
+                    false,
+                    factoriesBuilder.build(),
+                    buildContext.getDriverInstanceCount(),
+                    buildSource.getPipelineExecutionStrategy());
+
+            PagesRangeIndexFactory pagesRangeIndexFactory = builderOperatorFactory.getPagesRangeIndexFactory();
+            OperatorFactory operatorFactory = new RangeJoinOperatorFactory(
+                    context.getNextOperatorId(),
+                    node.getId(),
+                    node.getType(),
+                    probeSource.getTypes(),
+                    getChannelsForSymbols(node.getLeftOutputSymbols(), probeSource.getLayout()),
+                    channelGetter(probeSource).apply(rangeExpression.getProbeSymbol()),
+                    pagesRangeIndexFactory);
+
+            ImmutableMap.Builder<Symbol, Integer> outputMappings = ImmutableMap.builder();
+            List<Symbol> outputSymbols = node.getOutputSymbols();
+            for (int i = 0; i < outputSymbols.size(); i++) {
+                Symbol symbol = outputSymbols.get(i);
+                outputMappings.put(symbol, i);
+            }
+
+            return new PhysicalOperation(operatorFactory, outputMappings.build(), context, probeSource);
+        }
+
+        private PhysicalOperation createMergeJoin(JoinNode node, LocalExecutionPlanContext context)
+        {
+            // Both sources were planned as single streams sorted on the join keys. Local dynamic filters are not
+            // registered, as the probe can not wait for the build to finish while the bridge between them is full.
+            PhysicalOperation probeSource = node.getLeft().accept(this, context);
+
+            LocalExecutionPlanContext buildContext = context.createSubContext();
+            PhysicalOperation buildSource = node.getRight().accept(this, buildContext);
+
+            checkState(
+                    probeSource.getPipelineExecutionStrategy() == UNGROUPED_EXECUTION && buildSource.getPipelineExecutionStrategy() == UNGROUPED_EXECUTION,
+                    "Sources of a merge join are expected to be UNGROUPED_EXECUTION.");
+            checkState(
+                    context.getDriverInstanceCount().orElse(1) == 1 && buildContext.getDriverInstanceCount().orElse(1) == 1,
+                    "Expected merge join to not be parallel");
+
+            MergeJoinBridge bridge = new MergeJoinBridge(maxLocalExchangeBufferSize.toBytes());
+
+            ImmutableList.Builder<OperatorFactory> factoriesBuilder = ImmutableList.builder();
+            factoriesBuilder.addAll(buildSource.getOperatorFactories());
+            int operatorId = buildContext.getNextOperatorId();
+            createDynamicFilter(buildSource, node, context, 1, ImmutableSet.of())
+                    .ifPresent(filter -> factoriesBuilder.add(createDynamicFilterSourceOperatorFactory(operatorId, filter, node, buildSource)));
+            factoriesBuilder.add(new MergeJoinBuildOperatorFactory(buildContext.getNextOperatorId(), node.getId(), bridge));
+
+            context.addDriverFactory(
+                    buildContext.isInputDriver(),
+                    false,
+                    factoriesBuilder.build(),
+                    buildContext.getDriverInstanceCount(),
+                    buildSource.getPipelineExecutionStrategy());
+
+            List<JoinNode.EquiJoinClause> clauses = node.getCriteria();
+            OperatorFactory operatorFactory = new MergeJoinOperatorFactory(
+                    context.getNextOperatorId(),
+                    node.getId(),
+                    bridge,
+                    probeSource.getTypes(),
+                    buildSource.getTypes(),
+                    getChannelsForSymbols(Lists.transform(clauses, JoinNode.EquiJoinClause::getLeft), probeSource.getLayout()),
+                    getChannelsForSymbols(Lists.transform(clauses, JoinNode.EquiJoinClause::getRight), buildSource.getLayout()),
+                    getChannelsForSymbols(node.getLeftOutputSymbols(), probeSource.getLayout()),
+                    getChannelsForSymbols(node.getRightOutputSymbols(), buildSource.getLayout()),
+                    node.getType() == LEFT,
+                    blockTypeOperators);
+
+            ImmutableMap.Builder<Symbol, Integer> outputMappings = ImmutableMap.builder();
+            List<Symbol> outputSymbols = node.getOutputSymbols();
+            for (int i = 0; i < outputSymbols.size(); i++) {
+                Symbol symbol = outputSymbols.get(i);
+                outputMappings.put(symbol, i);
+            }
+
+            return new PhysicalOperation(operatorFactory, outputMappings.build(), context, probeSource);
+        }
+
         private PhysicalOperation createSpatialLookupJoin(
                 SpatialJoinNode node,
                 PlanNode probeNode,
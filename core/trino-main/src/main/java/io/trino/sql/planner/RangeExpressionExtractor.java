@@ -0,0 +1,184 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.planner;
+
+import io.trino.metadata.Metadata;
+import io.trino.spi.type.Type;
+import io.trino.sql.tree.BetweenPredicate;
+import io.trino.sql.tree.ComparisonExpression;
+import io.trino.sql.tree.Expression;
+import io.trino.sql.tree.SymbolReference;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.trino.operator.RangeJoinOperator.isSupportedBoundType;
+import static io.trino.sql.ExpressionUtils.extractConjuncts;
+import static io.trino.sql.tree.ComparisonExpression.Operator.GREATER_THAN_OR_EQUAL;
+import static io.trino.sql.tree.ComparisonExpression.Operator.LESS_THAN_OR_EQUAL;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Extracts a range of build side values containing a probe side value from join filter expression, to be used
+ * for creating a {@link io.trino.operator.PagesRangeIndex}. Currently this class can extract ranges from filter
+ * function conjuncts of shape:
+ * <p>
+ * {@code B.x <= A.a AND A.a <= B.y} or {@code A.a BETWEEN B.x AND B.y}
+ * <p>
+ * where {@code a} is the probe side symbol reference and {@code x,y} are build side symbol references.
+ * Any of inequality operators ({@code <,<=,>,>=}) can be used. The range only limits the build rows
+ * to which the join filter is applied, so the filter still has to be evaluated for them.
+ */
+public final class RangeExpressionExtractor
+{
+    private RangeExpressionExtractor() {}
+
+    /**
+     * Extracts a range which can be used by {@link io.trino.operator.RangeJoinOperator}, that is one of which the probe
+     * symbol and the bound symbols are of the same type, ordered in agreement with its comparison operators.
+     */
+    public static Optional<RangeExpression> extractRangeJoinExpression(Metadata metadata, TypeProvider types, Set<Symbol> buildSymbols, Expression filter)
+    {
+        return extractRangeExpression(metadata, buildSymbols, filter)
+                .filter(range -> {
+                    Type type = types.get(range.getProbeSymbol());
+                    return isSupportedBoundType(type) &&
+                            type.equals(types.get(range.getLowerBoundSymbol())) &&
+                            type.equals(types.get(range.getUpperBoundSymbol()));
+                });
+    }
+
+    public static Optional<RangeExpression> extractRangeExpression(Metadata metadata, Set<Symbol> buildSymbols, Expression filter)
+    {
+        // bounds by probe symbol, in the order of the conjuncts
+        Map<Symbol, Symbol> lowerBounds = new LinkedHashMap<>();
+        Map<Symbol, Symbol> upperBounds = new HashMap<>();
+        for (Expression conjunct : extractConjuncts(filter)) {
+            if (!DeterminismEvaluator.isDeterministic(conjunct, metadata)) {
+                continue;
+            }
+            if (conjunct instanceof BetweenPredicate) {
+                BetweenPredicate between = (BetweenPredicate) conjunct;
+                addBound(buildSymbols, new ComparisonExpression(GREATER_THAN_OR_EQUAL, between.getValue(), between.getMin()), lowerBounds, upperBounds);
+                addBound(buildSymbols, new ComparisonExpression(LESS_THAN_OR_EQUAL, between.getValue(), between.getMax()), lowerBounds, upperBounds);
+            }
+            else if (conjunct instanceof ComparisonExpression) {
+                addBound(buildSymbols, (ComparisonExpression) conjunct, lowerBounds, upperBounds);
+            }
+        }
+
+        return lowerBounds.entrySet().stream()
+                .filter(entry -> upperBounds.containsKey(entry.getKey()))
+                .findFirst()
+                .map(entry -> new RangeExpression(entry.getKey(), entry.getValue(), upperBounds.get(entry.getKey())));
+    }
+
+    private static void addBound(Set<Symbol> buildSymbols, ComparisonExpression comparison, Map<Symbol, Symbol> lowerBounds, Map<Symbol, Symbol> upperBounds)
+    {
+        if (!(comparison.getLeft() instanceof SymbolReference) || !(comparison.getRight() instanceof SymbolReference)) {
+            return;
+        }
+
+        Symbol probeSymbol = Symbol.from(comparison.getLeft());
+        Symbol buildSymbol = Symbol.from(comparison.getRight());
+        ComparisonExpression.Operator operator = comparison.getOperator();
+        if (buildSymbols.contains(probeSymbol)) {
+            probeSymbol = Symbol.from(comparison.getRight());
+            buildSymbol = Symbol.from(comparison.getLeft());
+            operator = operator.flip();
+        }
+        if (buildSymbols.contains(probeSymbol) || !buildSymbols.contains(buildSymbol)) {
+            return;
+        }
+
+        // the comparison is now of shape probe <operator> build
+        switch (operator) {
+            case GREATER_THAN:
+            case GREATER_THAN_OR_EQUAL:
+                lowerBounds.putIfAbsent(probeSymbol, buildSymbol);
+                break;
+            case LESS_THAN:
+            case LESS_THAN_OR_EQUAL:
+                upperBounds.putIfAbsent(probeSymbol, buildSymbol);
+                break;
+            default:
+                break;
+        }
+    }
+
+    public static final class RangeExpression
+    {
+        private final Symbol probeSymbol;
+        private final Symbol lowerBoundSymbol;
+        private final Symbol upperBoundSymbol;
+
+        public RangeExpression(Symbol probeSymbol, Symbol lowerBoundSymbol, Symbol upperBoundSymbol)
+        {
+            this.probeSymbol = requireNonNull(probeSymbol, "probeSymbol is null");
+            this.lowerBoundSymbol = requireNonNull(lowerBoundSymbol, "lowerBoundSymbol is null");
+            this.upperBoundSymbol = requireNonNull(upperBoundSymbol, "upperBoundSymbol is null");
+        }
+
+        public Symbol getProbeSymbol()
+        {
+            return probeSymbol;
+        }
+
+        public Symbol getLowerBoundSymbol()
+        {
+            return lowerBoundSymbol;
+        }
+
+        public Symbol getUpperBoundSymbol()
+        {
+            return upperBoundSymbol;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            RangeExpression that = (RangeExpression) o;
+            return probeSymbol.equals(that.probeSymbol) &&
+                    lowerBoundSymbol.equals(that.lowerBoundSymbol) &&
+                    upperBoundSymbol.equals(that.upperBoundSymbol);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(probeSymbol, lowerBoundSymbol, upperBoundSymbol);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("probeSymbol", probeSymbol)
+                    .add("lowerBoundSymbol", lowerBoundSymbol)
+                    .add("upperBoundSymbol", upperBoundSymbol)
+                    .toString();
+        }
+    }
+}
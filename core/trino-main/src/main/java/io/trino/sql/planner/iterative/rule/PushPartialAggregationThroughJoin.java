@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Streams;
 import io.trino.Session;
+import io.trino.cost.PlanNodeStatsEstimate;
 import io.trino.matching.Capture;
 import io.trino.matching.Captures;
 import io.trino.matching.Pattern;
@@ -36,13 +37,18 @@ import java.util.stream.Collectors;
 
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Sets.intersection;
+import static io.trino.SystemSessionProperties.getPushPartialAggregationThroughJoinMaxOutputRatio;
 import static io.trino.SystemSessionProperties.isPushPartialAggregationThroughJoin;
+import static io.trino.cost.AggregationStatsRule.groupBy;
 import static io.trino.sql.planner.iterative.rule.Util.restrictOutputs;
+import static io.trino.sql.planner.optimizations.MergeJoinUtil.isMergeJoin;
 import static io.trino.sql.planner.plan.AggregationNode.Step.PARTIAL;
 import static io.trino.sql.planner.plan.AggregationNode.singleGroupingSet;
 import static io.trino.sql.planner.plan.Patterns.aggregation;
 import static io.trino.sql.planner.plan.Patterns.join;
 import static io.trino.sql.planner.plan.Patterns.source;
+import static java.lang.Double.NaN;
+import static java.lang.Double.isNaN;
 
 public class PushPartialAggregationThroughJoin
         implements Rule<AggregationNode>
@@ -88,17 +94,52 @@ public class PushPartialAggregationThroughJoin
             return Result.empty();
         }
 
+        if (isMergeJoin(context.getSession(), joinNode, context.getSymbolAllocator().getTypes())) {
+            // the sources of a merge join have to stay sorted on the join keys
+            return Result.empty();
+        }
+
         // TODO: leave partial aggregation above Join?
-        if (allAggregationsOn(aggregationNode.getAggregations(), joinNode.getLeft().getOutputSymbols())) {
+        boolean canPushToLeft = allAggregationsOn(aggregationNode.getAggregations(), joinNode.getLeft().getOutputSymbols());
+        boolean canPushToRight = allAggregationsOn(aggregationNode.getAggregations(), joinNode.getRight().getOutputSymbols());
+        double leftOutputRatio = canPushToLeft ? estimateOutputRatio(aggregationNode, joinNode.getLeft(), getLeftGroupingSet(aggregationNode, joinNode), context) : NaN;
+        double rightOutputRatio = canPushToRight ? estimateOutputRatio(aggregationNode, joinNode.getRight(), getRightGroupingSet(aggregationNode, joinNode), context) : NaN;
+
+        if (canPushToLeft && canPushToRight && !isNaN(leftOutputRatio) && !isNaN(rightOutputRatio)) {
+            // e.g. count(*) can be pre-aggregated on either side, so pick the side where it reduces the rows the most
+            canPushToLeft = leftOutputRatio <= rightOutputRatio;
+            canPushToRight = !canPushToLeft;
+        }
+
+        // without statistics the aggregation is pushed down, as it was before the reduction was estimated
+        double maxOutputRatio = getPushPartialAggregationThroughJoinMaxOutputRatio(context.getSession());
+        if (canPushToLeft && (isNaN(leftOutputRatio) || leftOutputRatio <= maxOutputRatio)) {
             return Result.ofPlanNode(pushPartialToLeftChild(aggregationNode, joinNode, context));
         }
-        if (allAggregationsOn(aggregationNode.getAggregations(), joinNode.getRight().getOutputSymbols())) {
+        if (canPushToRight && (isNaN(rightOutputRatio) || rightOutputRatio <= maxOutputRatio)) {
             return Result.ofPlanNode(pushPartialToRightChild(aggregationNode, joinNode, context));
         }
 
         return Result.empty();
     }
 
+    /**
+     * Estimated ratio of rows produced by the pushed down aggregation to the rows of the join side, or NaN when unknown.
+     */
+    private static double estimateOutputRatio(AggregationNode aggregation, PlanNode source, List<Symbol> groupingSet, Context context)
+    {
+        PlanNodeStatsEstimate sourceStats = context.getStatsProvider().getStats(source);
+        double sourceRows = sourceStats.getOutputRowCount();
+        if (isNaN(sourceRows)) {
+            return NaN;
+        }
+        if (sourceRows == 0) {
+            return 0;
+        }
+        double groups = groupBy(sourceStats, groupingSet, aggregation.getAggregations()).getOutputRowCount();
+        return groups / sourceRows;
+    }
+
     private static boolean allAggregationsOn(Map<Symbol, Aggregation> aggregations, List<Symbol> symbols)
     {
         Set<Symbol> inputs = aggregations.values().stream()
@@ -110,21 +151,29 @@ public class PushPartialAggregationThroughJoin
 
     private PlanNode pushPartialToLeftChild(AggregationNode node, JoinNode child, Context context)
     {
-        Set<Symbol> joinLeftChildSymbols = ImmutableSet.copyOf(child.getLeft().getOutputSymbols());
-        List<Symbol> groupingSet = getPushedDownGroupingSet(node, joinLeftChildSymbols, intersection(getJoinRequiredSymbols(child), joinLeftChildSymbols));
-        AggregationNode pushedAggregation = replaceAggregationSource(node, child.getLeft(), groupingSet);
+        AggregationNode pushedAggregation = replaceAggregationSource(node, child.getLeft(), getLeftGroupingSet(node, child));
         return pushPartialToJoin(node, child, pushedAggregation, child.getRight(), context);
     }
 
     private PlanNode pushPartialToRightChild(AggregationNode node, JoinNode child, Context context)
     {
-        Set<Symbol> joinRightChildSymbols = ImmutableSet.copyOf(child.getRight().getOutputSymbols());
-        List<Symbol> groupingSet = getPushedDownGroupingSet(node, joinRightChildSymbols, intersection(getJoinRequiredSymbols(child), joinRightChildSymbols));
-        AggregationNode pushedAggregation = replaceAggregationSource(node, child.getRight(), groupingSet);
+        AggregationNode pushedAggregation = replaceAggregationSource(node, child.getRight(), getRightGroupingSet(node, child));
         return pushPartialToJoin(node, child, child.getLeft(), pushedAggregation, context);
     }
 
-    private Set<Symbol> getJoinRequiredSymbols(JoinNode node)
+    private static List<Symbol> getLeftGroupingSet(AggregationNode node, JoinNode child)
+    {
+        Set<Symbol> joinLeftChildSymbols = ImmutableSet.copyOf(child.getLeft().getOutputSymbols());
+        return getPushedDownGroupingSet(node, joinLeftChildSymbols, intersection(getJoinRequiredSymbols(child), joinLeftChildSymbols));
+    }
+
+    private static List<Symbol> getRightGroupingSet(AggregationNode node, JoinNode child)
+    {
+        Set<Symbol> joinRightChildSymbols = ImmutableSet.copyOf(child.getRight().getOutputSymbols());
+        return getPushedDownGroupingSet(node, joinRightChildSymbols, intersection(getJoinRequiredSymbols(child), joinRightChildSymbols));
+    }
+
+    private static Set<Symbol> getJoinRequiredSymbols(JoinNode node)
     {
         return Streams.concat(
                 node.getCriteria().stream().map(JoinNode.EquiJoinClause::getLeft),
@@ -135,7 +184,7 @@ public class PushPartialAggregationThroughJoin
                 .collect(toImmutableSet());
     }
 
-    private List<Symbol> getPushedDownGroupingSet(AggregationNode aggregation, Set<Symbol> availableSymbols, Set<Symbol> requiredJoinSymbols)
+    private static List<Symbol> getPushedDownGroupingSet(AggregationNode aggregation, Set<Symbol> availableSymbols, Set<Symbol> requiredJoinSymbols)
     {
         List<Symbol> groupingSet = aggregation.getGroupingKeys();
 
@@ -69,6 +69,7 @@ import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Sets.powerSet;
 import static io.trino.SystemSessionProperties.getJoinDistributionType;
 import static io.trino.SystemSessionProperties.getJoinReorderingStrategy;
+import static io.trino.SystemSessionProperties.getMaxGreedyReorderedJoins;
 import static io.trino.SystemSessionProperties.getMaxReorderedJoins;
 import static io.trino.sql.ExpressionUtils.and;
 import static io.trino.sql.ExpressionUtils.combineConjuncts;
@@ -88,6 +89,7 @@ import static io.trino.sql.planner.plan.JoinNode.Type.INNER;
 import static io.trino.sql.planner.plan.Patterns.join;
 import static io.trino.sql.tree.BooleanLiteral.TRUE_LITERAL;
 import static io.trino.sql.tree.ComparisonExpression.Operator.EQUAL;
+import static java.lang.Math.max;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toCollection;
 
@@ -157,6 +159,9 @@ public class ReorderJoins
                 costComparator,
                 multiJoinNode.getFilter(),
                 context);
+        if (multiJoinNode.getSources().size() > getMaxReorderedJoins(context.getSession()) + 1) {
+            return joinEnumerator.chooseJoinOrderGreedily(multiJoinNode.getSources(), multiJoinNode.getOutputSymbols());
+        }
         return joinEnumerator.chooseJoinOrder(multiJoinNode.getSources(), multiJoinNode.getOutputSymbols());
     }
 
@@ -227,6 +232,74 @@ public class ReorderJoins
             return bestResult;
         }
 
+        /**
+         * Joins the pair of sources with the least cost join until a single plan remains. This is used
+         * for join graphs too large to enumerate all join orders. Joined sources are joined further as
+         * a whole, so the resulting plan may join intermediate results with each other.
+         */
+        @VisibleForTesting
+        JoinEnumerationResult chooseJoinOrderGreedily(LinkedHashSet<PlanNode> sources, List<Symbol> outputSymbols)
+        {
+            List<LinkedHashSet<PlanNode>> components = sources.stream()
+                    .map(source -> new LinkedHashSet<>(ImmutableList.of(source)))
+                    .collect(toCollection(ArrayList::new));
+            // intermediate results keep all symbols which may be needed by joins with the remaining sources
+            Set<Symbol> intermediateSymbols = ImmutableSet.<Symbol>builder()
+                    .addAll(outputSymbols)
+                    .addAll(SymbolsExtractor.extractUnique(allFilter))
+                    .build();
+            // joins of pairs which were not chosen remain valid until one of their sides is joined with another source
+            Map<Set<PlanNode>, JoinEnumerationResult> candidates = new HashMap<>();
+
+            JoinEnumerationResult result = INFINITE_COST_RESULT;
+            while (components.size() > 1) {
+                context.checkTimeoutNotExhausted();
+
+                int bestLeft = -1;
+                int bestRight = -1;
+                JoinEnumerationResult bestResult = null;
+                for (int left = 0; left < components.size(); left++) {
+                    for (int right = left + 1; right < components.size(); right++) {
+                        Set<PlanNode> joined = Sets.union(components.get(left), components.get(right)).immutableCopy();
+                        boolean lastJoin = components.size() == 2;
+                        JoinEnumerationResult candidate = lastJoin ? null : candidates.get(joined);
+                        if (candidate == null) {
+                            Set<Symbol> requiredSymbols = lastJoin ? ImmutableSet.copyOf(outputSymbols) : intermediateSymbols;
+                            List<Symbol> joinOutputSymbols = joined.stream()
+                                    .flatMap(node -> node.getOutputSymbols().stream())
+                                    .filter(requiredSymbols::contains)
+                                    .collect(toImmutableList());
+                            candidate = createJoin(components.get(left), components.get(right), joinOutputSymbols);
+                            candidates.put(joined, candidate);
+                        }
+                        if (candidate.equals(UNKNOWN_COST_RESULT)) {
+                            return UNKNOWN_COST_RESULT;
+                        }
+                        if (!candidate.equals(INFINITE_COST_RESULT) && (bestResult == null || resultComparator.compare(candidate, bestResult) < 0)) {
+                            bestLeft = left;
+                            bestRight = right;
+                            bestResult = candidate;
+                        }
+                    }
+                }
+                if (bestResult == null) {
+                    // the remaining sources can only be joined with cross joins
+                    return INFINITE_COST_RESULT;
+                }
+
+                LinkedHashSet<PlanNode> joined = new LinkedHashSet<>(components.get(bestLeft));
+                joined.addAll(components.get(bestRight));
+                // the joined sources are planned by the memo lookup when they are joined further
+                memo.put(ImmutableSet.copyOf(joined), bestResult);
+                components.remove(bestRight);
+                components.set(bestLeft, joined);
+                result = bestResult;
+            }
+
+            result.planNode.ifPresent((planNode) -> log.debug("Least cost greedy join was: %s", planNode));
+            return result;
+        }
+
         /**
          * This method generates all the ways of dividing totalNodes into two sets
          * each containing at least one node. It will generate one set for each
@@ -547,7 +620,8 @@ public class ReorderJoins
 
         static MultiJoinNode toMultiJoinNode(Metadata metadata, JoinNode joinNode, Context context, boolean pushProjectionsThroughJoin)
         {
-            return toMultiJoinNode(metadata, joinNode, context.getLookup(), context.getIdAllocator(), getMaxReorderedJoins(context.getSession()), pushProjectionsThroughJoin);
+            int joinLimit = max(getMaxReorderedJoins(context.getSession()), getMaxGreedyReorderedJoins(context.getSession()));
+            return toMultiJoinNode(metadata, joinNode, context.getLookup(), context.getIdAllocator(), joinLimit, pushProjectionsThroughJoin);
         }
 
         static MultiJoinNode toMultiJoinNode(Metadata metadata, JoinNode joinNode, Lookup lookup, PlanNodeIdAllocator planNodeIdAllocator, int joinLimit, boolean pushProjectionsThroughJoin)
@@ -24,6 +24,7 @@ import io.trino.spi.connector.GroupingProperty;
 import io.trino.spi.connector.LocalProperty;
 import io.trino.spi.connector.SortingProperty;
 import io.trino.spi.type.TypeOperators;
+import io.trino.sql.planner.OrderingScheme;
 import io.trino.sql.planner.Partitioning;
 import io.trino.sql.planner.PartitioningScheme;
 import io.trino.sql.planner.PlanNodeIdAllocator;
@@ -72,14 +73,18 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.trino.SystemSessionProperties.getTaskConcurrency;
 import static io.trino.SystemSessionProperties.getTaskWriterCount;
 import static io.trino.SystemSessionProperties.isDistributedSortEnabled;
 import static io.trino.SystemSessionProperties.isSpillEnabled;
+import static io.trino.spi.connector.SortOrder.ASC_NULLS_LAST;
 import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
+import static io.trino.sql.planner.optimizations.MergeJoinUtil.isMergeJoin;
+import static io.trino.sql.planner.optimizations.MergeJoinUtil.sortedOn;
 import static io.trino.sql.planner.optimizations.StreamPreferredProperties.any;
 import static io.trino.sql.planner.optimizations.StreamPreferredProperties.defaultParallelism;
 import static io.trino.sql.planner.optimizations.StreamPreferredProperties.exactlyPartitionedOn;
@@ -97,6 +102,7 @@ import static io.trino.sql.planner.plan.ExchangeNode.gatheringExchange;
 import static io.trino.sql.planner.plan.ExchangeNode.mergingExchange;
 import static io.trino.sql.planner.plan.ExchangeNode.partitionedExchange;
 import static java.util.Objects.requireNonNull;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toList;
 
 public class AddLocalExchanges
@@ -650,6 +656,16 @@ public class AddLocalExchanges
         @Override
         public PlanWithProperties visitJoin(JoinNode node, StreamPreferredProperties parentPreferences)
         {
+            if (isMergeJoin(session, node, types)) {
+                if (isSpillEnabled(session)) {
+                    // the sorts of the merge join spill instead
+                    node = node.withSpillable(false);
+                }
+                PlanWithProperties probe = planSorted(node.getLeft(), Lists.transform(node.getCriteria(), JoinNode.EquiJoinClause::getLeft));
+                PlanWithProperties build = planSorted(node.getRight(), Lists.transform(node.getCriteria(), JoinNode.EquiJoinClause::getRight));
+                return rebaseAndDeriveProperties(node, ImmutableList.of(probe, build));
+            }
+
             PlanWithProperties probe = planAndEnforce(
                     node.getLeft(),
                     defaultParallelism(session),
@@ -729,6 +745,22 @@ public class AddLocalExchanges
         // Helpers
         //
 
+        private PlanWithProperties planSorted(PlanNode node, List<Symbol> symbols)
+        {
+            PlanWithProperties plan = planAndEnforce(node, singleStream(), singleStream());
+
+            List<Symbol> orderBy = symbols.stream()
+                    .distinct()
+                    .collect(toImmutableList());
+            if (LocalProperties.match(plan.getProperties().getLocalProperties(), sortedOn(orderBy)).stream().noneMatch(Optional::isPresent)) {
+                // the source is already sorted on the join keys
+                return plan;
+            }
+
+            OrderingScheme orderingScheme = new OrderingScheme(orderBy, orderBy.stream().collect(toImmutableMap(identity(), symbol -> ASC_NULLS_LAST)));
+            return deriveProperties(new SortNode(idAllocator.getNextId(), plan.getNode(), orderingScheme, false), plan.getProperties());
+        }
+
         private PlanWithProperties planAndEnforceChildren(PlanNode node, StreamPreferredProperties requiredProperties, StreamPreferredProperties preferredProperties)
         {
             // plan and enforce each child, but strip any requirement not in terms of symbols produced from the child
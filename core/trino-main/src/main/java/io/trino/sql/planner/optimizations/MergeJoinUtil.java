@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.planner.optimizations;
+
+import com.google.common.collect.Lists;
+import io.trino.Session;
+import io.trino.metadata.Metadata;
+import io.trino.spi.connector.LocalProperty;
+import io.trino.spi.connector.SortingProperty;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.TypeOperators;
+import io.trino.sql.planner.Symbol;
+import io.trino.sql.planner.TypeAnalyzer;
+import io.trino.sql.planner.TypeProvider;
+import io.trino.sql.planner.optimizations.StreamPropertyDerivations.StreamProperties;
+import io.trino.sql.planner.plan.JoinNode;
+import io.trino.sql.planner.plan.PlanNode;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.SystemSessionProperties.isMergeJoinEnabled;
+import static io.trino.operator.MergeJoinOperator.isSupportedKeyType;
+import static io.trino.spi.connector.SortOrder.ASC_NULLS_LAST;
+import static io.trino.sql.planner.optimizations.StreamPropertyDerivations.derivePropertiesRecursively;
+import static io.trino.sql.planner.plan.JoinNode.Type.INNER;
+import static io.trino.sql.planner.plan.JoinNode.Type.LEFT;
+
+public final class MergeJoinUtil
+{
+    private MergeJoinUtil() {}
+
+    /**
+     * Returns true if the join is executed as a merge join of its sources sorted on the join keys.
+     * Both {@link AddLocalExchanges} and the local execution planner rely on this decision.
+     */
+    public static boolean isMergeJoin(Session session, JoinNode node, TypeProvider types)
+    {
+        if (!isMergeJoinEnabled(session)) {
+            return false;
+        }
+        if ((node.getType() != INNER && node.getType() != LEFT) || node.getCriteria().isEmpty() || node.getFilter().isPresent()) {
+            return false;
+        }
+        return node.getCriteria().stream()
+                .allMatch(clause -> {
+                    Type type = types.get(clause.getLeft());
+                    return isSupportedKeyType(type) && type.equals(types.get(clause.getRight()));
+                });
+    }
+
+    /**
+     * Returns true if both sources of the join produce a single stream sorted on the join keys. {@link AddLocalExchanges}
+     * plans the sources of a merge join this way, but optimizers applied later can place other nodes above the sorts.
+     */
+    public static boolean hasSortedSources(Session session, JoinNode node, Metadata metadata, TypeOperators typeOperators, TypeProvider types, TypeAnalyzer typeAnalyzer)
+    {
+        return isSortedSingleStream(node.getLeft(), Lists.transform(node.getCriteria(), JoinNode.EquiJoinClause::getLeft), session, metadata, typeOperators, types, typeAnalyzer) &&
+                isSortedSingleStream(node.getRight(), Lists.transform(node.getCriteria(), JoinNode.EquiJoinClause::getRight), session, metadata, typeOperators, types, typeAnalyzer);
+    }
+
+    static List<LocalProperty<Symbol>> sortedOn(List<Symbol> symbols)
+    {
+        return symbols.stream()
+                .distinct()
+                .map(symbol -> new SortingProperty<>(symbol, ASC_NULLS_LAST))
+                .collect(toImmutableList());
+    }
+
+    private static boolean isSortedSingleStream(PlanNode node, List<Symbol> symbols, Session session, Metadata metadata, TypeOperators typeOperators, TypeProvider types, TypeAnalyzer typeAnalyzer)
+    {
+        StreamProperties properties = derivePropertiesRecursively(node, metadata, typeOperators, session, types, typeAnalyzer);
+        return properties.isSingleStream() &&
+                LocalProperties.match(properties.getLocalProperties(), sortedOn(symbols)).stream().noneMatch(Optional::isPresent);
+    }
+}
@@ -90,6 +90,7 @@ import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.trino.SystemSessionProperties.isEnableDynamicFiltering;
 import static io.trino.SystemSessionProperties.isPredicatePushdownUseTableProperties;
+import static io.trino.SystemSessionProperties.isRangeJoinEnabled;
 import static io.trino.spi.type.DoubleType.DOUBLE;
 import static io.trino.spi.type.RealType.REAL;
 import static io.trino.sql.DynamicFilters.createDynamicFilterExpression;
@@ -98,6 +99,7 @@ import static io.trino.sql.ExpressionUtils.extractConjuncts;
 import static io.trino.sql.ExpressionUtils.filterDeterministicConjuncts;
 import static io.trino.sql.planner.DeterminismEvaluator.isDeterministic;
 import static io.trino.sql.planner.ExpressionSymbolInliner.inlineSymbols;
+import static io.trino.sql.planner.RangeExpressionExtractor.extractRangeJoinExpression;
 import static io.trino.sql.planner.SymbolsExtractor.extractUnique;
 import static io.trino.sql.planner.iterative.rule.CanonicalizeExpressionRewriter.canonicalizeExpression;
 import static io.trino.sql.planner.iterative.rule.UnwrapCastInComparison.unwrapCasts;
@@ -554,10 +556,10 @@ public class PredicatePushDown
                 newJoinFilter = Optional.empty();
             }
 
-            if (node.getType() == INNER && newJoinFilter.isPresent() && equiJoinClauses.isEmpty()) {
+            if (node.getType() == INNER && newJoinFilter.isPresent() && equiJoinClauses.isEmpty() && !isRangeJoin(newJoinFilter.get(), rightSource)) {
                 // if we do not have any equi conjunct we do not pushdown non-equality condition into
                 // inner join, so we plan execution as nested-loops-join followed by filter instead
-                // hash join.
+                // hash join, unless the condition allows for a range join.
                 // todo: remove the code when we have support for filter function in nested loop join
                 postJoinPredicate = combineConjuncts(metadata, postJoinPredicate, newJoinFilter.get());
                 newJoinFilter = Optional.empty();
@@ -607,6 +609,12 @@ public class PredicatePushDown
 
         // TODO: collect min/max ranges for inequality dynamic filters (https://github.com/trinodb/trino/issues/5754)
         // TODO: support for complex inequalities, e.g. left < right + 10 (https://github.com/trinodb/trino/issues/5755)
+        private boolean isRangeJoin(Expression joinFilter, PlanNode buildSource)
+        {
+            return isRangeJoinEnabled(session) &&
+                    extractRangeJoinExpression(metadata, symbolAllocator.getTypes(), ImmutableSet.copyOf(buildSource.getOutputSymbols()), joinFilter).isPresent();
+        }
+
         private DynamicFiltersResult createDynamicFilters(
                 JoinNode node,
                 List<JoinNode.EquiJoinClause> equiJoinClauses,
@@ -37,6 +37,7 @@ public class PlanNodeStats
 
     private final Duration planNodeScheduledTime;
     private final Duration planNodeCpuTime;
+    private final DataSize planNodeAllocatedDataSize;
     private final long planNodeInputPositions;
     private final DataSize planNodeInputDataSize;
     private final long planNodeOutputPositions;
@@ -48,6 +49,7 @@ public class PlanNodeStats
             PlanNodeId planNodeId,
             Duration planNodeScheduledTime,
             Duration planNodeCpuTime,
+            DataSize planNodeAllocatedDataSize,
             long planNodeInputPositions,
             DataSize planNodeInputDataSize,
             long planNodeOutputPositions,
@@ -58,6 +60,7 @@ public class PlanNodeStats
 
         this.planNodeScheduledTime = requireNonNull(planNodeScheduledTime, "planNodeScheduledTime is null");
         this.planNodeCpuTime = requireNonNull(planNodeCpuTime, "planNodeCpuTime is null");
+        this.planNodeAllocatedDataSize = requireNonNull(planNodeAllocatedDataSize, "planNodeAllocatedDataSize is null");
         this.planNodeInputPositions = planNodeInputPositions;
         this.planNodeInputDataSize = planNodeInputDataSize;
         this.planNodeOutputPositions = planNodeOutputPositions;
@@ -89,6 +92,11 @@ public class PlanNodeStats
         return planNodeCpuTime;
     }
 
+    public DataSize getPlanNodeAllocatedDataSize()
+    {
+        return planNodeAllocatedDataSize;
+    }
+
     public Set<String> getOperatorTypes()
     {
         return operatorInputStats.keySet();
@@ -139,6 +147,7 @@ public class PlanNodeStats
         checkArgument(planNodeId.equals(other.getPlanNodeId()), "planNodeIds do not match. %s != %s", planNodeId, other.getPlanNodeId());
         checkMergeable(other);
 
+        DataSize planNodeAllocatedDataSize = succinctBytes(this.planNodeAllocatedDataSize.toBytes() + other.planNodeAllocatedDataSize.toBytes());
         long planNodeInputPositions = this.planNodeInputPositions + other.planNodeInputPositions;
         DataSize planNodeInputDataSize = succinctBytes(this.planNodeInputDataSize.toBytes() + other.planNodeInputDataSize.toBytes());
         long planNodeOutputPositions = this.planNodeOutputPositions + other.planNodeOutputPositions;
@@ -150,6 +159,7 @@ public class PlanNodeStats
                 planNodeId,
                 new Duration(planNodeScheduledTime.toMillis() + other.getPlanNodeScheduledTime().toMillis(), MILLISECONDS),
                 new Duration(planNodeCpuTime.toMillis() + other.getPlanNodeCpuTime().toMillis(), MILLISECONDS),
+                planNodeAllocatedDataSize,
                 planNodeInputPositions, planNodeInputDataSize,
                 planNodeOutputPositions, planNodeOutputDataSize,
                 operatorInputStats);
@@ -131,6 +131,11 @@ public class TextRenderer
 
         output.append(format(", Output: %s (%s)\n", formatPositions(nodeStats.getPlanNodeOutputPositions()), nodeStats.getPlanNodeOutputDataSize().toString()));
 
+        // allocations are only tracked when enabled
+        if (verbose && nodeStats.getPlanNodeAllocatedDataSize().toBytes() > 0) {
+            output.append(format("Allocated: %s\n", nodeStats.getPlanNodeAllocatedDataSize()));
+        }
+
         printDistributions(output, nodeStats);
         printCollisions(output, nodeStats);
 
@@ -13,6 +13,10 @@
  */
 package io.trino.cost;
 
+import io.trino.spi.statistics.Histogram;
+
+import java.util.Optional;
+
 import static io.trino.cost.EstimateAssertion.assertEstimateEquals;
 import static java.lang.Double.NEGATIVE_INFINITY;
 import static java.lang.Double.POSITIVE_INFINITY;
@@ -116,6 +120,12 @@ public class SymbolStatsAssertion
         return this;
     }
 
+    public SymbolStatsAssertion histogram(Optional<Histogram> expected)
+    {
+        assertEquals(statistics.getHistogram(), expected, "histogram mismatch");
+        return this;
+    }
+
     public SymbolStatsAssertion isEqualTo(SymbolStatsEstimate expected)
     {
         return nullsFraction(expected.getNullsFraction())
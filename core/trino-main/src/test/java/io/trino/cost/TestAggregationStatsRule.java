@@ -14,9 +14,12 @@
 package io.trino.cost;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.trino.spi.statistics.Histogram;
 import io.trino.sql.planner.Symbol;
 import org.testng.annotations.Test;
 
+import java.util.Optional;
 import java.util.function.Consumer;
 
 import static io.trino.spi.type.BigintType.BIGINT;
@@ -148,4 +151,30 @@ public class TestAggregationStatsRule
                         .build())
                 .check(check -> check.outputRowsCount(100));
     }
+
+    @Test
+    public void testGroupByDropsHistogram()
+    {
+        // after grouping each value occurs once, so the most common values of the source no longer apply
+        tester().assertStatsFor(pb -> pb
+                .aggregation(ab -> ab
+                        .addAggregation(pb.symbol("count_on_x", BIGINT), expression("count(x)"), ImmutableList.of(BIGINT))
+                        .singleGroupingSet(pb.symbol("y", BIGINT))
+                        .source(pb.values(pb.symbol("x", BIGINT), pb.symbol("y", BIGINT)))))
+                .withSourceStats(PlanNodeStatsEstimate.builder()
+                        .setOutputRowCount(100)
+                        .addSymbolStatistics(new Symbol("y"), SymbolStatsEstimate.builder()
+                                .setLowValue(0)
+                                .setHighValue(100)
+                                .setNullsFraction(0.1)
+                                .setDistinctValuesCount(50)
+                                .setHistogram(Optional.of(new Histogram(ImmutableList.of(0.0, 10.0, 100.0), ImmutableMap.of(5.0, 0.5))))
+                                .build())
+                        .build())
+                .check(check -> check
+                        .outputRowsCount(51)
+                        .symbolStats("y", symbolStats -> symbolStats
+                                .distinctValuesCount(50)
+                                .histogram(Optional.empty())));
+    }
 }
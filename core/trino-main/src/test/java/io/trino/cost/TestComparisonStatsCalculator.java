@@ -13,9 +13,11 @@
  */
 package io.trino.cost;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.trino.Session;
 import io.trino.metadata.Metadata;
+import io.trino.spi.statistics.Histogram;
 import io.trino.spi.type.DoubleType;
 import io.trino.spi.type.Type;
 import io.trino.spi.type.VarcharType;
@@ -37,6 +39,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 import static io.trino.metadata.MetadataManager.createTestMetadataManager;
@@ -44,7 +47,9 @@ import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.sql.analyzer.TypeSignatureTranslator.toSqlType;
 import static io.trino.sql.tree.ComparisonExpression.Operator.EQUAL;
 import static io.trino.sql.tree.ComparisonExpression.Operator.GREATER_THAN;
+import static io.trino.sql.tree.ComparisonExpression.Operator.GREATER_THAN_OR_EQUAL;
 import static io.trino.sql.tree.ComparisonExpression.Operator.LESS_THAN;
+import static io.trino.sql.tree.ComparisonExpression.Operator.LESS_THAN_OR_EQUAL;
 import static io.trino.sql.tree.ComparisonExpression.Operator.NOT_EQUAL;
 import static io.trino.testing.TestingSession.testSessionBuilder;
 import static java.lang.Double.NEGATIVE_INFINITY;
@@ -215,7 +220,12 @@ public class TestComparisonStatsCalculator
 
     private PlanNodeStatsAssertion assertCalculate(Expression comparisonExpression)
     {
-        return PlanNodeStatsAssertion.assertThat(filterStatsCalculator.filterStats(standardInputStatistics, comparisonExpression, session, types));
+        return assertCalculate(standardInputStatistics, comparisonExpression, types);
+    }
+
+    private PlanNodeStatsAssertion assertCalculate(PlanNodeStatsEstimate inputStatistics, Expression comparisonExpression, TypeProvider types)
+    {
+        return PlanNodeStatsAssertion.assertThat(filterStatsCalculator.filterStats(inputStatistics, comparisonExpression, session, types));
     }
 
     @Test
@@ -644,6 +654,37 @@ public class TestComparisonStatsCalculator
                 .symbolStats("z", equalTo(capNDV(zStats, rowCount)));
     }
 
+    @Test
+    public void symbolToMostCommonValueLiteralStats()
+    {
+        // half of the values are 5, the remaining ones are spread evenly over [0, 10] and [10, 100]
+        SymbolStatsEstimate skewedStats = SymbolStatsEstimate.builder()
+                .setAverageRowSize(8.0)
+                .setDistinctValuesCount(100)
+                .setLowValue(0)
+                .setHighValue(100)
+                .setNullsFraction(0)
+                .setHistogram(Optional.of(new Histogram(ImmutableList.of(0.0, 10.0, 100.0), ImmutableMap.of(5.0, 0.5))))
+                .build();
+        PlanNodeStatsEstimate inputStatistics = PlanNodeStatsEstimate.builder()
+                .addSymbolStatistics(new Symbol("skewed"), skewedStats)
+                .setOutputRowCount(1000.0)
+                .build();
+        TypeProvider skewedTypes = TypeProvider.copyOf(ImmutableMap.of(new Symbol("skewed"), DoubleType.DOUBLE));
+
+        // strict comparisons exclude the most common value sitting on the bound
+        assertCalculate(inputStatistics, new ComparisonExpression(LESS_THAN, new SymbolReference("skewed"), new DoubleLiteral("5.0")), skewedTypes)
+                .outputRowsCount(125.0);
+        assertCalculate(inputStatistics, new ComparisonExpression(LESS_THAN_OR_EQUAL, new SymbolReference("skewed"), new DoubleLiteral("5.0")), skewedTypes)
+                .outputRowsCount(625.0);
+        assertCalculate(inputStatistics, new ComparisonExpression(GREATER_THAN, new SymbolReference("skewed"), new DoubleLiteral("5.0")), skewedTypes)
+                .outputRowsCount(375.0);
+        assertCalculate(inputStatistics, new ComparisonExpression(GREATER_THAN_OR_EQUAL, new SymbolReference("skewed"), new DoubleLiteral("5.0")), skewedTypes)
+                .outputRowsCount(875.0)
+                // estimates for the narrowed range condition the histogram on it
+                .symbolStats("skewed", symbolStats -> symbolStats.histogram(skewedStats.getHistogram()));
+    }
+
     @Test
     public void symbolToSymbolNotEqual()
     {
@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.cost;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.trino.spi.statistics.Histogram;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+import static io.trino.cost.HistogramEstimator.estimateEqualityFraction;
+import static io.trino.cost.HistogramEstimator.estimateRangeFraction;
+import static java.lang.Double.NEGATIVE_INFINITY;
+import static java.lang.Double.POSITIVE_INFINITY;
+import static org.testng.Assert.assertEquals;
+
+public class TestHistogramEstimator
+{
+    // half of the values are 5, the remaining ones are spread evenly over [0, 10] and [10, 100]
+    private static final Histogram SKEWED = new Histogram(ImmutableList.of(0.0, 10.0, 100.0), ImmutableMap.of(5.0, 0.5));
+
+    @Test
+    public void testRangeFraction()
+    {
+        SymbolStatsEstimate statistics = statistics(0, 100, 100, Optional.of(SKEWED));
+
+        assertFraction(estimateRangeFraction(statistics, NEGATIVE_INFINITY, 10), 0.75);
+        assertFraction(estimateRangeFraction(statistics, 10, POSITIVE_INFINITY), 0.25);
+        assertFraction(estimateRangeFraction(statistics, 55, 100), 0.125);
+        assertFraction(estimateRangeFraction(statistics, 200, POSITIVE_INFINITY), 0);
+
+        // most common value
+        assertFraction(estimateRangeFraction(statistics, 5, 5), 0.5);
+        // remaining values share the remaining rows
+        assertFraction(estimateRangeFraction(statistics, 50, 50), 0.5 / 99);
+        assertFraction(estimateRangeFraction(statistics, 150, 150), 0);
+    }
+
+    @Test
+    public void testRangeFractionOpenBounds()
+    {
+        SymbolStatsEstimate statistics = statistics(0, 100, 100, Optional.of(SKEWED));
+
+        // x < 5 excludes the most common value
+        assertFraction(estimateRangeFraction(statistics, NEGATIVE_INFINITY, false, 5, false), 0.125);
+        assertFraction(estimateRangeFraction(statistics, NEGATIVE_INFINITY, false, 5, true), 0.625);
+        // x > 5 excludes the most common value
+        assertFraction(estimateRangeFraction(statistics, 5, false, POSITIVE_INFINITY, false), 0.375);
+        assertFraction(estimateRangeFraction(statistics, 5, true, POSITIVE_INFINITY, false), 0.875);
+        // an empty range
+        assertFraction(estimateRangeFraction(statistics, 5, true, 5, false), 0);
+        // bounds beyond the current range are replaced by its closed bounds
+        assertFraction(estimateRangeFraction(statistics, -10, false, 100, true), 1);
+    }
+
+    @Test
+    public void testRangeFractionConditionedOnCurrentRange()
+    {
+        // the histogram describes the column before it was filtered to [20, 100]
+        SymbolStatsEstimate statistics = statistics(20, 100, 50, Optional.of(SKEWED));
+
+        assertFraction(estimateRangeFraction(statistics, NEGATIVE_INFINITY, 60), 0.5);
+        assertFraction(estimateRangeFraction(statistics, NEGATIVE_INFINITY, 10), 0);
+        assertFraction(estimateRangeFraction(statistics, 5, 5), 0);
+    }
+
+    @Test
+    public void testRangeFractionUnknown()
+    {
+        assertEquals(estimateRangeFraction(statistics(0, 100, 100, Optional.empty()), 0, 10), OptionalDouble.empty());
+        assertEquals(estimateRangeFraction(statistics(0, 100, 100, Optional.of(SKEWED)), NEGATIVE_INFINITY, POSITIVE_INFINITY), OptionalDouble.empty());
+    }
+
+    @Test
+    public void testEqualityFraction()
+    {
+        SymbolStatsEstimate left = statistics(0, 100, 100, Optional.of(SKEWED));
+        SymbolStatsEstimate right = statistics(0, 100, 100, Optional.of(SKEWED));
+
+        // matching most common values dominate the join selectivity
+        assertFraction(estimateEqualityFraction(left, right), 0.25 + 0.5 * 0.5 / 99);
+
+        Histogram otherValue = new Histogram(ImmutableList.of(0.0, 100.0), ImmutableMap.of(50.0, 0.5));
+        assertFraction(estimateEqualityFraction(left, statistics(0, 100, 100, Optional.of(otherValue))), 0.5 * 0.5 / 99 * 2 + 0.5 * 0.5 / 99);
+
+        assertEquals(estimateEqualityFraction(left, statistics(0, 100, 100, Optional.empty())), OptionalDouble.empty());
+    }
+
+    private static void assertFraction(OptionalDouble actual, double expected)
+    {
+        assertEquals(actual.orElseThrow(), expected, 1e-9);
+    }
+
+    private static SymbolStatsEstimate statistics(double low, double high, double distinctValues, Optional<Histogram> histogram)
+    {
+        return SymbolStatsEstimate.builder()
+                .setLowValue(low)
+                .setHighValue(high)
+                .setDistinctValuesCount(distinctValues)
+                .setNullsFraction(0)
+                .setHistogram(histogram)
+                .build();
+    }
+}
@@ -16,6 +16,7 @@ package io.trino.cost;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.trino.metadata.Metadata;
+import io.trino.spi.statistics.Histogram;
 import io.trino.spi.type.Type;
 import io.trino.sql.parser.SqlParser;
 import io.trino.sql.planner.Symbol;
@@ -114,6 +115,40 @@ public class TestJoinStatsRule
         assertJoinStats(INNER, LEFT_STATS, RIGHT_STATS, innerJoinStats);
     }
 
+    @Test
+    public void testJoinDropsHistograms()
+    {
+        // the values are matched with different numbers of rows, so the frequencies of the sources do not apply to the output
+        Optional<Histogram> histogram = Optional.of(new Histogram(ImmutableList.of(0.0, 10.0, 20.0), ImmutableMap.of(5.0, 0.5)));
+        PlanNodeStatsEstimate leftStats = PlanNodeStatsEstimate.buildFrom(LEFT_STATS)
+                .addSymbolStatistics(new Symbol(LEFT_JOIN_COLUMN), SymbolStatsEstimate.buildFrom(LEFT_JOIN_COLUMN_STATS.estimate)
+                        .setHistogram(histogram)
+                        .build())
+                .addSymbolStatistics(new Symbol(LEFT_OTHER_COLUMN), SymbolStatsEstimate.buildFrom(LEFT_OTHER_COLUMN_STATS.estimate)
+                        .setHistogram(Optional.of(new Histogram(ImmutableList.of(), ImmutableMap.of(42.0, 1.0))))
+                        .build())
+                .build();
+
+        for (JoinNode.Type joinType : JoinNode.Type.values()) {
+            tester().assertStatsFor(pb -> {
+                Symbol leftJoinColumnSymbol = pb.symbol(LEFT_JOIN_COLUMN, BIGINT);
+                Symbol rightJoinColumnSymbol = pb.symbol(RIGHT_JOIN_COLUMN, DOUBLE);
+                Symbol leftOtherColumnSymbol = pb.symbol(LEFT_OTHER_COLUMN, BIGINT);
+                Symbol rightOtherColumnSymbol = pb.symbol(RIGHT_OTHER_COLUMN, DOUBLE);
+                return pb
+                        .join(
+                                joinType,
+                                pb.values(leftJoinColumnSymbol, leftOtherColumnSymbol),
+                                pb.values(rightJoinColumnSymbol, rightOtherColumnSymbol),
+                                new EquiJoinClause(leftJoinColumnSymbol, rightJoinColumnSymbol));
+            }).withSourceStats(0, leftStats)
+                    .withSourceStats(1, RIGHT_STATS)
+                    .check(JOIN_STATS_RULE, stats -> stats
+                            .symbolStats(LEFT_JOIN_COLUMN, symbolStats -> symbolStats.histogram(Optional.empty()))
+                            .symbolStats(LEFT_OTHER_COLUMN, symbolStats -> symbolStats.histogram(Optional.empty())));
+        }
+    }
+
     @Test
     public void testStatsForInnerJoinWithRepeatedClause()
     {
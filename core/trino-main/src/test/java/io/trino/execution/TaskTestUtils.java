@@ -126,7 +126,7 @@ public final class TaskTestUtils
                 new TypeAnalyzer(new SqlParser(), metadata),
                 Optional.empty(),
                 pageSourceManager,
-                new IndexManager(),
+                new IndexManager(new TaskManagerConfig()),
                 nodePartitioningManager,
                 new PageSinkManager(),
                 new MockExchangeClientSupplier(),
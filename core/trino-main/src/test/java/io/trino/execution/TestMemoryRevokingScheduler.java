@@ -21,6 +21,7 @@ import com.google.common.collect.Sets;
 import io.airlift.stats.CounterStat;
 import io.airlift.stats.TestingGcMonitor;
 import io.airlift.units.DataSize;
+import io.trino.Session;
 import io.trino.execution.executor.TaskExecutor;
 import io.trino.memory.MemoryPool;
 import io.trino.memory.QueryContext;
@@ -43,6 +44,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ScheduledExecutorService;
@@ -51,14 +54,18 @@ import java.util.concurrent.atomic.AtomicInteger;
 import static io.airlift.concurrent.Threads.threadsNamed;
 import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.trino.SessionTestUtils.TEST_SESSION;
+import static io.trino.SystemSessionProperties.QUERY_PRIORITY;
 import static io.trino.execution.SqlTask.createSqlTask;
+import static io.trino.execution.TaskTestUtils.PLAN_FRAGMENT;
 import static io.trino.execution.TaskTestUtils.createTestSplitMonitor;
 import static io.trino.execution.TaskTestUtils.createTestingPlanner;
-import static io.trino.execution.TaskTestUtils.updateTask;
 import static io.trino.execution.TestSqlTask.OUT;
 import static io.trino.execution.buffer.OutputBuffers.BufferType.PARTITIONED;
 import static io.trino.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
 import static io.trino.memory.LocalMemoryManager.GENERAL_POOL;
+import static io.trino.sql.analyzer.FeaturesConfig.MemoryRevokingOrder.QUERY_PRIORITY_AND_SIZE;
+import static io.trino.testing.TestingSession.testSessionBuilder;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
@@ -251,9 +258,65 @@ public class TestMemoryRevokingScheduler
         assertMemoryRevokingRequestedFor(operatorContext);
     }
 
+    @Test
+    public void testRevokeLargestOperatorsFirst()
+            throws Exception
+    {
+        SqlTask sqlTask1 = newSqlTask(new QueryId("q1"));
+        OperatorContext operatorContext1 = createContexts(sqlTask1);
+
+        SqlTask sqlTask2 = newSqlTask(new QueryId("q2"));
+        OperatorContext operatorContext2 = createContexts(sqlTask2);
+
+        List<SqlTask> tasks = ImmutableList.of(sqlTask1, sqlTask2);
+        MemoryRevokingScheduler scheduler = new MemoryRevokingScheduler(singletonList(memoryPool), () -> tasks, executor, 1.0, 1.0, QUERY_PRIORITY_AND_SIZE);
+        allOperatorContexts = ImmutableSet.of(operatorContext1, operatorContext2);
+
+        operatorContext1.localRevocableMemoryContext().setBytes(3);
+        operatorContext2.localRevocableMemoryContext().setBytes(9);
+        requestMemoryRevoking(scheduler);
+
+        // revoking from the older task would also be enough, but the larger operator frees more memory at once
+        assertMemoryRevokingRequestedFor(operatorContext2);
+    }
+
+    @Test
+    public void testRevokeLowerPriorityQueriesFirst()
+            throws Exception
+    {
+        SqlTask sqlTask1 = newSqlTask(new QueryId("q1"));
+        OperatorContext operatorContext1 = createContexts(sqlTask1, withQueryPriority(2));
+
+        SqlTask sqlTask2 = newSqlTask(new QueryId("q2"));
+        OperatorContext operatorContext2 = createContexts(sqlTask2, withQueryPriority(1));
+
+        List<SqlTask> tasks = ImmutableList.of(sqlTask1, sqlTask2);
+        MemoryRevokingScheduler scheduler = new MemoryRevokingScheduler(singletonList(memoryPool), () -> tasks, executor, 1.0, 1.0, QUERY_PRIORITY_AND_SIZE);
+        allOperatorContexts = ImmutableSet.of(operatorContext1, operatorContext2);
+
+        operatorContext1.localRevocableMemoryContext().setBytes(9);
+        operatorContext2.localRevocableMemoryContext().setBytes(3);
+        requestMemoryRevoking(scheduler);
+
+        // the higher priority query holds more revocable memory, but the lower priority query is revoked first
+        assertMemoryRevokingRequestedFor(operatorContext2);
+    }
+
+    private static Session withQueryPriority(int queryPriority)
+    {
+        return testSessionBuilder()
+                .setSystemProperty(QUERY_PRIORITY, String.valueOf(queryPriority))
+                .build();
+    }
+
     private OperatorContext createContexts(SqlTask sqlTask)
     {
-        TaskContext taskContext = getOrCreateTaskContext(sqlTask);
+        return createContexts(sqlTask, TEST_SESSION);
+    }
+
+    private OperatorContext createContexts(SqlTask sqlTask, Session session)
+    {
+        TaskContext taskContext = getOrCreateTaskContext(sqlTask, session);
         PipelineContext pipelineContext = taskContext.addPipelineContext(0, false, false, false);
         DriverContext driverContext = pipelineContext.addDriverContext();
         OperatorContext operatorContext = driverContext.addOperatorContext(1, new PlanNodeId("na"), "na");
@@ -323,10 +386,15 @@ public class TestMemoryRevokingScheduler
     }
 
     private TaskContext getOrCreateTaskContext(SqlTask sqlTask)
+    {
+        return getOrCreateTaskContext(sqlTask, TEST_SESSION);
+    }
+
+    private TaskContext getOrCreateTaskContext(SqlTask sqlTask, Session session)
     {
         if (sqlTask.getTaskContext().isEmpty()) {
             // update task to update underlying taskHolderReference with taskExecution + create a new taskContext
-            updateTask(sqlTask, ImmutableList.of(), createInitialEmptyOutputBuffers(PARTITIONED).withBuffer(OUT, 0).withNoMoreBufferIds());
+            sqlTask.updateTask(session, Optional.of(PLAN_FRAGMENT), ImmutableList.of(), createInitialEmptyOutputBuffers(PARTITIONED).withBuffer(OUT, 0).withNoMoreBufferIds(), OptionalInt.empty());
         }
         return sqlTask.getTaskContext().orElseThrow(() -> new IllegalStateException("TaskContext not present"));
     }
@@ -13,10 +13,12 @@
  */
 package io.trino.execution;
 
+import com.google.common.collect.ImmutableList;
 import io.trino.Session;
 import io.trino.execution.QueryPreparer.PreparedQuery;
 import io.trino.sql.parser.SqlParser;
 import io.trino.sql.tree.AllColumns;
+import io.trino.sql.tree.LongLiteral;
 import io.trino.sql.tree.QualifiedName;
 import org.testng.annotations.Test;
 
@@ -29,6 +31,7 @@ import static io.trino.sql.QueryUtil.table;
 import static io.trino.testing.TestingSession.testSessionBuilder;
 import static io.trino.testing.assertions.TrinoExceptionAssert.assertTrinoExceptionThrownBy;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
 public class TestQueryPreparer
 {
@@ -61,6 +64,25 @@ public class TestQueryPreparer
                 .hasErrorCode(NOT_FOUND);
     }
 
+    @Test
+    public void testExecuteStatementCached()
+    {
+        QueryPreparer queryPreparer = new QueryPreparer(SQL_PARSER, new QueryPreparerConfig());
+        Session session = testSessionBuilder()
+                .addPreparedStatement("my_query", "SELECT * FROM foo where col1 = ?")
+                .build();
+
+        PreparedQuery first = queryPreparer.prepareQuery(session, "EXECUTE my_query USING 1");
+        PreparedQuery second = queryPreparer.prepareQuery(session, "EXECUTE my_query USING 2");
+        assertSame(second.getStatement(), first.getStatement());
+        assertEquals(second.getParameters(), ImmutableList.of(new LongLiteral("2")));
+        assertEquals(queryPreparer.getPreparedStatementCacheStats().getHitRate(), 0.5);
+
+        // parameter count is still validated for cached statements
+        assertTrinoExceptionThrownBy(() -> queryPreparer.prepareQuery(session, "EXECUTE my_query USING 1, 2"))
+                .hasErrorCode(INVALID_PARAMETER_USAGE);
+    }
+
     @Test
     public void testTooManyParameters()
     {
@@ -67,6 +67,7 @@ public class TestQueryStats
                     120L,
                     new Duration(121, NANOSECONDS),
                     new Duration(122, NANOSECONDS),
+                    succinctBytes(123L),
                     succinctBytes(124L),
                     succinctBytes(125L),
                     succinctBytes(126L),
@@ -106,6 +107,7 @@ public class TestQueryStats
                     220L,
                     new Duration(221, NANOSECONDS),
                     new Duration(222, NANOSECONDS),
+                    succinctBytes(223L),
                     succinctBytes(224L),
                     succinctBytes(225L),
                     succinctBytes(226L),
@@ -145,6 +147,7 @@ public class TestQueryStats
                     320L,
                     new Duration(321, NANOSECONDS),
                     new Duration(322, NANOSECONDS),
+                    succinctBytes(323L),
                     succinctBytes(324L),
                     succinctBytes(325L),
                     succinctBytes(326L),
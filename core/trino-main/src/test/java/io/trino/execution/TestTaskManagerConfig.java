@@ -35,6 +35,7 @@ public class TestTaskManagerConfig
         assertRecordedDefaults(recordDefaults(TaskManagerConfig.class)
                 .setInitialSplitsPerNode(Runtime.getRuntime().availableProcessors() * 2)
                 .setSplitConcurrencyAdjustmentInterval(new Duration(100, TimeUnit.MILLISECONDS))
+                .setStragglingSplitWallTimeMultiplier(5.0)
                 .setStatusRefreshMaxWait(new Duration(1, TimeUnit.SECONDS))
                 .setInfoUpdateInterval(new Duration(3, TimeUnit.SECONDS))
                 .setPerOperatorCpuTimerEnabled(true)
@@ -47,6 +48,8 @@ public class TestTaskManagerConfig
                 .setClientTimeout(new Duration(2, TimeUnit.MINUTES))
                 .setMaxIndexMemoryUsage(DataSize.of(64, Unit.MEGABYTE))
                 .setShareIndexLoading(false)
+                .setMaxIndexCacheMemoryUsage(DataSize.of(0, Unit.BYTE))
+                .setIndexCacheTtl(new Duration(1, TimeUnit.MINUTES))
                 .setMaxPartialAggregationMemoryUsage(DataSize.of(16, Unit.MEGABYTE))
                 .setMaxLocalExchangeBufferSize(DataSize.of(32, Unit.MEGABYTE))
                 .setSinkMaxBufferSize(DataSize.of(32, Unit.MEGABYTE))
@@ -59,7 +62,8 @@ public class TestTaskManagerConfig
                 .setTaskNotificationThreads(5)
                 .setTaskYieldThreads(3)
                 .setLevelTimeMultiplier(new BigDecimal("2"))
-                .setStatisticsCpuTimerEnabled(true));
+                .setStatisticsCpuTimerEnabled(true)
+                .setPerOperatorAllocationTrackingEnabled(false));
     }
 
     @Test
@@ -68,12 +72,15 @@ public class TestTaskManagerConfig
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("task.initial-splits-per-node", "1")
                 .put("task.split-concurrency-adjustment-interval", "1s")
+                .put("task.straggling-split-wall-time-multiplier", "3.5")
                 .put("task.status-refresh-max-wait", "2s")
                 .put("task.info-update-interval", "2s")
                 .put("task.per-operator-cpu-timer-enabled", "false")
                 .put("task.cpu-timer-enabled", "false")
                 .put("task.max-index-memory", "512MB")
                 .put("task.share-index-loading", "true")
+                .put("task.index-cache.max-memory", "256MB")
+                .put("task.index-cache.ttl", "5m")
                 .put("task.max-partial-aggregation-memory", "32MB")
                 .put("task.max-local-exchange-buffer-size", "33MB")
                 .put("task.max-worker-threads", "3")
@@ -93,17 +100,21 @@ public class TestTaskManagerConfig
                 .put("task.task-yield-threads", "8")
                 .put("task.level-time-multiplier", "2.1")
                 .put("task.statistics-cpu-timer-enabled", "false")
+                .put("task.per-operator-allocation-tracking-enabled", "true")
                 .build();
 
         TaskManagerConfig expected = new TaskManagerConfig()
                 .setInitialSplitsPerNode(1)
                 .setSplitConcurrencyAdjustmentInterval(new Duration(1, TimeUnit.SECONDS))
+                .setStragglingSplitWallTimeMultiplier(3.5)
                 .setStatusRefreshMaxWait(new Duration(2, TimeUnit.SECONDS))
                 .setInfoUpdateInterval(new Duration(2, TimeUnit.SECONDS))
                 .setPerOperatorCpuTimerEnabled(false)
                 .setTaskCpuTimerEnabled(false)
                 .setMaxIndexMemoryUsage(DataSize.of(512, Unit.MEGABYTE))
                 .setShareIndexLoading(true)
+                .setMaxIndexCacheMemoryUsage(DataSize.of(256, Unit.MEGABYTE))
+                .setIndexCacheTtl(new Duration(5, TimeUnit.MINUTES))
                 .setMaxPartialAggregationMemoryUsage(DataSize.of(32, Unit.MEGABYTE))
                 .setMaxLocalExchangeBufferSize(DataSize.of(33, Unit.MEGABYTE))
                 .setMaxWorkerThreads(3)
@@ -122,7 +133,8 @@ public class TestTaskManagerConfig
                 .setTaskNotificationThreads(13)
                 .setTaskYieldThreads(8)
                 .setLevelTimeMultiplier(new BigDecimal("2.1"))
-                .setStatisticsCpuTimerEnabled(false);
+                .setStatisticsCpuTimerEnabled(false)
+                .setPerOperatorAllocationTrackingEnabled(true);
 
         assertFullMapping(properties, expected);
     }
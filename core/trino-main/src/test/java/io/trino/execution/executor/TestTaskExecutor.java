@@ -36,6 +36,7 @@ import static io.airlift.testing.Assertions.assertGreaterThan;
 import static io.airlift.testing.Assertions.assertLessThan;
 import static io.trino.execution.executor.MultilevelSplitQueue.LEVEL_CONTRIBUTION_CAP;
 import static io.trino.execution.executor.MultilevelSplitQueue.LEVEL_THRESHOLD_SECONDS;
+import static io.trino.version.EmbedVersion.testingVersionEmbedder;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -443,6 +444,50 @@ public class TestTaskExecutor
         }
     }
 
+    @Test(timeOut = 30_000)
+    public void testStragglingSplits()
+            throws Exception
+    {
+        TestingTicker ticker = new TestingTicker();
+        TaskExecutor taskExecutor = new TaskExecutor(4, 8, 3, 4, 4.0, testingVersionEmbedder(), new MultilevelSplitQueue(2), ticker);
+        taskExecutor.start();
+        ticker.increment(20, MILLISECONDS);
+
+        try {
+            TaskHandle taskHandle = taskExecutor.addTask(new TaskId("test", 0, 0), () -> 0, 10, new Duration(1, MILLISECONDS), OptionalInt.empty());
+
+            // complete a few short leaf splits to establish the expected split wall time
+            for (int i = 0; i < 3; i++) {
+                TestingJob split = new TestingJob(ticker, new Phaser(), new Phaser(), new Phaser(), 1, 10);
+                getOnlyElement(taskExecutor.enqueueSplits(taskHandle, false, ImmutableList.of(split))).get(10, SECONDS);
+            }
+            while (taskHandle.getCompletedLeafSplits() < 3) {
+                MILLISECONDS.sleep(10);
+            }
+
+            Phaser beginPhase = new Phaser();
+            beginPhase.register();
+            Phaser verificationComplete = new Phaser();
+            verificationComplete.register();
+
+            TestingJob slowSplit = new TestingJob(ticker, new Phaser(), beginPhase, verificationComplete, 1, 0);
+            taskExecutor.enqueueSplits(taskHandle, false, ImmutableList.of(slowSplit));
+
+            // wait for the split to start running
+            beginPhase.arriveAndAwaitAdvance();
+            assertEquals(taskExecutor.getStragglingSplitCount(), 0);
+
+            ticker.increment(1, SECONDS);
+            assertEquals(taskExecutor.getStragglingSplitCount(), 1);
+
+            verificationComplete.arriveAndDeregister();
+            beginPhase.arriveAndDeregister();
+        }
+        finally {
+            taskExecutor.stop();
+        }
+    }
+
     private void assertSplitStates(int endIndex, TestingJob[] splits)
     {
         // assert that splits up to and including endIndex are all started
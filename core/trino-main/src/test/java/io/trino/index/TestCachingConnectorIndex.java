@@ -0,0 +1,217 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.index;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimap;
+import io.trino.connector.CatalogName;
+import io.trino.index.CachingConnectorIndex.IndexKey;
+import io.trino.index.CachingConnectorIndex.LookupKey;
+import io.trino.spi.Page;
+import io.trino.spi.connector.ConnectorIndex;
+import io.trino.spi.connector.ConnectorIndexHandle;
+import io.trino.spi.connector.ConnectorPageSource;
+import io.trino.spi.connector.FixedPageSource;
+import io.trino.spi.connector.InMemoryRecordSet;
+import io.trino.spi.connector.RecordCursor;
+import io.trino.spi.connector.RecordSet;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static io.trino.block.BlockAssertions.createLongsBlock;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestCachingConnectorIndex
+{
+    private static final Multimap<Long, Long> DATA = ImmutableMultimap.of(1L, 10L, 1L, 11L, 2L, 20L, 4L, 40L);
+    private static final ConnectorIndexHandle INDEX_HANDLE = new ConnectorIndexHandle() {};
+    private static final IndexKey INDEX_KEY = new IndexKey(new CatalogName("test"), "user", INDEX_HANDLE, ImmutableList.of(), ImmutableList.of());
+
+    private final Cache<LookupKey, List<Page>> cache = CacheBuilder.newBuilder().build();
+
+    @BeforeMethod
+    public void setUp()
+    {
+        cache.invalidateAll();
+    }
+
+    @Test
+    public void testLookup()
+    {
+        TestingIndex delegate = new TestingIndex();
+        ConnectorIndex index = new CachingConnectorIndex(delegate, INDEX_KEY, new int[] {0}, cache, Long.MAX_VALUE);
+
+        assertEquals(lookup(index, 1L, 2L, 3L, 1L), ImmutableMultimap.of(1L, 10L, 1L, 11L, 2L, 20L));
+        assertEquals(delegate.getLookedUpKeys(), ImmutableSet.of(1L, 2L, 3L));
+
+        // only the keys missing from the cache are looked up, including the keys without rows
+        assertEquals(lookup(index, 2L, 3L, 4L), ImmutableMultimap.of(2L, 20L, 4L, 40L));
+        assertEquals(delegate.getLookedUpKeys(), ImmutableSet.of(4L));
+
+        assertEquals(lookup(index, 1L, 4L), ImmutableMultimap.of(1L, 10L, 1L, 11L, 4L, 40L));
+        assertEquals(delegate.getLookedUpKeys(), ImmutableSet.of());
+    }
+
+    @Test
+    public void testSharedAcrossIndexes()
+    {
+        TestingIndex first = new TestingIndex();
+        lookup(new CachingConnectorIndex(first, INDEX_KEY, new int[] {0}, cache, Long.MAX_VALUE), 1L, 2L);
+
+        TestingIndex second = new TestingIndex();
+        assertEquals(lookup(new CachingConnectorIndex(second, INDEX_KEY, new int[] {0}, cache, Long.MAX_VALUE), 1L, 2L), ImmutableMultimap.of(1L, 10L, 1L, 11L, 2L, 20L));
+        assertEquals(second.getLookedUpKeys(), ImmutableSet.of());
+
+        // a different index does not share the entries
+        IndexKey otherIndexKey = new IndexKey(new CatalogName("other"), "user", new ConnectorIndexHandle() {}, ImmutableList.of(), ImmutableList.of());
+        TestingIndex other = new TestingIndex();
+        lookup(new CachingConnectorIndex(other, otherIndexKey, new int[] {0}, cache, Long.MAX_VALUE), 1L, 2L);
+        assertEquals(other.getLookedUpKeys(), ImmutableSet.of(1L, 2L));
+
+        // another user does not share the entries
+        IndexKey otherUserIndexKey = new IndexKey(new CatalogName("test"), "other_user", INDEX_HANDLE, ImmutableList.of(), ImmutableList.of());
+        TestingIndex otherUser = new TestingIndex();
+        lookup(new CachingConnectorIndex(otherUser, otherUserIndexKey, new int[] {0}, cache, Long.MAX_VALUE), 1L, 2L);
+        assertEquals(otherUser.getLookedUpKeys(), ImmutableSet.of(1L, 2L));
+    }
+
+    @Test
+    public void testIncompleteLookupNotCached()
+            throws Exception
+    {
+        TestingIndex delegate = new TestingIndex();
+        ConnectorIndex index = new CachingConnectorIndex(delegate, INDEX_KEY, new int[] {0}, cache, Long.MAX_VALUE);
+
+        index.lookup(keys(1L, 2L)).close();
+        lookup(index, 1L, 2L);
+        assertEquals(delegate.getLookedUpKeys(), ImmutableSet.of(1L, 2L));
+    }
+
+    @Test
+    public void testLargeLookupNotCached()
+    {
+        TestingIndex delegate = new TestingIndex();
+        ConnectorIndex index = new CachingConnectorIndex(delegate, INDEX_KEY, new int[] {0}, cache, 0);
+
+        lookup(index, 1L, 2L);
+        assertEquals(lookup(index, 1L, 2L), ImmutableMultimap.of(1L, 10L, 1L, 11L, 2L, 20L));
+        assertEquals(delegate.getLookedUpKeys(), ImmutableSet.of(1L, 2L));
+    }
+
+    @Test
+    public void testKeysWithoutRowsEvicted()
+    {
+        Cache<LookupKey, List<Page>> boundedCache = IndexManager.createLookupCache(10_000, HOURS.toMillis(1));
+        TestingIndex delegate = new TestingIndex();
+        ConnectorIndex index = new CachingConnectorIndex(delegate, INDEX_KEY, new int[] {0}, boundedCache, Long.MAX_VALUE);
+
+        // none of the keys have rows
+        for (int batch = 0; batch < 100; batch++) {
+            Long[] keys = LongStream.range(100 + batch * 100, 200 + batch * 100)
+                    .boxed()
+                    .toArray(Long[]::new);
+            assertEquals(lookup(index, keys), ImmutableMultimap.of());
+        }
+        assertTrue(boundedCache.stats().evictionCount() > 0);
+        assertTrue(boundedCache.size() < 10_000 / 64, "cache size: " + boundedCache.size());
+    }
+
+    @Test
+    public void testUncacheableKeyType()
+            throws Exception
+    {
+        TestingIndex delegate = new TestingIndex();
+        ConnectorIndex index = new CachingConnectorIndex(delegate, INDEX_KEY, new int[] {0}, cache, Long.MAX_VALUE);
+
+        RecordSet doubleKeys = new InMemoryRecordSet(ImmutableList.of(DOUBLE), ImmutableList.of(ImmutableList.of(1.0)));
+        index.lookup(doubleKeys).close();
+        index.lookup(doubleKeys).close();
+        assertEquals(cache.size(), 0);
+    }
+
+    private static Multimap<Long, Long> lookup(ConnectorIndex index, Long... keys)
+    {
+        ImmutableMultimap.Builder<Long, Long> rows = ImmutableMultimap.builder();
+        try (ConnectorPageSource pageSource = index.lookup(keys(keys))) {
+            while (!pageSource.isFinished()) {
+                Page page = pageSource.getNextPage();
+                if (page == null) {
+                    continue;
+                }
+                for (int position = 0; position < page.getPositionCount(); position++) {
+                    rows.put(BIGINT.getLong(page.getBlock(0), position), BIGINT.getLong(page.getBlock(1), position));
+                }
+            }
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return rows.orderKeysBy(Long::compare).orderValuesBy(Long::compare).build();
+    }
+
+    private static RecordSet keys(Long... keys)
+    {
+        List<List<?>> records = new ArrayList<>();
+        for (Long key : keys) {
+            records.add(ImmutableList.of(key));
+        }
+        return new InMemoryRecordSet(ImmutableList.of(BIGINT), records);
+    }
+
+    private static class TestingIndex
+            implements ConnectorIndex
+    {
+        private final Set<Long> lookedUpKeys = new HashSet<>();
+
+        public Set<Long> getLookedUpKeys()
+        {
+            Set<Long> keys = ImmutableSet.copyOf(lookedUpKeys);
+            lookedUpKeys.clear();
+            return keys;
+        }
+
+        @Override
+        public ConnectorPageSource lookup(RecordSet recordSet)
+        {
+            List<Long> keys = new ArrayList<>();
+            List<Long> values = new ArrayList<>();
+            RecordCursor cursor = recordSet.cursor();
+            while (cursor.advanceNextPosition()) {
+                long key = cursor.getLong(0);
+                lookedUpKeys.add(key);
+                for (long value : DATA.get(key)) {
+                    keys.add(key);
+                    values.add(value);
+                }
+            }
+            Page page = new Page(createLongsBlock(keys), createLongsBlock(values));
+            return new FixedPageSource(ImmutableList.of(page));
+        }
+    }
+}
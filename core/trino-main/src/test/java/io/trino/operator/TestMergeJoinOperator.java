@@ -0,0 +1,235 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.operator.MergeJoinOperator.MergeJoinOperatorFactory;
+import io.trino.spi.Page;
+import io.trino.spi.type.TypeOperators;
+import io.trino.sql.planner.plan.PlanNodeId;
+import io.trino.testing.MaterializedResult;
+import io.trino.type.BlockTypeOperators;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.trino.RowPagesBuilder.rowPagesBuilder;
+import static io.trino.SessionTestUtils.TEST_SESSION;
+import static io.trino.operator.OperatorAssertion.assertOperatorEquals;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.testing.MaterializedResult.resultBuilder;
+import static io.trino.testing.TestingTaskContext.createTaskContext;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestMergeJoinOperator
+{
+    private static final BlockTypeOperators BLOCK_TYPE_OPERATORS = new BlockTypeOperators(new TypeOperators());
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+
+    @BeforeClass
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed(getClass().getSimpleName() + "-%s"));
+        scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed(getClass().getSimpleName() + "-scheduledExecutor-%s"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testInnerJoin()
+    {
+        MergeJoinBridge bridge = createBridge(buildPages());
+
+        MaterializedResult expected = resultBuilder(TEST_SESSION, BIGINT, VARCHAR, VARCHAR)
+                .row(1L, "p1", "a")
+                .row(2L, "p2", "b")
+                .row(2L, "p2", "c")
+                .row(2L, "p2", "d")
+                .row(4L, "p4", "e")
+                .build();
+
+        assertOperatorEquals(createFactory(bridge, false), createDriverContext(), probePages(), expected);
+    }
+
+    @Test
+    public void testLeftJoin()
+    {
+        MergeJoinBridge bridge = createBridge(buildPages());
+
+        MaterializedResult expected = resultBuilder(TEST_SESSION, BIGINT, VARCHAR, VARCHAR)
+                .row(null, "p0", null)
+                .row(1L, "p1", "a")
+                .row(2L, "p2", "b")
+                .row(2L, "p2", "c")
+                .row(2L, "p2", "d")
+                .row(2L, "p2'", "b")
+                .row(2L, "p2'", "c")
+                .row(2L, "p2'", "d")
+                .row(3L, "p3", null)
+                .row(4L, "p4", "e")
+                .row(5L, "p5", null)
+                .build();
+
+        List<Page> probePages = rowPagesBuilder(BIGINT, VARCHAR)
+                .row(null, "p0")
+                .row(1L, "p1")
+                .row(2L, "p2")
+                .pageBreak()
+                .row(2L, "p2'")
+                .row(3L, "p3")
+                .row(4L, "p4")
+                .row(5L, "p5")
+                .build();
+
+        assertOperatorEquals(createFactory(bridge, true), createDriverContext(), probePages, expected);
+    }
+
+    @Test
+    public void testWaitForBuild()
+    {
+        MergeJoinBridge bridge = new MergeJoinBridge(Long.MAX_VALUE);
+        List<Page> buildPages = buildPages();
+        Operator operator = createFactory(bridge, false).createOperator(createDriverContext());
+
+        operator.addInput(probePages().get(0));
+        assertNull(operator.getOutput());
+        assertFalse(operator.isBlocked().isDone());
+
+        // the group of key 2 continues in the second build page
+        bridge.addPage(buildPages.get(0));
+        assertTrue(operator.isBlocked().isDone());
+        Page output = operator.getOutput();
+        assertEquals(output.getPositionCount(), 1);
+        assertFalse(operator.isBlocked().isDone());
+
+        bridge.addPage(buildPages.get(1));
+        bridge.noMorePages();
+        assertTrue(operator.isBlocked().isDone());
+        output = operator.getOutput();
+        assertEquals(output.getPositionCount(), 4);
+
+        operator.finish();
+        assertTrue(operator.isFinished());
+        operator.close();
+    }
+
+    @Test
+    public void testProbeFinishedFirst()
+    {
+        MergeJoinBridge bridge = new MergeJoinBridge(1);
+        List<Page> buildPages = buildPages();
+
+        bridge.addPage(buildPages.get(0));
+        assertFalse(bridge.whenNotFull().isDone());
+
+        // remaining build pages are discarded once the probe finished
+        bridge.probeFinished();
+        assertTrue(bridge.whenNotFull().isDone());
+        bridge.addPage(buildPages.get(1));
+        assertEquals(bridge.getBufferedBytes(), 0);
+    }
+
+    @Test
+    public void testBufferedBuildPagesAccounted()
+    {
+        MergeJoinBridge bridge = new MergeJoinBridge(Long.MAX_VALUE);
+        List<Page> buildPages = buildPages();
+        Operator operator = createFactory(bridge, false).createOperator(createDriverContext());
+
+        bridge.addPage(buildPages.get(0));
+        bridge.addPage(buildPages.get(1));
+        assertEquals(
+                operator.getOperatorContext().getOperatorMemoryContext().getUserMemory(),
+                buildPages.get(0).getRetainedSizeInBytes() + buildPages.get(1).getRetainedSizeInBytes());
+
+        // the memory of the buffered pages is released when the operator is closed
+        operator.close();
+        assertEquals(operator.getOperatorContext().getOperatorMemoryContext().getUserMemory(), 0);
+    }
+
+    private static List<Page> buildPages()
+    {
+        return rowPagesBuilder(BIGINT, VARCHAR)
+                .row(1L, "a")
+                .row(2L, "b")
+                .row(2L, "c")
+                .pageBreak()
+                .row(2L, "d")
+                .row(4L, "e")
+                .row(null, "f")
+                .build();
+    }
+
+    private static List<Page> probePages()
+    {
+        return rowPagesBuilder(BIGINT, VARCHAR)
+                .row(null, "p0")
+                .row(1L, "p1")
+                .row(2L, "p2")
+                .row(3L, "p3")
+                .row(4L, "p4")
+                .row(5L, "p5")
+                .build();
+    }
+
+    private static MergeJoinBridge createBridge(List<Page> buildPages)
+    {
+        MergeJoinBridge bridge = new MergeJoinBridge(Long.MAX_VALUE);
+        buildPages.forEach(bridge::addPage);
+        bridge.noMorePages();
+        return bridge;
+    }
+
+    private static MergeJoinOperatorFactory createFactory(MergeJoinBridge bridge, boolean outer)
+    {
+        return new MergeJoinOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                bridge,
+                ImmutableList.of(BIGINT, VARCHAR),
+                ImmutableList.of(BIGINT, VARCHAR),
+                ImmutableList.of(0),
+                ImmutableList.of(0),
+                ImmutableList.of(0, 1),
+                ImmutableList.of(1),
+                outer,
+                BLOCK_TYPE_OPERATORS);
+    }
+
+    private DriverContext createDriverContext()
+    {
+        return createTaskContext(executor, scheduledExecutor, TEST_SESSION)
+                .addPipelineContext(0, true, true, false)
+                .addDriverContext();
+    }
+}
@@ -86,6 +86,29 @@ public class TestOperationTimer
                 .isLessThanOrEqualTo(overallTiming.getTiming().getCpuNanos());
     }
 
+    @Test
+    public void testOperationAllocation()
+    {
+        OperationTiming timing = new OperationTiming();
+        OperationTiming overallTiming = new OperationTiming();
+        OperationTimer timer = new OperationTimer(true, true, true);
+        doSomething();
+        timer.recordOperationComplete(timing);
+        timer.end(overallTiming);
+        assertThat(timing.getAllocationBytes()).isGreaterThanOrEqualTo(10_000);
+        assertThat(overallTiming.getAllocationBytes()).isGreaterThanOrEqualTo(timing.getAllocationBytes());
+
+        // allocations are not tracked unless enabled
+        OperationTiming untrackedTiming = new OperationTiming();
+        OperationTiming untrackedOverallTiming = new OperationTiming();
+        OperationTimer untrackedTimer = new OperationTimer(true, true);
+        doSomething();
+        untrackedTimer.recordOperationComplete(untrackedTiming);
+        untrackedTimer.end(untrackedOverallTiming);
+        assertEquals(untrackedTiming.getAllocationBytes(), 0);
+        assertEquals(untrackedOverallTiming.getAllocationBytes(), 0);
+    }
+
     @Test
     public void testOperationAfterEndAreNotAllowed()
     {
@@ -68,6 +68,8 @@ public class TestOperatorStats
             new Duration(17, NANOSECONDS),
             new Duration(18, NANOSECONDS),
 
+            DataSize.ofBytes(27),
+
             DataSize.ofBytes(19),
             DataSize.ofBytes(20),
             DataSize.ofBytes(21),
@@ -115,6 +117,8 @@ public class TestOperatorStats
             new Duration(17, NANOSECONDS),
             new Duration(18, NANOSECONDS),
 
+            DataSize.ofBytes(27),
+
             DataSize.ofBytes(19),
             DataSize.ofBytes(20),
             DataSize.ofBytes(21),
@@ -172,6 +176,8 @@ public class TestOperatorStats
         assertEquals(actual.getFinishWall(), new Duration(17, NANOSECONDS));
         assertEquals(actual.getFinishCpu(), new Duration(18, NANOSECONDS));
 
+        assertEquals(actual.getAllocatedDataSize(), DataSize.ofBytes(27));
+
         assertEquals(actual.getUserMemoryReservation(), DataSize.ofBytes(19));
         assertEquals(actual.getRevocableMemoryReservation(), DataSize.ofBytes(20));
         assertEquals(actual.getSystemMemoryReservation(), DataSize.ofBytes(21));
@@ -221,6 +227,7 @@ public class TestOperatorStats
         assertEquals(actual.getFinishCalls(), 3 * 16);
         assertEquals(actual.getFinishWall(), new Duration(3 * 17, NANOSECONDS));
         assertEquals(actual.getFinishCpu(), new Duration(3 * 18, NANOSECONDS));
+        assertEquals(actual.getAllocatedDataSize(), DataSize.ofBytes(3 * 27));
         assertEquals(actual.getUserMemoryReservation(), DataSize.ofBytes(3 * 19));
         assertEquals(actual.getRevocableMemoryReservation(), DataSize.ofBytes(3 * 20));
         assertEquals(actual.getSystemMemoryReservation(), DataSize.ofBytes(3 * 21));
@@ -269,6 +276,7 @@ public class TestOperatorStats
         assertEquals(actual.getFinishCalls(), 3 * 16);
         assertEquals(actual.getFinishWall(), new Duration(3 * 17, NANOSECONDS));
         assertEquals(actual.getFinishCpu(), new Duration(3 * 18, NANOSECONDS));
+        assertEquals(actual.getAllocatedDataSize(), DataSize.ofBytes(3 * 27));
         assertEquals(actual.getUserMemoryReservation(), DataSize.ofBytes(3 * 19));
         assertEquals(actual.getRevocableMemoryReservation(), DataSize.ofBytes(3 * 20));
         assertEquals(actual.getSystemMemoryReservation(), DataSize.ofBytes(3 * 21));
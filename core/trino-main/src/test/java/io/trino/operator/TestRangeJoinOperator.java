@@ -0,0 +1,194 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.operator.RangeIndexBuilderOperator.RangeIndexBuilderOperatorFactory;
+import io.trino.operator.RangeJoinOperator.RangeJoinOperatorFactory;
+import io.trino.spi.Page;
+import io.trino.sql.gen.JoinFilterFunctionCompiler.JoinFilterFunctionFactory;
+import io.trino.sql.planner.plan.JoinNode;
+import io.trino.sql.planner.plan.PlanNodeId;
+import io.trino.testing.MaterializedResult;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.trino.RowPagesBuilder.rowPagesBuilder;
+import static io.trino.SessionTestUtils.TEST_SESSION;
+import static io.trino.operator.OperatorAssertion.assertOperatorEqualsIgnoreOrder;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.sql.planner.plan.JoinNode.Type.INNER;
+import static io.trino.sql.planner.plan.JoinNode.Type.LEFT;
+import static io.trino.testing.MaterializedResult.resultBuilder;
+import static io.trino.testing.TestingTaskContext.createTaskContext;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+
+@Test(singleThreaded = true)
+public class TestRangeJoinOperator
+{
+    // build.start <= probe.ts AND probe.ts <= build.end
+    private static final InternalJoinFilterFunction RANGE_FILTER = (buildPosition, buildPage, probePosition, probePage) ->
+            !buildPage.getBlock(0).isNull(buildPosition) &&
+                    !buildPage.getBlock(1).isNull(buildPosition) &&
+                    !probePage.getBlock(0).isNull(probePosition) &&
+                    BIGINT.getLong(buildPage.getBlock(0), buildPosition) <= BIGINT.getLong(probePage.getBlock(0), probePosition) &&
+                    BIGINT.getLong(probePage.getBlock(0), probePosition) <= BIGINT.getLong(buildPage.getBlock(1), buildPosition);
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+
+    @BeforeClass
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed(getClass().getSimpleName() + "-%s"));
+        scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed(getClass().getSimpleName() + "-scheduledExecutor-%s"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testInnerJoin()
+    {
+        MaterializedResult expected = resultBuilder(TEST_SESSION, BIGINT, VARCHAR, VARCHAR)
+                .row(2L, "p2", "a")
+                .row(2L, "p2", "b")
+                .row(5L, "p3", "c")
+                .row(11L, "p4", "c")
+                .row(11L, "p4", "d")
+                .row(30L, "p5", "c")
+                .build();
+
+        assertRangeJoin(INNER, RANGE_FILTER, expected);
+    }
+
+    @Test
+    public void testLeftJoin()
+    {
+        MaterializedResult expected = resultBuilder(TEST_SESSION, BIGINT, VARCHAR, VARCHAR)
+                .row(null, "p0", null)
+                .row(0L, "p1", null)
+                .row(2L, "p2", "a")
+                .row(2L, "p2", "b")
+                .row(5L, "p3", "c")
+                .row(11L, "p4", "c")
+                .row(11L, "p4", "d")
+                .row(30L, "p5", "c")
+                .row(200L, "p6", null)
+                .build();
+
+        assertRangeJoin(LEFT, RANGE_FILTER, expected);
+    }
+
+    @Test
+    public void testFilterOutsideOfRange()
+    {
+        // the widest range is rejected by the rest of the join filter
+        InternalJoinFilterFunction filter = (buildPosition, buildPage, probePosition, probePage) ->
+                RANGE_FILTER.filter(buildPosition, buildPage, probePosition, probePage) &&
+                        !VARCHAR.getSlice(buildPage.getBlock(2), buildPosition).toStringUtf8().equals("c");
+
+        MaterializedResult expected = resultBuilder(TEST_SESSION, BIGINT, VARCHAR, VARCHAR)
+                .row(null, "p0", null)
+                .row(0L, "p1", null)
+                .row(2L, "p2", "a")
+                .row(2L, "p2", "b")
+                .row(5L, "p3", null)
+                .row(11L, "p4", "d")
+                .row(30L, "p5", null)
+                .row(200L, "p6", null)
+                .build();
+
+        assertRangeJoin(LEFT, filter, expected);
+    }
+
+    private void assertRangeJoin(JoinNode.Type joinType, InternalJoinFilterFunction filterFunction, MaterializedResult expected)
+    {
+        JoinFilterFunctionFactory filterFunctionFactory = (session, addresses, pages) -> new StandardJoinFilterFunction(filterFunction, addresses, pages);
+        RangeIndexBuilderOperatorFactory buildFactory = new RangeIndexBuilderOperatorFactory(
+                0,
+                new PlanNodeId("build"),
+                ImmutableList.of(BIGINT, BIGINT, VARCHAR),
+                ImmutableList.of(2),
+                0,
+                1,
+                filterFunctionFactory,
+                10,
+                new PagesIndex.TestingFactory(false));
+
+        Operator buildOperator = buildFactory.createOperator(createDriverContext());
+        for (Page page : buildPages()) {
+            buildOperator.addInput(page);
+        }
+        buildOperator.finish();
+
+        RangeJoinOperatorFactory joinFactory = new RangeJoinOperatorFactory(
+                1,
+                new PlanNodeId("join"),
+                joinType,
+                ImmutableList.of(BIGINT, VARCHAR),
+                ImmutableList.of(0, 1),
+                0,
+                buildFactory.getPagesRangeIndexFactory());
+
+        assertOperatorEqualsIgnoreOrder(joinFactory, createDriverContext(), probePages(), expected);
+    }
+
+    private static List<Page> buildPages()
+    {
+        return rowPagesBuilder(BIGINT, BIGINT, VARCHAR)
+                .row(10L, 12L, "d")
+                .row(1L, 3L, "a")
+                .row(null, 5L, "f")
+                .pageBreak()
+                .row(20L, 25L, "e")
+                .row(4L, 100L, "c")
+                .row(2L, 2L, "b")
+                .row(6L, null, "g")
+                .build();
+    }
+
+    private static List<Page> probePages()
+    {
+        return rowPagesBuilder(BIGINT, VARCHAR)
+                .row(null, "p0")
+                .row(0L, "p1")
+                .row(2L, "p2")
+                .pageBreak()
+                .row(5L, "p3")
+                .row(11L, "p4")
+                .row(30L, "p5")
+                .row(200L, "p6")
+                .build();
+    }
+
+    private DriverContext createDriverContext()
+    {
+        return createTaskContext(executor, scheduledExecutor, TEST_SESSION)
+                .addPipelineContext(0, true, true, false)
+                .addDriverContext();
+    }
+}
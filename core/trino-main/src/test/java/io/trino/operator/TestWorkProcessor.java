@@ -25,7 +25,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.trino.operator.WorkProcessor.ProcessState.Type.BLOCKED;
 import static io.trino.operator.WorkProcessor.ProcessState.Type.FINISHED;
 import static io.trino.operator.WorkProcessor.ProcessState.Type.RESULT;
@@ -193,6 +195,29 @@ public class TestWorkProcessor
         assertFinishes(mergedStream);
     }
 
+    @Test(timeOut = 10_000)
+    public void testMergeSortedManyStreams()
+    {
+        // streams of different lengths, with empty streams and values repeated within and across streams
+        List<List<Integer>> streams = IntStream.range(0, 9)
+                .mapToObj(stream -> IntStream.range(0, 2 * stream)
+                        .mapToObj(position -> (position + stream) / 2)
+                        .collect(toImmutableList()))
+                .collect(toImmutableList());
+
+        WorkProcessor<Integer> mergedStream = WorkProcessorUtils.mergeSorted(
+                streams.stream()
+                        .map(WorkProcessor::fromIterable)
+                        .collect(toImmutableList()),
+                Comparator.comparingInt(firstInteger -> firstInteger));
+
+        List<Integer> expected = streams.stream()
+                .flatMap(List::stream)
+                .sorted()
+                .collect(toImmutableList());
+        assertEquals(ImmutableList.copyOf(mergedStream.iterator()), expected);
+    }
+
     @Test(timeOut = 10_000)
     public void testYield()
     {
@@ -0,0 +1,188 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.testing.TestingTicker;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.connector.ConnectorSession;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.SessionTestUtils.TEST_SESSION;
+import static io.trino.block.BlockAssertions.createLongSequenceBlock;
+import static io.trino.operator.project.AdaptiveConjunctionPageFilter.REORDER_INTERVAL;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.testng.Assert.assertEquals;
+
+public class TestAdaptiveConjunctionPageFilter
+{
+    private static final ConnectorSession SESSION = TEST_SESSION.toConnectorSession();
+
+    private final TestingTicker ticker = new TestingTicker();
+
+    @Test
+    public void testFilter()
+    {
+        TestingFilter even = new TestingFilter(2, value -> value % 2 == 0, 1);
+        TestingFilter small = new TestingFilter(0, value -> value < 10, 1);
+        AdaptiveConjunctionPageFilter filter = new AdaptiveConjunctionPageFilter(ImmutableList.of(even, small), ticker);
+
+        assertEquals(filter.getInputChannels().getInputChannels(), ImmutableList.of(0, 2));
+        Page page = new Page(createLongSequenceBlock(0, 20), createLongSequenceBlock(0, 20));
+        assertEquals(toList(filter.filter(SESSION, page)), ImmutableList.of(0, 2, 4, 6, 8));
+        // the second conjunct is only evaluated on the positions selected by the first one
+        assertEquals(small.getEvaluatedPositions(), 10);
+    }
+
+    @Test
+    public void testNarrowPositions()
+    {
+        TestingFilter even = new TestingFilter(0, value -> value % 2 == 0, 1);
+        TestingFilter multipleOfThree = new TestingFilter(1, value -> value % 3 == 0, 1);
+        TestingFilter large = new TestingFilter(2, value -> value > 20, 1);
+        AdaptiveConjunctionPageFilter filter = new AdaptiveConjunctionPageFilter(ImmutableList.of(even, multipleOfThree, large), ticker);
+
+        Page page = new Page(createLongSequenceBlock(0, 40), createLongSequenceBlock(0, 40), createLongSequenceBlock(0, 40));
+        assertEquals(toList(filter.filter(SESSION, page)), ImmutableList.of(24, 30, 36));
+        assertEquals(multipleOfThree.getEvaluatedPositions(), 20);
+        assertEquals(large.getEvaluatedPositions(), 7);
+    }
+
+    @Test
+    public void testReorder()
+    {
+        TestingFilter expensive = new TestingFilter(0, value -> value % 2 == 0, 100);
+        TestingFilter selective = new TestingFilter(1, value -> value < 10, 1);
+        AdaptiveConjunctionPageFilter filter = new AdaptiveConjunctionPageFilter(ImmutableList.of(expensive, selective), ticker);
+        Page page = new Page(createLongSequenceBlock(0, 100), createLongSequenceBlock(0, 100));
+
+        for (int i = 0; i < REORDER_INTERVAL; i++) {
+            assertEquals(toList(filter.filter(SESSION, page)), ImmutableList.of(0, 2, 4, 6, 8));
+        }
+        assertEquals(filter.getConjunctsInEvaluationOrder(), ImmutableList.of(selective, expensive));
+
+        int evaluatedPositions = expensive.getEvaluatedPositions();
+        assertEquals(toList(filter.filter(SESSION, page)), ImmutableList.of(0, 2, 4, 6, 8));
+        assertEquals(expensive.getEvaluatedPositions() - evaluatedPositions, 10);
+    }
+
+    @Test
+    public void testFallbackToOriginalOrderOnFailure()
+    {
+        // the second conjunct fails for the positions discarded by the first one
+        TestingFilter guard = new TestingFilter(0, value -> value >= 10, 100);
+        TestingFilter failing = new TestingFilter(0, value -> {
+            if (value < 10) {
+                throw new ArithmeticException("Division by zero");
+            }
+            return value < 15;
+        }, 1);
+        AdaptiveConjunctionPageFilter filter = new AdaptiveConjunctionPageFilter(ImmutableList.of(guard, failing), ticker);
+
+        // the page selected by the guard ranks the failing conjunct first
+        Page page = new Page(createLongSequenceBlock(0, 100));
+        for (int i = 0; i < REORDER_INTERVAL; i++) {
+            assertEquals(toList(filter.filter(SESSION, page)), ImmutableList.of(10, 11, 12, 13, 14));
+        }
+        assertEquals(filter.getConjunctsInEvaluationOrder(), ImmutableList.of(failing, guard));
+
+        assertEquals(toList(filter.filter(SESSION, page)), ImmutableList.of(10, 11, 12, 13, 14));
+        assertEquals(filter.getConjunctsInEvaluationOrder(), ImmutableList.of(guard, failing));
+
+        // the original order is kept
+        for (int i = 0; i < REORDER_INTERVAL; i++) {
+            filter.filter(SESSION, page);
+        }
+        assertEquals(filter.getConjunctsInEvaluationOrder(), ImmutableList.of(guard, failing));
+    }
+
+    @Test
+    public void testFailureInOriginalOrder()
+    {
+        TestingFilter failing = new TestingFilter(0, value -> {
+            throw new ArithmeticException("Division by zero");
+        }, 1);
+        AdaptiveConjunctionPageFilter filter = new AdaptiveConjunctionPageFilter(ImmutableList.of(failing, new TestingFilter(0, value -> true, 1)), ticker);
+        assertThatThrownBy(() -> filter.filter(SESSION, new Page(createLongSequenceBlock(0, 10))))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    private static List<Integer> toList(SelectedPositions selectedPositions)
+    {
+        if (selectedPositions.isList()) {
+            return IntStream.range(selectedPositions.getOffset(), selectedPositions.getOffset() + selectedPositions.size())
+                    .map(index -> selectedPositions.getPositions()[index])
+                    .boxed()
+                    .collect(toImmutableList());
+        }
+        return IntStream.range(selectedPositions.getOffset(), selectedPositions.getOffset() + selectedPositions.size())
+                .boxed()
+                .collect(toImmutableList());
+    }
+
+    private class TestingFilter
+            implements PageFilter
+    {
+        private final InputChannels inputChannels;
+        private final LongPredicate predicate;
+        private final long nanosPerPosition;
+
+        private int evaluatedPositions;
+
+        public TestingFilter(int channel, LongPredicate predicate, long nanosPerPosition)
+        {
+            this.inputChannels = new InputChannels(channel);
+            this.predicate = predicate;
+            this.nanosPerPosition = nanosPerPosition;
+        }
+
+        public int getEvaluatedPositions()
+        {
+            return evaluatedPositions;
+        }
+
+        @Override
+        public boolean isDeterministic()
+        {
+            return true;
+        }
+
+        @Override
+        public InputChannels getInputChannels()
+        {
+            return inputChannels;
+        }
+
+        @Override
+        public SelectedPositions filter(ConnectorSession session, Page page)
+        {
+            Block block = page.getBlock(0);
+            boolean[] selected = new boolean[page.getPositionCount()];
+            for (int position = 0; position < selected.length; position++) {
+                selected[position] = predicate.test(BIGINT.getLong(block, position));
+            }
+            evaluatedPositions += page.getPositionCount();
+            ticker.increment(nanosPerPosition * page.getPositionCount(), NANOSECONDS);
+            return PageFilter.positionsArrayToSelectedPositions(selected, selected.length);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.metadata.Metadata;
+import io.trino.operator.DriverYieldSignal;
+import io.trino.operator.Work;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.function.OperatorType;
+import io.trino.sql.relational.RowExpression;
+import io.trino.sql.tree.QualifiedName;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static io.trino.block.BlockAssertions.assertBlockEquals;
+import static io.trino.block.BlockAssertions.createDoublesBlock;
+import static io.trino.block.BlockAssertions.createLongSequenceBlock;
+import static io.trino.block.BlockAssertions.createLongsBlock;
+import static io.trino.metadata.MetadataManager.createTestMetadataManager;
+import static io.trino.spi.StandardErrorCode.NUMERIC_VALUE_OUT_OF_RANGE;
+import static io.trino.spi.function.OperatorType.ADD;
+import static io.trino.spi.function.OperatorType.DIVIDE;
+import static io.trino.spi.function.OperatorType.MULTIPLY;
+import static io.trino.spi.function.OperatorType.NEGATION;
+import static io.trino.spi.function.OperatorType.SUBTRACT;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.trino.sql.relational.Expressions.call;
+import static io.trino.sql.relational.Expressions.constant;
+import static io.trino.sql.relational.Expressions.field;
+import static io.trino.testing.TestingConnectorSession.SESSION;
+import static io.trino.testing.assertions.TrinoExceptionAssert.assertTrinoExceptionThrownBy;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestArithmeticPageProjection
+{
+    private static final Metadata METADATA = createTestMetadataManager();
+
+    @Test
+    public void testBigint()
+    {
+        // (#0 + #1) * 2 - #0
+        RowExpression expression = binary(
+                SUBTRACT,
+                binary(MULTIPLY, binary(ADD, field(0, BIGINT), field(1, BIGINT)), constant(2L, BIGINT)),
+                field(0, BIGINT));
+        Page page = new Page(
+                createLongsBlock(1L, null, 3L, 4L),
+                createLongsBlock(10L, 20L, null, Long.MIN_VALUE / 2));
+
+        assertBlockEquals(BIGINT, project(expression, page, SelectedPositions.positionsRange(0, 4)), createLongsBlock(21L, null, null, Long.MIN_VALUE + 4));
+        assertBlockEquals(BIGINT, project(expression, page, SelectedPositions.positionsList(new int[] {3, 0, 1}, 1, 2)), createLongsBlock(21L, null));
+    }
+
+    @Test
+    public void testBigintOverflow()
+    {
+        Page page = new Page(createLongsBlock(1L, Long.MIN_VALUE), createLongsBlock(Long.MAX_VALUE, 2L));
+
+        assertTrinoExceptionThrownBy(() -> project(binary(ADD, field(0, BIGINT), field(1, BIGINT)), page, SelectedPositions.positionsRange(0, 2)))
+                .hasErrorCode(NUMERIC_VALUE_OUT_OF_RANGE)
+                .hasMessage("bigint addition overflow: 1 + 9223372036854775807");
+        assertTrinoExceptionThrownBy(() -> project(binary(MULTIPLY, field(0, BIGINT), field(1, BIGINT)), page, SelectedPositions.positionsRange(1, 1)))
+                .hasErrorCode(NUMERIC_VALUE_OUT_OF_RANGE)
+                .hasMessage("bigint multiplication overflow: -9223372036854775808 * 2");
+        assertTrinoExceptionThrownBy(() -> project(negation(binary(ADD, field(0, BIGINT), constant(0L, BIGINT))), page, SelectedPositions.positionsRange(0, 2)))
+                .hasErrorCode(NUMERIC_VALUE_OUT_OF_RANGE)
+                .hasMessage("bigint negation overflow: -9223372036854775808");
+
+        // positions that are not selected are not evaluated
+        project(binary(ADD, field(0, BIGINT), field(1, BIGINT)), page, SelectedPositions.positionsRange(1, 1));
+    }
+
+    @Test
+    public void testNullsDoNotOverflow()
+    {
+        Page page = new Page(createLongsBlock(null, 1L), createLongsBlock(Long.MIN_VALUE, 2L));
+        assertBlockEquals(
+                BIGINT,
+                project(binary(SUBTRACT, field(0, BIGINT), field(1, BIGINT)), page, SelectedPositions.positionsRange(0, 2)),
+                createLongsBlock(null, -1L));
+    }
+
+    @Test
+    public void testDouble()
+    {
+        RowExpression expression = binary(
+                MULTIPLY,
+                field(0, DOUBLE),
+                binary(SUBTRACT, constant(1.0, DOUBLE), binary(DIVIDE, field(1, DOUBLE), constant(4.0, DOUBLE))));
+        Page page = new Page(
+                createDoublesBlock(100.0, null, 3.0),
+                createDoublesBlock(2.0, 1.0, 0.0));
+
+        assertBlockEquals(DOUBLE, project(expression, page, SelectedPositions.positionsRange(0, 3)), createDoublesBlock(50.0, null, 3.0));
+        assertBlockEquals(DOUBLE, project(negation(expression), page, SelectedPositions.positionsRange(0, 1)), createDoublesBlock(-50.0));
+    }
+
+    @Test
+    public void testReuseAcrossPages()
+    {
+        // #0 * 2 + #1
+        RowExpression expression = binary(ADD, binary(MULTIPLY, field(0, BIGINT), constant(2L, BIGINT)), field(1, BIGINT));
+        PageProjection projection = ArithmeticPageProjection.tryCreate(expression, new InputChannels(0, 1)).orElseThrow().get();
+
+        // more positions than are evaluated at once, with nulls only on the first page
+        int positions = 2500;
+        List<Long> withNulls = new ArrayList<>();
+        List<Long> expectedWithNulls = new ArrayList<>();
+        List<Long> expected = new ArrayList<>();
+        for (long value = 0; value < positions; value++) {
+            withNulls.add(value % 7 == 0 ? null : value);
+            expectedWithNulls.add(value % 7 == 0 ? null : value * 3);
+            expected.add(value * 3);
+        }
+        Page firstPage = new Page(createLongsBlock(withNulls), createLongSequenceBlock(0, positions));
+        Page secondPage = new Page(createLongSequenceBlock(0, positions), createLongSequenceBlock(0, positions));
+
+        Block first = project(projection, new DriverYieldSignal(), firstPage, SelectedPositions.positionsRange(0, positions));
+        Block second = project(projection, new DriverYieldSignal(), secondPage, SelectedPositions.positionsRange(0, positions));
+
+        // the results do not share the buffers of the projection
+        assertBlockEquals(BIGINT, first, createLongsBlock(expectedWithNulls));
+        assertBlockEquals(BIGINT, second, createLongsBlock(expected));
+    }
+
+    @Test
+    public void testYield()
+    {
+        PageProjection projection = ArithmeticPageProjection.tryCreate(binary(ADD, field(0, BIGINT), field(1, BIGINT)), new InputChannels(0, 1)).orElseThrow().get();
+        int positions = 2500;
+        Page page = new Page(createLongSequenceBlock(0, positions), createLongSequenceBlock(0, positions));
+
+        DriverYieldSignal yieldSignal = new DriverYieldSignal();
+        Work<Block> work = projection.project(SESSION, yieldSignal, page, SelectedPositions.positionsRange(0, positions));
+        yieldSignal.forceYieldForTesting();
+        // a chunk of positions is evaluated before yielding
+        assertFalse(work.process());
+        assertFalse(work.process());
+        yieldSignal.resetYieldForTesting();
+        assertTrue(work.process());
+
+        Block result = work.getResult();
+        assertEquals(result.getPositionCount(), positions);
+        for (int position = 0; position < positions; position++) {
+            assertEquals(BIGINT.getLong(result, position), 2L * position);
+        }
+    }
+
+    @Test
+    public void testUnsupported()
+    {
+        // bigint division is left to the generated projection
+        assertUnsupported(binary(DIVIDE, field(0, BIGINT), constant(2L, BIGINT)));
+        assertUnsupported(call(
+                METADATA.resolveFunction(QualifiedName.of("abs"), fromTypes(BIGINT)),
+                field(0, BIGINT)));
+        assertUnsupported(binary(
+                ADD,
+                field(0, BIGINT),
+                call(METADATA.resolveFunction(QualifiedName.of("abs"), fromTypes(BIGINT)), field(1, BIGINT))));
+        assertUnsupported(field(0, BIGINT));
+    }
+
+    private static Block project(RowExpression expression, Page page, SelectedPositions selectedPositions)
+    {
+        Optional<Supplier<PageProjection>> projection = ArithmeticPageProjection.tryCreate(expression, new InputChannels(0, 1));
+        assertTrue(projection.isPresent(), "projection is not supported: " + expression);
+        return project(projection.get().get(), new DriverYieldSignal(), page, selectedPositions);
+    }
+
+    private static Block project(PageProjection projection, DriverYieldSignal yieldSignal, Page page, SelectedPositions selectedPositions)
+    {
+        Work<Block> work = projection.project(SESSION, yieldSignal, page, selectedPositions);
+        assertTrue(work.process());
+        return work.getResult();
+    }
+
+    private static void assertUnsupported(RowExpression expression)
+    {
+        assertFalse(ArithmeticPageProjection.tryCreate(expression, new InputChannels(0, 1)).isPresent());
+    }
+
+    private static RowExpression binary(OperatorType operator, RowExpression left, RowExpression right)
+    {
+        return call(METADATA.resolveOperator(operator, ImmutableList.of(left.getType(), right.getType())), left, right);
+    }
+
+    private static RowExpression negation(RowExpression value)
+    {
+        return call(METADATA.resolveOperator(NEGATION, ImmutableList.of(value.getType())), value);
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.metadata.Metadata;
+import io.trino.spi.Page;
+import io.trino.spi.block.DictionaryBlock;
+import io.trino.spi.function.OperatorType;
+import io.trino.spi.type.Type;
+import io.trino.sql.relational.RowExpression;
+import io.trino.sql.relational.SpecialForm;
+import io.trino.sql.tree.QualifiedName;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.SessionTestUtils.TEST_SESSION;
+import static io.trino.block.BlockAssertions.createIntsBlock;
+import static io.trino.block.BlockAssertions.createLongsBlock;
+import static io.trino.metadata.MetadataManager.createTestMetadataManager;
+import static io.trino.spi.function.OperatorType.EQUAL;
+import static io.trino.spi.function.OperatorType.LESS_THAN;
+import static io.trino.spi.function.OperatorType.LESS_THAN_OR_EQUAL;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.BooleanType.BOOLEAN;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.trino.sql.relational.Expressions.call;
+import static io.trino.sql.relational.Expressions.constant;
+import static io.trino.sql.relational.Expressions.constantNull;
+import static io.trino.sql.relational.Expressions.field;
+import static io.trino.sql.relational.SpecialForm.Form.AND;
+import static io.trino.sql.relational.SpecialForm.Form.BETWEEN;
+import static io.trino.sql.relational.SpecialForm.Form.IN;
+import static io.trino.sql.relational.SpecialForm.Form.IS_NULL;
+import static io.trino.sql.relational.SpecialForm.Form.OR;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestLongColumnPageFilter
+{
+    private static final Metadata METADATA = createTestMetadataManager();
+
+    private final Page page = new Page(
+            createLongsBlock(5L, null, -3L, 10L, 7L, 0L, Long.MAX_VALUE, Long.MIN_VALUE),
+            createIntsBlock(1, 2, 3, 4, null, 6, 7, 8));
+
+    @Test
+    public void testComparison()
+    {
+        assertSelected(comparison(EQUAL, field(0, BIGINT), constant(7L, BIGINT)), 4);
+        assertSelected(not(comparison(EQUAL, field(0, BIGINT), constant(7L, BIGINT))), 0, 2, 3, 5, 6, 7);
+        assertSelected(comparison(LESS_THAN, field(0, BIGINT), constant(5L, BIGINT)), 2, 5, 7);
+        assertSelected(comparison(LESS_THAN_OR_EQUAL, field(0, BIGINT), constant(5L, BIGINT)), 0, 2, 5, 7);
+
+        // constant on the left side
+        assertSelected(comparison(LESS_THAN, constant(5L, BIGINT), field(0, BIGINT)), 3, 4, 6);
+        assertSelected(comparison(LESS_THAN_OR_EQUAL, constant(5L, BIGINT), field(0, BIGINT)), 0, 3, 4, 6);
+
+        assertSelected(comparison(LESS_THAN, field(1, INTEGER), constant(4L, INTEGER)), 0, 1, 2);
+    }
+
+    @Test
+    public void testBetween()
+    {
+        assertSelected(new SpecialForm(BETWEEN, BOOLEAN, field(0, BIGINT), constant(0L, BIGINT), constant(7L, BIGINT)), 0, 4, 5);
+        assertSelected(new SpecialForm(BETWEEN, BOOLEAN, field(0, BIGINT), constant(Long.MIN_VALUE, BIGINT), constant(Long.MAX_VALUE, BIGINT)), 0, 2, 3, 4, 5, 6, 7);
+    }
+
+    @Test
+    public void testIn()
+    {
+        RowExpression in = new SpecialForm(IN, BOOLEAN, field(0, BIGINT), constant(-3L, BIGINT), constant(10L, BIGINT), constant(11L, BIGINT));
+        assertSelected(in, 2, 3);
+        assertSelected(not(in), 0, 4, 5, 6, 7);
+    }
+
+    @Test
+    public void testIsNull()
+    {
+        RowExpression isNull = new SpecialForm(IS_NULL, BOOLEAN, field(1, INTEGER));
+        assertSelected(isNull, 4);
+        assertSelected(not(isNull), 0, 1, 2, 3, 5, 6, 7);
+    }
+
+    @Test
+    public void testConjunction()
+    {
+        assertSelected(
+                new SpecialForm(
+                        AND,
+                        BOOLEAN,
+                        new SpecialForm(
+                                AND,
+                                BOOLEAN,
+                                comparison(LESS_THAN_OR_EQUAL, constant(0L, BIGINT), field(0, BIGINT)),
+                                comparison(LESS_THAN, field(1, INTEGER), constant(7L, INTEGER))),
+                        not(comparison(EQUAL, field(0, BIGINT), constant(10L, BIGINT)))),
+                0, 5);
+    }
+
+    @Test
+    public void testDictionaryBlock()
+    {
+        Page dictionaryPage = new Page(new DictionaryBlock(createLongsBlock(1L, null, 3L), new int[] {2, 1, 0, 0, 2}));
+        SelectedPositions selectedPositions = create(comparison(LESS_THAN, constant(1L, BIGINT), field(0, BIGINT))).get()
+                .filter(TEST_SESSION.toConnectorSession(), dictionaryPage);
+        assertEquals(toList(selectedPositions), ImmutableList.of(0, 4));
+    }
+
+    @Test
+    public void testUnsupported()
+    {
+        assertUnsupported(new SpecialForm(
+                OR,
+                BOOLEAN,
+                comparison(EQUAL, field(0, BIGINT), constant(7L, BIGINT)),
+                comparison(EQUAL, field(0, BIGINT), constant(5L, BIGINT))));
+        assertUnsupported(comparison(EQUAL, field(0, BIGINT), constantNull(BIGINT)));
+        assertUnsupported(comparison(EQUAL, field(0, BIGINT), field(1, BIGINT)));
+        assertUnsupported(comparison(LESS_THAN, field(0, DOUBLE), constant(1.0, DOUBLE)));
+        assertUnsupported(new SpecialForm(
+                IN,
+                BOOLEAN,
+                ImmutableList.<RowExpression>builder()
+                        .add(field(0, BIGINT))
+                        .addAll(LongStream.range(0, 20)
+                                .mapToObj(value -> constant(value, BIGINT))
+                                .collect(toImmutableList()))
+                        .build()));
+        assertUnsupported(new SpecialForm(IS_NULL, BOOLEAN, field(0, DOUBLE)));
+    }
+
+    private void assertSelected(RowExpression filter, Integer... expectedPositions)
+    {
+        PageFilter pageFilter = create(filter).get();
+        // the filter reuses its buffers across pages
+        for (int i = 0; i < 2; i++) {
+            assertEquals(toList(pageFilter.filter(TEST_SESSION.toConnectorSession(), page)), ImmutableList.copyOf(expectedPositions));
+        }
+    }
+
+    private static void assertUnsupported(RowExpression filter)
+    {
+        assertFalse(LongColumnPageFilter.tryCreate(filter, new InputChannels(0, 1)).isPresent());
+    }
+
+    private static Supplier<PageFilter> create(RowExpression filter)
+    {
+        Optional<Supplier<PageFilter>> pageFilter = LongColumnPageFilter.tryCreate(filter, new InputChannels(0, 1));
+        assertTrue(pageFilter.isPresent(), "filter is not supported: " + filter);
+        return pageFilter.get();
+    }
+
+    private static RowExpression comparison(OperatorType operator, RowExpression left, RowExpression right)
+    {
+        List<Type> types = ImmutableList.of(left.getType(), right.getType());
+        return call(METADATA.resolveOperator(operator, types), left, right);
+    }
+
+    private static RowExpression not(RowExpression expression)
+    {
+        return call(METADATA.resolveFunction(QualifiedName.of("not"), fromTypes(BOOLEAN)), expression);
+    }
+
+    private static List<Integer> toList(SelectedPositions selectedPositions)
+    {
+        if (selectedPositions.isList()) {
+            return IntStream.range(selectedPositions.getOffset(), selectedPositions.getOffset() + selectedPositions.size())
+                    .map(index -> selectedPositions.getPositions()[index])
+                    .boxed()
+                    .collect(toImmutableList());
+        }
+        return IntStream.range(selectedPositions.getOffset(), selectedPositions.getOffset() + selectedPositions.size())
+                .boxed()
+                .collect(toImmutableList());
+    }
+}
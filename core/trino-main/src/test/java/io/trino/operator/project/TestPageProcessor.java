@@ -418,6 +418,49 @@ public class TestPageProcessor
         assertFalse(output.hasNext());
     }
 
+    @Test
+    public void testYieldCommonSubexpressions()
+    {
+        // the common subexpressions yield between each other, and their results are accounted while they are evaluated
+        int rows = 128;
+        int commonSubexpressions = 3;
+        DriverYieldSignal yieldSignal = new DriverYieldSignal();
+        PageProcessor pageProcessor = new PageProcessor(
+                Optional.empty(),
+                nCopies(commonSubexpressions, new YieldPageProjection(new InputPageProjection(0, VARCHAR))),
+                1,
+                ImmutableList.of(new InputPageProjection(1, VARCHAR), new InputPageProjection(3, VARCHAR)),
+                OptionalInt.of(MAX_BATCH_SIZE),
+                new ExpressionProfiler());
+
+        Slice[] slices = new Slice[rows];
+        Arrays.fill(slices, Slices.allocate(rows));
+        Page inputPage = new Page(createSlicesBlock(slices));
+
+        AggregatedMemoryContext memoryContext = newSimpleAggregatedMemoryContext();
+        Iterator<Optional<Page>> output = processAndAssertRetainedPageSize(pageProcessor, yieldSignal, memoryContext, inputPage);
+
+        for (int i = 0; i < commonSubexpressions - 1; i++) {
+            assertTrue(output.hasNext());
+            assertNull(output.next().orElse(null));
+            assertTrue(yieldSignal.isSet());
+            assertTrue(memoryContext.getBytes() > 0);
+            yieldSignal.reset();
+        }
+        // the projection of the page yields after the last common subexpression
+        assertTrue(output.hasNext());
+        assertNull(output.next().orElse(null));
+        yieldSignal.reset();
+
+        assertTrue(output.hasNext());
+        Page actualPage = output.next().orElse(null);
+        assertNotNull(actualPage);
+        Block expectedBlock = createSlicesBlock(slices);
+        assertPageEquals(ImmutableList.of(VARCHAR, VARCHAR), actualPage, new Page(expectedBlock, expectedBlock));
+        assertFalse(output.hasNext());
+        assertEquals(memoryContext.getBytes(), 0);
+    }
+
     @Test
     public void testExpressionProfiler()
     {
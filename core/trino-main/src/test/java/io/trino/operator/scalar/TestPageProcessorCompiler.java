@@ -40,8 +40,10 @@ import java.util.Optional;
 
 import static com.google.common.collect.Iterators.getOnlyElement;
 import static io.trino.block.BlockAssertions.createLongDictionaryBlock;
+import static io.trino.block.BlockAssertions.createLongSequenceBlock;
 import static io.trino.block.BlockAssertions.createRLEBlock;
 import static io.trino.block.BlockAssertions.createSlicesBlock;
+import static io.trino.block.BlockAssertions.createStringsBlock;
 import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.trino.metadata.MetadataManager.createTestMetadataManager;
 import static io.trino.operator.project.PageProcessor.MAX_BATCH_SIZE;
@@ -226,6 +228,34 @@ public class TestPageProcessorCompiler
         assertFalse(outputPage.getBlock(0) instanceof DictionaryBlock);
     }
 
+    @Test
+    public void testCommonSubexpressions()
+    {
+        CallExpression lengthVarchar = new CallExpression(
+                metadata.resolveFunction(QualifiedName.of("length"), fromTypes(VARCHAR)),
+                ImmutableList.of(field(0, VARCHAR)));
+        ResolvedFunction lessThan = metadata.resolveOperator(LESS_THAN, ImmutableList.of(BIGINT, BIGINT));
+        CallExpression filter = new CallExpression(lessThan, ImmutableList.of(lengthVarchar, constant(3L, BIGINT)));
+
+        PageProcessor processor = compiler.compilePageProcessor(Optional.of(filter), ImmutableList.of(lengthVarchar, field(1, BIGINT)), MAX_BATCH_SIZE, true).get();
+
+        Page page = new Page(createStringsBlock("a", "bbb", "cc", "dddd"), createLongSequenceBlock(0, 4));
+        Page outputPage = getOnlyElement(
+                processor.process(
+                        null,
+                        new DriverYieldSignal(),
+                        newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName()),
+                        page))
+                .orElseThrow(() -> new AssertionError("page is not present"));
+
+        assertEquals(outputPage.getChannelCount(), 2);
+        assertEquals(outputPage.getPositionCount(), 2);
+        assertEquals(BIGINT.getLong(outputPage.getBlock(0), 0), 1L);
+        assertEquals(BIGINT.getLong(outputPage.getBlock(0), 1), 2L);
+        assertEquals(BIGINT.getLong(outputPage.getBlock(1), 0), 0L);
+        assertEquals(BIGINT.getLong(outputPage.getBlock(1), 1), 2L);
+    }
+
     private static DictionaryBlock createDictionaryBlock(Slice[] expectedValues, int positionCount)
     {
         int dictionarySize = expectedValues.length;
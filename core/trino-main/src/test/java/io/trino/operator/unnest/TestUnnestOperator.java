@@ -105,6 +105,35 @@ public class TestUnnestOperator
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
     }
 
+    @Test
+    public void testUnnestSingleArray()
+    {
+        Type arrayType = new ArrayType(BIGINT);
+
+        List<Page> input = rowPagesBuilder(BIGINT, VARCHAR, arrayType)
+                .row(1L, "a", arrayBlockOf(BIGINT, 2, 3))
+                .row(2L, "b", arrayBlockOf(BIGINT))
+                .row(3L, "c", null)
+                .row(4L, "d", arrayBlockOf(BIGINT, 5, null))
+                .pageBreak()
+                .row(6L, "e", arrayBlockOf(BIGINT, 7, 8))
+                .build();
+
+        OperatorFactory operatorFactory = new UnnestOperator.UnnestOperatorFactory(
+                0, new PlanNodeId("test"), ImmutableList.of(0, 1), ImmutableList.of(BIGINT, VARCHAR), ImmutableList.of(2), ImmutableList.of(arrayType), false, false);
+
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT, VARCHAR, BIGINT)
+                .row(1L, "a", 2L)
+                .row(1L, "a", 3L)
+                .row(4L, "d", 5L)
+                .row(4L, "d", null)
+                .row(6L, "e", 7L)
+                .row(6L, "e", 8L)
+                .build();
+
+        assertOperatorEquals(operatorFactory, driverContext, input, expected);
+    }
+
     @Test
     public void testUnnestWithArray()
     {
@@ -19,6 +19,7 @@ import io.airlift.units.Duration;
 import io.trino.sql.analyzer.FeaturesConfig.DataIntegrityVerification;
 import io.trino.sql.analyzer.FeaturesConfig.JoinDistributionType;
 import io.trino.sql.analyzer.FeaturesConfig.JoinReorderingStrategy;
+import io.trino.sql.analyzer.FeaturesConfig.MemoryRevokingOrder;
 import org.testng.annotations.Test;
 
 import java.util.Map;
@@ -55,6 +56,7 @@ public class TestFeaturesConfig
                 .setSpatialJoinsEnabled(true)
                 .setJoinReorderingStrategy(JoinReorderingStrategy.AUTOMATIC)
                 .setMaxReorderedJoins(9)
+                .setMaxGreedyReorderedJoins(0)
                 .setRedistributeWrites(true)
                 .setUsePreferredWritePartitioning(false)
                 .setScaleWriters(false)
@@ -75,6 +77,7 @@ public class TestFeaturesConfig
                 .setSpillMaxUsedSpaceThreshold(0.9)
                 .setMemoryRevokingThreshold(0.9)
                 .setMemoryRevokingTarget(0.5)
+                .setMemoryRevokingOrder(MemoryRevokingOrder.TASK_CREATION_TIME)
                 .setOptimizeMixedDistinctAggregations(false)
                 .setUnwrapCasts(true)
                 .setIterativeOptimizerTimeout(new Duration(3, MINUTES))
@@ -88,11 +91,16 @@ public class TestFeaturesConfig
                 .setEnableIntermediateAggregations(false)
                 .setPushAggregationThroughOuterJoin(true)
                 .setPushPartialAggregationThoughJoin(false)
+                .setPushPartialAggregationThroughJoinMaxOutputRatio(0.5)
                 .setParseDecimalLiteralsAsDouble(false)
                 .setForceSingleNodeOutput(true)
                 .setPagesIndexEagerCompactionEnabled(false)
                 .setFilterAndProjectMinOutputPageSize(DataSize.of(500, KILOBYTE))
                 .setFilterAndProjectMinOutputPageRowCount(256)
+                .setFilterAndProjectEliminateCommonSubexpressions(true)
+                .setFilterAdaptiveConjunctOrdering(true)
+                .setFilterColumnarEvaluation(true)
+                .setProjectionColumnarEvaluation(true)
                 .setUseMarkDistinct(true)
                 .setPreferPartialAggregation(true)
                 .setOptimizeTopNRanking(true)
@@ -108,7 +116,9 @@ public class TestFeaturesConfig
                 .setRewriteFilteringSemiJoinToInnerJoin(true)
                 .setOptimizeDuplicateInsensitiveJoins(true)
                 .setUseLegacyWindowFilterPushdown(false)
-                .setPlanWithTableNodePartitioning(true));
+                .setPlanWithTableNodePartitioning(true)
+                .setMergeJoinEnabled(false)
+                .setRangeJoinEnabled(true));
     }
 
     @Test
@@ -134,6 +144,7 @@ public class TestFeaturesConfig
                 .put("spatial-joins-enabled", "false")
                 .put("optimizer.join-reordering-strategy", "NONE")
                 .put("optimizer.max-reordered-joins", "5")
+                .put("optimizer.max-greedy-reordered-joins", "30")
                 .put("redistribute-writes", "false")
                 .put("use-preferred-write-partitioning", "true")
                 .put("scale-writers", "true")
@@ -146,6 +157,7 @@ public class TestFeaturesConfig
                 .put("optimizer.dictionary-aggregation", "true")
                 .put("optimizer.push-aggregation-through-outer-join", "false")
                 .put("optimizer.push-partial-aggregation-through-join", "true")
+                .put("optimizer.push-partial-aggregation-through-join-max-output-ratio", "0.2")
                 .put("regex-library", "RE2J")
                 .put("re2j.dfa-states-limit", "42")
                 .put("re2j.dfa-retries", "42")
@@ -158,6 +170,7 @@ public class TestFeaturesConfig
                 .put("spiller-max-used-space-threshold", "0.8")
                 .put("memory-revoking-threshold", "0.2")
                 .put("memory-revoking-target", "0.8")
+                .put("memory-revoking-order", "QUERY_PRIORITY_AND_SIZE")
                 .put("exchange.compression-enabled", "true")
                 .put("exchange.data-integrity-verification", "RETRY")
                 .put("optimizer.enable-intermediate-aggregations", "true")
@@ -166,6 +179,10 @@ public class TestFeaturesConfig
                 .put("pages-index.eager-compaction-enabled", "true")
                 .put("filter-and-project-min-output-page-size", "1MB")
                 .put("filter-and-project-min-output-page-row-count", "2048")
+                .put("filter-and-project-eliminate-common-subexpressions", "false")
+                .put("filter-adaptive-conjunct-ordering", "false")
+                .put("filter-columnar-evaluation", "false")
+                .put("projection-columnar-evaluation", "false")
                 .put("optimizer.use-mark-distinct", "false")
                 .put("optimizer.prefer-partial-aggregation", "false")
                 .put("optimizer.optimize-top-n-ranking", "false")
@@ -182,6 +199,8 @@ public class TestFeaturesConfig
                 .put("optimizer.optimize-duplicate-insensitive-joins", "false")
                 .put("optimizer.use-legacy-window-filter-pushdown", "true")
                 .put("optimizer.plan-with-table-node-partitioning", "false")
+                .put("merge-join-enabled", "true")
+                .put("range-join-enabled", "false")
                 .build();
 
         FeaturesConfig expected = new FeaturesConfig()
@@ -203,6 +222,7 @@ public class TestFeaturesConfig
                 .setSpatialJoinsEnabled(false)
                 .setJoinReorderingStrategy(NONE)
                 .setMaxReorderedJoins(5)
+                .setMaxGreedyReorderedJoins(30)
                 .setRedistributeWrites(false)
                 .setUsePreferredWritePartitioning(true)
                 .setScaleWriters(true)
@@ -215,6 +235,7 @@ public class TestFeaturesConfig
                 .setDictionaryAggregation(true)
                 .setPushAggregationThroughOuterJoin(false)
                 .setPushPartialAggregationThoughJoin(true)
+                .setPushPartialAggregationThroughJoinMaxOutputRatio(0.2)
                 .setRegexLibrary(RE2J)
                 .setRe2JDfaStatesLimit(42)
                 .setRe2JDfaRetries(42)
@@ -227,6 +248,7 @@ public class TestFeaturesConfig
                 .setSpillMaxUsedSpaceThreshold(0.8)
                 .setMemoryRevokingThreshold(0.2)
                 .setMemoryRevokingTarget(0.8)
+                .setMemoryRevokingOrder(MemoryRevokingOrder.QUERY_PRIORITY_AND_SIZE)
                 .setExchangeCompressionEnabled(true)
                 .setExchangeDataIntegrityVerification(DataIntegrityVerification.RETRY)
                 .setEnableIntermediateAggregations(true)
@@ -235,6 +257,10 @@ public class TestFeaturesConfig
                 .setPagesIndexEagerCompactionEnabled(true)
                 .setFilterAndProjectMinOutputPageSize(DataSize.of(1, MEGABYTE))
                 .setFilterAndProjectMinOutputPageRowCount(2048)
+                .setFilterAndProjectEliminateCommonSubexpressions(false)
+                .setFilterAdaptiveConjunctOrdering(false)
+                .setFilterColumnarEvaluation(false)
+                .setProjectionColumnarEvaluation(false)
                 .setUseMarkDistinct(false)
                 .setPreferPartialAggregation(false)
                 .setOptimizeTopNRanking(false)
@@ -251,7 +277,9 @@ public class TestFeaturesConfig
                 .setRewriteFilteringSemiJoinToInnerJoin(false)
                 .setOptimizeDuplicateInsensitiveJoins(false)
                 .setUseLegacyWindowFilterPushdown(true)
-                .setPlanWithTableNodePartitioning(false);
+                .setPlanWithTableNodePartitioning(false)
+                .setMergeJoinEnabled(true)
+                .setRangeJoinEnabled(false);
         assertFullMapping(properties, expected);
     }
 }
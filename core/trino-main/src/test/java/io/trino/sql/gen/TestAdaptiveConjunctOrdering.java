@@ -0,0 +1,175 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.gen;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.metadata.Metadata;
+import io.trino.operator.DriverYieldSignal;
+import io.trino.operator.project.AdaptiveConjunctionPageFilter;
+import io.trino.operator.project.PageFilter;
+import io.trino.operator.project.PageProcessor;
+import io.trino.operator.project.SelectedPositions;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.DictionaryBlock;
+import io.trino.sql.relational.RowExpression;
+import io.trino.sql.relational.SpecialForm;
+import org.testng.annotations.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.block.BlockAssertions.createLongSequenceBlock;
+import static io.trino.block.BlockAssertions.createStringsBlock;
+import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.trino.metadata.MetadataManager.createTestMetadataManager;
+import static io.trino.spi.function.OperatorType.ADD;
+import static io.trino.spi.function.OperatorType.EQUAL;
+import static io.trino.spi.function.OperatorType.LESS_THAN;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.BooleanType.BOOLEAN;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.sql.relational.Expressions.call;
+import static io.trino.sql.relational.Expressions.constant;
+import static io.trino.sql.relational.Expressions.field;
+import static io.trino.sql.relational.SpecialForm.Form.AND;
+import static io.trino.testing.TestingConnectorSession.SESSION;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestAdaptiveConjunctOrdering
+{
+    private static final Metadata METADATA = createTestMetadataManager();
+    private static final int POSITIONS = 1000;
+
+    private final PageFunctionCompiler pageFunctionCompiler = new PageFunctionCompiler(METADATA, 0);
+    private final ExpressionCompiler expressionCompiler = new ExpressionCompiler(METADATA, pageFunctionCompiler);
+
+    @Test
+    public void testAdaptiveFilterMatchesFusedFilter()
+    {
+        // field0 = 'a' AND 500 < field1
+        RowExpression filter = new SpecialForm(
+                AND,
+                BOOLEAN,
+                call(METADATA.resolveOperator(EQUAL, ImmutableList.of(VARCHAR, VARCHAR)), field(0, VARCHAR), constant(utf8Slice("a"), VARCHAR)),
+                call(METADATA.resolveOperator(LESS_THAN, ImmutableList.of(BIGINT, BIGINT)), constant(500L, BIGINT), field(1, BIGINT)));
+
+        PageFilter adaptiveFilter = expressionCompiler.compileFilter(filter, Optional.empty(), true, true).get();
+        assertTrue(adaptiveFilter instanceof AdaptiveConjunctionPageFilter, adaptiveFilter.toString());
+        PageFilter fusedFilter = expressionCompiler.compileFilter(filter, Optional.empty(), false, true).get();
+        assertFalse(fusedFilter instanceof AdaptiveConjunctionPageFilter, fusedFilter.toString());
+
+        Page flatPage = new Page(createStringsBlock(values(POSITIONS)), createLongSequenceBlock(0, POSITIONS));
+        Page dictionaryPage = new Page(
+                new DictionaryBlock(createStringsBlock("a", "b", "c"), IntStream.range(0, POSITIONS).map(position -> position % 3).toArray()),
+                createLongSequenceBlock(0, POSITIONS));
+        // evaluate enough pages for the conjuncts to be reordered
+        for (int i = 0; i < 20; i++) {
+            for (Page page : ImmutableList.of(flatPage, dictionaryPage)) {
+                List<Integer> expected = toList(fusedFilter.filter(SESSION, page));
+                assertEquals(expected.size(), 167);
+                assertEquals(toList(adaptiveFilter.filter(SESSION, page)), expected);
+            }
+        }
+    }
+
+    @Test
+    public void testSingleColumnFilterNotSplit()
+    {
+        // 'a' < field0 AND field0 < 'c'
+        RowExpression filter = new SpecialForm(
+                AND,
+                BOOLEAN,
+                call(METADATA.resolveOperator(LESS_THAN, ImmutableList.of(VARCHAR, VARCHAR)), constant(utf8Slice("a"), VARCHAR), field(0, VARCHAR)),
+                call(METADATA.resolveOperator(LESS_THAN, ImmutableList.of(VARCHAR, VARCHAR)), field(0, VARCHAR), constant(utf8Slice("c"), VARCHAR)));
+
+        // the page processor evaluates the whole filter on the dictionary instead
+        PageFilter pageFilter = expressionCompiler.compileFilter(filter, Optional.empty(), true, true).get();
+        assertFalse(pageFilter instanceof AdaptiveConjunctionPageFilter, pageFilter.toString());
+        assertEquals(pageFilter.getInputChannels().size(), 1);
+    }
+
+    @Test
+    public void testCommonSubexpressionsNotExtractedFromSplitFilter()
+    {
+        // 500 < field1 + 1 AND field0 = 'a', projecting field1 + 1
+        RowExpression plusOne = call(METADATA.resolveOperator(ADD, ImmutableList.of(BIGINT, BIGINT)), field(1, BIGINT), constant(1L, BIGINT));
+        RowExpression filter = new SpecialForm(
+                AND,
+                BOOLEAN,
+                call(METADATA.resolveOperator(LESS_THAN, ImmutableList.of(BIGINT, BIGINT)), constant(500L, BIGINT), plusOne),
+                call(METADATA.resolveOperator(EQUAL, ImmutableList.of(VARCHAR, VARCHAR)), field(0, VARCHAR), constant(utf8Slice("a"), VARCHAR)));
+
+        PageProcessor fusedProcessor = expressionCompiler.compilePageProcessor(Optional.of(filter), ImmutableList.of(plusOne), Optional.empty(), true, false, true, true).get();
+        assertEquals(fusedProcessor.getCommonSubexpressions().size(), 1);
+
+        // the first conjunct may be reordered after the second one, so its subexpressions are not evaluated for every position
+        PageProcessor adaptiveProcessor = expressionCompiler.compilePageProcessor(Optional.of(filter), ImmutableList.of(plusOne), Optional.empty(), true, true, true, true).get();
+        assertEquals(adaptiveProcessor.getCommonSubexpressions(), ImmutableList.of());
+
+        Page page = new Page(createStringsBlock(values(POSITIONS)), createLongSequenceBlock(0, POSITIONS));
+        for (int i = 0; i < 20; i++) {
+            List<Long> expected = project(fusedProcessor, page);
+            assertEquals(expected.size(), 167);
+            assertEquals(project(adaptiveProcessor, page), expected);
+        }
+    }
+
+    private static List<Long> project(PageProcessor processor, Page page)
+    {
+        ImmutableList.Builder<Long> values = ImmutableList.builder();
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName());
+        Iterator<Optional<Page>> output = processor.process(SESSION, new DriverYieldSignal(), memoryContext, page);
+        while (output.hasNext()) {
+            Optional<Page> outputPage = output.next();
+            if (outputPage.isEmpty()) {
+                continue;
+            }
+            Block block = outputPage.get().getBlock(0);
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                values.add(BIGINT.getLong(block, position));
+            }
+        }
+        return values.build();
+    }
+
+    private static String[] values(int positions)
+    {
+        String[] values = new String[positions];
+        for (int position = 0; position < positions; position++) {
+            values[position] = String.valueOf((char) ('a' + position % 3));
+        }
+        return values;
+    }
+
+    private static List<Integer> toList(SelectedPositions selectedPositions)
+    {
+        if (selectedPositions.isList()) {
+            return IntStream.range(selectedPositions.getOffset(), selectedPositions.getOffset() + selectedPositions.size())
+                    .map(index -> selectedPositions.getPositions()[index])
+                    .boxed()
+                    .collect(toImmutableList());
+        }
+        return IntStream.range(selectedPositions.getOffset(), selectedPositions.getOffset() + selectedPositions.size())
+                .boxed()
+                .collect(toImmutableList());
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.gen;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.metadata.Metadata;
+import io.trino.metadata.ResolvedFunction;
+import io.trino.sql.gen.CommonSubexpressionRewriter.Result;
+import io.trino.sql.relational.CallExpression;
+import io.trino.sql.relational.DeterminismEvaluator;
+import io.trino.sql.relational.RowExpression;
+import io.trino.sql.relational.SpecialForm;
+import io.trino.sql.tree.QualifiedName;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static io.trino.metadata.MetadataManager.createTestMetadataManager;
+import static io.trino.spi.function.OperatorType.ADD;
+import static io.trino.spi.function.OperatorType.LESS_THAN;
+import static io.trino.spi.function.OperatorType.MULTIPLY;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.BooleanType.BOOLEAN;
+import static io.trino.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.trino.sql.relational.Expressions.call;
+import static io.trino.sql.relational.Expressions.constant;
+import static io.trino.sql.relational.Expressions.field;
+import static io.trino.sql.relational.SpecialForm.Form.AND;
+import static org.testng.Assert.assertEquals;
+
+public class TestCommonSubexpressionRewriter
+{
+    private static final Metadata METADATA = createTestMetadataManager();
+    private static final DeterminismEvaluator DETERMINISM_EVALUATOR = new DeterminismEvaluator(METADATA);
+    private static final ResolvedFunction ADD_BIGINT = METADATA.resolveOperator(ADD, ImmutableList.of(BIGINT, BIGINT));
+    private static final ResolvedFunction MULTIPLY_BIGINT = METADATA.resolveOperator(MULTIPLY, ImmutableList.of(BIGINT, BIGINT));
+    private static final ResolvedFunction LESS_THAN_BIGINT = METADATA.resolveOperator(LESS_THAN, ImmutableList.of(BIGINT, BIGINT));
+    private static final CallExpression ADD_10 = call(ADD_BIGINT, field(0, BIGINT), constant(10L, BIGINT));
+
+    @Test
+    public void testSharedBetweenFilterAndProjections()
+    {
+        Result result = CommonSubexpressionRewriter.rewrite(
+                Optional.of(call(LESS_THAN_BIGINT, ADD_10, constant(20L, BIGINT))),
+                ImmutableList.of(ADD_10, call(MULTIPLY_BIGINT, ADD_10, constant(2L, BIGINT)), field(1, BIGINT)),
+                DETERMINISM_EVALUATOR);
+
+        assertEquals(result.getCommonSubexpressions(), ImmutableList.of(ADD_10));
+        assertEquals(result.getCommonSubexpressionsChannel(), 2);
+        assertEquals(result.getFilter(), Optional.of(call(LESS_THAN_BIGINT, field(2, BIGINT), constant(20L, BIGINT))));
+        assertEquals(result.getProjections(), ImmutableList.of(
+                field(2, BIGINT),
+                call(MULTIPLY_BIGINT, field(2, BIGINT), constant(2L, BIGINT)),
+                field(1, BIGINT)));
+    }
+
+    @Test
+    public void testSharedBetweenProjections()
+    {
+        Result result = CommonSubexpressionRewriter.rewrite(
+                Optional.empty(),
+                ImmutableList.of(ADD_10, call(MULTIPLY_BIGINT, ADD_10, constant(2L, BIGINT))),
+                DETERMINISM_EVALUATOR);
+
+        assertEquals(result.getCommonSubexpressions(), ImmutableList.of(ADD_10));
+        assertEquals(result.getProjections(), ImmutableList.of(
+                field(1, BIGINT),
+                call(MULTIPLY_BIGINT, field(1, BIGINT), constant(2L, BIGINT))));
+    }
+
+    @Test
+    public void testConditionallyEvaluated()
+    {
+        // the second conjunct is only evaluated for positions matching the first one
+        RowExpression filter = new SpecialForm(
+                AND,
+                BOOLEAN,
+                call(LESS_THAN_BIGINT, field(1, BIGINT), constant(5L, BIGINT)),
+                call(LESS_THAN_BIGINT, ADD_10, constant(20L, BIGINT)));
+        assertNoCommonSubexpressions(Optional.of(filter), ImmutableList.of(ADD_10));
+
+        // projections are only evaluated for positions matching the filter
+        assertNoCommonSubexpressions(
+                Optional.of(call(LESS_THAN_BIGINT, field(1, BIGINT), constant(5L, BIGINT))),
+                ImmutableList.of(ADD_10, call(MULTIPLY_BIGINT, ADD_10, constant(2L, BIGINT))));
+    }
+
+    @Test
+    public void testNonDeterministic()
+    {
+        CallExpression random = call(
+                METADATA.resolveFunction(QualifiedName.of("random"), fromTypes(BIGINT)),
+                field(0, BIGINT));
+        assertNoCommonSubexpressions(Optional.empty(), ImmutableList.of(random, call(ADD_BIGINT, random, constant(1L, BIGINT))));
+    }
+
+    @Test
+    public void testNestedSubexpressions()
+    {
+        CallExpression multiply = call(MULTIPLY_BIGINT, ADD_10, constant(2L, BIGINT));
+        Result result = CommonSubexpressionRewriter.rewrite(
+                Optional.empty(),
+                ImmutableList.of(multiply, call(ADD_BIGINT, multiply, constant(1L, BIGINT)), ADD_10),
+                DETERMINISM_EVALUATOR);
+
+        assertEquals(result.getCommonSubexpressions(), ImmutableList.of(multiply));
+        assertEquals(result.getProjections(), ImmutableList.of(
+                field(1, BIGINT),
+                call(ADD_BIGINT, field(1, BIGINT), constant(1L, BIGINT)),
+                ADD_10));
+    }
+
+    private static void assertNoCommonSubexpressions(Optional<RowExpression> filter, ImmutableList<RowExpression> projections)
+    {
+        Result result = CommonSubexpressionRewriter.rewrite(filter, projections, DETERMINISM_EVALUATOR);
+        assertEquals(result.getCommonSubexpressions(), ImmutableList.of());
+        assertEquals(result.getFilter(), filter);
+        assertEquals(result.getProjections(), projections);
+    }
+}
@@ -17,6 +17,9 @@ import com.google.common.collect.ImmutableList;
 import io.trino.metadata.Metadata;
 import io.trino.operator.DriverYieldSignal;
 import io.trino.operator.Work;
+import io.trino.operator.project.ArithmeticPageProjection;
+import io.trino.operator.project.LongColumnPageFilter;
+import io.trino.operator.project.PageFilter;
 import io.trino.operator.project.PageProjection;
 import io.trino.operator.project.SelectedPositions;
 import io.trino.spi.Page;
@@ -31,13 +34,16 @@ import java.util.function.Supplier;
 import static io.trino.metadata.MetadataManager.createTestMetadataManager;
 import static io.trino.spi.StandardErrorCode.NUMERIC_VALUE_OUT_OF_RANGE;
 import static io.trino.spi.function.OperatorType.ADD;
+import static io.trino.spi.function.OperatorType.LESS_THAN;
 import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.IntegerType.INTEGER;
 import static io.trino.sql.relational.Expressions.call;
 import static io.trino.sql.relational.Expressions.constant;
 import static io.trino.sql.relational.Expressions.field;
 import static io.trino.testing.TestingConnectorSession.SESSION;
 import static io.trino.testing.assertions.TrinoExceptionAssert.assertTrinoExceptionThrownBy;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
@@ -49,22 +55,27 @@ public class TestPageFunctionCompiler
             METADATA.resolveOperator(ADD, ImmutableList.of(BIGINT, BIGINT)),
             field(0, BIGINT),
             constant(10L, BIGINT));
+    // integer arithmetic is not evaluated by ArithmeticPageProjection, so it exercises the generated projection
+    private static final CallExpression ADD_10_INTEGER_EXPRESSION = call(
+            METADATA.resolveOperator(ADD, ImmutableList.of(INTEGER, INTEGER)),
+            field(0, INTEGER),
+            constant(10L, INTEGER));
 
     @Test
     public void testFailureDoesNotCorruptFutureResults()
     {
         PageFunctionCompiler functionCompiler = new PageFunctionCompiler(METADATA, 0);
 
-        Supplier<PageProjection> projectionSupplier = functionCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty());
+        Supplier<PageProjection> projectionSupplier = functionCompiler.compileProjection(ADD_10_INTEGER_EXPRESSION, Optional.empty());
         PageProjection projection = projectionSupplier.get();
 
         // process good page and verify we got the expected number of result rows
-        Page goodPage = createLongBlockPage(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        Page goodPage = createIntegerBlockPage(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
         Block goodResult = project(projection, goodPage, SelectedPositions.positionsRange(0, goodPage.getPositionCount()));
         assertEquals(goodPage.getPositionCount(), goodResult.getPositionCount());
 
         // addition will throw due to integer overflow
-        Page badPage = createLongBlockPage(0, 1, 2, 3, 4, Long.MAX_VALUE);
+        Page badPage = createIntegerBlockPage(0, 1, 2, 3, 4, Integer.MAX_VALUE);
         assertTrinoExceptionThrownBy(() -> project(projection, badPage, SelectedPositions.positionsRange(0, 100)))
                 .hasErrorCode(NUMERIC_VALUE_OUT_OF_RANGE);
 
@@ -82,43 +93,83 @@ public class TestPageFunctionCompiler
         String planNodeId = "7";
         String stageId = "20170707_223500_67496_zguwn.2";
         String classSuffix = stageId + "_" + planNodeId;
-        Supplier<PageProjection> projectionSupplier = functionCompiler.compileProjection(ADD_10_EXPRESSION, Optional.of(classSuffix));
+        Supplier<PageProjection> projectionSupplier = functionCompiler.compileProjection(ADD_10_INTEGER_EXPRESSION, Optional.of(classSuffix));
         PageProjection projection = projectionSupplier.get();
-        Work<Block> work = projection.project(SESSION, new DriverYieldSignal(), createLongBlockPage(0), SelectedPositions.positionsRange(0, 1));
+        Work<Block> work = projection.project(SESSION, new DriverYieldSignal(), createIntegerBlockPage(0), SelectedPositions.positionsRange(0, 1));
         // class name should look like PageProjectionOutput_20170707_223500_67496_zguwn_2_7_XX
         assertTrue(work.getClass().getSimpleName().startsWith("PageProjectionWork_" + stageId.replace('.', '_') + "_" + planNodeId));
     }
 
+    @Test
+    public void testArithmeticProjection()
+    {
+        PageFunctionCompiler functionCompiler = new PageFunctionCompiler(METADATA, 0);
+
+        PageProjection projection = functionCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty()).get();
+        assertTrue(projection instanceof ArithmeticPageProjection);
+
+        Block result = project(projection, createLongBlockPage(0, 1, 2), SelectedPositions.positionsRange(0, 3));
+        assertEquals(BIGINT.getLong(result, 2), 12L);
+
+        assertTrinoExceptionThrownBy(() -> project(projection, createLongBlockPage(0, Long.MAX_VALUE), SelectedPositions.positionsRange(0, 2)))
+                .hasErrorCode(NUMERIC_VALUE_OUT_OF_RANGE)
+                .hasMessage("bigint addition overflow: 9223372036854775807 + 10");
+
+        PageProjection generatedProjection = functionCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty(), false).get();
+        assertFalse(generatedProjection instanceof ArithmeticPageProjection);
+        assertEquals(BIGINT.getLong(project(generatedProjection, createLongBlockPage(0, 1, 2), SelectedPositions.positionsRange(0, 3)), 2), 12L);
+    }
+
+    @Test
+    public void testColumnarFilter()
+    {
+        PageFunctionCompiler functionCompiler = new PageFunctionCompiler(METADATA, 0);
+        CallExpression lessThan10 = call(METADATA.resolveOperator(LESS_THAN, ImmutableList.of(BIGINT, BIGINT)), field(0, BIGINT), constant(10L, BIGINT));
+        Page page = createLongBlockPage(5, 15, 7);
+
+        PageFilter columnarFilter = functionCompiler.compileFilter(lessThan10, Optional.empty(), true).get();
+        assertTrue(columnarFilter instanceof LongColumnPageFilter);
+        assertEquals(columnarFilter.filter(SESSION, page).size(), 2);
+
+        PageFilter generatedFilter = functionCompiler.compileFilter(lessThan10, Optional.empty(), false).get();
+        assertFalse(generatedFilter instanceof LongColumnPageFilter);
+        assertEquals(generatedFilter.filter(SESSION, page).size(), 2);
+    }
+
     @Test
     public void testCache()
     {
+        CallExpression add10Channel3 = call(ADD_10_INTEGER_EXPRESSION.getResolvedFunction(), field(3, INTEGER), constant(10L, INTEGER));
+
         PageFunctionCompiler cacheCompiler = new PageFunctionCompiler(METADATA, 100);
         assertSame(
-                cacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty()),
-                cacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty()));
-        assertSame(
-                cacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.of("hint")),
-                cacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.of("hint")));
+                getWorkClass(cacheCompiler.compileProjection(ADD_10_INTEGER_EXPRESSION, Optional.empty())),
+                getWorkClass(cacheCompiler.compileProjection(ADD_10_INTEGER_EXPRESSION, Optional.empty())));
         assertSame(
-                cacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.of("hint")),
-                cacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.of("hint2")));
+                getWorkClass(cacheCompiler.compileProjection(ADD_10_INTEGER_EXPRESSION, Optional.of("hint"))),
+                getWorkClass(cacheCompiler.compileProjection(ADD_10_INTEGER_EXPRESSION, Optional.of("hint2"))));
+        // the compiled projection is shared by expressions reading different channels
+        Supplier<PageProjection> channel3Projection = cacheCompiler.compileProjection(add10Channel3, Optional.empty());
         assertSame(
-                cacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty()),
-                cacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.of("hint2")));
+                getWorkClass(cacheCompiler.compileProjection(ADD_10_INTEGER_EXPRESSION, Optional.empty())),
+                getWorkClass(channel3Projection));
+        assertEquals(channel3Projection.get().getInputChannels().getInputChannels(), ImmutableList.of(3));
+        assertEquals(cacheCompiler.getProjectionCache().getMissCount(), 1);
 
         PageFunctionCompiler noCacheCompiler = new PageFunctionCompiler(METADATA, 0);
         assertNotSame(
-                noCacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty()),
-                noCacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty()));
+                getWorkClass(noCacheCompiler.compileProjection(ADD_10_INTEGER_EXPRESSION, Optional.empty())),
+                getWorkClass(noCacheCompiler.compileProjection(ADD_10_INTEGER_EXPRESSION, Optional.empty())));
         assertNotSame(
-                noCacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.of("hint")),
-                noCacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.of("hint")));
-        assertNotSame(
-                noCacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.of("hint")),
-                noCacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.of("hint2")));
-        assertNotSame(
-                noCacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty()),
-                noCacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.of("hint2")));
+                getWorkClass(noCacheCompiler.compileProjection(ADD_10_INTEGER_EXPRESSION, Optional.empty())),
+                getWorkClass(noCacheCompiler.compileProjection(add10Channel3, Optional.empty())));
+    }
+
+    private static Class<?> getWorkClass(Supplier<PageProjection> projectionSupplier)
+    {
+        return projectionSupplier.get()
+                .project(SESSION, new DriverYieldSignal(), createIntegerBlockPage(0), SelectedPositions.positionsRange(0, 1))
+                .getClass();
     }
 
     private Block project(PageProjection projection, Page page, SelectedPositions selectedPositions)
@@ -136,4 +187,13 @@ public class TestPageFunctionCompiler
         }
         return new Page(builder.build());
     }
+
+    private static Page createIntegerBlockPage(int... values)
+    {
+        BlockBuilder builder = INTEGER.createFixedSizeBlockBuilder(values.length);
+        for (int value : values) {
+            INTEGER.writeLong(builder, value);
+        }
+        return new Page(builder.build());
+    }
 }
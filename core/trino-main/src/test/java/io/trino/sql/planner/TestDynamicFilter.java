@@ -36,6 +36,7 @@ import static io.trino.SystemSessionProperties.ENABLE_DYNAMIC_FILTERING;
 import static io.trino.SystemSessionProperties.FILTERING_SEMI_JOIN_TO_INNER;
 import static io.trino.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
 import static io.trino.SystemSessionProperties.JOIN_REORDERING_STRATEGY;
+import static io.trino.SystemSessionProperties.RANGE_JOIN_ENABLED;
 import static io.trino.sql.planner.assertions.PlanMatchPattern.DynamicFilterPattern;
 import static io.trino.sql.planner.assertions.PlanMatchPattern.anyNot;
 import static io.trino.sql.planner.assertions.PlanMatchPattern.anyTree;
@@ -67,7 +68,9 @@ public class TestDynamicFilter
         super(ImmutableMap.of(
                 ENABLE_DYNAMIC_FILTERING, "true",
                 JOIN_REORDERING_STRATEGY, JoinReorderingStrategy.NONE.name(),
-                JOIN_DISTRIBUTION_TYPE, JoinDistributionType.BROADCAST.name()));
+                JOIN_DISTRIBUTION_TYPE, JoinDistributionType.BROADCAST.name(),
+                // plan inequality joins as cross joins followed by a filter
+                RANGE_JOIN_ENABLED, "false"));
     }
 
     @Test
@@ -211,6 +214,29 @@ public class TestDynamicFilter
                                         tableScan("lineitem", ImmutableMap.of("L_ORDERKEY", "orderkey", "L_PARTKEY", "partkey")))))));
     }
 
+    @Test
+    public void testRangeJoinDF()
+    {
+        // the range condition stays in the join, and still produces dynamic filters for the probe side
+        assertPlan("SELECT o.orderkey FROM orders o, lineitem l WHERE o.orderkey BETWEEN l.orderkey AND l.partkey",
+                rangeJoin(),
+                anyTree(
+                        join(
+                                INNER,
+                                ImmutableList.of(),
+                                Optional.of("O_ORDERKEY BETWEEN L_ORDERKEY AND L_PARTKEY"),
+                                Optional.of(ImmutableList.of(
+                                        new DynamicFilterPattern("O_ORDERKEY", GREATER_THAN_OR_EQUAL, "L_ORDERKEY"),
+                                        new DynamicFilterPattern("O_ORDERKEY", LESS_THAN_OR_EQUAL, "L_PARTKEY"))),
+                                Optional.empty(),
+                                Optional.empty(),
+                                filter(
+                                        TRUE_LITERAL,
+                                        tableScan("orders", ImmutableMap.of("O_ORDERKEY", "orderkey"))),
+                                exchange(
+                                        tableScan("lineitem", ImmutableMap.of("L_ORDERKEY", "orderkey", "L_PARTKEY", "partkey"))))));
+    }
+
     @Test
     public void testCrossJoinInequalityNoDFWithCast()
     {
@@ -653,6 +679,13 @@ public class TestDynamicFilter
         };
     }
 
+    private Session rangeJoin()
+    {
+        return Session.builder(getQueryRunner().getDefaultSession())
+                .setSystemProperty(RANGE_JOIN_ENABLED, "true")
+                .build();
+    }
+
     private Session noSemiJoinRewrite()
     {
         return Session.builder(getQueryRunner().getDefaultSession())
@@ -79,7 +79,10 @@ import static io.trino.SystemSessionProperties.FILTERING_SEMI_JOIN_TO_INNER;
 import static io.trino.SystemSessionProperties.FORCE_SINGLE_NODE_OUTPUT;
 import static io.trino.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
 import static io.trino.SystemSessionProperties.JOIN_REORDERING_STRATEGY;
+import static io.trino.SystemSessionProperties.MERGE_JOIN_ENABLED;
 import static io.trino.SystemSessionProperties.OPTIMIZE_HASH_GENERATION;
+import static io.trino.SystemSessionProperties.PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN;
+import static io.trino.SystemSessionProperties.RANGE_JOIN_ENABLED;
 import static io.trino.SystemSessionProperties.TASK_CONCURRENCY;
 import static io.trino.spi.StandardErrorCode.SUBQUERY_MULTIPLE_ROWS;
 import static io.trino.spi.type.BigintType.BIGINT;
@@ -428,6 +431,81 @@ public class TestLogicalPlanner
                                         tableScan("lineitem", ImmutableMap.of("LINEITEM_OK", "orderkey"))))));
     }
 
+    @Test
+    public void testMergeJoin()
+    {
+        Session mergeJoin = Session.builder(this.getQueryRunner().getDefaultSession())
+                .setSystemProperty(MERGE_JOIN_ENABLED, "true")
+                .setSystemProperty(JOIN_REORDERING_STRATEGY, JoinReorderingStrategy.NONE.name())
+                .build();
+
+        assertPlan("SELECT o.orderkey FROM orders o, lineitem l WHERE l.orderkey = o.orderkey",
+                mergeJoin,
+                anyTree(
+                        join(INNER, ImmutableList.of(equiJoinClause("ORDERS_OK", "LINEITEM_OK")),
+                                sort(ImmutableList.of(sort("ORDERS_OK", ASCENDING, LAST)),
+                                        anyTree(
+                                                tableScan("orders", ImmutableMap.of("ORDERS_OK", "orderkey")))),
+                                sort(ImmutableList.of(sort("LINEITEM_OK", ASCENDING, LAST)),
+                                        anyTree(
+                                                tableScan("lineitem", ImmutableMap.of("LINEITEM_OK", "orderkey")))))));
+    }
+
+    @Test
+    public void testPartialAggregationNotPushedThroughMergeJoin()
+    {
+        Session mergeJoin = Session.builder(this.getQueryRunner().getDefaultSession())
+                .setSystemProperty(MERGE_JOIN_ENABLED, "true")
+                .setSystemProperty(PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN, "true")
+                .setSystemProperty(JOIN_REORDERING_STRATEGY, JoinReorderingStrategy.NONE.name())
+                .build();
+
+        // a partial aggregation between the sorts and the join would break the ordering of the join inputs
+        assertPlan("SELECT l.orderkey, count(*) FROM orders o, lineitem l WHERE l.orderkey = o.orderkey GROUP BY l.orderkey",
+                mergeJoin,
+                anyTree(
+                        join(INNER, ImmutableList.of(equiJoinClause("ORDERS_OK", "LINEITEM_OK")),
+                                sort(ImmutableList.of(sort("ORDERS_OK", ASCENDING, LAST)),
+                                        anyTree(
+                                                tableScan("orders", ImmutableMap.of("ORDERS_OK", "orderkey")))),
+                                sort(ImmutableList.of(sort("LINEITEM_OK", ASCENDING, LAST)),
+                                        anyTree(
+                                                tableScan("lineitem", ImmutableMap.of("LINEITEM_OK", "orderkey")))))));
+    }
+
+    @Test
+    public void testRangeJoin()
+    {
+        Session rangeJoin = Session.builder(this.getQueryRunner().getDefaultSession())
+                .setSystemProperty(RANGE_JOIN_ENABLED, "true")
+                .setSystemProperty(JOIN_REORDERING_STRATEGY, JoinReorderingStrategy.NONE.name())
+                .build();
+
+        // the range condition stays in the join, so that it is executed as a range join
+        assertPlan("SELECT o.orderkey FROM orders o JOIN lineitem l ON o.orderkey BETWEEN l.partkey AND l.suppkey",
+                rangeJoin,
+                anyTree(
+                        join(INNER, ImmutableList.of(), Optional.of("O_ORDERKEY BETWEEN L_PARTKEY AND L_SUPPKEY"),
+                                anyTree(
+                                        tableScan("orders", ImmutableMap.of("O_ORDERKEY", "orderkey"))),
+                                anyTree(
+                                        tableScan("lineitem", ImmutableMap.of("L_PARTKEY", "partkey", "L_SUPPKEY", "suppkey"))))));
+
+        Session nestedLoopJoin = Session.builder(rangeJoin)
+                .setSystemProperty(RANGE_JOIN_ENABLED, "false")
+                .build();
+
+        assertPlan("SELECT o.orderkey FROM orders o JOIN lineitem l ON o.orderkey BETWEEN l.partkey AND l.suppkey",
+                nestedLoopJoin,
+                anyTree(
+                        filter("O_ORDERKEY BETWEEN L_PARTKEY AND L_SUPPKEY",
+                                join(INNER, ImmutableList.of(),
+                                        anyTree(
+                                                tableScan("orders", ImmutableMap.of("O_ORDERKEY", "orderkey"))),
+                                        anyTree(
+                                                tableScan("lineitem", ImmutableMap.of("L_PARTKEY", "partkey", "L_SUPPKEY", "suppkey")))))));
+    }
+
     @Test
     public void testTopNPushdownToJoinSource()
     {
@@ -108,6 +108,29 @@ public class TestJoinEnumerator
         assertEquals(actual.getCost(), PlanCostEstimate.infinite());
     }
 
+    @Test
+    public void testDoesNotCreateGreedyJoinOrderForCrossJoin()
+    {
+        PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
+        PlanBuilder p = new PlanBuilder(idAllocator, queryRunner.getMetadata());
+        Symbol a1 = p.symbol("A1");
+        Symbol b1 = p.symbol("B1");
+        Symbol c1 = p.symbol("C1");
+        MultiJoinNode multiJoinNode = new MultiJoinNode(
+                new LinkedHashSet<>(ImmutableList.of(p.values(a1), p.values(b1), p.values(c1))),
+                TRUE_LITERAL,
+                ImmutableList.of(a1, b1, c1),
+                false);
+        JoinEnumerator joinEnumerator = new JoinEnumerator(
+                queryRunner.getMetadata(),
+                new CostComparator(1, 1, 1),
+                multiJoinNode.getFilter(),
+                createContext());
+        JoinEnumerationResult actual = joinEnumerator.chooseJoinOrderGreedily(multiJoinNode.getSources(), multiJoinNode.getOutputSymbols());
+        assertFalse(actual.getPlanNode().isPresent());
+        assertEquals(actual.getCost(), PlanCostEstimate.infinite());
+    }
+
     private Rule.Context createContext()
     {
         PlanNodeIdAllocator planNodeIdAllocator = new PlanNodeIdAllocator();
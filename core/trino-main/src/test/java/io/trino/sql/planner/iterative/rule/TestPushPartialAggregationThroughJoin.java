@@ -15,9 +15,13 @@ package io.trino.sql.planner.iterative.rule;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import io.trino.cost.PlanNodeStatsEstimate;
+import io.trino.cost.SymbolStatsEstimate;
+import io.trino.sql.planner.Symbol;
 import io.trino.sql.planner.assertions.PlanMatchPattern;
 import io.trino.sql.planner.iterative.rule.test.BaseRuleTest;
 import io.trino.sql.planner.plan.JoinNode.EquiJoinClause;
+import io.trino.sql.planner.plan.PlanNodeId;
 import org.testng.annotations.Test;
 
 import java.util.Optional;
@@ -72,4 +76,67 @@ public class TestPushPartialAggregationThroughJoin
                                         values("LEFT_EQUI", "LEFT_NON_EQUI", "LEFT_GROUP_BY", "LEFT_AGGR", "LEFT_HASH")),
                                 values("RIGHT_EQUI", "RIGHT_NON_EQUI", "RIGHT_GROUP_BY", "RIGHT_HASH"))));
     }
+
+    @Test
+    public void testPushesPartialAggregationWhenItReducesRows()
+    {
+        tester().assertThat(new PushPartialAggregationThroughJoin())
+                .setSystemProperty(PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN, "true")
+                .overrideStats("left", leftStats(10, 5))
+                .on(p -> p.aggregation(ab -> ab
+                        .source(
+                                p.join(
+                                        INNER,
+                                        p.values(new PlanNodeId("left"), 1000, p.symbol("LEFT_EQUI"), p.symbol("LEFT_GROUP_BY"), p.symbol("LEFT_AGGR")),
+                                        p.values(p.symbol("RIGHT_EQUI")),
+                                        ImmutableList.of(new EquiJoinClause(p.symbol("LEFT_EQUI"), p.symbol("RIGHT_EQUI"))),
+                                        ImmutableList.of(p.symbol("LEFT_GROUP_BY"), p.symbol("LEFT_AGGR")),
+                                        ImmutableList.of(),
+                                        Optional.empty()))
+                        .addAggregation(p.symbol("AVG", DOUBLE), expression("AVG(LEFT_AGGR)"), ImmutableList.of(DOUBLE))
+                        .singleGroupingSet(p.symbol("LEFT_GROUP_BY"))
+                        .step(PARTIAL)))
+                .matches(project(ImmutableMap.of(
+                        "LEFT_GROUP_BY", PlanMatchPattern.expression("LEFT_GROUP_BY"),
+                        "AVG", PlanMatchPattern.expression("AVG")),
+                        join(INNER, ImmutableList.of(equiJoinClause("LEFT_EQUI", "RIGHT_EQUI")),
+                                aggregation(
+                                        singleGroupingSet("LEFT_GROUP_BY", "LEFT_EQUI"),
+                                        ImmutableMap.of(Optional.of("AVG"), functionCall("avg", ImmutableList.of("LEFT_AGGR"))),
+                                        Optional.empty(),
+                                        PARTIAL,
+                                        values("LEFT_EQUI", "LEFT_GROUP_BY", "LEFT_AGGR")),
+                                values("RIGHT_EQUI"))));
+    }
+
+    @Test
+    public void testDoesNotPushPartialAggregationWithoutReduction()
+    {
+        tester().assertThat(new PushPartialAggregationThroughJoin())
+                .setSystemProperty(PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN, "true")
+                .overrideStats("left", leftStats(1000, 1000))
+                .on(p -> p.aggregation(ab -> ab
+                        .source(
+                                p.join(
+                                        INNER,
+                                        p.values(new PlanNodeId("left"), 1000, p.symbol("LEFT_EQUI"), p.symbol("LEFT_GROUP_BY"), p.symbol("LEFT_AGGR")),
+                                        p.values(p.symbol("RIGHT_EQUI")),
+                                        ImmutableList.of(new EquiJoinClause(p.symbol("LEFT_EQUI"), p.symbol("RIGHT_EQUI"))),
+                                        ImmutableList.of(p.symbol("LEFT_GROUP_BY"), p.symbol("LEFT_AGGR")),
+                                        ImmutableList.of(),
+                                        Optional.empty()))
+                        .addAggregation(p.symbol("AVG", DOUBLE), expression("AVG(LEFT_AGGR)"), ImmutableList.of(DOUBLE))
+                        .singleGroupingSet(p.symbol("LEFT_GROUP_BY"))
+                        .step(PARTIAL)))
+                .doesNotFire();
+    }
+
+    private static PlanNodeStatsEstimate leftStats(double equiDistinctValues, double groupByDistinctValues)
+    {
+        return PlanNodeStatsEstimate.builder()
+                .setOutputRowCount(1000)
+                .addSymbolStatistics(new Symbol("LEFT_EQUI"), SymbolStatsEstimate.builder().setDistinctValuesCount(equiDistinctValues).setNullsFraction(0).build())
+                .addSymbolStatistics(new Symbol("LEFT_GROUP_BY"), SymbolStatsEstimate.builder().setDistinctValuesCount(groupByDistinctValues).setNullsFraction(0).build())
+                .build();
+    }
 }
@@ -18,4 +18,14 @@ import java.util.List;
 public interface ConnectorIndexProvider
 {
     ConnectorIndex getIndex(ConnectorTransactionHandle transactionHandle, ConnectorSession session, ConnectorIndexHandle indexHandle, List<ColumnHandle> lookupSchema, List<ColumnHandle> outputSchema);
+
+    /**
+     * Returns whether the engine may cache the rows returned by lookups into the given index and
+     * serve them to other transactions of the same user. This is only safe when the rows do not
+     * depend on the transaction, e.g. when the indexed data does not change.
+     */
+    default boolean isLookupCacheable(ConnectorSession session, ConnectorIndexHandle indexHandle)
+    {
+        return false;
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spi.statistics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.lang.Double.isFinite;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Distribution of the non-null values of a column, in the same double representation as {@link DoubleRange}.
+ * The most common values are kept with the fraction of non-null rows they occupy. The remaining values
+ * are described by an equi-height histogram: each of the buckets between consecutive boundaries holds
+ * an equal share of the rows that do not hold one of the most common values.
+ */
+public final class Histogram
+{
+    private final List<Double> bucketBoundaries;
+    private final Map<Double, Double> mostCommonValues;
+
+    public Histogram(List<Double> bucketBoundaries, Map<Double, Double> mostCommonValues)
+    {
+        this.bucketBoundaries = List.copyOf(requireNonNull(bucketBoundaries, "bucketBoundaries is null"));
+        if (this.bucketBoundaries.size() == 1) {
+            throw new IllegalArgumentException("bucketBoundaries must be empty or contain at least two values");
+        }
+        double previous = Double.NEGATIVE_INFINITY;
+        for (double boundary : this.bucketBoundaries) {
+            if (!isFinite(boundary)) {
+                throw new IllegalArgumentException(format("bucket boundaries must be finite: %s", this.bucketBoundaries));
+            }
+            if (boundary < previous) {
+                throw new IllegalArgumentException(format("bucket boundaries must be sorted: %s", this.bucketBoundaries));
+            }
+            previous = boundary;
+        }
+
+        this.mostCommonValues = Map.copyOf(requireNonNull(mostCommonValues, "mostCommonValues is null"));
+        double totalFraction = 0;
+        for (Map.Entry<Double, Double> entry : this.mostCommonValues.entrySet()) {
+            if (!isFinite(entry.getKey())) {
+                throw new IllegalArgumentException(format("most common values must be finite: %s", entry.getKey()));
+            }
+            if (!(entry.getValue() >= 0 && entry.getValue() <= 1)) {
+                throw new IllegalArgumentException(format("fraction of a most common value must be between 0 and 1: %s", entry.getValue()));
+            }
+            totalFraction += entry.getValue();
+        }
+        // allow for rounding errors of the collected fractions
+        if (totalFraction > 1.0001) {
+            throw new IllegalArgumentException(format("fractions of the most common values must not exceed 1: %s", totalFraction));
+        }
+    }
+
+    /**
+     * Sorted boundaries of the equi-height buckets. Empty when all values are among the most common values.
+     */
+    public List<Double> getBucketBoundaries()
+    {
+        return bucketBoundaries;
+    }
+
+    /**
+     * Fraction of the non-null rows holding each of the most common values.
+     */
+    public Map<Double, Double> getMostCommonValues()
+    {
+        return mostCommonValues;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Histogram that = (Histogram) o;
+        return bucketBoundaries.equals(that.bucketBoundaries) &&
+                mostCommonValues.equals(that.mostCommonValues);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(bucketBoundaries, mostCommonValues);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Histogram{" +
+                "bucketBoundaries=" + bucketBoundaries +
+                ", mostCommonValues=" + mostCommonValues +
+                '}';
+    }
+}
@@ -13,7 +13,9 @@
  */
 package io.trino.orc;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.trino.orc.stream.AbstractDiskOrcDataReader;
@@ -23,6 +25,7 @@ import io.trino.orc.stream.OrcDataReader;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -54,6 +57,12 @@ public abstract class AbstractOrcDataSource
     protected abstract void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
             throws IOException;
 
+    /**
+     * Called when a set of disk ranges has been planned into reads. Merging small ranges reduces the
+     * number of read requests at the cost of reading the gaps between them.
+     */
+    protected void readsPlanned(Iterable<DiskRange> requestedRanges, Iterable<DiskRange> plannedReads) {}
+
     @Override
     public OrcDataSourceId getId()
     {
@@ -140,23 +149,24 @@ public abstract class AbstractOrcDataSource
         Map<K, DiskRange> smallRanges = smallRangesBuilder.build();
         Map<K, DiskRange> largeRanges = largeRangesBuilder.build();
 
+        List<DiskRange> mergedRanges = smallRanges.isEmpty() ? ImmutableList.of() : mergeAdjacentDiskRanges(smallRanges.values(), options.getMaxMergeDistance(), options.getMaxBufferSize());
+        readsPlanned(diskRanges.values(), Iterables.concat(mergedRanges, largeRanges.values()));
+
         // read ranges
         ImmutableMap.Builder<K, OrcDataReader> slices = ImmutableMap.builder();
-        slices.putAll(readSmallDiskRanges(smallRanges));
+        slices.putAll(readSmallDiskRanges(smallRanges, mergedRanges));
         slices.putAll(readLargeDiskRanges(largeRanges));
 
         return slices.build();
     }
 
-    private <K> Map<K, OrcDataReader> readSmallDiskRanges(Map<K, DiskRange> diskRanges)
+    private <K> Map<K, OrcDataReader> readSmallDiskRanges(Map<K, DiskRange> diskRanges, List<DiskRange> mergedRanges)
             throws IOException
     {
         if (diskRanges.isEmpty()) {
             return ImmutableMap.of();
         }
 
-        Iterable<DiskRange> mergedRanges = mergeAdjacentDiskRanges(diskRanges.values(), options.getMaxMergeDistance(), options.getMaxBufferSize());
-
         ImmutableMap.Builder<K, OrcDataReader> slices = ImmutableMap.builder();
         if (options.isLazyReadSmallRanges()) {
             for (DiskRange mergedRange : mergedRanges) {
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.orc;
+
+import io.trino.orc.metadata.Footer;
+import io.trino.orc.metadata.Metadata;
+import io.trino.orc.metadata.PostScript;
+import io.trino.orc.metadata.statistics.ColumnStatistics;
+import io.trino.orc.metadata.statistics.StripeStatistics;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Parsed tail of an ORC file. The tail does not depend on the data source it was read from,
+ * so it can be shared by readers of the same file.
+ */
+public class OrcFileTail
+{
+    private final PostScript postScript;
+    private final Footer footer;
+    private final Metadata metadata;
+    private final long retainedSizeInBytes;
+
+    OrcFileTail(PostScript postScript, Footer footer, Metadata metadata, int serializedSize)
+    {
+        this.postScript = requireNonNull(postScript, "postScript is null");
+        this.footer = requireNonNull(footer, "footer is null");
+        this.metadata = requireNonNull(metadata, "metadata is null");
+
+        // statistics dominate the size of the parsed tail, the rest is approximated by its serialized size
+        long retainedSize = serializedSize;
+        retainedSize += footer.getFileStats()
+                .map(statistics -> statistics.stream().mapToLong(ColumnStatistics::getRetainedSizeInBytes).sum())
+                .orElse(0L);
+        retainedSize += metadata.getStripeStatsList().stream()
+                .flatMap(Optional::stream)
+                .mapToLong(StripeStatistics::getRetainedSizeInBytes)
+                .sum();
+        this.retainedSizeInBytes = retainedSize;
+    }
+
+    public PostScript getPostScript()
+    {
+        return postScript;
+    }
+
+    public Footer getFooter()
+    {
+        return footer;
+    }
+
+    public Metadata getMetadata()
+    {
+        return metadata;
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        return retainedSizeInBytes;
+    }
+}
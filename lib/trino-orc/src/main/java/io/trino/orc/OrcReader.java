@@ -82,6 +82,7 @@ public class OrcReader
     private final int bufferSize;
     private final CompressionKind compressionKind;
     private final Optional<OrcDecompressor> decompressor;
+    private final OrcFileTail fileTail;
     private final Footer footer;
     private final Metadata metadata;
     private final OrcColumn rootColumn;
@@ -91,17 +92,33 @@ public class OrcReader
     public static Optional<OrcReader> createOrcReader(OrcDataSource orcDataSource, OrcReaderOptions options)
             throws IOException
     {
-        return createOrcReader(orcDataSource, options, Optional.empty());
+        return createOrcReader(orcDataSource, options, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Creates a reader using a tail previously read from the same file with {@link #getFileTail()},
+     * which avoids reading and parsing the tail again.
+     */
+    public static OrcReader createOrcReader(OrcDataSource orcDataSource, OrcReaderOptions options, OrcFileTail fileTail)
+            throws IOException
+    {
+        return createOrcReader(orcDataSource, options, Optional.empty(), Optional.of(fileTail))
+                .orElseThrow(() -> new OrcCorruptionException(orcDataSource.getId(), "File is empty"));
     }
 
     private static Optional<OrcReader> createOrcReader(
             OrcDataSource orcDataSource,
             OrcReaderOptions options,
-            Optional<OrcWriteValidation> writeValidation)
+            Optional<OrcWriteValidation> writeValidation,
+            Optional<OrcFileTail> cachedFileTail)
             throws IOException
     {
         orcDataSource = wrapWithCacheIfTiny(orcDataSource, options.getTinyStripeThreshold());
 
+        if (cachedFileTail.isPresent()) {
+            return Optional.of(new OrcReader(orcDataSource, options, writeValidation, cachedFileTail.get()));
+        }
+
         // read the tail of the file, and check if the file is actually empty
         long estimatedFileSize = orcDataSource.getEstimatedSize();
         if (estimatedFileSize > 0 && estimatedFileSize <= MAGIC.length()) {
@@ -114,22 +131,50 @@ public class OrcReader
             return Optional.empty();
         }
 
-        return Optional.of(new OrcReader(orcDataSource, options, writeValidation, fileTail));
+        ExceptionWrappingMetadataReader metadataReader = new ExceptionWrappingMetadataReader(orcDataSource.getId(), new OrcMetadataReader());
+        return Optional.of(new OrcReader(orcDataSource, options, writeValidation, readFileTail(orcDataSource, metadataReader, fileTail)));
     }
 
     private OrcReader(
             OrcDataSource orcDataSource,
             OrcReaderOptions options,
             Optional<OrcWriteValidation> writeValidation,
-            Slice fileTail)
+            OrcFileTail fileTail)
             throws IOException
     {
         this.options = requireNonNull(options, "options is null");
         this.orcDataSource = orcDataSource;
         this.metadataReader = new ExceptionWrappingMetadataReader(orcDataSource.getId(), new OrcMetadataReader());
+        this.fileTail = requireNonNull(fileTail, "fileTail is null");
 
         this.writeValidation = requireNonNull(writeValidation, "writeValidation is null");
 
+        PostScript postScript = fileTail.getPostScript();
+        validateWrite(validation -> validation.getVersion().equals(postScript.getVersion()), "Unexpected version");
+
+        this.bufferSize = toIntExact(postScript.getCompressionBlockSize());
+        this.compressionKind = postScript.getCompression();
+        this.decompressor = createOrcDecompressor(orcDataSource.getId(), compressionKind, bufferSize);
+        validateWrite(validation -> validation.getCompression() == compressionKind, "Unexpected compression");
+
+        this.hiveWriterVersion = postScript.getHiveWriterVersion();
+        this.footer = fileTail.getFooter();
+        this.metadata = fileTail.getMetadata();
+
+        this.rootColumn = createOrcColumn("", "", new OrcColumnId(0), footer.getTypes(), orcDataSource.getId());
+
+        validateWrite(validation -> validation.getColumnNames().equals(getColumnNames()), "Unexpected column names");
+        validateWrite(validation -> validation.getRowGroupMaxRowCount() == footer.getRowsInRowGroup().orElse(0), "Unexpected rows in group");
+        if (writeValidation.isPresent()) {
+            writeValidation.get().validateMetadata(orcDataSource.getId(), footer.getUserMetadata());
+            writeValidation.get().validateFileStatistics(orcDataSource.getId(), footer.getFileStats());
+            writeValidation.get().validateStripeStatistics(orcDataSource.getId(), footer.getStripes(), metadata.getStripeStatsList());
+        }
+    }
+
+    private static OrcFileTail readFileTail(OrcDataSource orcDataSource, ExceptionWrappingMetadataReader metadataReader, Slice fileTail)
+            throws IOException
+    {
         //
         // Read the file tail:
         //
@@ -166,16 +211,10 @@ public class OrcReader
 
         // verify this is a supported version
         checkOrcVersion(orcDataSource, postScript.getVersion());
-        validateWrite(validation -> validation.getVersion().equals(postScript.getVersion()), "Unexpected version");
-
-        this.bufferSize = toIntExact(postScript.getCompressionBlockSize());
 
         // check compression codec is supported
-        this.compressionKind = postScript.getCompression();
-        this.decompressor = createOrcDecompressor(orcDataSource.getId(), compressionKind, bufferSize);
-        validateWrite(validation -> validation.getCompression() == compressionKind, "Unexpected compression");
-
-        this.hiveWriterVersion = postScript.getHiveWriterVersion();
+        Optional<OrcDecompressor> decompressor = createOrcDecompressor(orcDataSource.getId(), postScript.getCompression(), toIntExact(postScript.getCompressionBlockSize()));
+        HiveWriterVersion hiveWriterVersion = postScript.getHiveWriterVersion();
 
         int footerSize = toIntExact(postScript.getFooterLength());
         int metadataSize = toIntExact(postScript.getMetadataLength());
@@ -193,29 +232,23 @@ public class OrcReader
         }
 
         // read metadata
+        Metadata metadata;
         Slice metadataSlice = completeFooterSlice.slice(0, metadataSize);
         try (InputStream metadataInputStream = new OrcInputStream(OrcChunkLoader.create(orcDataSource.getId(), metadataSlice, decompressor, newSimpleAggregatedMemoryContext()))) {
-            this.metadata = metadataReader.readMetadata(hiveWriterVersion, metadataInputStream);
+            metadata = metadataReader.readMetadata(hiveWriterVersion, metadataInputStream);
         }
 
         // read footer
+        Footer footer;
         Slice footerSlice = completeFooterSlice.slice(metadataSize, footerSize);
         try (InputStream footerInputStream = new OrcInputStream(OrcChunkLoader.create(orcDataSource.getId(), footerSlice, decompressor, newSimpleAggregatedMemoryContext()))) {
-            this.footer = metadataReader.readFooter(hiveWriterVersion, footerInputStream);
+            footer = metadataReader.readFooter(hiveWriterVersion, footerInputStream);
         }
         if (footer.getTypes().size() == 0) {
             throw new OrcCorruptionException(orcDataSource.getId(), "File has no columns");
         }
 
-        this.rootColumn = createOrcColumn("", "", new OrcColumnId(0), footer.getTypes(), orcDataSource.getId());
-
-        validateWrite(validation -> validation.getColumnNames().equals(getColumnNames()), "Unexpected column names");
-        validateWrite(validation -> validation.getRowGroupMaxRowCount() == footer.getRowsInRowGroup().orElse(0), "Unexpected rows in group");
-        if (writeValidation.isPresent()) {
-            writeValidation.get().validateMetadata(orcDataSource.getId(), footer.getUserMetadata());
-            writeValidation.get().validateFileStatistics(orcDataSource.getId(), footer.getFileStats());
-            writeValidation.get().validateStripeStatistics(orcDataSource.getId(), footer.getStripes(), metadata.getStripeStatsList());
-        }
+        return new OrcFileTail(postScript, footer, metadata, completeFooterSize);
     }
 
     public List<String> getColumnNames()
@@ -223,6 +256,11 @@ public class OrcReader
         return footer.getTypes().get(ROOT_COLUMN).getFieldNames();
     }
 
+    public OrcFileTail getFileTail()
+    {
+        return fileTail;
+    }
+
     public Footer getFooter()
     {
         return footer;
@@ -408,7 +446,7 @@ public class OrcReader
             throws OrcCorruptionException
     {
         try {
-            OrcReader orcReader = createOrcReader(input, new OrcReaderOptions(), Optional.of(writeValidation))
+            OrcReader orcReader = createOrcReader(input, new OrcReaderOptions(), Optional.of(writeValidation), Optional.empty())
                     .orElseThrow(() -> new OrcCorruptionException(input.getId(), "File is empty"));
             try (OrcRecordReader orcRecordReader = orcReader.createRecordReader(
                     orcReader.getRootColumn().getNestedColumns(),
@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.orc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.units.DataSize;
+import io.trino.orc.stream.OrcDataReader;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static org.testng.Assert.assertEquals;
+
+public class TestAbstractOrcDataSource
+{
+    @Test
+    public void testPlannedReads()
+            throws Exception
+    {
+        OrcReaderOptions options = new OrcReaderOptions()
+                .withMaxMergeDistance(DataSize.of(1, KILOBYTE))
+                .withMaxBufferSize(DataSize.of(8, KILOBYTE));
+        RecordingOrcDataSource dataSource = new RecordingOrcDataSource(new byte[64 * 1024], options);
+
+        Map<String, OrcDataReader> readers = dataSource.readFully(ImmutableMap.of(
+                "a", new DiskRange(0, 100),
+                "b", new DiskRange(600, 100),
+                "c", new DiskRange(10_000, 100),
+                "d", new DiskRange(20_000, 16 * 1024)));
+        assertEquals(readers.keySet(), ImmutableSet.of("a", "b", "c", "d"));
+
+        // "a" and "b" are merged into a single read including the gap, "d" is read on its own
+        assertEquals(dataSource.getRequestedRanges(), ImmutableList.of(
+                new DiskRange(0, 100),
+                new DiskRange(600, 100),
+                new DiskRange(10_000, 100),
+                new DiskRange(20_000, 16 * 1024)));
+        assertEquals(dataSource.getPlannedReads(), ImmutableList.of(
+                new DiskRange(0, 700),
+                new DiskRange(10_000, 100),
+                new DiskRange(20_000, 16 * 1024)));
+    }
+
+    private static class RecordingOrcDataSource
+            extends AbstractOrcDataSource
+    {
+        private final byte[] data;
+        private final List<DiskRange> requestedRanges = new ArrayList<>();
+        private final List<DiskRange> plannedReads = new ArrayList<>();
+
+        public RecordingOrcDataSource(byte[] data, OrcReaderOptions options)
+        {
+            super(new OrcDataSourceId("test"), data.length, options);
+            this.data = data;
+        }
+
+        @Override
+        protected void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
+        {
+            System.arraycopy(data, (int) position, buffer, bufferOffset, bufferLength);
+        }
+
+        @Override
+        protected void readsPlanned(Iterable<DiskRange> requestedRanges, Iterable<DiskRange> plannedReads)
+        {
+            requestedRanges.forEach(this.requestedRanges::add);
+            plannedReads.forEach(this.plannedReads::add);
+        }
+
+        public List<DiskRange> getRequestedRanges()
+        {
+            return requestedRanges;
+        }
+
+        public List<DiskRange> getPlannedReads()
+        {
+            return plannedReads;
+        }
+    }
+}
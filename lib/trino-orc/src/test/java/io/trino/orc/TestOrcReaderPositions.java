@@ -13,6 +13,7 @@
  */
 package io.trino.orc;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import io.airlift.slice.Slice;
@@ -43,6 +44,7 @@ import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.util.Map;
 
+import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.trino.orc.OrcReader.BATCH_SIZE_GROWTH_FACTOR;
 import static io.trino.orc.OrcReader.INITIAL_BATCH_SIZE;
 import static io.trino.orc.OrcReader.MAX_BATCH_SIZE;
@@ -56,8 +58,10 @@ import static io.trino.spi.type.VarcharType.VARCHAR;
 import static java.lang.Math.min;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.hadoop.hive.ql.io.orc.CompressionKind.SNAPPY;
+import static org.joda.time.DateTimeZone.UTC;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
@@ -312,6 +316,40 @@ public class TestOrcReaderPositions
         }
     }
 
+    @Test
+    public void testReuseFileTail()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            createMultiStripeFile(tempFile.getFile());
+
+            OrcReader orcReader = OrcReader.createOrcReader(new FileOrcDataSource(tempFile.getFile(), READER_OPTIONS), READER_OPTIONS)
+                    .orElseThrow(() -> new RuntimeException("File is empty"));
+            OrcFileTail fileTail = orcReader.getFileTail();
+            assertTrue(fileTail.getRetainedSizeInBytes() > 0);
+
+            OrcReader reusingReader = OrcReader.createOrcReader(new FileOrcDataSource(tempFile.getFile(), READER_OPTIONS), READER_OPTIONS, fileTail);
+            assertSame(reusingReader.getFooter(), orcReader.getFooter());
+            assertSame(reusingReader.getMetadata(), orcReader.getMetadata());
+            assertEquals(reusingReader.getCompressionKind(), orcReader.getCompressionKind());
+            assertEquals(reusingReader.getBufferSize(), orcReader.getBufferSize());
+
+            try (OrcRecordReader reader = reusingReader.createRecordReader(
+                    reusingReader.getRootColumn().getNestedColumns(),
+                    ImmutableList.of(BIGINT),
+                    OrcPredicate.TRUE,
+                    UTC,
+                    newSimpleAggregatedMemoryContext(),
+                    MAX_BATCH_SIZE,
+                    RuntimeException::new)) {
+                for (int i = 0; i < 5; i++) {
+                    assertCurrentBatch(reader.nextPage().getLoadedPage(), i);
+                }
+                assertNull(reader.nextPage());
+            }
+        }
+    }
+
     @Test
     public void testBatchSizeGrowth()
             throws Exception
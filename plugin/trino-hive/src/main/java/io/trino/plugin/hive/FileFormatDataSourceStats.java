@@ -13,11 +13,14 @@
  */
 package io.trino.plugin.hive;
 
+import io.airlift.stats.CounterStat;
 import io.airlift.stats.DistributionStat;
 import io.airlift.stats.TimeStat;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
+import java.util.function.ToLongFunction;
+
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
@@ -29,6 +32,10 @@ public class FileFormatDataSourceStats
     private final TimeStat time100KBto1MB = new TimeStat(MILLISECONDS);
     private final TimeStat time1MBto10MB = new TimeStat(MILLISECONDS);
     private final TimeStat time10MBPlus = new TimeStat(MILLISECONDS);
+    private final CounterStat requestedRanges = new CounterStat();
+    private final CounterStat requestedRangeBytes = new CounterStat();
+    private final CounterStat plannedReads = new CounterStat();
+    private final CounterStat plannedReadBytes = new CounterStat();
 
     @Managed
     @Nested
@@ -72,6 +79,44 @@ public class FileFormatDataSourceStats
         return time10MBPlus;
     }
 
+    @Managed
+    @Nested
+    public CounterStat getRequestedRanges()
+    {
+        return requestedRanges;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getRequestedRangeBytes()
+    {
+        return requestedRangeBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getPlannedReads()
+    {
+        return plannedReads;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getPlannedReadBytes()
+    {
+        return plannedReadBytes;
+    }
+
+    @Managed
+    public double getReadAmplification()
+    {
+        long requestedBytes = requestedRangeBytes.getTotalCount();
+        if (requestedBytes == 0) {
+            return Double.NaN;
+        }
+        return (double) plannedReadBytes.getTotalCount() / requestedBytes;
+    }
+
     public void readDataBytesPerSecond(long bytes, long nanos)
     {
         readBytes.add(bytes);
@@ -89,6 +134,30 @@ public class FileFormatDataSourceStats
         }
     }
 
+    /**
+     * Records the disk ranges requested by a reader against the reads they were planned into,
+     * after small ranges have been merged.
+     */
+    public <T> void addPlannedReads(Iterable<T> requestedRanges, Iterable<T> plannedReads, ToLongFunction<T> rangeLength)
+    {
+        int requestedCount = 0;
+        long requestedBytes = 0;
+        for (T range : requestedRanges) {
+            requestedCount++;
+            requestedBytes += rangeLength.applyAsLong(range);
+        }
+        int plannedCount = 0;
+        long plannedBytes = 0;
+        for (T range : plannedReads) {
+            plannedCount++;
+            plannedBytes += rangeLength.applyAsLong(range);
+        }
+        this.requestedRanges.update(requestedCount);
+        this.requestedRangeBytes.update(requestedBytes);
+        this.plannedReads.update(plannedCount);
+        this.plannedReadBytes.update(plannedBytes);
+    }
+
     public void addMaxCombinedBytesPerRow(long bytes)
     {
         maxCombinedBytesPerRow.add(bytes);
@@ -146,6 +146,9 @@ public class HiveConfig
 
     private boolean legacyHiveViewTranslation;
 
+    private boolean softAffinitySchedulingEnabled;
+    private int softAffinityPreferredNodes = 2;
+
     public int getMaxInitialSplits()
     {
         return maxInitialSplits;
@@ -241,6 +244,33 @@ public class HiveConfig
         return this;
     }
 
+    public boolean isSoftAffinitySchedulingEnabled()
+    {
+        return softAffinitySchedulingEnabled;
+    }
+
+    @Config("hive.soft-affinity-scheduling.enabled")
+    @ConfigDescription("Prefer scheduling splits of the same file region on the same workers to improve the hit rate of worker-local caches")
+    public HiveConfig setSoftAffinitySchedulingEnabled(boolean softAffinitySchedulingEnabled)
+    {
+        this.softAffinitySchedulingEnabled = softAffinitySchedulingEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getSoftAffinityPreferredNodes()
+    {
+        return softAffinityPreferredNodes;
+    }
+
+    @Config("hive.soft-affinity-scheduling.preferred-nodes")
+    @ConfigDescription("Number of workers preferred for each split when soft affinity scheduling is enabled")
+    public HiveConfig setSoftAffinityPreferredNodes(int softAffinityPreferredNodes)
+    {
+        this.softAffinityPreferredNodes = softAffinityPreferredNodes;
+        return this;
+    }
+
     @Min(1)
     public int getMaxConcurrentFileRenames()
     {
@@ -22,6 +22,10 @@ import com.google.inject.Scopes;
 import com.google.inject.multibindings.Multibinder;
 import io.airlift.event.client.EventClient;
 import io.trino.plugin.base.CatalogName;
+import io.trino.plugin.hive.cache.FileRangeCache;
+import io.trino.plugin.hive.cache.FileRangeCacheConfig;
+import io.trino.plugin.hive.cache.FooterCache;
+import io.trino.plugin.hive.cache.FooterCacheConfig;
 import io.trino.plugin.hive.metastore.MetastoreConfig;
 import io.trino.plugin.hive.metastore.SemiTransactionalHiveMetastore;
 import io.trino.plugin.hive.orc.OrcFileWriterFactory;
@@ -102,6 +106,14 @@ public class HiveModule
         binder.bind(FileFormatDataSourceStats.class).in(Scopes.SINGLETON);
         newExporter(binder).export(FileFormatDataSourceStats.class).withGeneratedName();
 
+        configBinder(binder).bindConfig(FileRangeCacheConfig.class);
+        binder.bind(FileRangeCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(FileRangeCache.class).withGeneratedName();
+
+        configBinder(binder).bindConfig(FooterCacheConfig.class);
+        binder.bind(FooterCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(FooterCache.class).withGeneratedName();
+
         Multibinder<HivePageSourceFactory> pageSourceFactoryBinder = newSetBinder(binder, HivePageSourceFactory.class);
         pageSourceFactoryBinder.addBinding().to(OrcPageSourceFactory.class).in(Scopes.SINGLETON);
         pageSourceFactoryBinder.addBinding().to(ParquetPageSourceFactory.class).in(Scopes.SINGLETON);
@@ -27,6 +27,7 @@ import io.trino.plugin.hive.metastore.Partition;
 import io.trino.plugin.hive.metastore.SemiTransactionalHiveMetastore;
 import io.trino.plugin.hive.metastore.Table;
 import io.trino.plugin.hive.util.HiveBucketing.HiveBucketFilter;
+import io.trino.spi.NodeManager;
 import io.trino.spi.TrinoException;
 import io.trino.spi.VersionEmbedder;
 import io.trino.spi.connector.ConnectorSession;
@@ -107,6 +108,8 @@ public class HiveSplitManager
     private final boolean recursiveDfsWalkerEnabled;
     private final CounterStat highMemorySplitSourceCounter;
     private final TypeManager typeManager;
+    private final CounterStat softAffinityScheduledSplits = new CounterStat();
+    private final Optional<SoftAffinityAddressProvider> softAffinityAddressProvider;
 
     @Inject
     public HiveSplitManager(
@@ -118,7 +121,8 @@ public class HiveSplitManager
             DirectoryLister directoryLister,
             ExecutorService executorService,
             VersionEmbedder versionEmbedder,
-            TypeManager typeManager)
+            TypeManager typeManager,
+            NodeManager nodeManager)
     {
         this(
                 metastoreProvider,
@@ -136,7 +140,10 @@ public class HiveSplitManager
                 hiveConfig.getSplitLoaderConcurrency(),
                 hiveConfig.getMaxSplitsPerSecond(),
                 hiveConfig.getRecursiveDirWalkerEnabled(),
-                typeManager);
+                typeManager,
+                hiveConfig.isSoftAffinitySchedulingEnabled() ? Optional.of(nodeManager) : Optional.empty(),
+                hiveConfig.getSoftAffinityPreferredNodes(),
+                hiveConfig.getMaxSplitSize());
     }
 
     public HiveSplitManager(
@@ -155,7 +162,10 @@ public class HiveSplitManager
             int splitLoaderConcurrency,
             @Nullable Integer maxSplitsPerSecond,
             boolean recursiveDfsWalkerEnabled,
-            TypeManager typeManager)
+            TypeManager typeManager,
+            Optional<NodeManager> softAffinityNodeManager,
+            int softAffinityPreferredNodes,
+            DataSize softAffinityRegionSize)
     {
         this.metastoreProvider = requireNonNull(metastoreProvider, "metastore is null");
         this.partitionManager = requireNonNull(partitionManager, "partitionManager is null");
@@ -174,6 +184,8 @@ public class HiveSplitManager
         this.maxSplitsPerSecond = firstNonNull(maxSplitsPerSecond, Integer.MAX_VALUE);
         this.recursiveDfsWalkerEnabled = recursiveDfsWalkerEnabled;
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
+        this.softAffinityAddressProvider = requireNonNull(softAffinityNodeManager, "softAffinityNodeManager is null")
+                .map(nodeManager -> new SoftAffinityAddressProvider(nodeManager, softAffinityPreferredNodes, softAffinityRegionSize.toBytes(), softAffinityScheduledSplits));
     }
 
     @Override
@@ -256,7 +268,8 @@ public class HiveSplitManager
                         maxSplitsPerSecond,
                         hiveSplitLoader,
                         executor,
-                        highMemorySplitSourceCounter);
+                        highMemorySplitSourceCounter,
+                        softAffinityAddressProvider);
                 break;
             case GROUPED_SCHEDULING:
                 splitSource = HiveSplitSource.bucketed(
@@ -269,7 +282,8 @@ public class HiveSplitManager
                         maxSplitsPerSecond,
                         hiveSplitLoader,
                         executor,
-                        highMemorySplitSourceCounter);
+                        highMemorySplitSourceCounter,
+                        softAffinityAddressProvider);
                 break;
             default:
                 throw new IllegalArgumentException("Unknown splitSchedulingStrategy: " + splitSchedulingStrategy);
@@ -286,6 +300,13 @@ public class HiveSplitManager
         return highMemorySplitSourceCounter;
     }
 
+    @Managed
+    @Nested
+    public CounterStat getSoftAffinityScheduledSplits()
+    {
+        return softAffinityScheduledSplits;
+    }
+
     private Iterable<HivePartitionMetadata> getPartitionMetadata(ConnectorSession session, SemiTransactionalHiveMetastore metastore, Table table, SchemaTableName tableName, List<HivePartition> hivePartitions, Optional<HiveBucketProperty> bucketProperty)
     {
         if (hivePartitions.isEmpty()) {
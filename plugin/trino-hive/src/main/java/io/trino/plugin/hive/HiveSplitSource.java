@@ -24,6 +24,7 @@ import io.trino.plugin.hive.InternalHiveSplit.InternalHiveBlock;
 import io.trino.plugin.hive.util.AsyncQueue;
 import io.trino.plugin.hive.util.AsyncQueue.BorrowResult;
 import io.trino.plugin.hive.util.ThrottledAsyncQueue;
+import io.trino.spi.HostAddress;
 import io.trino.spi.TrinoException;
 import io.trino.spi.connector.ConnectorPartitionHandle;
 import io.trino.spi.connector.ConnectorSession;
@@ -33,6 +34,7 @@ import io.trino.spi.connector.ConnectorSplitSource;
 import java.io.FileNotFoundException;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -86,6 +88,7 @@ class HiveSplitSource
     private final AtomicLong estimatedSplitSizeInBytes = new AtomicLong();
 
     private final CounterStat highMemorySplitSourceCounter;
+    private final Optional<SoftAffinityAddressProvider> softAffinityAddressProvider;
     private final AtomicBoolean loggedHighMemoryWarning = new AtomicBoolean();
 
     private HiveSplitSource(
@@ -97,7 +100,8 @@ class HiveSplitSource
             DataSize maxOutstandingSplitsSize,
             HiveSplitLoader splitLoader,
             AtomicReference<State> stateReference,
-            CounterStat highMemorySplitSourceCounter)
+            CounterStat highMemorySplitSourceCounter,
+            Optional<SoftAffinityAddressProvider> softAffinityAddressProvider)
     {
         requireNonNull(session, "session is null");
         this.queryId = session.getQueryId();
@@ -108,6 +112,7 @@ class HiveSplitSource
         this.splitLoader = requireNonNull(splitLoader, "splitLoader is null");
         this.stateReference = requireNonNull(stateReference, "stateReference is null");
         this.highMemorySplitSourceCounter = requireNonNull(highMemorySplitSourceCounter, "highMemorySplitSourceCounter is null");
+        this.softAffinityAddressProvider = requireNonNull(softAffinityAddressProvider, "softAffinityAddressProvider is null");
 
         this.maxSplitSize = getMaxSplitSize(session);
         this.maxInitialSplitSize = getMaxInitialSplitSize(session);
@@ -124,7 +129,8 @@ class HiveSplitSource
             int maxSplitsPerSecond,
             HiveSplitLoader splitLoader,
             Executor executor,
-            CounterStat highMemorySplitSourceCounter)
+            CounterStat highMemorySplitSourceCounter,
+            Optional<SoftAffinityAddressProvider> softAffinityAddressProvider)
     {
         AtomicReference<State> stateReference = new AtomicReference<>(State.initial());
         return new HiveSplitSource(
@@ -166,7 +172,8 @@ class HiveSplitSource
                 maxOutstandingSplitsSize,
                 splitLoader,
                 stateReference,
-                highMemorySplitSourceCounter);
+                highMemorySplitSourceCounter,
+                softAffinityAddressProvider);
     }
 
     public static HiveSplitSource bucketed(
@@ -179,7 +186,8 @@ class HiveSplitSource
             int maxSplitsPerSecond,
             HiveSplitLoader splitLoader,
             Executor executor,
-            CounterStat highMemorySplitSourceCounter)
+            CounterStat highMemorySplitSourceCounter,
+            Optional<SoftAffinityAddressProvider> softAffinityAddressProvider)
     {
         AtomicReference<State> stateReference = new AtomicReference<>(State.initial());
         return new HiveSplitSource(
@@ -241,7 +249,8 @@ class HiveSplitSource
                 maxOutstandingSplitsSize,
                 splitLoader,
                 stateReference,
-                highMemorySplitSourceCounter);
+                highMemorySplitSourceCounter,
+                softAffinityAddressProvider);
     }
 
     /**
@@ -362,6 +371,12 @@ class HiveSplitSource
                     splitBytes = internalSplit.getEnd() - internalSplit.getStart();
                 }
 
+                List<HostAddress> addresses = block.getAddresses();
+                // soft affinity only stands in for data locality on storage which does not report block locations
+                if (softAffinityAddressProvider.isPresent() && addresses.isEmpty() && !internalSplit.isForceLocalScheduling()) {
+                    addresses = softAffinityAddressProvider.get().getPreferredAddresses(internalSplit.getPath(), internalSplit.getStart());
+                }
+
                 resultBuilder.add(new HiveSplit(
                         databaseName,
                         tableName,
@@ -373,7 +388,7 @@ class HiveSplitSource
                         internalSplit.getFileModifiedTime(),
                         internalSplit.getSchema(),
                         internalSplit.getPartitionKeys(),
-                        block.getAddresses(),
+                        addresses,
                         internalSplit.getBucketNumber(),
                         internalSplit.getStatementId(),
                         internalSplit.isForceLocalScheduling(),
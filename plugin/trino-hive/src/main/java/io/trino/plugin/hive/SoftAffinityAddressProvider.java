@@ -0,0 +1,119 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.XxHash64;
+import io.airlift.stats.CounterStat;
+import io.trino.spi.HostAddress;
+import io.trino.spi.Node;
+import io.trino.spi.NodeManager;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Suppliers.memoizeWithExpiration;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.lang.Math.min;
+import static java.util.Comparator.comparing;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Assigns preferred workers to file regions using rendezvous hashing, so that splits reading
+ * the same region of a file are scheduled on the same workers across queries. The addresses are
+ * only a preference: the engine falls back to other workers when the preferred ones are busy.
+ * When workers join or leave the cluster, only the regions whose preferred workers changed move.
+ */
+public class SoftAffinityAddressProvider
+{
+    private static final long NODE_REFRESH_INTERVAL_SECONDS = 5;
+
+    private final Supplier<List<Candidate>> candidates;
+    private final int preferredNodes;
+    private final long regionSize;
+    private final CounterStat scheduledSplits;
+
+    public SoftAffinityAddressProvider(NodeManager nodeManager, int preferredNodes, long regionSize, CounterStat scheduledSplits)
+    {
+        requireNonNull(nodeManager, "nodeManager is null");
+        checkArgument(preferredNodes >= 1, "preferredNodes must be at least 1");
+        checkArgument(regionSize > 0, "regionSize must be positive");
+        this.candidates = memoizeWithExpiration(() -> nodeManager.getWorkerNodes().stream()
+                        .sorted(comparing(Node::getNodeIdentifier))
+                        .map(Candidate::new)
+                        .collect(toImmutableList()),
+                NODE_REFRESH_INTERVAL_SECONDS,
+                SECONDS);
+        this.preferredNodes = preferredNodes;
+        this.regionSize = regionSize;
+        this.scheduledSplits = requireNonNull(scheduledSplits, "scheduledSplits is null");
+    }
+
+    public List<HostAddress> getPreferredAddresses(String path, long start)
+    {
+        List<Candidate> nodes = candidates.get();
+        if (nodes.isEmpty()) {
+            return ImmutableList.of();
+        }
+
+        // splits are aligned to regions, so that differently sized splits of the same region share their preferred workers
+        long regionHash = XxHash64.hash(start / regionSize, utf8Slice(path));
+
+        int count = min(preferredNodes, nodes.size());
+        long[] scores = new long[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            scores[i] = XxHash64.hash(regionHash ^ nodes.get(i).getHash());
+        }
+
+        ImmutableList.Builder<HostAddress> addresses = ImmutableList.builderWithExpectedSize(count);
+        boolean[] selected = new boolean[nodes.size()];
+        for (int i = 0; i < count; i++) {
+            int best = -1;
+            for (int node = 0; node < nodes.size(); node++) {
+                if (!selected[node] && (best == -1 || scores[node] > scores[best])) {
+                    best = node;
+                }
+            }
+            selected[best] = true;
+            addresses.add(nodes.get(best).getAddress());
+        }
+        scheduledSplits.update(1);
+        return addresses.build();
+    }
+
+    private static class Candidate
+    {
+        private final HostAddress address;
+        private final long hash;
+
+        public Candidate(Node node)
+        {
+            this.address = node.getHostAndPort();
+            this.hash = XxHash64.hash(utf8Slice(node.getNodeIdentifier()));
+        }
+
+        public HostAddress getAddress()
+        {
+            return address;
+        }
+
+        public long getHash()
+        {
+            return hash;
+        }
+    }
+}
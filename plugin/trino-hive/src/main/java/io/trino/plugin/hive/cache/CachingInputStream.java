@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive.cache;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Serves reads within the expected size of the file from the {@link FileRangeCache}. Reads beyond
+ * the expected size, which are used to verify the actual end of the file, go to the delegate.
+ */
+class CachingInputStream
+        extends FSInputStream
+{
+    private final FileRangeCache cache;
+    private final String path;
+    private final long modificationTime;
+    private final long fileSize;
+    private final FSDataInputStream delegate;
+
+    private long position;
+
+    public CachingInputStream(FileRangeCache cache, String path, long modificationTime, long fileSize, FSDataInputStream delegate)
+    {
+        this.cache = requireNonNull(cache, "cache is null");
+        this.path = requireNonNull(path, "path is null");
+        this.modificationTime = modificationTime;
+        this.fileSize = fileSize;
+        this.delegate = requireNonNull(delegate, "delegate is null");
+    }
+
+    @Override
+    public void seek(long position)
+            throws IOException
+    {
+        if (position < 0) {
+            throw new EOFException("Cannot seek to negative position: " + position);
+        }
+        this.position = position;
+    }
+
+    @Override
+    public long getPos()
+    {
+        return position;
+    }
+
+    @Override
+    public boolean seekToNewSource(long targetPosition)
+    {
+        return false;
+    }
+
+    @Override
+    public int read()
+            throws IOException
+    {
+        byte[] buffer = new byte[1];
+        if (read(buffer, 0, 1) <= 0) {
+            return -1;
+        }
+        return buffer[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        int bytesRead = read(position, buffer, offset, length);
+        if (bytesRead > 0) {
+            position += bytesRead;
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public int read(long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        if (length == 0) {
+            return 0;
+        }
+        if (position >= fileSize) {
+            return delegate.read(position, buffer, offset, length);
+        }
+
+        int readLength = toIntExact(min(length, fileSize - position));
+        try {
+            cache.readFully(path, modificationTime, fileSize, delegate, position, buffer, offset, readLength);
+        }
+        catch (EOFException e) {
+            // the file is shorter than expected
+            return delegate.read(position, buffer, offset, length);
+        }
+        return readLength;
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        if (position + length > fileSize) {
+            delegate.readFully(position, buffer, offset, length);
+            return;
+        }
+        cache.readFully(path, modificationTime, fileSize, delegate, position, buffer, offset, length);
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        delegate.close();
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import io.airlift.log.Logger;
+import io.airlift.stats.CounterStat;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.inject.Inject;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.Objects.requireNonNull;
+import static java.util.UUID.randomUUID;
+
+/**
+ * Caches fixed-size chunks of remote files on local disk. Chunks are keyed by the file path and its
+ * modification time, so rewritten files are never served from stale chunks. The least recently used
+ * chunks are evicted once the total size of the cached chunks exceeds the configured maximum.
+ */
+public class FileRangeCache
+{
+    private static final Logger log = Logger.get(FileRangeCache.class);
+
+    // only files named like chunks are removed from the location, which may be shared with other files
+    private static final String CHUNK_FILE_SUFFIX = ".chunk";
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Path directory;
+    private final Cache<ChunkKey, CachedChunk> chunks;
+
+    private final CounterStat hits = new CounterStat();
+    private final CounterStat misses = new CounterStat();
+    private final CounterStat evictions = new CounterStat();
+    private final CounterStat cacheReadBytes = new CounterStat();
+    private final CounterStat remoteReadBytes = new CounterStat();
+    private final AtomicLong cachedBytes = new AtomicLong();
+
+    @Inject
+    public FileRangeCache(FileRangeCacheConfig config)
+    {
+        requireNonNull(config, "config is null");
+        this.enabled = config.isEnabled();
+        this.chunkSize = toIntExact(config.getChunkSize().toBytes());
+        this.chunks = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .weigher((ChunkKey key, CachedChunk chunk) -> chunk.getLength())
+                .removalListener(this::chunkRemoved)
+                .build();
+
+        if (enabled) {
+            checkArgument(config.getLocation() != null, "location is not set");
+            this.directory = Paths.get(config.getLocation());
+            initializeDirectory(directory);
+        }
+        else {
+            this.directory = null;
+        }
+    }
+
+    /**
+     * Returns a stream that serves positioned reads of the given file from the cache, or the
+     * {@code delegate} itself when the cache is disabled.
+     */
+    public FSDataInputStream wrap(String path, long modificationTime, long fileSize, FSDataInputStream delegate)
+    {
+        if (!enabled) {
+            return delegate;
+        }
+        return new FSDataInputStream(new CachingInputStream(this, path, modificationTime, fileSize, delegate));
+    }
+
+    void readFully(String path, long modificationTime, long fileSize, FSDataInputStream delegate, long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        checkArgument(position + length <= fileSize, "read is beyond the end of the file");
+        while (length > 0) {
+            long chunkIndex = position / chunkSize;
+            long chunkStart = chunkIndex * chunkSize;
+            int chunkLength = toIntExact(min(chunkSize, fileSize - chunkStart));
+            int chunkOffset = toIntExact(position - chunkStart);
+            int readLength = min(length, chunkLength - chunkOffset);
+
+            readChunk(new ChunkKey(path, modificationTime, chunkIndex), chunkStart, chunkLength, delegate, chunkOffset, buffer, offset, readLength);
+
+            position += readLength;
+            offset += readLength;
+            length -= readLength;
+        }
+    }
+
+    private void readChunk(ChunkKey key, long chunkStart, int chunkLength, FSDataInputStream delegate, int chunkOffset, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        // concurrent readers of a missing chunk wait for a single download of it
+        byte[][] downloadedData = new byte[1][];
+        CachedChunk chunk;
+        try {
+            chunk = chunks.get(key, () -> {
+                misses.update(1);
+                byte[] data = new byte[chunkLength];
+                delegate.readFully(chunkStart, data, 0, chunkLength);
+                remoteReadBytes.update(chunkLength);
+                downloadedData[0] = data;
+                return storeChunk(key, data);
+            });
+        }
+        catch (ExecutionException e) {
+            if (downloadedData[0] != null) {
+                // the chunk was downloaded, but could not be stored
+                System.arraycopy(downloadedData[0], chunkOffset, buffer, offset, length);
+                return;
+            }
+            // the chunk could not be downloaded as a whole, for example when the file is shorter than its estimated size
+            readRemote(delegate, chunkStart + chunkOffset, buffer, offset, length);
+            return;
+        }
+
+        if (downloadedData[0] != null) {
+            System.arraycopy(downloadedData[0], chunkOffset, buffer, offset, length);
+            return;
+        }
+        try {
+            chunk.read(chunkOffset, buffer, offset, length);
+            hits.update(1);
+            cacheReadBytes.update(length);
+        }
+        catch (IOException e) {
+            // the chunk was evicted while being read, so only remove it unless it was replaced in the meantime
+            chunks.asMap().remove(key, chunk);
+            readRemote(delegate, chunkStart + chunkOffset, buffer, offset, length);
+        }
+    }
+
+    private CachedChunk storeChunk(ChunkKey key, byte[] data)
+            throws IOException
+    {
+        Path file = directory.resolve(randomUUID() + CHUNK_FILE_SUFFIX);
+        try {
+            Files.write(file, data);
+        }
+        catch (IOException e) {
+            log.warn(e, "Failed to cache chunk %s of file %s", key.getIndex(), key.getPath());
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        cachedBytes.addAndGet(data.length);
+        return new CachedChunk(file, data.length);
+    }
+
+    private void readRemote(FSDataInputStream delegate, long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        delegate.readFully(position, buffer, offset, length);
+        remoteReadBytes.update(length);
+    }
+
+    private void chunkRemoved(RemovalNotification<ChunkKey, CachedChunk> notification)
+    {
+        CachedChunk chunk = notification.getValue();
+        cachedBytes.addAndGet(-chunk.getLength());
+        if (notification.wasEvicted()) {
+            evictions.update(1);
+        }
+        try {
+            Files.deleteIfExists(chunk.getFile());
+        }
+        catch (IOException e) {
+            log.warn(e, "Failed to delete cached chunk %s", chunk.getFile());
+        }
+    }
+
+    private static void initializeDirectory(Path directory)
+    {
+        try {
+            Files.createDirectories(directory);
+            // chunks are only tracked in memory, so chunks left over from a previous run cannot be used
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + CHUNK_FILE_SUFFIX)) {
+                for (Path file : files) {
+                    if (Files.isRegularFile(file)) {
+                        Files.delete(file);
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialize file range cache directory " + directory, e);
+        }
+    }
+
+    @Managed
+    public long getCachedBytes()
+    {
+        return cachedBytes.get();
+    }
+
+    @Managed
+    public long getCachedChunks()
+    {
+        return chunks.size();
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getHits()
+    {
+        return hits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getMisses()
+    {
+        return misses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getEvictions()
+    {
+        return evictions;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getCacheReadBytes()
+    {
+        return cacheReadBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getRemoteReadBytes()
+    {
+        return remoteReadBytes;
+    }
+
+    private static final class ChunkKey
+    {
+        private final String path;
+        private final long modificationTime;
+        private final long index;
+
+        public ChunkKey(String path, long modificationTime, long index)
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.modificationTime = modificationTime;
+            this.index = index;
+        }
+
+        public String getPath()
+        {
+            return path;
+        }
+
+        public long getIndex()
+        {
+            return index;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ChunkKey that = (ChunkKey) o;
+            return modificationTime == that.modificationTime &&
+                    index == that.index &&
+                    path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, modificationTime, index);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("path", path)
+                    .add("modificationTime", modificationTime)
+                    .add("index", index)
+                    .toString();
+        }
+    }
+
+    private static final class CachedChunk
+    {
+        private final Path file;
+        private final int length;
+
+        public CachedChunk(Path file, int length)
+        {
+            this.file = requireNonNull(file, "file is null");
+            this.length = length;
+        }
+
+        public Path getFile()
+        {
+            return file;
+        }
+
+        public int getLength()
+        {
+            return length;
+        }
+
+        public void read(int chunkOffset, byte[] buffer, int offset, int length)
+                throws IOException
+        {
+            try (FileChannel channel = FileChannel.open(file, READ)) {
+                ByteBuffer target = ByteBuffer.wrap(buffer, offset, length);
+                while (target.hasRemaining()) {
+                    if (channel.read(target, chunkOffset + (target.position() - offset)) < 0) {
+                        throw new EOFException("Unexpected end of cached chunk " + file);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive.cache;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.MaxDataSize;
+import io.airlift.units.MinDataSize;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class FileRangeCacheConfig
+{
+    private boolean enabled;
+    private String location;
+    private DataSize maxSize = DataSize.of(10, GIGABYTE);
+    private DataSize chunkSize = DataSize.of(1, MEGABYTE);
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Config("hive.file-range-cache.enabled")
+    @ConfigDescription("Cache ranges of ORC and Parquet files read from remote storage on local disk")
+    public FileRangeCacheConfig setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public String getLocation()
+    {
+        return location;
+    }
+
+    @Config("hive.file-range-cache.location")
+    @ConfigDescription("Local directory used to store cached file ranges. Its contents are removed on startup")
+    public FileRangeCacheConfig setLocation(String location)
+    {
+        this.location = location;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("1MB")
+    public DataSize getMaxSize()
+    {
+        return maxSize;
+    }
+
+    @Config("hive.file-range-cache.max-size")
+    @ConfigDescription("Maximum size of the cached file ranges on local disk")
+    public FileRangeCacheConfig setMaxSize(DataSize maxSize)
+    {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("64kB")
+    @MaxDataSize("64MB")
+    public DataSize getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    @Config("hive.file-range-cache.chunk-size")
+    @ConfigDescription("Size of the file chunks the cache reads and stores")
+    public FileRangeCacheConfig setChunkSize(DataSize chunkSize)
+    {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    @AssertTrue(message = "hive.file-range-cache.location must be set when the file range cache is enabled")
+    public boolean isLocationValid()
+    {
+        return !enabled || location != null;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.airlift.jmx.CacheStatsMBean;
+import io.trino.orc.OrcFileTail;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.inject.Inject;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Caches parsed ORC file tails and Parquet footers, so that splits of the same file running on
+ * a worker read and parse the footer only once. Entries are keyed by the file path, modification
+ * time and size, so rewritten files are never served stale footers.
+ */
+public class FooterCache
+{
+    // rough retained size of a parsed Parquet column chunk, including its statistics
+    private static final int PARQUET_COLUMN_CHUNK_SIZE_ESTIMATE = 512;
+    private static final int PARQUET_FOOTER_BASE_SIZE_ESTIMATE = 1024;
+
+    private final boolean enabled;
+    private final Cache<FileKey, CachedFooter> footers;
+
+    @Inject
+    public FooterCache(FooterCacheConfig config)
+    {
+        requireNonNull(config, "config is null");
+        this.enabled = config.isEnabled();
+        this.footers = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .weigher((FileKey key, CachedFooter footer) -> footer.getWeight())
+                .recordStats()
+                .build();
+    }
+
+    public Optional<OrcFileTail> getOrcFileTail(String path, long modificationTime, long fileSize)
+    {
+        return get(path, modificationTime, fileSize, OrcFileTail.class);
+    }
+
+    public void putOrcFileTail(String path, long modificationTime, long fileSize, OrcFileTail fileTail)
+    {
+        put(path, modificationTime, fileSize, fileTail, fileTail.getRetainedSizeInBytes());
+    }
+
+    public Optional<ParquetMetadata> getParquetMetadata(String path, long modificationTime, long fileSize)
+    {
+        return get(path, modificationTime, fileSize, ParquetMetadata.class);
+    }
+
+    public void putParquetMetadata(String path, long modificationTime, long fileSize, ParquetMetadata parquetMetadata)
+    {
+        put(path, modificationTime, fileSize, parquetMetadata, estimateRetainedSize(parquetMetadata));
+    }
+
+    private <T> Optional<T> get(String path, long modificationTime, long fileSize, Class<T> type)
+    {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(footers.getIfPresent(new FileKey(path, modificationTime, fileSize)))
+                .map(CachedFooter::getFooter)
+                .filter(type::isInstance)
+                .map(type::cast);
+    }
+
+    private void put(String path, long modificationTime, long fileSize, Object footer, long retainedSize)
+    {
+        if (enabled) {
+            footers.put(new FileKey(path, modificationTime, fileSize), new CachedFooter(footer, toIntExact(min(retainedSize, Integer.MAX_VALUE))));
+        }
+    }
+
+    private static long estimateRetainedSize(ParquetMetadata parquetMetadata)
+    {
+        long columnChunks = 0;
+        for (BlockMetaData block : parquetMetadata.getBlocks()) {
+            columnChunks += block.getColumns().size();
+        }
+        return PARQUET_FOOTER_BASE_SIZE_ESTIMATE + columnChunks * PARQUET_COLUMN_CHUNK_SIZE_ESTIMATE;
+    }
+
+    @Managed
+    public long getCachedFooters()
+    {
+        return footers.size();
+    }
+
+    @Managed
+    @Nested
+    public CacheStatsMBean getStats()
+    {
+        return new CacheStatsMBean(footers);
+    }
+
+    private static final class FileKey
+    {
+        private final String path;
+        private final long modificationTime;
+        private final long fileSize;
+
+        public FileKey(String path, long modificationTime, long fileSize)
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.modificationTime = modificationTime;
+            this.fileSize = fileSize;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            FileKey that = (FileKey) o;
+            return modificationTime == that.modificationTime &&
+                    fileSize == that.fileSize &&
+                    path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, modificationTime, fileSize);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("path", path)
+                    .add("modificationTime", modificationTime)
+                    .add("fileSize", fileSize)
+                    .toString();
+        }
+    }
+
+    private static final class CachedFooter
+    {
+        private final Object footer;
+        private final int weight;
+
+        public CachedFooter(Object footer, int weight)
+        {
+            this.footer = requireNonNull(footer, "footer is null");
+            this.weight = weight;
+        }
+
+        public Object getFooter()
+        {
+            return footer;
+        }
+
+        public int getWeight()
+        {
+            return weight;
+        }
+    }
+}
@@ -15,6 +15,7 @@ package io.trino.plugin.hive.orc;
 
 import io.airlift.slice.Slice;
 import io.trino.orc.AbstractOrcDataSource;
+import io.trino.orc.DiskRange;
 import io.trino.orc.OrcDataSourceId;
 import io.trino.orc.OrcReaderOptions;
 import io.trino.plugin.hive.FileFormatDataSourceStats;
@@ -68,6 +69,12 @@ public class HdfsOrcDataSource
         return tailSlice;
     }
 
+    @Override
+    protected void readsPlanned(Iterable<DiskRange> requestedRanges, Iterable<DiskRange> plannedReads)
+    {
+        stats.addPlannedReads(requestedRanges, plannedReads, DiskRange::getLength);
+    }
+
     @Override
     protected void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
     {
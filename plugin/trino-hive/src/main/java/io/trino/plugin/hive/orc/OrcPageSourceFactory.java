@@ -21,6 +21,7 @@ import io.trino.orc.NameBasedFieldMapper;
 import io.trino.orc.OrcColumn;
 import io.trino.orc.OrcDataSource;
 import io.trino.orc.OrcDataSourceId;
+import io.trino.orc.OrcFileTail;
 import io.trino.orc.OrcReader;
 import io.trino.orc.OrcReaderOptions;
 import io.trino.orc.OrcRecordReader;
@@ -39,6 +40,10 @@ import io.trino.plugin.hive.ReaderColumns;
 import io.trino.plugin.hive.ReaderPageSource;
 import io.trino.plugin.hive.acid.AcidSchema;
 import io.trino.plugin.hive.acid.AcidTransaction;
+import io.trino.plugin.hive.cache.FileRangeCache;
+import io.trino.plugin.hive.cache.FileRangeCacheConfig;
+import io.trino.plugin.hive.cache.FooterCache;
+import io.trino.plugin.hive.cache.FooterCacheConfig;
 import io.trino.plugin.hive.orc.OrcPageSource.ColumnAdaptation;
 import io.trino.spi.TrinoException;
 import io.trino.spi.connector.ConnectorPageSource;
@@ -118,11 +123,19 @@ public class OrcPageSourceFactory
     private final HdfsEnvironment hdfsEnvironment;
     private final FileFormatDataSourceStats stats;
     private final DateTimeZone legacyTimeZone;
+    private final FileRangeCache fileRangeCache;
+    private final FooterCache footerCache;
 
     @Inject
-    public OrcPageSourceFactory(OrcReaderConfig config, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats, HiveConfig hiveConfig)
+    public OrcPageSourceFactory(
+            OrcReaderConfig config,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            HiveConfig hiveConfig,
+            FileRangeCache fileRangeCache,
+            FooterCache footerCache)
     {
-        this(config.toOrcReaderOptions(), hdfsEnvironment, stats, requireNonNull(hiveConfig, "hiveConfig is null").getOrcLegacyDateTimeZone());
+        this(config.toOrcReaderOptions(), hdfsEnvironment, stats, requireNonNull(hiveConfig, "hiveConfig is null").getOrcLegacyDateTimeZone(), fileRangeCache, footerCache);
     }
 
     public OrcPageSourceFactory(
@@ -130,11 +143,24 @@ public class OrcPageSourceFactory
             HdfsEnvironment hdfsEnvironment,
             FileFormatDataSourceStats stats,
             DateTimeZone legacyTimeZone)
+    {
+        this(orcReaderOptions, hdfsEnvironment, stats, legacyTimeZone, new FileRangeCache(new FileRangeCacheConfig()), new FooterCache(new FooterCacheConfig()));
+    }
+
+    public OrcPageSourceFactory(
+            OrcReaderOptions orcReaderOptions,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            DateTimeZone legacyTimeZone,
+            FileRangeCache fileRangeCache,
+            FooterCache footerCache)
     {
         this.orcReaderOptions = requireNonNull(orcReaderOptions, "orcReaderOptions is null");
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
         this.legacyTimeZone = legacyTimeZone;
+        this.fileRangeCache = requireNonNull(fileRangeCache, "fileRangeCache is null");
+        this.footerCache = requireNonNull(footerCache, "footerCache is null");
     }
 
     @Override
@@ -145,6 +171,7 @@ public class OrcPageSourceFactory
             long start,
             long length,
             long estimatedFileSize,
+            long fileModifiedTime,
             Properties schema,
             List<HiveColumnHandle> columns,
             TupleDomain<HiveColumnHandle> effectivePredicate,
@@ -180,6 +207,7 @@ public class OrcPageSourceFactory
                 start,
                 length,
                 estimatedFileSize,
+                fileModifiedTime,
                 readerColumnHandles,
                 columns,
                 isUseOrcColumnNames(session),
@@ -199,7 +227,9 @@ public class OrcPageSourceFactory
                 bucketNumber,
                 originalFile,
                 transaction,
-                stats);
+                stats,
+                fileRangeCache,
+                footerCache);
 
         return Optional.of(new ReaderPageSource(orcPageSource, readerColumns));
     }
@@ -212,6 +242,7 @@ public class OrcPageSourceFactory
             long start,
             long length,
             long estimatedFileSize,
+            long fileModifiedTime,
             List<HiveColumnHandle> columns,
             List<HiveColumnHandle> projections,
             boolean useOrcColumnNames,
@@ -223,7 +254,9 @@ public class OrcPageSourceFactory
             OptionalInt bucketNumber,
             boolean originalFile,
             AcidTransaction transaction,
-            FileFormatDataSourceStats stats)
+            FileFormatDataSourceStats stats,
+            FileRangeCache fileRangeCache,
+            FooterCache footerCache)
     {
         for (HiveColumnHandle column : columns) {
             checkArgument(column.getColumnType() == REGULAR, "column type must be regular: %s", column);
@@ -235,7 +268,11 @@ public class OrcPageSourceFactory
         boolean originalFilesPresent = acidInfo.isPresent() && !acidInfo.get().getOriginalFiles().isEmpty();
         try {
             FileSystem fileSystem = hdfsEnvironment.getFileSystem(sessionUser, path, configuration);
-            FSDataInputStream inputStream = hdfsEnvironment.doAs(sessionUser, () -> fileSystem.open(path));
+            FSDataInputStream inputStream = fileRangeCache.wrap(
+                    path.toString(),
+                    fileModifiedTime,
+                    estimatedFileSize,
+                    hdfsEnvironment.doAs(sessionUser, () -> fileSystem.open(path)));
             orcDataSource = new HdfsOrcDataSource(
                     new OrcDataSourceId(path.toString()),
                     estimatedFileSize,
@@ -253,11 +290,19 @@ public class OrcPageSourceFactory
 
         AggregatedMemoryContext systemMemoryUsage = newSimpleAggregatedMemoryContext();
         try {
-            Optional<OrcReader> optionalOrcReader = OrcReader.createOrcReader(orcDataSource, options);
-            if (optionalOrcReader.isEmpty()) {
-                return new EmptyPageSource();
+            OrcReader reader;
+            Optional<OrcFileTail> cachedFileTail = footerCache.getOrcFileTail(path.toString(), fileModifiedTime, estimatedFileSize);
+            if (cachedFileTail.isPresent()) {
+                reader = OrcReader.createOrcReader(orcDataSource, options, cachedFileTail.get());
+            }
+            else {
+                Optional<OrcReader> optionalOrcReader = OrcReader.createOrcReader(orcDataSource, options);
+                if (optionalOrcReader.isEmpty()) {
+                    return new EmptyPageSource();
+                }
+                reader = optionalOrcReader.get();
+                footerCache.putOrcFileTail(path.toString(), fileModifiedTime, estimatedFileSize, reader.getFileTail());
             }
-            OrcReader reader = optionalOrcReader.get();
 
             List<OrcColumn> fileColumns = reader.getRootColumn().getNestedColumns();
             int actualColumnCount = columns.size() + (isFullAcid ? 3 : 0);
@@ -15,6 +15,7 @@ package io.trino.plugin.hive.parquet;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
@@ -174,22 +175,23 @@ public class HdfsParquetDataSource
         Map<K, DiskRange> smallRanges = smallRangesBuilder.build();
         Map<K, DiskRange> largeRanges = largeRangesBuilder.build();
 
+        List<DiskRange> mergedRanges = smallRanges.isEmpty() ? ImmutableList.of() : mergeAdjacentDiskRanges(smallRanges.values(), options.getMaxMergeDistance(), options.getMaxBufferSize());
+        stats.addPlannedReads(diskRanges.values(), Iterables.concat(mergedRanges, largeRanges.values()), DiskRange::getLength);
+
         // read ranges
         ImmutableMap.Builder<K, ChunkReader> slices = ImmutableMap.builder();
-        slices.putAll(readSmallDiskRanges(smallRanges));
+        slices.putAll(readSmallDiskRanges(smallRanges, mergedRanges));
         slices.putAll(readLargeDiskRanges(largeRanges));
 
         return slices.build();
     }
 
-    private <K> Map<K, ChunkReader> readSmallDiskRanges(Map<K, DiskRange> diskRanges)
+    private <K> Map<K, ChunkReader> readSmallDiskRanges(Map<K, DiskRange> diskRanges, List<DiskRange> mergedRanges)
     {
         if (diskRanges.isEmpty()) {
             return ImmutableMap.of();
         }
 
-        Iterable<DiskRange> mergedRanges = mergeAdjacentDiskRanges(diskRanges.values(), options.getMaxMergeDistance(), options.getMaxBufferSize());
-
         ImmutableMap.Builder<K, ChunkReader> slices = ImmutableMap.builder();
         for (DiskRange mergedRange : mergedRanges) {
             ReferenceCountedReader mergedRangeLoader = new ReferenceCountedReader(mergedRange);
@@ -34,6 +34,10 @@ import io.trino.plugin.hive.HivePageSourceFactory;
 import io.trino.plugin.hive.ReaderColumns;
 import io.trino.plugin.hive.ReaderPageSource;
 import io.trino.plugin.hive.acid.AcidTransaction;
+import io.trino.plugin.hive.cache.FileRangeCache;
+import io.trino.plugin.hive.cache.FileRangeCacheConfig;
+import io.trino.plugin.hive.cache.FooterCache;
+import io.trino.plugin.hive.cache.FooterCacheConfig;
 import io.trino.spi.TrinoException;
 import io.trino.spi.connector.ConnectorPageSource;
 import io.trino.spi.connector.ConnectorSession;
@@ -104,9 +108,22 @@ public class ParquetPageSourceFactory
     private final FileFormatDataSourceStats stats;
     private final ParquetReaderOptions options;
     private final DateTimeZone timeZone;
+    private final FileRangeCache fileRangeCache;
+    private final FooterCache footerCache;
 
-    @Inject
     public ParquetPageSourceFactory(HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats, ParquetReaderConfig config, HiveConfig hiveConfig)
+    {
+        this(hdfsEnvironment, stats, config, hiveConfig, new FileRangeCache(new FileRangeCacheConfig()), new FooterCache(new FooterCacheConfig()));
+    }
+
+    @Inject
+    public ParquetPageSourceFactory(
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            ParquetReaderConfig config,
+            HiveConfig hiveConfig,
+            FileRangeCache fileRangeCache,
+            FooterCache footerCache)
     {
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
@@ -114,6 +131,8 @@ public class ParquetPageSourceFactory
 
         options = config.toParquetReaderOptions();
         timeZone = requireNonNull(hiveConfig, "hiveConfig is null").getParquetDateTimeZone();
+        this.fileRangeCache = requireNonNull(fileRangeCache, "fileRangeCache is null");
+        this.footerCache = requireNonNull(footerCache, "footerCache is null");
     }
 
     @Override
@@ -124,6 +143,7 @@ public class ParquetPageSourceFactory
             long start,
             long length,
             long estimatedFileSize,
+            long fileModifiedTime,
             Properties schema,
             List<HiveColumnHandle> columns,
             TupleDomain<HiveColumnHandle> effectivePredicate,
@@ -143,6 +163,7 @@ public class ParquetPageSourceFactory
                 start,
                 length,
                 estimatedFileSize,
+                fileModifiedTime,
                 columns,
                 effectivePredicate,
                 isUseParquetColumnNames(session),
@@ -151,6 +172,8 @@ public class ParquetPageSourceFactory
                 session.getUser(),
                 timeZone,
                 stats,
+                fileRangeCache,
+                footerCache,
                 options.withIgnoreStatistics(isParquetIgnoreStatistics(session))
                         .withMaxReadBlockSize(getParquetMaxReadBlockSize(session))));
     }
@@ -163,6 +186,7 @@ public class ParquetPageSourceFactory
             long start,
             long length,
             long estimatedFileSize,
+            long fileModifiedTime,
             List<HiveColumnHandle> columns,
             TupleDomain<HiveColumnHandle> effectivePredicate,
             boolean useColumnNames,
@@ -171,6 +195,8 @@ public class ParquetPageSourceFactory
             String user,
             DateTimeZone timeZone,
             FileFormatDataSourceStats stats,
+            FileRangeCache fileRangeCache,
+            FooterCache footerCache,
             ParquetReaderOptions options)
     {
         // Ignore predicates on partial columns for now.
@@ -183,10 +209,22 @@ public class ParquetPageSourceFactory
         ParquetDataSource dataSource = null;
         try {
             FileSystem fileSystem = hdfsEnvironment.getFileSystem(user, path, configuration);
-            FSDataInputStream inputStream = hdfsEnvironment.doAs(user, () -> fileSystem.open(path));
+            FSDataInputStream inputStream = fileRangeCache.wrap(
+                    path.toString(),
+                    fileModifiedTime,
+                    estimatedFileSize,
+                    hdfsEnvironment.doAs(user, () -> fileSystem.open(path)));
             dataSource = new HdfsParquetDataSource(new ParquetDataSourceId(path.toString()), estimatedFileSize, inputStream, stats, options);
 
-            ParquetMetadata parquetMetadata = MetadataReader.readFooter(dataSource);
+            Optional<ParquetMetadata> cachedParquetMetadata = footerCache.getParquetMetadata(path.toString(), fileModifiedTime, estimatedFileSize);
+            ParquetMetadata parquetMetadata;
+            if (cachedParquetMetadata.isPresent()) {
+                parquetMetadata = cachedParquetMetadata.get();
+            }
+            else {
+                parquetMetadata = MetadataReader.readFooter(dataSource);
+                footerCache.putParquetMetadata(path.toString(), fileModifiedTime, estimatedFileSize, parquetMetadata);
+            }
             FileMetaData fileMetaData = parquetMetadata.getFileMetaData();
             fileSchema = fileMetaData.getSchema();
 
@@ -825,7 +825,10 @@ public abstract class AbstractTestHive
                 hiveConfig.getSplitLoaderConcurrency(),
                 hiveConfig.getMaxSplitsPerSecond(),
                 false,
-                TYPE_MANAGER);
+                TYPE_MANAGER,
+                Optional.empty(),
+                hiveConfig.getSoftAffinityPreferredNodes(),
+                hiveConfig.getMaxSplitSize());
         pageSinkProvider = new HivePageSinkProvider(
                 getDefaultHiveFileWriterFactories(hiveConfig, hdfsEnvironment),
                 hdfsEnvironment,
@@ -23,6 +23,10 @@ import io.trino.operator.PagesIndex;
 import io.trino.plugin.hive.authentication.NoHdfsAuthentication;
 import io.trino.plugin.hive.azure.HiveAzureConfig;
 import io.trino.plugin.hive.azure.TrinoAzureConfigurationInitializer;
+import io.trino.plugin.hive.cache.FileRangeCache;
+import io.trino.plugin.hive.cache.FileRangeCacheConfig;
+import io.trino.plugin.hive.cache.FooterCache;
+import io.trino.plugin.hive.cache.FooterCacheConfig;
 import io.trino.plugin.hive.gcs.GoogleGcsConfigurationInitializer;
 import io.trino.plugin.hive.gcs.HiveGcsConfig;
 import io.trino.plugin.hive.orc.OrcFileWriterFactory;
@@ -137,7 +141,7 @@ public final class HiveTestUtils
         FileFormatDataSourceStats stats = new FileFormatDataSourceStats();
         return ImmutableSet.<HivePageSourceFactory>builder()
                 .add(new RcFilePageSourceFactory(TYPE_MANAGER, hdfsEnvironment, stats, hiveConfig))
-                .add(new OrcPageSourceFactory(new OrcReaderConfig(), hdfsEnvironment, stats, hiveConfig))
+                .add(new OrcPageSourceFactory(new OrcReaderConfig(), hdfsEnvironment, stats, hiveConfig, new FileRangeCache(new FileRangeCacheConfig()), new FooterCache(new FooterCacheConfig())))
                 .add(new ParquetPageSourceFactory(hdfsEnvironment, stats, new ParquetReaderConfig(), hiveConfig))
                 .build();
     }
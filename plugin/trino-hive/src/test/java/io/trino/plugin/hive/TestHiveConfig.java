@@ -52,6 +52,8 @@ public class TestHiveConfig
                 .setDomainCompactionThreshold(100)
                 .setWriterSortBufferSize(DataSize.of(64, Unit.MEGABYTE))
                 .setForceLocalScheduling(false)
+                .setSoftAffinitySchedulingEnabled(false)
+                .setSoftAffinityPreferredNodes(2)
                 .setMaxConcurrentFileRenames(20)
                 .setMaxConcurrentMetastoreDrops(20)
                 .setMaxConcurrentMetastoreUpdates(20)
@@ -137,6 +139,8 @@ public class TestHiveConfig
                 .put("hive.validate-bucketing", "false")
                 .put("hive.parallel-partitioned-bucketed-inserts", "false")
                 .put("hive.force-local-scheduling", "true")
+                .put("hive.soft-affinity-scheduling.enabled", "true")
+                .put("hive.soft-affinity-scheduling.preferred-nodes", "3")
                 .put("hive.max-concurrent-file-renames", "100")
                 .put("hive.max-concurrent-metastore-drops", "100")
                 .put("hive.max-concurrent-metastore-updates", "100")
@@ -193,6 +197,8 @@ public class TestHiveConfig
                 .setDomainCompactionThreshold(42)
                 .setWriterSortBufferSize(DataSize.of(13, Unit.MEGABYTE))
                 .setForceLocalScheduling(true)
+                .setSoftAffinitySchedulingEnabled(true)
+                .setSoftAffinityPreferredNodes(3)
                 .setMaxConcurrentFileRenames(100)
                 .setMaxConcurrentMetastoreDrops(100)
                 .setMaxConcurrentMetastoreUpdates(100)
@@ -17,11 +17,16 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.SettableFuture;
 import io.airlift.stats.CounterStat;
 import io.airlift.units.DataSize;
+import io.trino.client.NodeVersion;
+import io.trino.metadata.InternalNode;
+import io.trino.spi.HostAddress;
 import io.trino.spi.TrinoException;
 import io.trino.spi.connector.ConnectorSplit;
 import io.trino.spi.connector.ConnectorSplitSource;
+import io.trino.testing.TestingNodeManager;
 import org.testng.annotations.Test;
 
+import java.net.URI;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -57,7 +62,8 @@ public class TestHiveSplitSource
                 Integer.MAX_VALUE,
                 new TestingHiveSplitLoader(),
                 Executors.newFixedThreadPool(5),
-                new CounterStat());
+                new CounterStat(),
+                Optional.empty());
 
         // add 10 splits
         for (int i = 0; i < 10; i++) {
@@ -92,7 +98,8 @@ public class TestHiveSplitSource
                 Integer.MAX_VALUE,
                 new TestingHiveSplitLoader(),
                 Executors.newSingleThreadExecutor(),
-                new CounterStat());
+                new CounterStat(),
+                Optional.empty());
 
         // One byte larger than the initial split max size
         DataSize fileSize = DataSize.ofBytes(initialSplitSize.toBytes() + 1);
@@ -106,6 +113,34 @@ public class TestHiveSplitSource
         assertEquals(second.getLength(), fileSize.toBytes() - halfOfSize);
     }
 
+    @Test
+    public void testSoftAffinityKeepsBlockAddresses()
+    {
+        InternalNode worker = new InternalNode("worker", URI.create("http://10.0.0.1:8080"), NodeVersion.UNKNOWN, false);
+        SoftAffinityAddressProvider softAffinityAddressProvider = new SoftAffinityAddressProvider(new TestingNodeManager(ImmutableList.of(worker)), 1, DataSize.of(64, MEGABYTE).toBytes(), new CounterStat());
+        HiveSplitSource hiveSplitSource = HiveSplitSource.allAtOnce(
+                SESSION,
+                "database",
+                "table",
+                10,
+                10,
+                DataSize.of(1, MEGABYTE),
+                Integer.MAX_VALUE,
+                new TestingHiveSplitLoader(),
+                Executors.newSingleThreadExecutor(),
+                new CounterStat(),
+                Optional.of(softAffinityAddressProvider));
+
+        // the block locations reported by the file system are kept
+        List<HostAddress> blockAddresses = ImmutableList.of(HostAddress.fromParts("10.0.0.2", 8080));
+        hiveSplitSource.addToQueue(new TestSplit(1, blockAddresses));
+        assertEquals(((HiveSplit) getSplits(hiveSplitSource, 1).get(0)).getAddresses(), blockAddresses);
+
+        // splits of storage without block locations are assigned to preferred workers
+        hiveSplitSource.addToQueue(new TestSplit(2));
+        assertEquals(((HiveSplit) getSplits(hiveSplitSource, 1).get(0)).getAddresses(), ImmutableList.of(worker.getHostAndPort()));
+    }
+
     @Test
     public void testFail()
     {
@@ -119,7 +154,8 @@ public class TestHiveSplitSource
                 Integer.MAX_VALUE,
                 new TestingHiveSplitLoader(),
                 Executors.newFixedThreadPool(5),
-                new CounterStat());
+                new CounterStat(),
+                Optional.empty());
 
         // add some splits
         for (int i = 0; i < 5; i++) {
@@ -177,7 +213,8 @@ public class TestHiveSplitSource
                 Integer.MAX_VALUE,
                 new TestingHiveSplitLoader(),
                 Executors.newFixedThreadPool(5),
-                new CounterStat());
+                new CounterStat(),
+                Optional.empty());
 
         SettableFuture<ConnectorSplit> splits = SettableFuture.create();
 
@@ -231,7 +268,8 @@ public class TestHiveSplitSource
                 Integer.MAX_VALUE,
                 new TestingHiveSplitLoader(),
                 Executors.newFixedThreadPool(5),
-                new CounterStat());
+                new CounterStat(),
+                Optional.empty());
         int testSplitSizeInBytes = new TestSplit(0).getEstimatedSizeInBytes();
 
         int maxSplitCount = toIntExact(maxOutstandingSplitsSize.toBytes()) / testSplitSizeInBytes;
@@ -268,7 +306,8 @@ public class TestHiveSplitSource
                 Integer.MAX_VALUE,
                 new TestingHiveSplitLoader(),
                 Executors.newFixedThreadPool(5),
-                new CounterStat());
+                new CounterStat(),
+                Optional.empty());
         hiveSplitSource.addToQueue(new TestSplit(0, OptionalInt.of(2)));
         hiveSplitSource.noMoreSplits();
         assertEquals(getSplits(hiveSplitSource, OptionalInt.of(0), 10).size(), 0);
@@ -319,7 +358,17 @@ public class TestHiveSplitSource
             this(id, bucketNumber, DataSize.ofBytes(100));
         }
 
+        private TestSplit(int id, List<HostAddress> addresses)
+        {
+            this(id, OptionalInt.empty(), DataSize.ofBytes(100), addresses);
+        }
+
         private TestSplit(int id, OptionalInt bucketNumber, DataSize fileSize)
+        {
+            this(id, bucketNumber, fileSize, ImmutableList.of());
+        }
+
+        private TestSplit(int id, OptionalInt bucketNumber, DataSize fileSize, List<HostAddress> addresses)
         {
             super(
                     "partition-name",
@@ -330,7 +379,7 @@ public class TestHiveSplitSource
                     Instant.now().toEpochMilli(),
                     properties("id", String.valueOf(id)),
                     ImmutableList.of(),
-                    ImmutableList.of(new InternalHiveBlock(0, fileSize.toBytes(), ImmutableList.of())),
+                    ImmutableList.of(new InternalHiveBlock(0, fileSize.toBytes(), addresses)),
                     bucketNumber,
                     0,
                     true,
@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive;
+
+import com.google.common.collect.ImmutableSet;
+import io.airlift.stats.CounterStat;
+import io.trino.client.NodeVersion;
+import io.trino.metadata.InternalNode;
+import io.trino.spi.HostAddress;
+import io.trino.spi.Node;
+import io.trino.testing.TestingNodeManager;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestSoftAffinityAddressProvider
+{
+    private static final long REGION_SIZE = 64 * 1024 * 1024;
+
+    @Test
+    public void testStableAssignment()
+    {
+        CounterStat scheduledSplits = new CounterStat();
+        SoftAffinityAddressProvider provider = new SoftAffinityAddressProvider(new TestingNodeManager(nodes(10)), 2, REGION_SIZE, scheduledSplits);
+
+        List<HostAddress> addresses = provider.getPreferredAddresses("s3://bucket/file.orc", 0);
+        assertEquals(addresses.size(), 2);
+        assertEquals(ImmutableSet.copyOf(addresses).size(), 2);
+        assertEquals(provider.getPreferredAddresses("s3://bucket/file.orc", 0), addresses);
+
+        // splits of different sizes within the same region prefer the same workers
+        assertEquals(provider.getPreferredAddresses("s3://bucket/file.orc", REGION_SIZE / 2), addresses);
+        assertEquals(scheduledSplits.getTotalCount(), 3);
+    }
+
+    @Test
+    public void testFewerNodesThanPreferred()
+    {
+        SoftAffinityAddressProvider provider = new SoftAffinityAddressProvider(new TestingNodeManager(nodes(2)), 3, REGION_SIZE, new CounterStat());
+        assertEquals(ImmutableSet.copyOf(provider.getPreferredAddresses("s3://bucket/file.orc", 0)).size(), 2);
+    }
+
+    @Test
+    public void testMinimalDisruptionOnNodeRemoval()
+    {
+        List<Node> nodes = nodes(10);
+        SoftAffinityAddressProvider provider = new SoftAffinityAddressProvider(new TestingNodeManager(nodes), 1, REGION_SIZE, new CounterStat());
+        SoftAffinityAddressProvider shrunkProvider = new SoftAffinityAddressProvider(new TestingNodeManager(nodes.subList(0, 9)), 1, REGION_SIZE, new CounterStat());
+        HostAddress removed = nodes.get(9).getHostAndPort();
+
+        int moved = 0;
+        for (int file = 0; file < 1000; file++) {
+            String path = "s3://bucket/file" + file + ".orc";
+            HostAddress before = provider.getPreferredAddresses(path, 0).get(0);
+            HostAddress after = shrunkProvider.getPreferredAddresses(path, 0).get(0);
+            assertFalse(after.equals(removed));
+            if (!before.equals(after)) {
+                // only regions preferring the removed node are reassigned
+                assertEquals(before, removed);
+                moved++;
+            }
+        }
+        assertTrue(moved > 0 && moved < 200, "unexpected number of reassigned regions: " + moved);
+    }
+
+    private static List<Node> nodes(int count)
+    {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new InternalNode("node" + i, URI.create("http://10.0.0." + i + ":8080"), NodeVersion.UNKNOWN, false))
+                .collect(toImmutableList());
+    }
+}
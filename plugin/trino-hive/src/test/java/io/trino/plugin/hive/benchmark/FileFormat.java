@@ -471,6 +471,7 @@ public enum FileFormat
                         0,
                         targetFile.length(),
                         targetFile.length(),
+                        targetFile.lastModified(),
                         schema,
                         readColumns,
                         TupleDomain.all(),
@@ -0,0 +1,237 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive.cache;
+
+import io.airlift.units.DataSize;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.lang.Math.toIntExact;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestFileRangeCache
+{
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private File tempDirectory;
+    private File dataFile;
+    private byte[] data;
+    private FileSystem fileSystem;
+
+    @BeforeClass
+    public void setUp()
+            throws IOException
+    {
+        tempDirectory = Files.createTempDirectory("file-range-cache").toFile();
+        dataFile = new File(tempDirectory, "data");
+        data = new byte[CHUNK_SIZE * 3 + 1234];
+        new Random(42).nextBytes(data);
+        Files.write(dataFile.toPath(), data);
+        fileSystem = FileSystem.getLocal(new Configuration(false)).getRaw();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(tempDirectory.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testDisabled()
+            throws IOException
+    {
+        FileRangeCache cache = new FileRangeCache(new FileRangeCacheConfig());
+        try (FSDataInputStream delegate = open()) {
+            assertSame(cache.wrap(dataFile.getPath(), dataFile.lastModified(), data.length, delegate), delegate);
+        }
+    }
+
+    @Test
+    public void testReads()
+            throws IOException
+    {
+        FileRangeCache cache = createCache("reads");
+        try (FSDataInputStream input = cache.wrap(dataFile.getPath(), dataFile.lastModified(), data.length, open())) {
+            // spans the first two chunks
+            assertRange(input, CHUNK_SIZE - 100, 200);
+            assertEquals(cache.getMisses().getTotalCount(), 2);
+            assertEquals(cache.getCachedChunks(), 2);
+            assertEquals(cache.getCachedBytes(), 2 * CHUNK_SIZE);
+
+            // served from the cached chunks
+            assertRange(input, 10, CHUNK_SIZE + 10);
+            assertEquals(cache.getMisses().getTotalCount(), 2);
+            assertEquals(cache.getHits().getTotalCount(), 2);
+
+            // the last chunk is shorter than the chunk size
+            assertRange(input, data.length - 2000, 2000);
+            assertEquals(cache.getCachedBytes(), 3 * CHUNK_SIZE + 1234);
+
+            // sequential reads share the cached chunks
+            input.seek(5);
+            byte[] buffer = new byte[100];
+            input.readFully(buffer);
+            assertEquals(buffer, Arrays.copyOfRange(data, 5, 105));
+            assertEquals(input.getPos(), 105);
+
+            // reads beyond the end of the file are not cached
+            assertThatThrownBy(() -> input.readFully(data.length - 10, new byte[20]))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    public void testConcurrentReadsDownloadChunkOnce()
+            throws Exception
+    {
+        FileRangeCache cache = createCache("concurrent");
+        int readers = 8;
+        ExecutorService executor = newFixedThreadPool(readers, daemonThreadsNamed("test-file-range-cache-%s"));
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(readers);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int reader = 0; reader < readers; reader++) {
+                futures.add(executor.submit(() -> {
+                    try (FSDataInputStream input = cache.wrap(dataFile.getPath(), dataFile.lastModified(), data.length, open())) {
+                        barrier.await(10, SECONDS);
+                        assertRange(input, 100, 1000);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        assertEquals(cache.getMisses().getTotalCount(), 1);
+        assertEquals(cache.getHits().getTotalCount(), readers - 1);
+        assertEquals(cache.getRemoteReadBytes().getTotalCount(), CHUNK_SIZE);
+    }
+
+    @Test
+    public void testModifiedFileIsNotServedFromCache()
+            throws IOException
+    {
+        FileRangeCache cache = createCache("modified");
+        try (FSDataInputStream input = cache.wrap(dataFile.getPath(), 1, data.length, open())) {
+            assertRange(input, 0, 100);
+        }
+        try (FSDataInputStream input = cache.wrap(dataFile.getPath(), 2, data.length, open())) {
+            assertRange(input, 0, 100);
+        }
+        assertEquals(cache.getMisses().getTotalCount(), 2);
+        assertEquals(cache.getHits().getTotalCount(), 0);
+    }
+
+    @Test
+    public void testEviction()
+            throws IOException
+    {
+        DataSize maxSize = DataSize.of(1, MEGABYTE);
+        int chunks = toIntExact(maxSize.toBytes() / CHUNK_SIZE) + 4;
+        File largeFile = new File(tempDirectory, "large");
+        byte[] largeData = new byte[chunks * CHUNK_SIZE];
+        new Random(43).nextBytes(largeData);
+        Files.write(largeFile.toPath(), largeData);
+
+        File location = new File(tempDirectory, "eviction");
+        FileRangeCache cache = new FileRangeCache(new FileRangeCacheConfig()
+                .setEnabled(true)
+                .setLocation(location.getPath())
+                .setMaxSize(maxSize)
+                .setChunkSize(DataSize.ofBytes(CHUNK_SIZE)));
+        try (FSDataInputStream input = cache.wrap(largeFile.getPath(), largeFile.lastModified(), largeData.length, fileSystem.open(new Path(largeFile.toURI())))) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                byte[] buffer = new byte[100];
+                input.readFully(chunk * CHUNK_SIZE, buffer);
+                assertEquals(buffer, Arrays.copyOfRange(largeData, chunk * CHUNK_SIZE, chunk * CHUNK_SIZE + 100));
+            }
+        }
+        assertEquals(cache.getMisses().getTotalCount(), chunks);
+        assertTrue(cache.getEvictions().getTotalCount() >= 4);
+        assertTrue(cache.getCachedChunks() < chunks);
+        assertTrue(cache.getCachedBytes() <= maxSize.toBytes());
+        // evicted chunks are removed from disk
+        assertEquals(location.list().length, cache.getCachedChunks());
+    }
+
+    @Test
+    public void testLeftoverChunksRemoved()
+            throws IOException
+    {
+        File location = new File(tempDirectory, "leftover");
+        assertTrue(location.mkdirs());
+        File leftoverChunk = new File(location, "leftover.chunk");
+        File otherFile = new File(location, "other");
+        Files.write(leftoverChunk.toPath(), new byte[10]);
+        Files.write(otherFile.toPath(), new byte[10]);
+
+        createCache("leftover");
+        // only files created by the cache are removed from the location
+        assertFalse(leftoverChunk.exists());
+        assertTrue(otherFile.exists());
+    }
+
+    private FileRangeCache createCache(String name)
+    {
+        return new FileRangeCache(new FileRangeCacheConfig()
+                .setEnabled(true)
+                .setLocation(new File(tempDirectory, name).getPath())
+                .setChunkSize(DataSize.ofBytes(CHUNK_SIZE)));
+    }
+
+    private FSDataInputStream open()
+            throws IOException
+    {
+        return fileSystem.open(new Path(dataFile.toURI()));
+    }
+
+    private void assertRange(FSDataInputStream input, int position, int length)
+            throws IOException
+    {
+        byte[] buffer = new byte[length];
+        input.readFully(position, buffer);
+        assertEquals(buffer, Arrays.copyOfRange(data, position, position + length));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive.cache;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class TestFileRangeCacheConfig
+{
+    @Test
+    public void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(FileRangeCacheConfig.class)
+                .setEnabled(false)
+                .setLocation(null)
+                .setMaxSize(DataSize.of(10, GIGABYTE))
+                .setChunkSize(DataSize.of(1, MEGABYTE)));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = new ImmutableMap.Builder<String, String>()
+                .put("hive.file-range-cache.enabled", "true")
+                .put("hive.file-range-cache.location", "/tmp/cache")
+                .put("hive.file-range-cache.max-size", "100GB")
+                .put("hive.file-range-cache.chunk-size", "4MB")
+                .build();
+
+        FileRangeCacheConfig expected = new FileRangeCacheConfig()
+                .setEnabled(true)
+                .setLocation("/tmp/cache")
+                .setMaxSize(DataSize.of(100, GIGABYTE))
+                .setChunkSize(DataSize.of(4, MEGABYTE));
+
+        assertFullMapping(properties, expected);
+    }
+}
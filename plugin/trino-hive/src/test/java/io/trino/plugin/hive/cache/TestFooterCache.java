@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestFooterCache
+{
+    private static final String PATH = "s3://bucket/file.parquet";
+
+    @Test
+    public void testDisabled()
+    {
+        FooterCache cache = new FooterCache(new FooterCacheConfig());
+        cache.putParquetMetadata(PATH, 1, 100, createParquetMetadata());
+        assertTrue(cache.getParquetMetadata(PATH, 1, 100).isEmpty());
+        assertEquals(cache.getCachedFooters(), 0);
+    }
+
+    @Test
+    public void testFileIdentity()
+    {
+        FooterCache cache = new FooterCache(new FooterCacheConfig().setEnabled(true));
+        ParquetMetadata parquetMetadata = createParquetMetadata();
+        cache.putParquetMetadata(PATH, 1, 100, parquetMetadata);
+
+        assertEquals(cache.getParquetMetadata(PATH, 1, 100).orElseThrow(), parquetMetadata);
+        // rewritten files are not served from the cache
+        assertTrue(cache.getParquetMetadata(PATH, 2, 100).isEmpty());
+        assertTrue(cache.getParquetMetadata(PATH, 1, 200).isEmpty());
+        assertTrue(cache.getParquetMetadata("s3://bucket/other.parquet", 1, 100).isEmpty());
+        // footers of a different format are ignored
+        assertTrue(cache.getOrcFileTail(PATH, 1, 100).isEmpty());
+
+        assertEquals(cache.getStats().getRequestCount(), 6);
+    }
+
+    private static ParquetMetadata createParquetMetadata()
+    {
+        MessageType schema = new MessageType("schema");
+        return new ParquetMetadata(new FileMetaData(schema, ImmutableMap.of(), "test"), ImmutableList.of());
+    }
+}
@@ -194,6 +194,7 @@ public class TestOrcPageSourceFactory
                 0,
                 fileSize,
                 fileSize,
+                new File(filePath).lastModified(),
                 createSchema(),
                 columnHandles,
                 tupleDomain,
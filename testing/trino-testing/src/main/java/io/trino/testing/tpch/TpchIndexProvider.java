@@ -48,6 +48,13 @@ public class TpchIndexProvider
         this.indexedData = requireNonNull(indexedData, "indexedData is null");
     }
 
+    @Override
+    public boolean isLookupCacheable(ConnectorSession session, ConnectorIndexHandle indexHandle)
+    {
+        // the generated data never changes
+        return true;
+    }
+
     @Override
     public ConnectorIndex getIndex(
             ConnectorTransactionHandle transaction,
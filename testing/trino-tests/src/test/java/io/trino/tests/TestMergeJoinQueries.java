@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.tests;
+
+import com.google.common.collect.ImmutableMap;
+import io.trino.Session;
+import io.trino.testing.AbstractTestJoinQueries;
+import io.trino.testing.QueryRunner;
+import io.trino.tests.tpch.TpchQueryRunnerBuilder;
+import org.testng.annotations.Test;
+
+import static io.trino.SystemSessionProperties.PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN;
+
+/**
+ * @see TestJoinQueries for tests with hash joins
+ */
+public class TestMergeJoinQueries
+        extends AbstractTestJoinQueries
+{
+    @Override
+    protected QueryRunner createQueryRunner()
+            throws Exception
+    {
+        return TpchQueryRunnerBuilder.builder()
+                .setExtraProperties(ImmutableMap.of("merge-join-enabled", "true"))
+                .build();
+    }
+
+    @Test
+    public void verifyMergeJoinEnabled()
+    {
+        assertQuery(
+                "SHOW SESSION LIKE 'merge_join_enabled'",
+                "VALUES ('merge_join_enabled', 'true', 'true', 'boolean', 'Use a sort-merge join for equi joins executed in a single stream')");
+    }
+
+    @Test
+    public void testPartialAggregationPushedThroughJoin()
+    {
+        Session session = Session.builder(getSession())
+                .setSystemProperty(PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN, "true")
+                .build();
+
+        assertQuery(
+                session,
+                "SELECT l.orderkey, count(*), sum(l.quantity) FROM orders o JOIN lineitem l ON o.orderkey = l.orderkey GROUP BY l.orderkey",
+                "SELECT orderkey, count(*), sum(quantity) FROM lineitem GROUP BY orderkey");
+        assertQuery(
+                session,
+                "SELECT o.custkey, count(*) FROM orders o LEFT JOIN lineitem l ON o.orderkey = l.orderkey GROUP BY o.custkey");
+    }
+}
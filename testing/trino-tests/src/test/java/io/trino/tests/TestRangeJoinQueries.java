@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.tests;
+
+import io.trino.Session;
+import io.trino.operator.OperatorStats;
+import io.trino.operator.RangeJoinOperator;
+import io.trino.testing.AbstractTestQueryFramework;
+import io.trino.testing.MaterializedResult;
+import io.trino.testing.QueryRunner;
+import io.trino.testing.ResultWithQueryId;
+import io.trino.tests.tpch.TpchQueryRunnerBuilder;
+import org.intellij.lang.annotations.Language;
+import org.testng.annotations.Test;
+
+import static io.trino.SystemSessionProperties.JOIN_REORDERING_STRATEGY;
+import static io.trino.SystemSessionProperties.RANGE_JOIN_ENABLED;
+import static io.trino.sql.analyzer.FeaturesConfig.JoinReorderingStrategy.NONE;
+import static io.trino.testing.QueryAssertions.assertEqualsIgnoreOrder;
+import static org.testng.Assert.assertEquals;
+
+public class TestRangeJoinQueries
+        extends AbstractTestQueryFramework
+{
+    // bounds are NULL for some of the nations
+    private static final String RANGES = "" +
+            "(SELECT nationkey, " +
+            "CASE WHEN nationkey % 4 = 1 THEN NULL ELSE nationkey * 50 END lo, " +
+            "CASE WHEN nationkey % 5 = 2 THEN NULL ELSE nationkey * 50 + 70 END hi " +
+            "FROM nation) r";
+    // probe values are NULL for some of the customers
+    private static final String VALUES = "" +
+            "(SELECT custkey, CASE WHEN custkey % 7 = 0 THEN NULL ELSE custkey END v " +
+            "FROM customer) c";
+
+    @Override
+    protected QueryRunner createQueryRunner()
+            throws Exception
+    {
+        return TpchQueryRunnerBuilder.builder()
+                // keep the customers on the probe side
+                .amendSession(builder -> builder.setSystemProperty(JOIN_REORDERING_STRATEGY, NONE.toString()))
+                .build();
+    }
+
+    @Test
+    public void testInnerJoin()
+    {
+        assertRangeJoin("SELECT c.custkey, r.nationkey FROM " + VALUES + " JOIN " + RANGES + " ON c.v BETWEEN r.lo AND r.hi");
+        assertRangeJoin("SELECT c.custkey, r.nationkey FROM " + VALUES + " JOIN " + RANGES + " ON c.v > r.lo AND c.v < r.hi");
+        assertRangeJoin("SELECT c.custkey, r.nationkey FROM " + VALUES + " JOIN " + RANGES + " ON c.v BETWEEN r.lo AND r.hi AND c.custkey % 3 <> r.nationkey % 3");
+    }
+
+    @Test
+    public void testLeftJoin()
+    {
+        assertRangeJoin("SELECT c.custkey, r.nationkey FROM " + VALUES + " LEFT JOIN " + RANGES + " ON c.v BETWEEN r.lo AND r.hi");
+        assertRangeJoin("SELECT c.custkey, r.nationkey FROM " + VALUES + " LEFT JOIN " + RANGES + " ON c.v >= r.lo AND c.v < r.hi");
+        assertRangeJoin("SELECT c.custkey, r.nationkey FROM " + VALUES + " LEFT JOIN " + RANGES + " ON c.v BETWEEN r.lo AND r.hi AND c.custkey % 3 <> r.nationkey % 3");
+    }
+
+    private void assertRangeJoin(@Language("SQL") String sql)
+    {
+        ResultWithQueryId<MaterializedResult> rangeJoin = getDistributedQueryRunner().executeWithQueryId(rangeJoin(true), sql);
+        assertEquals(countRangeJoinOperators(rangeJoin), 1, "Expected a range join for query: \n " + sql);
+
+        ResultWithQueryId<MaterializedResult> nestedLoopJoin = getDistributedQueryRunner().executeWithQueryId(rangeJoin(false), sql);
+        assertEquals(countRangeJoinOperators(nestedLoopJoin), 0, "Expected no range join for query: \n " + sql);
+
+        assertEqualsIgnoreOrder(rangeJoin.getResult(), nestedLoopJoin.getResult(), "For query: \n " + sql);
+        MaterializedResult expected = computeExpected(sql, rangeJoin.getResult().getTypes());
+        assertEqualsIgnoreOrder(rangeJoin.getResult(), expected, "For query: \n " + sql);
+    }
+
+    private long countRangeJoinOperators(ResultWithQueryId<MaterializedResult> result)
+    {
+        return getDistributedQueryRunner().getCoordinator()
+                .getQueryManager()
+                .getFullQueryInfo(result.getQueryId())
+                .getQueryStats()
+                .getOperatorSummaries()
+                .stream()
+                .filter(summary -> summary.getOperatorType().equals(RangeJoinOperator.class.getSimpleName()))
+                .map(OperatorStats::getPlanNodeId)
+                .distinct()
+                .count();
+    }
+
+    private Session rangeJoin(boolean enabled)
+    {
+        return Session.builder(getSession())
+                .setSystemProperty(RANGE_JOIN_ENABLED, String.valueOf(enabled))
+                .build();
+    }
+}